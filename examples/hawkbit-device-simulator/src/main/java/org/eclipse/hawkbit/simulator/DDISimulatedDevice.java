@@ -8,9 +8,12 @@
  */
 package org.eclipse.hawkbit.simulator;
 
+import java.util.List;
+
 import org.eclipse.hawkbit.simulator.http.ControllerResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -70,7 +73,7 @@ public class DDISimulatedDevice extends AbstractSimulatedDevice {
             final String basePollJson = controllerResource.get(getTenant(), getId());
             try {
                 final String href = JsonPath.parse(basePollJson).read("_links.deploymentBase.href");
-                final long actionId = Long.parseLong(href.substring(href.lastIndexOf('/') + 1, href.indexOf('?')));
+                final long actionId = getActionId(href);
                 if (currentActionId == null) {
                     final String deploymentJson = controllerResource.getDeployment(getTenant(), getId(), actionId);
                     final String swVersion = JsonPath.parse(deploymentJson).read("deployment.chunks[0].version");
@@ -102,4 +105,14 @@ public class DDISimulatedDevice extends AbstractSimulatedDevice {
             currentActionId = null;
         });
     }
+
+    /**
+     * @param href
+     *            of the deployment base, with or without query
+     * @return the ID of the action, i.e. the last path segment of the href
+     */
+    public static long getActionId(final String href) {
+        final List<String> segments = UriComponentsBuilder.fromUriString(href).build().getPathSegments();
+        return Long.parseLong(segments.get(segments.size() - 1));
+    }
 }
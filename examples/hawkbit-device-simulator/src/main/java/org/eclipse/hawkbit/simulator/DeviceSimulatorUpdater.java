@@ -30,7 +30,7 @@ import java.util.stream.Collectors;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLContextBuilder;
+import org.apache.http.conn.ssl.SSLContexts;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.eclipse.hawkbit.dmf.json.model.Artifact;
@@ -321,9 +321,8 @@ public class DeviceSimulatorUpdater {
 
         private static CloseableHttpClient createHttpClientThatAcceptsAllServerCerts()
                 throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
-            final SSLContextBuilder builder = new SSLContextBuilder();
-            builder.loadTrustMaterial(null, (chain, authType) -> true);
-            final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(builder.build());
+            final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(
+                    SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build());
             return HttpClients.custom().setSSLSocketFactory(sslsf).build();
         }
     }
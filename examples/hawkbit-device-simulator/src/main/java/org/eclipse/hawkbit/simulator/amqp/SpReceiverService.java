@@ -15,6 +15,7 @@ import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.DownloadAndUpdateRequest;
 import org.eclipse.hawkbit.simulator.DeviceSimulatorUpdater;
+import org.eclipse.hawkbit.simulator.loadgen.LoadGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
@@ -41,6 +42,9 @@ public class SpReceiverService extends ReceiverService {
 
     private final DeviceSimulatorUpdater deviceUpdater;
 
+    @Autowired(required = false)
+    private LoadGenerator loadGenerator;
+
     /**
      * Constructor.
      */
@@ -126,6 +130,10 @@ public class SpReceiverService extends ReceiverService {
         final Long actionId = downloadAndUpdateRequest.getActionId();
         final String targetSecurityToken = downloadAndUpdateRequest.getTargetSecurityToken();
 
+        if (loadGenerator != null && loadGenerator.handleDmfUpdate(tenant, thingId, actionId)) {
+            return;
+        }
+
         deviceUpdater.startUpdate(tenant, thingId, actionId, null, downloadAndUpdateRequest.getSoftwareModules(),
                 targetSecurityToken, (device, actionId1) -> {
                     switch (device.getUpdateStatus().getResponseStatus()) {
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Consumer;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncByteConsumer;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking DDI client of the load generator. All calls return
+ * immediately, responses are handled on the I/O dispatcher threads of the
+ * underlying {@link CloseableHttpAsyncClient}. Thus the number of simulated
+ * controllers is not bound by the number of threads.
+ *
+ */
+public class AsyncDdiClient implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncDdiClient.class);
+
+    private static final String FEEDBACK_TEMPLATE = "{\"id\":%d,\"time\":\"20140511T121314\",\"status\":{\"execution\":\"%s\",\"result\":{\"finished\":\"%s\",\"progress\":{}}}}";
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final String endpoint;
+    private final String authorization;
+    private final LoadStatistics statistics;
+
+    /**
+     * @param properties
+     *            of the load generator
+     * @param statistics
+     *            to record the latencies into
+     */
+    public AsyncDdiClient(final LoadGeneratorProperties properties, final LoadStatistics statistics) {
+        this.endpoint = properties.getEndpoint();
+        this.authorization = properties.getGatewayToken().isEmpty() ? null
+                : "GatewayToken " + properties.getGatewayToken();
+        this.statistics = statistics;
+        this.httpClient = createClient(properties);
+        this.httpClient.start();
+    }
+
+    private static CloseableHttpAsyncClient createClient(final LoadGeneratorProperties properties) {
+        try {
+            return HttpAsyncClients.custom()
+                    .setSSLContext(SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build())
+                    .setMaxConnTotal(properties.getMaxConnections())
+                    .setMaxConnPerRoute(properties.getMaxConnections())
+                    .setDefaultIOReactorConfig(
+                            IOReactorConfig.custom().setIoThreadCount(properties.getIoThreads()).build())
+                    .build();
+        } catch (KeyManagementException | NoSuchAlgorithmException | KeyStoreException e) {
+            throw new IllegalStateException("Could not create HTTP client", e);
+        }
+    }
+
+    /**
+     * Polls the controller base resource.
+     *
+     * @param tenant
+     *            of the controller
+     * @param controllerId
+     *            of the controller
+     * @param onResponse
+     *            called with the response body, or {@code null} in case of an
+     *            error
+     */
+    public void poll(final String tenant, final String controllerId, final Consumer<String> onResponse) {
+        execute(new HttpGet(endpoint + "/" + tenant + "/controller/v1/" + controllerId), LoadStatistics.DDI_POLL,
+                onResponse);
+    }
+
+    /**
+     * Retrieves the deployment base resource.
+     *
+     * @param href
+     *            of the deployment base resource as provided by the poll
+     * @param onResponse
+     *            called with the response body, or {@code null} in case of an
+     *            error
+     */
+    public void deploymentBase(final String href, final Consumer<String> onResponse) {
+        execute(new HttpGet(href), LoadStatistics.DDI_DEPLOYMENT_BASE, onResponse);
+    }
+
+    /**
+     * Posts a deployment feedback.
+     *
+     * @param tenant
+     *            of the controller
+     * @param controllerId
+     *            of the controller
+     * @param actionId
+     *            to post the feedback for
+     * @param execution
+     *            the DDI execution status, e.g. {@code proceeding} or
+     *            {@code closed}
+     * @param finished
+     *            the DDI result, e.g. {@code none}, {@code success} or
+     *            {@code failure}
+     * @param onResponse
+     *            called with the response body, or {@code null} in case of an
+     *            error
+     */
+    public void feedback(final String tenant, final String controllerId, final long actionId,
+            final String execution, final String finished, final Consumer<String> onResponse) {
+        final HttpPost post = new HttpPost(endpoint + "/" + tenant + "/controller/v1/" + controllerId
+                + "/deploymentBase/" + actionId + "/feedback");
+        post.setEntity(new StringEntity(String.format(FEEDBACK_TEMPLATE, actionId, execution, finished),
+                ContentType.APPLICATION_JSON));
+        execute(post, LoadStatistics.DDI_FEEDBACK, onResponse);
+    }
+
+    /**
+     * Downloads a byte range of an artifact. The content is counted and
+     * discarded without buffering.
+     *
+     * @param href
+     *            the download link of the artifact
+     * @param from
+     *            first byte of the range
+     * @param to
+     *            last byte of the range (inclusive)
+     * @param onComplete
+     *            called with the HTTP status code, or {@code -1} in case of an
+     *            error
+     */
+    public void downloadRange(final String href, final long from, final long to, final Consumer<Integer> onComplete) {
+        final HttpGet get = new HttpGet(href);
+        get.setHeader(HttpHeaders.RANGE, "bytes=" + from + "-" + to);
+        authorize(get);
+
+        final EndpointStatistics stats = statistics.forEndpoint(LoadStatistics.DDI_DOWNLOAD);
+        final long start = System.nanoTime();
+        httpClient.execute(HttpAsyncMethods.create(get), new CountingConsumer(stats), new FutureCallback<Integer>() {
+            @Override
+            public void completed(final Integer status) {
+                if (status >= 400) {
+                    stats.failure(start);
+                } else {
+                    stats.success(start);
+                }
+                onComplete.accept(status);
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+                LOGGER.debug("Download of {} failed", href, ex);
+                stats.failure(start);
+                onComplete.accept(-1);
+            }
+
+            @Override
+            public void cancelled() {
+                stats.failure(start);
+                onComplete.accept(-1);
+            }
+        });
+    }
+
+    private void execute(final HttpUriRequest request, final String endpointName,
+            final Consumer<String> onResponse) {
+        authorize(request);
+        final EndpointStatistics stats = statistics.forEndpoint(endpointName);
+        final long start = System.nanoTime();
+        httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                final int status = response.getStatusLine().getStatusCode();
+                String body = null;
+                try {
+                    if (response.getEntity() != null) {
+                        body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                        stats.bytes(body.length());
+                    }
+                } catch (final IOException e) {
+                    LOGGER.debug("Could not read response of {}", request.getURI(), e);
+                }
+
+                if (status >= 400) {
+                    LOGGER.debug("Request {} failed with status {}", request.getURI(), status);
+                    stats.failure(start);
+                    onResponse.accept(null);
+                } else {
+                    stats.success(start);
+                    onResponse.accept(body == null ? "" : body);
+                }
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+                LOGGER.debug("Request {} failed", request.getURI(), ex);
+                stats.failure(start);
+                onResponse.accept(null);
+            }
+
+            @Override
+            public void cancelled() {
+                stats.failure(start);
+                onResponse.accept(null);
+            }
+        });
+    }
+
+    private void authorize(final HttpUriRequest request) {
+        if (authorization != null) {
+            request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private static final class CountingConsumer extends AsyncByteConsumer<Integer> {
+        private final EndpointStatistics stats;
+        private int status;
+
+        private CountingConsumer(final EndpointStatistics stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseReceived(final HttpResponse response) {
+            status = response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        protected void onByteReceived(final ByteBuffer buf, final IOControl ioctrl) {
+            stats.bytes(buf.remaining());
+            buf.position(buf.limit());
+        }
+
+        @Override
+        protected Integer buildResult(final HttpContext context) {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.ActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.ActionUpdateStatus;
+import org.eclipse.hawkbit.simulator.amqp.AmqpProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+
+/**
+ * Publishes DMF messages of the load generator in batches. Messages are
+ * queued by the simulated controllers and published by a single sender thread
+ * on one channel per batch, instead of one channel operation per message.
+ *
+ */
+public class BatchingDmfPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingDmfPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpProperties amqpProperties;
+    private final LoadStatistics statistics;
+    private final int batchSize;
+    private final BlockingQueue<QueuedMessage> queue = new LinkedBlockingQueue<>();
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+    private final Thread sender;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param rabbitTemplate
+     *            to publish with
+     * @param amqpProperties
+     *            of the simulator
+     * @param statistics
+     *            to record publish latencies into
+     * @param batchSize
+     *            maximum number of messages per channel operation
+     */
+    public BatchingDmfPublisher(final RabbitTemplate rabbitTemplate, final AmqpProperties amqpProperties,
+            final LoadStatistics statistics, final int batchSize) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpProperties = amqpProperties;
+        this.statistics = statistics;
+        this.batchSize = batchSize;
+        this.sender = new Thread(this::runSender, "loadgen-dmf-publisher");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * Queues a THING_CREATED message.
+     *
+     * @param tenant
+     *            of the thing
+     * @param thingId
+     *            of the thing
+     */
+    public void thingCreated(final String tenant, final String thingId) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.THING_CREATED.name());
+        messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        messageProperties.setHeader(MessageHeaderKey.SENDER, "simulator");
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setReplyTo(amqpProperties.getSenderForSpExchange());
+        queue.add(new QueuedMessage(new Message(null, messageProperties), LoadStatistics.DMF_THING_CREATED));
+    }
+
+    /**
+     * Queues an action status update message.
+     *
+     * @param tenant
+     *            of the thing
+     * @param actionId
+     *            of the action to update
+     * @param actionStatus
+     *            to report
+     * @param message
+     *            status message
+     */
+    public void actionStatus(final String tenant, final long actionId, final ActionStatus actionStatus,
+            final String message) {
+        final MessageProperties messageProperties = new MessageProperties();
+        final Map<String, Object> headers = messageProperties.getHeaders();
+        headers.put(MessageHeaderKey.TYPE, MessageType.EVENT.name());
+        headers.put(MessageHeaderKey.TENANT, tenant);
+        headers.put(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        headers.put(MessageHeaderKey.CONTENT_TYPE, MessageProperties.CONTENT_TYPE_JSON);
+
+        final ActionUpdateStatus actionUpdateStatus = new ActionUpdateStatus();
+        actionUpdateStatus.setActionId(actionId);
+        actionUpdateStatus.setActionStatus(actionStatus);
+        actionUpdateStatus.getMessage().add(message);
+
+        final Message converted = rabbitTemplate.getMessageConverter().toMessage(actionUpdateStatus,
+                messageProperties);
+        converted.getMessageProperties().getHeaders().remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        queue.add(new QueuedMessage(converted, LoadStatistics.DMF_ACTION_STATUS));
+    }
+
+    /**
+     * @return number of messages waiting to be published
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the sender thread. Queued messages are discarded.
+     */
+    public void stop() {
+        running = false;
+        sender.interrupt();
+    }
+
+    private void runSender() {
+        final List<QueuedMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                final QueuedMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (final InterruptedException e) {
+                LOGGER.trace("DMF publisher interrupted", e);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(final List<QueuedMessage> batch) {
+        final long start = System.nanoTime();
+        try {
+            rabbitTemplate.execute(channel -> {
+                for (final QueuedMessage queued : batch) {
+                    final Message message = queued.message;
+                    channel.basicPublish(AmqpSettings.DMF_EXCHANGE, "", false, propertiesConverter
+                            .fromMessageProperties(message.getMessageProperties(), StandardCharsets.UTF_8.name()),
+                            message.getBody());
+                }
+                return null;
+            });
+            batch.forEach(queued -> statistics.forEndpoint(queued.endpoint).success(start));
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Publishing of {} DMF messages failed", batch.size(), e);
+            batch.forEach(queued -> statistics.forEndpoint(queued.endpoint).failure(start));
+        }
+    }
+
+    private static final class QueuedMessage {
+        private final Message message;
+        private final String endpoint;
+
+        private QueuedMessage(final Message message, final String endpoint) {
+            this.message = message;
+            this.endpoint = endpoint;
+        }
+    }
+}
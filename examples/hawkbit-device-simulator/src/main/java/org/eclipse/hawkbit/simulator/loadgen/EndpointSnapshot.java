@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Immutable snapshot of the {@link EndpointStatistics} of one endpoint. All
+ * latencies are in microseconds.
+ *
+ */
+public class EndpointSnapshot {
+
+    private final String endpoint;
+    private final long requests;
+    private final long errors;
+    private final long bytes;
+    private final double throughput;
+
+    private final long intervalP50;
+    private final long intervalP99;
+    private final long intervalMax;
+
+    private final double totalMean;
+    private final long totalP50;
+    private final long totalP90;
+    private final long totalP99;
+    private final long totalP999;
+    private final long totalMax;
+
+    EndpointSnapshot(final String endpoint, final long requests, final long errors, final long bytes,
+            final double throughput, final Histogram interval, final Histogram total) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.errors = errors;
+        this.bytes = bytes;
+        this.throughput = throughput;
+        this.intervalP50 = interval.getValueAtPercentile(50);
+        this.intervalP99 = interval.getValueAtPercentile(99);
+        this.intervalMax = interval.getMaxValue();
+        this.totalMean = total.getMean();
+        this.totalP50 = total.getValueAtPercentile(50);
+        this.totalP90 = total.getValueAtPercentile(90);
+        this.totalP99 = total.getValueAtPercentile(99);
+        this.totalP999 = total.getValueAtPercentile(99.9);
+        this.totalMax = total.getMaxValue();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return requests per second since the previous snapshot
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public long getIntervalP50() {
+        return intervalP50;
+    }
+
+    public long getIntervalP99() {
+        return intervalP99;
+    }
+
+    public long getIntervalMax() {
+        return intervalMax;
+    }
+
+    public double getTotalMean() {
+        return totalMean;
+    }
+
+    public long getTotalP50() {
+        return totalP50;
+    }
+
+    public long getTotalP90() {
+        return totalP90;
+    }
+
+    public long getTotalP99() {
+        return totalP99;
+    }
+
+    public long getTotalP999() {
+        return totalP999;
+    }
+
+    public long getTotalMax() {
+        return totalMax;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%-20s req=%d err=%d rate=%.1f/s bytes=%d | interval p50=%dus p99=%dus max=%dus | total mean=%.0fus p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+                endpoint, requests, errors, throughput, bytes, intervalP50, intervalP99, intervalMax, totalMean,
+                totalP50, totalP90, totalP99, totalP999, totalMax);
+    }
+}
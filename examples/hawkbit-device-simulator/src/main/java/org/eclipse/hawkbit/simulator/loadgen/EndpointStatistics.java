@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histogram and throughput counters of a single endpoint. Recording
+ * is wait free, the interval histogram is swapped on every report.
+ *
+ */
+public class EndpointStatistics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    private Histogram interval;
+    private long lastReportNanos = System.nanoTime();
+    private long lastReportRequests;
+
+    EndpointStatistics(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param startNanos
+     *            {@link System#nanoTime()} at the start of the call
+     */
+    public void success(final long startNanos) {
+        record(startNanos);
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param startNanos
+     *            {@link System#nanoTime()} at the start of the call
+     */
+    public void failure(final long startNanos) {
+        errors.increment();
+        record(startNanos);
+    }
+
+    /**
+     * @param transferred
+     *            number of payload bytes transferred by the endpoint
+     */
+    public void bytes(final long transferred) {
+        bytes.add(transferred);
+    }
+
+    private void record(final long startNanos) {
+        requests.increment();
+        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Creates a snapshot of the statistics since the last snapshot and resets
+     * the interval.
+     *
+     * @return the snapshot
+     */
+    public synchronized EndpointSnapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+
+        final long now = System.nanoTime();
+        final long currentRequests = requests.sum();
+        final double seconds = (now - lastReportNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        final double throughput = seconds > 0 ? (currentRequests - lastReportRequests) / seconds : 0;
+        lastReportNanos = now;
+        lastReportRequests = currentRequests;
+
+        return new EndpointSnapshot(endpoint, currentRequests, errors.sum(), bytes.sum(), throughput, interval,
+                total);
+    }
+}
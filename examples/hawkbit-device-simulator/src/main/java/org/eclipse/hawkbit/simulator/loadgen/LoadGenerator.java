@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.dmf.json.model.ActionStatus;
+import org.eclipse.hawkbit.simulator.AbstractSimulatedDevice.Protocol;
+import org.eclipse.hawkbit.simulator.DDISimulatedDevice;
+import org.eclipse.hawkbit.simulator.amqp.AmqpProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * Headless load generator which drives a large number of
+ * {@link SimulatedController}s against a hawkBit update server. Polls are
+ * scheduled on a {@link PollTimerWheel}, DDI calls are executed by the
+ * non-blocking {@link AsyncDdiClient} and DMF messages are published by the
+ * {@link BatchingDmfPublisher}. Thus no thread is bound to a simulated
+ * controller.
+ *
+ */
+@Component
+@ConditionalOnProperty(prefix = "hawkbit.device.simulator.loadgen", name = "enabled")
+public class LoadGenerator implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int PERCENT = 100;
+
+    @Autowired
+    private LoadGeneratorProperties properties;
+
+    @Autowired
+    private LoadStatistics statistics;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private AmqpProperties amqpProperties;
+
+    private final ConcurrentMap<String, SimulatedController> controllers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors
+            .newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+
+    private PollTimerWheel timerWheel;
+    private AsyncDdiClient ddiClient;
+    private BatchingDmfPublisher dmfPublisher;
+
+    private volatile List<EndpointSnapshot> lastReport = Collections.emptyList();
+    private volatile boolean started;
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        start();
+    }
+
+    /**
+     * Creates the simulated controllers and starts the configured scenario.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        LOGGER.info("Starting load generation scenario {} with {} {} controllers", properties.getScenario(),
+                properties.getAmount(), properties.getApi());
+
+        timerWheel = new PollTimerWheel(properties.getTimerTick(), TimeUnit.MILLISECONDS,
+                properties.getTimerWheelSize(), dispatcher);
+        timerWheel.start();
+        dmfPublisher = new BatchingDmfPublisher(rabbitTemplate, amqpProperties, statistics,
+                properties.getAmqpBatchSize());
+        if (properties.getApi() == Protocol.DDI_HTTP) {
+            ddiClient = new AsyncDdiClient(properties, statistics);
+        }
+
+        final long rampUpMillis = TimeUnit.SECONDS.toMillis(properties.getRampUp());
+        for (int i = 0; i < properties.getAmount(); i++) {
+            final SimulatedController controller = new SimulatedController(properties.getName() + i);
+            controllers.put(controller.getControllerId(), controller);
+            final long delay = rampUpMillis > 0 ? ThreadLocalRandom.current().nextLong(rampUpMillis) : 0;
+            timerWheel.schedule(() -> register(controller), delay, TimeUnit.MILLISECONDS);
+        }
+
+        reporter.scheduleWithFixedDelay(this::report, properties.getReportInterval(),
+                properties.getReportInterval(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the load generation.
+     */
+    @PreDestroy
+    public void stop() {
+        reporter.shutdownNow();
+        if (timerWheel != null) {
+            timerWheel.stop();
+        }
+        if (dmfPublisher != null) {
+            dmfPublisher.stop();
+        }
+        if (ddiClient != null) {
+            try {
+                ddiClient.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Could not close HTTP client", e);
+            }
+        }
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * @return the statistics of the last report interval
+     */
+    public List<EndpointSnapshot> getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return number of simulated controllers
+     */
+    public int getControllerCount() {
+        return controllers.size();
+    }
+
+    /**
+     * @return number of simulated controllers that are currently processing
+     *         an update
+     */
+    public long getUpdatingCount() {
+        return controllers.values().stream().filter(SimulatedController::isUpdating).count();
+    }
+
+    /**
+     * Handles a DMF DOWNLOAD_AND_INSTALL request for one of the simulated
+     * controllers.
+     *
+     * @param tenant
+     *            of the controller
+     * @param controllerId
+     *            of the controller
+     * @param actionId
+     *            to process
+     * @return {@code false} if the controller is not simulated by the load
+     *         generator
+     */
+    public boolean handleDmfUpdate(final String tenant, final String controllerId, final long actionId) {
+        final SimulatedController controller = controllers.get(controllerId);
+        if (controller == null || properties.getApi() != Protocol.DMF_AMQP) {
+            return false;
+        }
+
+        if (properties.getScenario() == LoadScenario.REGISTER_STORM || !controller.startUpdate(actionId)) {
+            return true;
+        }
+
+        dmfPublisher.actionStatus(tenant, actionId, ActionStatus.RUNNING, "Load generator update started");
+        timerWheel.schedule(() -> {
+            if (isFailure()) {
+                dmfPublisher.actionStatus(tenant, actionId, ActionStatus.ERROR, "Load generator update failed");
+            } else {
+                dmfPublisher.actionStatus(tenant, actionId, ActionStatus.FINISHED, "Load generator update done");
+            }
+            controller.finishUpdate();
+        }, properties.getInstallTime(), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void register(final SimulatedController controller) {
+        if (properties.getApi() == Protocol.DMF_AMQP) {
+            dmfPublisher.thingCreated(properties.getTenant(), controller.getControllerId());
+        } else {
+            poll(controller);
+        }
+    }
+
+    private void poll(final SimulatedController controller) {
+        ddiClient.poll(properties.getTenant(), controller.getControllerId(), body -> {
+            if (body != null && properties.getScenario() != LoadScenario.REGISTER_STORM
+                    && !controller.isUpdating()) {
+                final String href = readDeploymentBaseHref(body);
+                if (href != null) {
+                    ddiClient.deploymentBase(href, deployment -> startDdiUpdate(controller, href, deployment));
+                }
+            }
+            schedulePoll(controller);
+        });
+    }
+
+    private void schedulePoll(final SimulatedController controller) {
+        final long pollMillis = TimeUnit.SECONDS.toMillis(properties.getPollDelay());
+        // jitter of 10% avoids that all controllers stay in lock step
+        final long jitter = pollMillis > 10 ? ThreadLocalRandom.current().nextLong(pollMillis / 10) : 0;
+        timerWheel.schedule(() -> poll(controller), pollMillis + jitter, TimeUnit.MILLISECONDS);
+    }
+
+    private void startDdiUpdate(final SimulatedController controller, final String href, final String deployment) {
+        if (deployment == null) {
+            return;
+        }
+        final long actionId = DDISimulatedDevice.getActionId(href);
+        if (!controller.startUpdate(actionId)) {
+            return;
+        }
+
+        ddiClient.feedback(properties.getTenant(), controller.getControllerId(), actionId, "proceeding", "none",
+                response -> {
+                    if (properties.getScenario() == LoadScenario.RESUME_DOWNLOAD_STORM) {
+                        final List<String> links = readDownloadLinks(deployment);
+                        final List<Number> sizes = readArtifactSizes(deployment);
+                        downloadArtifact(controller, actionId, links, sizes, 0, 0);
+                    } else {
+                        timerWheel.schedule(() -> finishDdiUpdate(controller, actionId, isFailure()),
+                                properties.getInstallTime(), TimeUnit.MILLISECONDS);
+                    }
+                });
+    }
+
+    private void downloadArtifact(final SimulatedController controller, final long actionId,
+            final List<String> links, final List<Number> sizes, final int artifact, final long offset) {
+        if (artifact >= links.size() || artifact >= sizes.size()) {
+            timerWheel.schedule(() -> finishDdiUpdate(controller, actionId, isFailure()),
+                    properties.getInstallTime(), TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        final long size = sizes.get(artifact).longValue();
+        if (offset >= size) {
+            downloadArtifact(controller, actionId, links, sizes, artifact + 1, 0);
+            return;
+        }
+
+        final long to = Math.min(offset + properties.getDownloadChunkSize(), size) - 1;
+        ddiClient.downloadRange(links.get(artifact), offset, to, status -> {
+            if (status < 0 || status >= 400) {
+                finishDdiUpdate(controller, actionId, true);
+            } else {
+                downloadArtifact(controller, actionId, links, sizes, artifact, to + 1);
+            }
+        });
+    }
+
+    private void finishDdiUpdate(final SimulatedController controller, final long actionId, final boolean failure) {
+        ddiClient.feedback(properties.getTenant(), controller.getControllerId(), actionId, "closed",
+                failure ? "failure" : "success", response -> controller.finishUpdate());
+    }
+
+    private boolean isFailure() {
+        return ThreadLocalRandom.current().nextInt(PERCENT) < properties.getFailureRate();
+    }
+
+    private void report() {
+        final List<EndpointSnapshot> snapshots = statistics.snapshot();
+        snapshots.forEach(snapshot -> LOGGER.info("{}", snapshot));
+        LOGGER.info("controllers={} updating={} pendingTimeouts={} dmfQueue={}", controllers.size(),
+                getUpdatingCount(), timerWheel.getPendingCount(), dmfPublisher.getQueueSize());
+        lastReport = snapshots;
+    }
+
+    private static String readDeploymentBaseHref(final String body) {
+        try {
+            return JsonPath.parse(body).read("_links.deploymentBase.href");
+        } catch (final PathNotFoundException e) {
+            LOGGER.trace("Response does not contain a deploymentbase href link, ignoring.", e);
+            return null;
+        }
+    }
+
+    private static List<String> readDownloadLinks(final String deployment) {
+        final List<String> links = JsonPath.parse(deployment)
+                .read("$.deployment.chunks[*].artifacts[*]._links['download-http'].href");
+        if (!links.isEmpty()) {
+            return links;
+        }
+        return JsonPath.parse(deployment).read("$.deployment.chunks[*].artifacts[*]._links.download.href");
+    }
+
+    private static List<Number> readArtifactSizes(final String deployment) {
+        return JsonPath.parse(deployment).read("$.deployment.chunks[*].artifacts[*].size");
+    }
+}
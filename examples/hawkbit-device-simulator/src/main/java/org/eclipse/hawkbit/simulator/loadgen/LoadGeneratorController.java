@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST endpoint for retrieving the statistics of the {@link LoadGenerator}.
+ *
+ */
+@RestController
+@ConditionalOnProperty(prefix = "hawkbit.device.simulator.loadgen", name = "enabled")
+public class LoadGeneratorController {
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    /**
+     * @return the latency and throughput statistics per endpoint of the last
+     *         report interval
+     */
+    @RequestMapping("/loadgen/statistics")
+    ResponseEntity<List<EndpointSnapshot>> statistics() {
+        return ResponseEntity.ok(loadGenerator.getLastReport());
+    }
+}
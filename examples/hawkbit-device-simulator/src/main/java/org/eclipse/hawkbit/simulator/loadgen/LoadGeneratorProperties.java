@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import org.eclipse.hawkbit.simulator.AbstractSimulatedDevice.Protocol;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the headless load generation mode of the simulator.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.device.simulator.loadgen")
+public class LoadGeneratorProperties {
+
+    /**
+     * Enables the headless load generator. Simulated controllers of the load
+     * generator are not shown in the UI.
+     */
+    private boolean enabled;
+
+    /**
+     * Scenario that is executed by the load generator.
+     */
+    private LoadScenario scenario = LoadScenario.REGISTER_STORM;
+
+    /**
+     * API used by the simulated controllers.
+     */
+    private Protocol api = Protocol.DDI_HTTP;
+
+    /**
+     * Name prefix of simulated controllers, followed by counter.
+     */
+    private String name = "loadgen";
+
+    /**
+     * Amount of simulated controllers.
+     */
+    private int amount = 100_000;
+
+    /**
+     * Tenant name for the load generation.
+     */
+    private String tenant = "DEFAULT";
+
+    /**
+     * Endpoint in case of DDI API based load generation.
+     */
+    private String endpoint = "http://localhost:8080";
+
+    /**
+     * Optional gateway token for DDI API based load generation.
+     */
+    private String gatewayToken = "";
+
+    /**
+     * Poll delay of the simulated DDI controllers in seconds.
+     */
+    private int pollDelay = 30;
+
+    /**
+     * Time in seconds in which all simulated controllers start. The first
+     * poll or registration of every controller is randomly distributed within
+     * that time frame. 0 results in a storm where all start at once.
+     */
+    private int rampUp;
+
+    /**
+     * Percentage (0-100) of updates that are reported as failed.
+     */
+    private int failureRate;
+
+    /**
+     * Simulated installation time in milliseconds after the download has
+     * finished.
+     */
+    private int installTime = 5_000;
+
+    /**
+     * Size in bytes of a single range request in the resume download storm
+     * scenario.
+     */
+    private int downloadChunkSize = 256 * 1024;
+
+    /**
+     * Maximum number of concurrent HTTP connections.
+     */
+    private int maxConnections = 2_000;
+
+    /**
+     * Number of I/O dispatcher threads of the non-blocking HTTP client.
+     */
+    private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Tick duration of the poll timer wheel in milliseconds.
+     */
+    private int timerTick = 100;
+
+    /**
+     * Number of buckets of the poll timer wheel, rounded up to the next power
+     * of two.
+     */
+    private int timerWheelSize = 1024;
+
+    /**
+     * Maximum number of DMF messages that are published within one channel
+     * operation.
+     */
+    private int amqpBatchSize = 500;
+
+    /**
+     * Interval in seconds in which the latency and throughput statistics are
+     * logged.
+     */
+    private int reportInterval = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public LoadScenario getScenario() {
+        return scenario;
+    }
+
+    public void setScenario(final LoadScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public Protocol getApi() {
+        return api;
+    }
+
+    public void setApi(final Protocol api) {
+        this.api = api;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public void setAmount(final int amount) {
+        this.amount = amount;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(final String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getGatewayToken() {
+        return gatewayToken;
+    }
+
+    public void setGatewayToken(final String gatewayToken) {
+        this.gatewayToken = gatewayToken;
+    }
+
+    public int getPollDelay() {
+        return pollDelay;
+    }
+
+    public void setPollDelay(final int pollDelay) {
+        this.pollDelay = pollDelay;
+    }
+
+    public int getRampUp() {
+        return rampUp;
+    }
+
+    public void setRampUp(final int rampUp) {
+        this.rampUp = rampUp;
+    }
+
+    public int getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(final int failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public int getInstallTime() {
+        return installTime;
+    }
+
+    public void setInstallTime(final int installTime) {
+        this.installTime = installTime;
+    }
+
+    public int getDownloadChunkSize() {
+        return downloadChunkSize;
+    }
+
+    public void setDownloadChunkSize(final int downloadChunkSize) {
+        this.downloadChunkSize = downloadChunkSize;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(final int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getTimerTick() {
+        return timerTick;
+    }
+
+    public void setTimerTick(final int timerTick) {
+        this.timerTick = timerTick;
+    }
+
+    public int getTimerWheelSize() {
+        return timerWheelSize;
+    }
+
+    public void setTimerWheelSize(final int timerWheelSize) {
+        this.timerWheelSize = timerWheelSize;
+    }
+
+    public int getAmqpBatchSize() {
+        return amqpBatchSize;
+    }
+
+    public void setAmqpBatchSize(final int amqpBatchSize) {
+        this.amqpBatchSize = amqpBatchSize;
+    }
+
+    public int getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(final int reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+}
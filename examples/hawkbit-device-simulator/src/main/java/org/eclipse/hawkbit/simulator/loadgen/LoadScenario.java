@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+/**
+ * Scripted scenarios of the {@link LoadGenerator}.
+ *
+ */
+public enum LoadScenario {
+    /**
+     * All controllers register (DDI first poll or DMF THING_CREATED) within
+     * the ramp up time and keep on polling afterwards. Deployments are
+     * ignored.
+     */
+    REGISTER_STORM,
+
+    /**
+     * Controllers poll and process assigned deployments. The configured
+     * failure rate of updates is reported as failed.
+     */
+    ROLLOUT,
+
+    /**
+     * Controllers process assigned deployments and download every artifact
+     * in small HTTP range requests as devices on flaky links would do.
+     */
+    RESUME_DOWNLOAD_STORM;
+}
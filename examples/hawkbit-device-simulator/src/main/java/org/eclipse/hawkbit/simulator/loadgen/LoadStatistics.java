@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of the {@link EndpointStatistics} per called endpoint.
+ *
+ */
+@Component
+public class LoadStatistics {
+
+    public static final String DDI_POLL = "ddi.poll";
+    public static final String DDI_DEPLOYMENT_BASE = "ddi.deploymentBase";
+    public static final String DDI_FEEDBACK = "ddi.feedback";
+    public static final String DDI_DOWNLOAD = "ddi.download";
+    public static final String DMF_THING_CREATED = "dmf.thingCreated";
+    public static final String DMF_ACTION_STATUS = "dmf.actionStatus";
+
+    private final ConcurrentMap<String, EndpointStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param endpoint
+     *            name of the endpoint
+     * @return statistics of the endpoint, created if necessary
+     */
+    public EndpointStatistics forEndpoint(final String endpoint) {
+        return statistics.computeIfAbsent(endpoint, EndpointStatistics::new);
+    }
+
+    /**
+     * @return snapshots of all endpoints that have been called so far
+     */
+    public List<EndpointSnapshot> snapshot() {
+        final List<EndpointSnapshot> result = new ArrayList<>(statistics.size());
+        statistics.values().forEach(stats -> result.add(stats.snapshot()));
+        return result;
+    }
+}
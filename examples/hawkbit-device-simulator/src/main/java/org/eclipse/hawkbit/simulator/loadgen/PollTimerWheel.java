@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel for scheduling a very large number of poll timeouts with
+ * a coarse granularity. Scheduling is O(1) and lock free, expiry is handled by
+ * a single ticker thread which hands expired tasks to the given executor. In
+ * contrast to a {@link java.util.concurrent.ScheduledThreadPoolExecutor} no
+ * heap has to be maintained for hundreds of thousands of pending polls.
+ *
+ */
+public class PollTimerWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollTimerWheel.class);
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] wheel;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Executor executor;
+    private final Thread ticker;
+
+    private volatile long startTime;
+    private volatile boolean running;
+    private long tick;
+
+    /**
+     * @param tickDuration
+     *            the duration of one tick
+     * @param unit
+     *            the unit of the tick duration
+     * @param wheelSize
+     *            the number of buckets of the wheel, rounded up to the next
+     *            power of two
+     * @param executor
+     *            the executor which runs the expired tasks
+     */
+    @SuppressWarnings("unchecked")
+    public PollTimerWheel(final long tickDuration, final TimeUnit unit, final int wheelSize,
+            final Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0");
+        }
+        final int normalizedSize = normalize(wheelSize);
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = normalizedSize - 1;
+        this.wheel = new Queue[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.executor = executor;
+        this.ticker = new Thread(this::runTicker, "loadgen-timer-wheel");
+        this.ticker.setDaemon(true);
+    }
+
+    /**
+     * Starts the ticker thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startTime = System.nanoTime();
+        running = true;
+        ticker.start();
+    }
+
+    /**
+     * Stops the ticker thread. Pending timeouts are discarded.
+     */
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    /**
+     * Schedules the given task for execution after the given delay.
+     *
+     * @param task
+     *            to execute
+     * @param delay
+     *            of the execution
+     * @param unit
+     *            of the delay
+     */
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is not running");
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+        pending.add(new Timeout(task, deadline));
+    }
+
+    /**
+     * @return number of timeouts that are not yet transferred into the wheel
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void runTicker() {
+        while (running) {
+            final long deadline = tickNanos * (tick + 1);
+            final long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (final InterruptedException e) {
+                    LOGGER.trace("Timer wheel interrupted", e);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+
+            transferPending();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            final long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            final long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(final Queue<Timeout> bucket) {
+        final Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            final Timeout timeout = iterator.next();
+            if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                try {
+                    executor.execute(timeout.task);
+                } catch (final RejectedExecutionException e) {
+                    LOGGER.warn("Expired poll task rejected by executor", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private static int normalize(final int wheelSize) {
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30");
+        }
+        int normalized = 1;
+        while (normalized < wheelSize) {
+            normalized <<= 1;
+        }
+        return normalized;
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+
+        private Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.loadgen;
+
+/**
+ * Minimal state of a controller simulated by the {@link LoadGenerator}. Kept
+ * as small as possible as hundreds of thousands of instances are held in
+ * memory. In contrast to the
+ * {@link org.eclipse.hawkbit.simulator.AbstractSimulatedDevice} it is neither
+ * shown in the UI nor stored in the
+ * {@link org.eclipse.hawkbit.simulator.DeviceSimulatorRepository}.
+ *
+ */
+public class SimulatedController {
+
+    private final String controllerId;
+
+    private volatile long currentActionId = -1;
+
+    SimulatedController(final String controllerId) {
+        this.controllerId = controllerId;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return {@code true} if the controller is currently processing an
+     *         action
+     */
+    public boolean isUpdating() {
+        return currentActionId >= 0;
+    }
+
+    /**
+     * @param actionId
+     *            the action the controller starts to process
+     * @return {@code false} if the controller is already processing an action
+     */
+    public synchronized boolean startUpdate(final long actionId) {
+        if (isUpdating()) {
+            return false;
+        }
+        currentActionId = actionId;
+        return true;
+    }
+
+    /**
+     * Marks the current action as finished.
+     */
+    public void finishUpdate() {
+        currentActionId = -1;
+    }
+}
@@ -11,6 +11,8 @@ package org.eclipse.hawkbit.autoconfigure.cache;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.cache.BoundedGuavaCacheManager;
+import org.eclipse.hawkbit.cache.EntityCacheProperties;
 import org.eclipse.hawkbit.cache.TenancyCacheManager;
 import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -20,7 +22,6 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.guava.GuavaCacheManager;
 import org.springframework.cache.interceptor.CacheOperationInvocationContext;
 import org.springframework.cache.interceptor.SimpleCacheResolver;
 import org.springframework.context.annotation.Bean;
@@ -44,6 +45,9 @@ public class CacheAutoConfiguration extends CachingConfigurerSupport {
     @Autowired
     private TenantAware tenantAware;
 
+    @Autowired
+    private EntityCacheProperties entityCacheProperties;
+
     /**
      * @return the default cache manager bean if none other cache manager is
      *         existing.
@@ -52,7 +56,7 @@ public class CacheAutoConfiguration extends CachingConfigurerSupport {
     @Bean
     @ConditionalOnMissingBean
     public TenancyCacheManager cacheManager() {
-        return new TenantAwareCacheManager(new GuavaCacheManager(), tenantAware);
+        return new TenantAwareCacheManager(new BoundedGuavaCacheManager(entityCacheProperties), tenantAware);
     }
 
     /**
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
+import org.eclipse.hawkbit.cache.TenancyCacheManager;
+import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Auto-configuration which exposes the statistics of the local entity caches,
+ * see {@link EntityCacheInvalidator#ENTITY_CACHES}, summed up over all tenants
+ * as actuator metrics.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(TenancyCacheManager.class)
+@AutoConfigureAfter(CacheAutoConfiguration.class)
+public class EntityCacheMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.cache.";
+    private static final String TENANT_CACHE_DELIMITER = "|";
+
+    @Autowired
+    private TenancyCacheManager cacheManager;
+
+    /**
+     * @return the {@link PublicMetrics} of the entity caches
+     */
+    @Bean
+    public PublicMetrics entityCacheMetrics() {
+        return () -> {
+            final List<Metric<?>> metrics = new ArrayList<>();
+            if (!(cacheManager instanceof TenantAwareCacheManager)) {
+                return metrics;
+            }
+            final Collection<String> directCacheNames = ((TenantAwareCacheManager) cacheManager)
+                    .getDirectCacheNames();
+
+            EntityCacheInvalidator.ENTITY_CACHES.forEach(cacheName -> {
+                CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+                long size = 0;
+                for (final String name : directCacheNames) {
+                    if (!name.endsWith(TENANT_CACHE_DELIMITER + cacheName)) {
+                        continue;
+                    }
+                    final Cache cache = cacheManager.getDirectCache(name);
+                    if (cache != null && cache.getNativeCache() instanceof com.google.common.cache.Cache) {
+                        final com.google.common.cache.Cache<?, ?> nativeCache = (com.google.common.cache.Cache<?, ?>) cache
+                                .getNativeCache();
+                        stats = stats.plus(nativeCache.stats());
+                        size += nativeCache.size();
+                    }
+                }
+
+                final String prefix = METRIC_PREFIX + cacheName + ".";
+                metrics.add(new Metric<>(prefix + "size", size));
+                metrics.add(new Metric<>(prefix + "hits", stats.hitCount()));
+                metrics.add(new Metric<>(prefix + "misses", stats.missCount()));
+                metrics.add(new Metric<>(prefix + "hitRatio", stats.hitRate()));
+                metrics.add(new Metric<>(prefix + "evictions", stats.evictionCount()));
+            });
+            return metrics;
+        };
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.Arrays;
+
+import org.eclipse.hawkbit.repository.ActionFeedbackProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration which exposes the statistics and the lag of the
+ * {@link ActionFeedbackProcessor} as actuator metrics. The pending entries and
+ * the age of the oldest entry cover the whole cluster, the other metrics this
+ * node.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(ActionFeedbackProcessor.class)
+public class ActionFeedbackMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.actionfeedback.";
+
+    @Autowired
+    private ActionFeedbackProcessor processor;
+
+    /**
+     * @return the {@link PublicMetrics} of the action feedback queue
+     */
+    @Bean
+    public PublicMetrics actionFeedbackMetrics() {
+        return () -> Arrays.<Metric<?>> asList(
+                new Metric<>(METRIC_PREFIX + "pending", processor.countPendingEntries()),
+                new Metric<>(METRIC_PREFIX + "deadLettered", processor.countDeadLetteredEntries()),
+                new Metric<>(METRIC_PREFIX + "oldestPendingAgeMillis", processor.getOldestPendingEntryAgeMillis()),
+                new Metric<>(METRIC_PREFIX + "applied", processor.getAppliedFeedback()),
+                new Metric<>(METRIC_PREFIX + "skipped", processor.getSkippedFeedback()),
+                new Metric<>(METRIC_PREFIX + "dropped", processor.getDroppedFeedback()),
+                new Metric<>(METRIC_PREFIX + "retries", processor.getRetries()),
+                new Metric<>(METRIC_PREFIX + "failedRuns", processor.getFailedRuns()),
+                new Metric<>(METRIC_PREFIX + "lastLagMillis", processor.getLastLagMillis()),
+                new Metric<>(METRIC_PREFIX + "maxLagMillis", processor.getMaxLagMillis()));
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.Arrays;
+
+import org.eclipse.hawkbit.repository.ActionStatusRetentionScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration which exposes the statistics of the
+ * {@link ActionStatusRetentionScheduler} as actuator metrics.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(ActionStatusRetentionScheduler.class)
+public class ActionStatusRetentionMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.actionstatus.retention.";
+
+    @Autowired
+    private ActionStatusRetentionScheduler retentionScheduler;
+
+    /**
+     * @return the {@link PublicMetrics} of the action status retention
+     */
+    @Bean
+    public PublicMetrics actionStatusRetentionMetrics() {
+        return () -> Arrays.<Metric<?>> asList(
+                new Metric<>(METRIC_PREFIX + "purged", retentionScheduler.getPurgedEntries()),
+                new Metric<>(METRIC_PREFIX + "failedTenants", retentionScheduler.getFailedTenants()),
+                new Metric<>(METRIC_PREFIX + "runTimeMillis", retentionScheduler.getRunTimeMillis()),
+                new Metric<>(METRIC_PREFIX + "lastRunTimeMillis", retentionScheduler.getLastRunTimeMillis()));
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.Arrays;
+
+import org.eclipse.hawkbit.eventbus.EventOutboxRelay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration which exposes the statistics and the lag of the
+ * {@link EventOutboxRelay} as actuator metrics. The pending entries and the
+ * age of the oldest entry cover the whole cluster, the other metrics this
+ * node.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(EventOutboxRelay.class)
+public class EventOutboxMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.eventoutbox.";
+
+    @Autowired
+    private EventOutboxRelay relay;
+
+    /**
+     * @return the {@link PublicMetrics} of the event outbox
+     */
+    @Bean
+    public PublicMetrics eventOutboxMetrics() {
+        return () -> Arrays.<Metric<?>> asList(new Metric<>(METRIC_PREFIX + "pending", relay.countPendingEntries()),
+                new Metric<>(METRIC_PREFIX + "oldestPendingAgeMillis", relay.getOldestPendingEntryAgeMillis()),
+                new Metric<>(METRIC_PREFIX + "relayed", relay.getRelayedEvents()),
+                new Metric<>(METRIC_PREFIX + "skipped", relay.getSkippedEvents()),
+                new Metric<>(METRIC_PREFIX + "failedRelays", relay.getFailedRelays()),
+                new Metric<>(METRIC_PREFIX + "lastLagMillis", relay.getLastLagMillis()),
+                new Metric<>(METRIC_PREFIX + "maxLagMillis", relay.getMaxLagMillis()));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+import org.eclipse.hawkbit.metrics.ServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration which exposes the {@link ServiceMetrics} as actuator
+ * metrics. Latencies are reported in milliseconds. The calls per tenant are
+ * reported if enabled by {@code hawkbit.server.repository.metrics.perTenant}.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(ServiceMetrics.class)
+public class ServiceMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.service.";
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    @Autowired
+    private ServiceMetrics serviceMetrics;
+
+    /**
+     * @return the {@link PublicMetrics} of the service calls
+     */
+    @Bean
+    public PublicMetrics serviceCallMetrics() {
+        return () -> {
+            final List<Metric<?>> metrics = new ArrayList<>();
+            serviceMetrics.getMethodMetrics().forEach((name, method) -> {
+                final String prefix = METRIC_PREFIX + name + ".";
+                final Histogram latency = method.getLatencyHistogram();
+                metrics.add(new Metric<>(prefix + "count", latency.getTotalCount()));
+                metrics.add(new Metric<>(prefix + "errors", method.getErrorCount()));
+                metrics.add(new Metric<>(prefix + "statements", method.getStatementCount()));
+                metrics.add(new Metric<>(prefix + "mean", latency.getMean() / MICROS_PER_MILLI));
+                metrics.add(new Metric<>(prefix + "p50", latency.getValueAtPercentile(50) / MICROS_PER_MILLI));
+                metrics.add(new Metric<>(prefix + "p95", latency.getValueAtPercentile(95) / MICROS_PER_MILLI));
+                metrics.add(new Metric<>(prefix + "p99", latency.getValueAtPercentile(99) / MICROS_PER_MILLI));
+                metrics.add(new Metric<>(prefix + "max", latency.getMaxValue() / MICROS_PER_MILLI));
+            });
+            serviceMetrics.getTenantMetrics().forEach((tenant, calls) -> {
+                final String prefix = METRIC_PREFIX + "tenant." + tenant + ".";
+                metrics.add(new Metric<>(prefix + "count", calls.getCount()));
+                metrics.add(new Metric<>(prefix + "errors", calls.getErrorCount()));
+                metrics.add(new Metric<>(prefix + "timeMillis", calls.getTotalTimeMillis()));
+            });
+            return metrics;
+        };
+    }
+}
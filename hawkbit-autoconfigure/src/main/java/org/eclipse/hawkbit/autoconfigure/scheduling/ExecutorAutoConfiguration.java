@@ -69,4 +69,64 @@ public class ExecutorAutoConfiguration {
         return new DelegatingSecurityContextExecutor(threadPoolExecutor);
     }
 
+    /**
+     * @return the executor for the background purges of deleted tenants
+     */
+    @Bean(name = "tenantPurgeExecutor")
+    @ConditionalOnMissingBean(name = "tenantPurgeExecutor")
+    public Executor tenantPurgeExecutor() {
+        return boundedExecutor("tenant-purge-pool-%d", 1, 100);
+    }
+
+    /**
+     * @return the executor for the asynchronous creation and start of
+     *         rollouts
+     */
+    @Bean(name = "rolloutExecutor")
+    @ConditionalOnMissingBean(name = "rolloutExecutor")
+    public Executor rolloutExecutor() {
+        return boundedExecutor("rollout-pool-%d", 4, 100);
+    }
+
+    /**
+     * @return the executor of the workers which apply the queued action
+     *         feedback
+     */
+    @Bean(name = "actionFeedbackExecutor")
+    @ConditionalOnMissingBean(name = "actionFeedbackExecutor")
+    public Executor actionFeedbackExecutor() {
+        return boundedExecutor("action-feedback-pool-%d", 4, 100);
+    }
+
+    /**
+     * @return the executor of the event outbox relay, relays are coalesced so
+     *         a small queue is sufficient
+     */
+    @Bean(name = "eventOutboxExecutor")
+    @ConditionalOnMissingBean(name = "eventOutboxExecutor")
+    public Executor eventOutboxExecutor() {
+        return boundedExecutor("event-outbox-pool-%d", 1, 10);
+    }
+
+    /**
+     * @return the executor for the background target imports
+     */
+    @Bean(name = "targetImportExecutor")
+    @ConditionalOnMissingBean(name = "targetImportExecutor")
+    public Executor targetImportExecutor() {
+        return boundedExecutor("target-import-pool-%d", 2, 20);
+    }
+
+    /**
+     * Creates an executor which rejects tasks with a
+     * {@link java.util.concurrent.RejectedExecutionException} if the queue is
+     * full, so the caller is able to handle the rejection instead of losing
+     * the task silently.
+     */
+    private static Executor boundedExecutor(final String nameFormat, final int threads, final int queueSize) {
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).build(), new ThreadPoolExecutor.AbortPolicy());
+        return new DelegatingSecurityContextExecutor(threadPoolExecutor);
+    }
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.security;
+
+import org.eclipse.hawkbit.autoconfigure.cache.RedisAutoConfiguration;
+import org.eclipse.hawkbit.cache.RedisConfiguration;
+import org.eclipse.hawkbit.cache.ratelimit.RedisRateLimitStateExchange;
+import org.eclipse.hawkbit.security.DosFilter;
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
+import org.eclipse.hawkbit.security.ratelimit.RateLimitClusterSynchronizer;
+import org.eclipse.hawkbit.security.ratelimit.RateLimitStateExchange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Auto-configuration for the cluster wide rate limiting of the
+ * {@link DosFilter}, i.e. the consumption of the rate limiters is periodically
+ * synchronized through Redis.
+ *
+ */
+@Configuration
+@ConditionalOnClass(RedisConfiguration.class)
+@ConditionalOnBean(DosFilter.class)
+@ConditionalOnProperty(prefix = "hawkbit.server.security.dos.filter.cluster", name = "enabled")
+@AutoConfigureAfter(RedisAutoConfiguration.class)
+public class DosFilterClusterAutoConfiguration {
+
+    @Autowired
+    private HawkbitSecurityProperties securityProperties;
+
+    @Autowired
+    private DosFilter dosFilter;
+
+    /**
+     * @param connectionFactory
+     *            the Redis connection factory
+     * @return the {@link RateLimitStateExchange} based on Redis
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitStateExchange rateLimitStateExchange(final JedisConnectionFactory connectionFactory) {
+        return new RedisRateLimitStateExchange(new StringRedisTemplate(connectionFactory),
+                securityProperties.getDos().getFilter().getCluster().getSyncInterval());
+    }
+
+    /**
+     * @param stateExchange
+     *            to exchange the consumption with the other nodes
+     * @return the synchronizer of the {@link DosFilter} rate limiters
+     */
+    @Bean
+    public RateLimitClusterSynchronizer rateLimitClusterSynchronizer(final RateLimitStateExchange stateExchange) {
+        return new RateLimitClusterSynchronizer(dosFilter.getRateLimiters(), stateExchange);
+    }
+
+    /**
+     * Scheduler which triggers the synchronization.
+     *
+     */
+    @Configuration
+    static class SynchronizationScheduler {
+
+        @Autowired
+        private RateLimitClusterSynchronizer rateLimitClusterSynchronizer;
+
+        /**
+         * Synchronizes the rate limiters with the other nodes.
+         */
+        @Scheduled(initialDelayString = "${hawkbit.server.security.dos.filter.cluster.syncInterval:1000}", fixedDelayString = "${hawkbit.server.security.dos.filter.cluster.syncInterval:1000}")
+        public void synchronize() {
+            rateLimitClusterSynchronizer.synchronize();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.eclipse.hawkbit.security.DosFilter;
+import org.eclipse.hawkbit.security.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration which exposes the admitted and rejected requests of the
+ * {@link DosFilter} rate limiters as actuator metrics, e.g.
+ * {@code hawkbit.dos.read.rejected}.
+ *
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@ConditionalOnBean(DosFilter.class)
+public class DosFilterMetricsAutoConfiguration {
+
+    private static final String METRIC_PREFIX = "hawkbit.dos.";
+
+    @Autowired
+    private DosFilter dosFilter;
+
+    /**
+     * @return the {@link PublicMetrics} of the {@link DosFilter}
+     */
+    @Bean
+    public PublicMetrics dosFilterMetrics() {
+        return () -> {
+            final Collection<Metric<?>> metrics = new ArrayList<>();
+            for (final RateLimiter rateLimiter : dosFilter.getRateLimiters()) {
+                final String prefix = METRIC_PREFIX + rateLimiter.getName();
+                metrics.add(new Metric<>(prefix + ".admitted", rateLimiter.getAdmittedCount()));
+                metrics.add(new Metric<>(prefix + ".rejected", rateLimiter.getRejectedCount()));
+                metrics.add(new Metric<>(prefix + ".activeKeys", rateLimiter.getActiveKeys()));
+            }
+            return metrics;
+        };
+    }
+}
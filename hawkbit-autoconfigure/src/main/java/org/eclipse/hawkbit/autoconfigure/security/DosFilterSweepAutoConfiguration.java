@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.security;
+
+import org.eclipse.hawkbit.security.DosFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Auto-configuration which periodically discards the full buckets of the
+ * {@link DosFilter} rate limiters, so the sweep is not done on the request
+ * threads.
+ *
+ */
+@Configuration
+@ConditionalOnBean(DosFilter.class)
+public class DosFilterSweepAutoConfiguration {
+
+    @Autowired
+    private DosFilter dosFilter;
+
+    /**
+     * Discards the full buckets of the rate limiters.
+     */
+    @Scheduled(initialDelay = 1000, fixedDelay = 1000)
+    public void sweep() {
+        dosFilter.sweep();
+    }
+}
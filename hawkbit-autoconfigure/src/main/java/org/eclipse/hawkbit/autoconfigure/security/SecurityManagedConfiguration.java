@@ -18,6 +18,7 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.ExcludePathAwareShallowETagFilter;
@@ -30,9 +31,11 @@ import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.exception.TenantNotExistException;
 import org.eclipse.hawkbit.security.ControllerTenantAwareAuthenticationDetailsSource;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.DosFilter;
+import org.eclipse.hawkbit.security.DownloadTokenSigner;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.security.HttpControllerPreAuthenticateAnonymousDownloadFilter;
 import org.eclipse.hawkbit.security.HttpControllerPreAuthenticateSecurityTokenFilter;
@@ -192,9 +195,23 @@ public class SecurityManagedConfiguration {
     }
 
     /**
-     * Filter to protect the SP server against denial of service attacks.
+     * @return the {@link DosFilter} which limits the requests per client,
+     *         tenant and controller
+     */
+    @Bean
+    public DosFilter dosFilterInstance() {
+        final HawkbitSecurityProperties.Dos.Filter filter = securityProperties.getDos().getFilter();
+        return new DosFilter(filter.getMaxRead(), filter.getMaxWrite(), filter.getMaxPerTenant(),
+                filter.getMaxPerController(), filter.getWhitelist(), securityProperties.getClients().getBlacklist(),
+                securityProperties.getClients().getRemoteIpHeader());
+    }
+
+    /**
+     * Filter registration bean for the {@link DosFilter}. As the filter
+     * instance is registered here it is not registered a second time for all
+     * URLs by spring boot.
      *
-     * @return he spring filter registration bean for registering an denial of
+     * @return the spring filter registration bean for registering a denial of
      *         service protection filter in the filter chain
      */
     @Bean
@@ -202,10 +219,7 @@ public class SecurityManagedConfiguration {
     public FilterRegistrationBean dosFilter() {
         final FilterRegistrationBean filterRegBean = new FilterRegistrationBean();
 
-        filterRegBean.setFilter(new DosFilter(securityProperties.getDos().getFilter().getMaxRead(),
-                securityProperties.getDos().getFilter().getMaxWrite(),
-                securityProperties.getDos().getFilter().getWhitelist(), securityProperties.getClients().getBlacklist(),
-                securityProperties.getClients().getRemoteIpHeader()));
+        filterRegBean.setFilter(dosFilterInstance());
         filterRegBean.addUrlPatterns("/{tenant}/controller/v1/*", "/rest/*");
         return filterRegBean;
     }
@@ -457,10 +471,13 @@ public class SecurityManagedConfiguration {
         @Qualifier(CacheConstants.DOWNLOAD_ID_CACHE)
         private Cache downloadIdCache;
 
+        @Autowired
+        private DownloadTokenSigner downloadTokenSigner;
+
         @Override
         protected void configure(final HttpSecurity http) throws Exception {
             final HttpDownloadAuthenticationFilter downloadIdAuthenticationFilter = new HttpDownloadAuthenticationFilter(
-                    downloadIdCache);
+                    downloadIdCache, downloadTokenSigner);
             downloadIdAuthenticationFilter.setAuthenticationManager(authenticationManager());
 
             http.csrf().disable();
@@ -546,7 +563,13 @@ class AuthenticationSuccessTenantMetadataCreationFilter implements Filter {
         final String currentTenant = tenantAware.getCurrentTenant();
         if (currentTenant != null) {
             // lazy initialize tenant meta data after successful authentication
-            systemManagement.getTenantMetadata(currentTenant);
+            try {
+                systemManagement.getTenantMetadata(currentTenant);
+            } catch (final TenantNotExistException e) {
+                // the tenant is being deleted
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+                return;
+            }
         }
         chain.doFilter(request, response);
     }
@@ -11,8 +11,8 @@ package org.eclipse.hawkbit.cache.eventbus;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
 
+import org.eclipse.hawkbit.ClusterNode;
 import org.eclipse.hawkbit.eventbus.EventSubscriber;
 import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
 import org.eclipse.hawkbit.eventbus.event.Event;
@@ -39,7 +39,7 @@ public class EventDistributor {
      * the node id to filter self published events in the redis message
      * subscriber.
      */
-    private static final String NODE_ID = UUID.randomUUID().toString();
+    private static final String NODE_ID = ClusterNode.getId();
 
     private static final String DISTRIBUTION_CHANNEL_TOPIC = "com/bosch/sp/distEvent";
     private static final String SEND_DISTRIBUTION_CHANNEL = DISTRIBUTION_CHANNEL_TOPIC + "/" + NODE_ID;
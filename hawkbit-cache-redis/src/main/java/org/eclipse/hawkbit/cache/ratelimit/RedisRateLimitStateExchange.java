@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.ratelimit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.security.ratelimit.RateLimitStateExchange;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * {@link RateLimitStateExchange} based on Redis. Every node adds its
+ * consumption to a hash per quota and time window. The fields are prefixed
+ * with the node id so a node can distinguish its own consumption from the
+ * consumption of the other nodes.
+ *
+ * A window is read two windows after it has been written, i.e. when all nodes
+ * have written their consumption of that window. Consequently the cluster
+ * wide state lags behind by up to two synchronization intervals. All windows
+ * which have been completed since the previous exchange are read, so no
+ * window is skipped if an exchange is delayed.
+ *
+ */
+public class RedisRateLimitStateExchange implements RateLimitStateExchange {
+
+    private static final String KEY_PREFIX = "hawkbit:ratelimit:";
+    private static final char FIELD_SEPARATOR = '|';
+    private static final int WINDOWS_TO_KEEP = 4;
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, Long> lastAppliedWindows = new ConcurrentHashMap<>();
+
+    /**
+     * @param redisTemplate
+     *            to access the Redis server
+     * @param windowMillis
+     *            the length of one window, i.e. the synchronization interval
+     */
+    public RedisRateLimitStateExchange(final StringRedisTemplate redisTemplate, final long windowMillis) {
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public Map<String, Long> exchange(final String quota, final Map<String, Long> localConsumption) {
+        final long window = System.currentTimeMillis() / windowMillis;
+        publish(quota, window, localConsumption);
+
+        final long completedWindow = window - 2;
+        final Long lastApplied = lastAppliedWindows.put(quota, completedWindow);
+        if (lastApplied != null && lastApplied >= completedWindow) {
+            return Collections.emptyMap();
+        }
+
+        // older windows might have expired already
+        final long oldestReadableWindow = window - WINDOWS_TO_KEEP + 1;
+        final long firstWindow = lastApplied == null ? completedWindow
+                : Math.max(lastApplied + 1, oldestReadableWindow);
+        final Map<String, Long> remote = new HashMap<>();
+        for (long completed = firstWindow; completed <= completedWindow; completed++) {
+            readRemoteConsumption(quota, completed).forEach((key, tokens) -> remote.merge(key, tokens, Long::sum));
+        }
+        return remote;
+    }
+
+    private void publish(final String quota, final long window, final Map<String, Long> localConsumption) {
+        if (localConsumption.isEmpty()) {
+            return;
+        }
+        final String key = key(quota, window);
+        redisTemplate.executePipelined((RedisCallback<Object>) (final RedisConnection connection) -> {
+            final StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            localConsumption.forEach((bucketKey, tokens) -> stringConnection.hIncrBy(key,
+                    nodeId + FIELD_SEPARATOR + bucketKey, tokens));
+            stringConnection.expire(key, TimeUnit.MILLISECONDS.toSeconds(windowMillis * WINDOWS_TO_KEEP) + 1);
+            return null;
+        });
+    }
+
+    private Map<String, Long> readRemoteConsumption(final String quota, final long window) {
+        final Map<Object, Object> entries = redisTemplate.opsForHash().entries(key(quota, window));
+        final Map<String, Long> remote = new HashMap<>();
+        final String ownPrefix = nodeId + FIELD_SEPARATOR;
+        entries.forEach((field, value) -> {
+            final String fieldName = (String) field;
+            if (fieldName.startsWith(ownPrefix)) {
+                return;
+            }
+            final String bucketKey = fieldName.substring(fieldName.indexOf(FIELD_SEPARATOR) + 1);
+            remote.merge(bucketKey, Long.valueOf((String) value), Long::sum);
+        });
+        return remote;
+    }
+
+    private static String key(final String quota, final long window) {
+        return KEY_PREFIX + quota + ':' + window;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import java.util.UUID;
+
+/**
+ * Identity of this node within the cluster, e.g. to mark the rows which are
+ * claimed by this node in shared tables or to filter the events published by
+ * this node. The ID is generated once on startup, so a restarted node is a
+ * new node.
+ *
+ */
+public final class ClusterNode {
+
+    private static final String ID = UUID.randomUUID().toString();
+
+    private ClusterNode() {
+        // utility class
+    }
+
+    /**
+     * @return the ID of this node
+     */
+    public static String getId() {
+        return ID;
+    }
+}
@@ -8,10 +8,9 @@
  */
 package org.eclipse.hawkbit.api;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.ProtocolProperties;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -20,6 +19,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Implementation for ArtifactUrlHandler for creating urls to download resource
@@ -38,6 +38,17 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
     private static final String ARTIFACT_SHA1_PLACEHOLDER = "artifactSHA1";
     private static final String TENANT_PLACEHOLDER = "tenant";
     private static final String SOFTWARE_MODULE_ID_PLACDEHOLDER = "softwareModuleId";
+    private static final String PORT_TOKEN = ":" + PORT_PLACEHOLDER;
+
+    private static final Set<String> PLACEHOLDERS = ImmutableSet.of(PROTOCOL_PLACEHOLDER, TARGET_ID_PLACEHOLDER,
+            IP_PLACEHOLDER, HOSTNAME_PLACEHOLDER, ARTIFACT_FILENAME_PLACEHOLDER, ARTIFACT_SHA1_PLACEHOLDER,
+            TENANT_PLACEHOLDER, SOFTWARE_MODULE_ID_PLACDEHOLDER);
+
+    /**
+     * Compiled templates per URL pattern, keyed by the pattern so changed
+     * properties are picked up.
+     */
+    private final ConcurrentMap<String, UrlTemplate> templates = new ConcurrentHashMap<>();
 
     @Autowired
     private ArtifactUrlHandlerProperties urlHandlerProperties;
@@ -55,33 +66,36 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
             return null;
         }
 
-        String urlPattern = properties.getPattern();
-        final Set<Entry<String, String>> entrySet = getReplaceMap(targetId, softwareModuleId, filename, sha1Hash,
-                protocolString, properties).entrySet();
-        for (final Entry<String, String> entry : entrySet) {
-            if (entry.getKey().equals(PORT_PLACEHOLDER)) {
-                urlPattern = urlPattern.replace(":{" + entry.getKey() + "}",
-                        Strings.isNullOrEmpty(entry.getValue()) ? "" : (":" + entry.getValue()));
-            } else {
-                urlPattern = urlPattern.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
-        }
-        return urlPattern;
+        final String tenant = tenantAware.getCurrentTenant();
+        return templates.computeIfAbsent(properties.getPattern(), PropertyBasedArtifactUrlHandler::compile)
+                .render(placeholder -> {
+                    switch (placeholder) {
+                    case IP_PLACEHOLDER:
+                        return properties.getIp();
+                    case HOSTNAME_PLACEHOLDER:
+                        return properties.getHostname();
+                    case ARTIFACT_FILENAME_PLACEHOLDER:
+                        return filename;
+                    case ARTIFACT_SHA1_PLACEHOLDER:
+                        return sha1Hash;
+                    case PROTOCOL_PLACEHOLDER:
+                        return protocolString;
+                    case PORT_TOKEN:
+                        return Strings.isNullOrEmpty(properties.getPort()) ? "" : (":" + properties.getPort());
+                    case TENANT_PLACEHOLDER:
+                        return tenant;
+                    case TARGET_ID_PLACEHOLDER:
+                        return targetId;
+                    case SOFTWARE_MODULE_ID_PLACDEHOLDER:
+                        return String.valueOf(softwareModuleId);
+                    default:
+                        return "";
+                    }
+                });
     }
 
-    private Map<String, String> getReplaceMap(final String targetId, final Long softwareModuleId, final String filename,
-            final String sha1Hash, final String protocol, final ProtocolProperties properties) {
-        final Map<String, String> replaceMap = new HashMap<>();
-        replaceMap.put(IP_PLACEHOLDER, properties.getIp());
-        replaceMap.put(HOSTNAME_PLACEHOLDER, properties.getHostname());
-        replaceMap.put(ARTIFACT_FILENAME_PLACEHOLDER, filename);
-        replaceMap.put(ARTIFACT_SHA1_PLACEHOLDER, sha1Hash);
-        replaceMap.put(PROTOCOL_PLACEHOLDER, protocol);
-        replaceMap.put(PORT_PLACEHOLDER, properties.getPort());
-        replaceMap.put(TENANT_PLACEHOLDER, tenantAware.getCurrentTenant());
-        replaceMap.put(TARGET_ID_PLACEHOLDER, targetId);
-        replaceMap.put(SOFTWARE_MODULE_ID_PLACDEHOLDER, String.valueOf(softwareModuleId));
-        return replaceMap;
+    private static UrlTemplate compile(final String pattern) {
+        return UrlTemplate.compile(pattern, PLACEHOLDERS, PORT_PLACEHOLDER);
     }
 
     @Override
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * URL pattern which is tokenized once into literals and {@code {placeholder}}
+ * tokens, so rendering a URL is a single pass over a {@link StringBuilder}
+ * instead of repeated {@link String#replace(CharSequence, CharSequence)}
+ * calls. Placeholders which are not known are kept as literal text.
+ *
+ */
+final class UrlTemplate {
+
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private UrlTemplate(final List<String> literals, final List<String> placeholders) {
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.placeholders = placeholders.toArray(new String[placeholders.size()]);
+    }
+
+    /**
+     * @param pattern
+     *            the URL pattern
+     * @param knownPlaceholders
+     *            names of the placeholders to tokenize
+     * @param prefixedPlaceholder
+     *            name of a placeholder which is only tokenized together with
+     *            a leading colon, i.e. {@code :{port}}, so the colon can be
+     *            omitted for an empty value. The token is passed to the
+     *            resolver with the leading colon.
+     * @return the compiled template
+     */
+    static UrlTemplate compile(final String pattern, final Set<String> knownPlaceholders,
+            final String prefixedPlaceholder) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+
+        final StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < pattern.length()) {
+            final int open = pattern.indexOf('{', index);
+            final int close = open < 0 ? -1 : pattern.indexOf('}', open);
+            if (close < 0) {
+                literal.append(pattern, index, pattern.length());
+                break;
+            }
+
+            final String name = pattern.substring(open + 1, close);
+            literal.append(pattern, index, open);
+            if (name.equals(prefixedPlaceholder)) {
+                if (literal.length() > 0 && literal.charAt(literal.length() - 1) == ':') {
+                    literal.setLength(literal.length() - 1);
+                    literals.add(literal.toString());
+                    placeholders.add(":" + name);
+                    literal.setLength(0);
+                } else {
+                    literal.append(pattern, open, close + 1);
+                }
+            } else if (knownPlaceholders.contains(name)) {
+                literals.add(literal.toString());
+                placeholders.add(name);
+                literal.setLength(0);
+            } else {
+                literal.append(pattern, open, close + 1);
+            }
+            index = close + 1;
+        }
+        literals.add(literal.toString());
+
+        return new UrlTemplate(literals, placeholders);
+    }
+
+    /**
+     * @param resolver
+     *            returns the replacement for a placeholder name
+     * @return the rendered URL
+     */
+    String render(final UnaryOperator<String> resolver) {
+        final StringBuilder url = new StringBuilder(128);
+        for (int i = 0; i < placeholders.length; i++) {
+            url.append(literals[i]).append(resolver.apply(placeholders[i]));
+        }
+        return url.append(literals[placeholders.length]).toString();
+    }
+}
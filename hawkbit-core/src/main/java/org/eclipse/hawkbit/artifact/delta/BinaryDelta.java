@@ -0,0 +1,432 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.delta;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Block matching binary delta encoding (xdelta style) which describes a new
+ * version of a binary as copies of ranges of the old version and inserted
+ * literal bytes.
+ *
+ * <p>
+ * The old version is indexed by the rolling hash of its blocks. The new
+ * version is scanned byte by byte, every block which is found in the index
+ * is extended backwards and forwards as far as both versions match and
+ * encoded as copy instruction. Everything else is inserted literally.
+ * </p>
+ *
+ * <p>
+ * Delta format, all numbers in big endian:
+ * </p>
+ *
+ * <pre>
+ * int    magic        0x48424431 ("HBD1")
+ * long   sourceLength length of the old version
+ * long   targetLength length of the new version
+ * deflate compressed instructions:
+ *   byte 1, long offset, int length  copy length bytes of the old version at offset
+ *   byte 2, int length, bytes        insert length literal bytes
+ *   byte 0                           end of delta
+ * </pre>
+ *
+ */
+public final class BinaryDelta {
+
+    /**
+     * Default size of the blocks of the old version which are indexed.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int MAGIC = 0x48424431;
+    private static final byte OP_END = 0;
+    private static final byte OP_COPY = 1;
+    private static final byte OP_ADD = 2;
+    private static final int HASH_PRIME = 0x01000193;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // utility class, private constructor.
+    private BinaryDelta() {
+
+    }
+
+    /**
+     * Encodes the delta from source to target with the
+     * {@link #DEFAULT_BLOCK_SIZE}.
+     *
+     * @param source
+     *            the old version
+     * @param target
+     *            the new version
+     * @param out
+     *            to write the delta to, the stream is not closed
+     * @throws IOException
+     *             if writing the delta fails
+     */
+    public static void encode(final ByteSource source, final ByteSource target, final OutputStream out)
+            throws IOException {
+        encode(source, target, out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Encodes the delta from source to target.
+     *
+     * @param source
+     *            the old version
+     * @param target
+     *            the new version
+     * @param out
+     *            to write the delta to, the stream is not closed
+     * @param blockSize
+     *            size of the blocks of the old version which are indexed,
+     *            smaller blocks find more matches but need more memory
+     * @throws IOException
+     *             if writing the delta fails
+     */
+    public static void encode(final ByteSource source, final ByteSource target, final OutputStream out,
+            final int blockSize) throws IOException {
+        if (blockSize < 16) {
+            throw new IllegalArgumentException("Block size must be at least 16 bytes");
+        }
+
+        final DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeLong(source.length());
+        header.writeLong(target.length());
+        header.flush();
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            // not closed as the given stream must stay open
+            final DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            final DataOutputStream instructions = new DataOutputStream(compressed);
+            new Encoder(source, target, instructions, blockSize).encode();
+            instructions.writeByte(OP_END);
+            instructions.flush();
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Applies the given delta to the old version and writes the new version.
+     *
+     * @param source
+     *            the old version the delta has been created from
+     * @param delta
+     *            the delta, the stream is not closed
+     * @param out
+     *            to write the new version to, the stream is not closed
+     * @throws IOException
+     *             if the delta is corrupt or does not belong to the source
+     */
+    public static void apply(final ByteSource source, final InputStream delta, final OutputStream out)
+            throws IOException {
+        final DataInputStream header = new DataInputStream(delta);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a binary delta");
+        }
+        if (header.readLong() != source.length()) {
+            throw new IOException("Delta has been created from a different source");
+        }
+        final long targetLength = header.readLong();
+
+        final DataInputStream instructions = new DataInputStream(new InflaterInputStream(delta));
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        while (true) {
+            final byte op = instructions.readByte();
+            if (op == OP_END) {
+                break;
+            } else if (op == OP_COPY) {
+                final long offset = instructions.readLong();
+                final int length = instructions.readInt();
+                if (offset < 0 || length < 0 || offset + length > source.length()) {
+                    throw new IOException("Copy instruction exceeds the source");
+                }
+                for (int done = 0; done < length;) {
+                    final int chunk = Math.min(buffer.length, length - done);
+                    source.read(offset + done, buffer, 0, chunk);
+                    out.write(buffer, 0, chunk);
+                    done += chunk;
+                }
+                written += length;
+            } else if (op == OP_ADD) {
+                final int length = instructions.readInt();
+                for (int done = 0; done < length;) {
+                    final int read = instructions.read(buffer, 0, Math.min(buffer.length, length - done));
+                    if (read < 0) {
+                        throw new EOFException("Delta ends within insert instruction");
+                    }
+                    out.write(buffer, 0, read);
+                    done += read;
+                }
+                written += length;
+            } else {
+                throw new IOException("Unknown delta instruction " + op);
+            }
+        }
+
+        if (written != targetLength) {
+            throw new IOException("Delta produced " + written + " bytes instead of " + targetLength);
+        }
+    }
+
+    /**
+     * Random access to the bytes of a binary, e.g. backed by a byte array or
+     * a memory mapped file.
+     */
+    public interface ByteSource {
+
+        /**
+         * @return the number of bytes
+         */
+        long length();
+
+        /**
+         * @param position
+         *            of the byte
+         * @return the byte at the given position
+         */
+        byte get(long position);
+
+        /**
+         * Copies the given range into the buffer.
+         *
+         * @param position
+         *            of the first byte
+         * @param buffer
+         *            to copy into
+         * @param offset
+         *            in the buffer
+         * @param length
+         *            number of bytes
+         */
+        default void read(final long position, final byte[] buffer, final int offset, final int length) {
+            for (int i = 0; i < length; i++) {
+                buffer[offset + i] = get(position + i);
+            }
+        }
+    }
+
+    /**
+     * @param bytes
+     *            the binary
+     * @return a {@link ByteSource} backed by the given array
+     */
+    public static ByteSource of(final byte[] bytes) {
+        return new ByteSource() {
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public byte get(final long position) {
+                return bytes[(int) position];
+            }
+
+            @Override
+            public void read(final long position, final byte[] buffer, final int offset, final int length) {
+                System.arraycopy(bytes, (int) position, buffer, offset, length);
+            }
+        };
+    }
+
+    /**
+     * @param buffer
+     *            the binary, e.g. a memory mapped file, absolute positions
+     *            are used
+     * @return a {@link ByteSource} backed by the given buffer
+     */
+    public static ByteSource of(final ByteBuffer buffer) {
+        return new ByteSource() {
+            @Override
+            public long length() {
+                return buffer.limit();
+            }
+
+            @Override
+            public byte get(final long position) {
+                return buffer.get((int) position);
+            }
+        };
+    }
+
+    private static final class Encoder {
+        private final ByteSource source;
+        private final ByteSource target;
+        private final DataOutputStream out;
+        private final int blockSize;
+        private final int highPower;
+        private final BlockIndex index;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private Encoder(final ByteSource source, final ByteSource target, final DataOutputStream out,
+                final int blockSize) {
+            this.source = source;
+            this.target = target;
+            this.out = out;
+            this.blockSize = blockSize;
+
+            int power = 1;
+            for (int i = 1; i < blockSize; i++) {
+                power *= HASH_PRIME;
+            }
+            this.highPower = power;
+
+            final long blocks = source.length() / blockSize;
+            if (blocks > Integer.MAX_VALUE / 4) {
+                throw new IllegalArgumentException("Source is too large for block size " + blockSize);
+            }
+            this.index = new BlockIndex((int) blocks);
+            for (int block = 0; block < blocks; block++) {
+                index.putIfAbsent(hash(source, (long) block * blockSize), block);
+            }
+        }
+
+        private void encode() throws IOException {
+            final long targetLength = target.length();
+            long pos = 0;
+            long pendingAdd = 0;
+            int hash = targetLength >= blockSize ? hash(target, 0) : 0;
+
+            while (pos + blockSize <= targetLength) {
+                final int block = index.get(hash);
+                if (block >= 0 && matches((long) block * blockSize, pos)) {
+                    long sourceStart = (long) block * blockSize;
+                    long targetStart = pos;
+                    while (targetStart > pendingAdd && sourceStart > 0
+                            && source.get(sourceStart - 1) == target.get(targetStart - 1)) {
+                        sourceStart--;
+                        targetStart--;
+                    }
+
+                    long sourceEnd = (long) block * blockSize + blockSize;
+                    long targetEnd = pos + blockSize;
+                    while (targetEnd < targetLength && sourceEnd < source.length()
+                            && targetEnd - targetStart < Integer.MAX_VALUE
+                            && source.get(sourceEnd) == target.get(targetEnd)) {
+                        sourceEnd++;
+                        targetEnd++;
+                    }
+
+                    writeAdd(pendingAdd, targetStart);
+                    out.writeByte(OP_COPY);
+                    out.writeLong(sourceStart);
+                    out.writeInt((int) (targetEnd - targetStart));
+
+                    pos = targetEnd;
+                    pendingAdd = pos;
+                    if (pos + blockSize <= targetLength) {
+                        hash = hash(target, pos);
+                    }
+                } else {
+                    if (pos + blockSize < targetLength) {
+                        hash = (hash - target.get(pos) * highPower) * HASH_PRIME + target.get(pos + blockSize);
+                    }
+                    pos++;
+                }
+            }
+            writeAdd(pendingAdd, targetLength);
+        }
+
+        private boolean matches(final long sourcePos, final long targetPos) {
+            for (int i = 0; i < blockSize; i++) {
+                if (source.get(sourcePos + i) != target.get(targetPos + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeAdd(final long start, final long end) throws IOException {
+            long pos = start;
+            while (pos < end) {
+                final int length = (int) Math.min(Integer.MAX_VALUE, end - pos);
+                out.writeByte(OP_ADD);
+                out.writeInt(length);
+                for (int done = 0; done < length;) {
+                    final int chunk = Math.min(buffer.length, length - done);
+                    target.read(pos + done, buffer, 0, chunk);
+                    out.write(buffer, 0, chunk);
+                    done += chunk;
+                }
+                pos += length;
+            }
+        }
+
+        private int hash(final ByteSource bytes, final long start) {
+            int hash = 0;
+            for (int i = 0; i < blockSize; i++) {
+                hash = hash * HASH_PRIME + bytes.get(start + i);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Open addressing hash table from block hash to the first block with that
+     * hash.
+     */
+    private static final class BlockIndex {
+        private final int[] hashes;
+        private final int[] blocks;
+        private final int mask;
+
+        private BlockIndex(final int expectedBlocks) {
+            int capacity = 16;
+            while (capacity < expectedBlocks * 2) {
+                capacity <<= 1;
+            }
+            hashes = new int[capacity];
+            blocks = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private void putIfAbsent(final int hash, final int block) {
+            int slot = spread(hash) & mask;
+            while (blocks[slot] != 0) {
+                if (hashes[slot] == hash) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            // 0 marks an empty slot
+            blocks[slot] = block + 1;
+        }
+
+        private int get(final int hash) {
+            int slot = spread(hash) & mask;
+            while (blocks[slot] != 0) {
+                if (hashes[slot] == hash) {
+                    return blocks[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int spread(final int hash) {
+            final int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
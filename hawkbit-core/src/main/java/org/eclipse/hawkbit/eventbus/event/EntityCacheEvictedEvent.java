@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus.event;
+
+/**
+ * Event which is published when cached entities of a tenant have been
+ * changed, to evict the entity cache of the tenant on all nodes.
+ *
+ */
+public class EntityCacheEvictedEvent extends AbstractDistributedEvent {
+
+    private static final long serialVersionUID = 1L;
+    private final String cacheName;
+
+    /**
+     * Creates an event which evicts all caches of the tenant, e.g. because the
+     * tenant has been deleted.
+     *
+     * @param tenant
+     *            the tenant for this event
+     */
+    public EntityCacheEvictedEvent(final String tenant) {
+        this(tenant, null);
+    }
+
+    /**
+     * @param tenant
+     *            the tenant for this event
+     * @param cacheName
+     *            the name of the entity cache to evict
+     */
+    public EntityCacheEvictedEvent(final String tenant, final String cacheName) {
+        super(-1, tenant);
+        this.cacheName = cacheName;
+    }
+
+    /**
+     * @return the cacheName or {@code null} if all caches of the tenant are
+     *         evicted
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus.event;
+
+/**
+ * Event which is published when the artifacts of a software module have been
+ * added or removed or the module has been deleted, e.g. to invalidate cached
+ * controller responses which contain the module.
+ *
+ */
+public class SoftwareModuleContentChangedEvent extends AbstractDistributedEvent {
+
+    private static final long serialVersionUID = 1L;
+    private final long softwareModuleId;
+
+    /**
+     * @param tenant
+     *            the tenant for this event
+     * @param softwareModuleId
+     *            the ID of the software module which has been changed
+     */
+    public SoftwareModuleContentChangedEvent(final String tenant, final long softwareModuleId) {
+        super(-1, tenant);
+        this.softwareModuleId = softwareModuleId;
+    }
+
+    /**
+     * @return the softwareModuleId
+     */
+    public long getSoftwareModuleId() {
+        return softwareModuleId;
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.Optional;
 
 import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationBooleanValidator;
+import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationIntegerValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationPollingDurationValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationStringValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationValidator;
@@ -83,7 +84,23 @@ public enum TenantConfigurationKey {
      * boolean value {@code true} {@code false}.
      */
     ANONYMOUS_DOWNLOAD_MODE_ENABLED("anonymous.download.enabled", "hawkbit.server.download.anonymous.enabled",
-            Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class);
+            Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class),
+
+    /**
+     * boolean value {@code true} {@code false}, enables the compaction of the
+     * action status history.
+     */
+    ACTION_STATUS_RETENTION_ENABLED("action.status.retention.enabled",
+            "hawkbit.server.repository.actionstatus.retention.enabled", Boolean.class, Boolean.FALSE.toString(),
+            TenantConfigurationBooleanValidator.class),
+
+    /**
+     * integer value which holds the number of intermediate status entries
+     * which are kept per action besides the first and the final ones.
+     */
+    ACTION_STATUS_RETENTION_KEEP_INTERMEDIATE("action.status.retention.keepIntermediate",
+            "hawkbit.server.repository.actionstatus.retention.keepIntermediate", Integer.class, "10",
+            TenantConfigurationIntegerValidator.class);
 
     private final String keyName;
     private final String defaultKeyName;
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.delta;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact")
+@Stories("Binary Delta")
+public class BinaryDeltaTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    @Description("Verifies that a delta between two similar binaries is small and restores the new version.")
+    public void deltaOfSimilarBinariesIsSmallAndRestoresTarget() throws IOException {
+        final byte[] source = randomBytes(512 * 1024);
+        final byte[] target = source.clone();
+        // patch a few ranges, insert and remove some bytes
+        System.arraycopy(randomBytes(300), 0, target, 1000, 300);
+        System.arraycopy(randomBytes(4000), 0, target, 200_000, 4000);
+        final byte[] shifted = new byte[target.length + 100 - 50];
+        System.arraycopy(target, 0, shifted, 0, 300_000);
+        System.arraycopy(randomBytes(100), 0, shifted, 300_000, 100);
+        System.arraycopy(target, 300_050, shifted, 300_100, target.length - 300_050);
+
+        final byte[] delta = encode(source, shifted);
+
+        assertTrue("delta should be much smaller than the target but is " + delta.length,
+                delta.length < shifted.length / 20);
+        assertArrayEquals(shifted, apply(source, delta));
+    }
+
+    @Test
+    @Description("Verifies that unrelated, empty and very small binaries are restored.")
+    public void deltaOfUnrelatedAndSmallBinariesRestoresTarget() throws IOException {
+        final byte[] source = randomBytes(10_000);
+        final byte[] unrelated = randomBytes(20_000);
+        assertArrayEquals(unrelated, apply(source, encode(source, unrelated)));
+        assertArrayEquals(new byte[0], apply(source, encode(source, new byte[0])));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, apply(new byte[0], encode(new byte[0], new byte[] { 1, 2, 3 })));
+    }
+
+    @Test
+    @Description("Verifies that a delta is rejected if it is applied to another source.")
+    public void deltaIsRejectedForOtherSource() throws IOException {
+        final byte[] source = randomBytes(10_000);
+        final byte[] delta = encode(source, randomBytes(10_000));
+        try {
+            apply(randomBytes(9_999), delta);
+            fail("Expected IOException for a different source");
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+
+    private byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encode(final byte[] source, final byte[] target) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDelta.encode(BinaryDelta.of(source), BinaryDelta.of(target), out);
+        return out.toByteArray();
+    }
+
+    private static byte[] apply(final byte[] source, final byte[] delta) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDelta.apply(BinaryDelta.of(source), new ByteArrayInputStream(delta), out);
+        return out.toByteArray();
+    }
+}
@@ -8,10 +8,14 @@
  */
 package org.eclipse.hawkbit.ddi.json.model;
 
+import java.util.List;
+
 import javax.validation.constraints.NotNull;
 
 import org.springframework.hateoas.ResourceSupport;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -30,6 +34,10 @@ public class DdiArtifact extends ResourceSupport {
     @JsonProperty
     private Long size;
 
+    @JsonProperty
+    @JsonInclude(Include.NON_EMPTY)
+    private List<DdiArtifactDelta> deltas;
+
     public DdiArtifactHash getHashes() {
         return hashes;
     }
@@ -54,4 +62,15 @@ public class DdiArtifact extends ResourceSupport {
         this.size = size;
     }
 
+    /**
+     * @return the deltas from installed artifacts to this artifact, if any
+     */
+    public List<DdiArtifactDelta> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(final List<DdiArtifactDelta> deltas) {
+        this.deltas = deltas;
+    }
+
 }
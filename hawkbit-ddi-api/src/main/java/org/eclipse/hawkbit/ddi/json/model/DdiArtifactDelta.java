@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.json.model;
+
+import javax.validation.constraints.NotNull;
+
+import org.springframework.hateoas.ResourceSupport;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Download information of a binary delta which turns an installed artifact,
+ * identified by its SHA1 hash, into the {@link DdiArtifact} it belongs to.
+ */
+public class DdiArtifactDelta extends ResourceSupport {
+
+    @NotNull
+    @JsonProperty
+    private String baseSha1;
+
+    @JsonProperty
+    private DdiArtifactHash hashes;
+
+    @JsonProperty
+    private Long size;
+
+    public String getBaseSha1() {
+        return baseSha1;
+    }
+
+    public void setBaseSha1(final String baseSha1) {
+        this.baseSha1 = baseSha1;
+    }
+
+    public DdiArtifactHash getHashes() {
+        return hashes;
+    }
+
+    public void setHashes(final DdiArtifactHash hashes) {
+        this.hashes = hashes;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(final Long size) {
+        this.size = size;
+    }
+
+}
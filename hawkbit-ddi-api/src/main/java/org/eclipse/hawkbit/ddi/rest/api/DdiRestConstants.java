@@ -38,6 +38,12 @@ public final class DdiRestConstants {
      */
     public static final String ARTIFACT_MD5_DWNL_SUFFIX = ".MD5SUM";
 
+    /**
+     * Path below an artifact download for the binary delta from an installed
+     * artifact, followed by the SHA1 hash of the installed artifact.
+     */
+    public static final String ARTIFACT_DELTA_DWNL_PATH = "/deltas/";
+
     /**
      * Config data action resources.
      */
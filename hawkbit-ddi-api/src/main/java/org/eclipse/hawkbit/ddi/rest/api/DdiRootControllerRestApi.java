@@ -16,6 +16,7 @@ import javax.validation.Valid;
 
 import org.eclipse.hawkbit.ddi.json.model.DdiActionFeedback;
 import org.eclipse.hawkbit.ddi.json.model.DdiArtifact;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifactDelta;
 import org.eclipse.hawkbit.ddi.json.model.DdiCancel;
 import org.eclipse.hawkbit.ddi.json.model.DdiConfigData;
 import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
@@ -88,6 +89,30 @@ public interface DdiRootControllerRestApi {
             @PathVariable("softwareModuleId") final Long softwareModuleId,
             @PathVariable("fileName") final String fileName);
 
+    /**
+     * Handles GET {@link DdiArtifactDelta} download request. This could be
+     * full or partial (as specified by RFC7233 (Range Requests)) download
+     * request.
+     *
+     * @param targetid
+     *            of the related target
+     * @param softwareModuleId
+     *            of the parent software module
+     * @param fileName
+     *            of the related local artifact
+     * @param baseSha1
+     *            SHA1 hash of the installed artifact the delta is applied to
+     *
+     * @return response of the servlet which in case of success is status code
+     *         {@link HttpStatus#OK} or in case of partial download
+     *         {@link HttpStatus#PARTIAL_CONTENT}.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/{targetid}/softwaremodules/{softwareModuleId}/artifacts/{fileName}"
+            + DdiRestConstants.ARTIFACT_DELTA_DWNL_PATH + "{baseSha1}")
+    ResponseEntity<InputStream> downloadArtifactDelta(@PathVariable("targetid") final String targetid,
+            @PathVariable("softwareModuleId") final Long softwareModuleId,
+            @PathVariable("fileName") final String fileName, @PathVariable("baseSha1") final String baseSha1);
+
     /**
      * Handles GET {@link DdiArtifact} MD5 checksum file download request.
      *
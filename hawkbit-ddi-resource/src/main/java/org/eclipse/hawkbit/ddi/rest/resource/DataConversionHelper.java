@@ -14,7 +14,6 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -23,7 +22,6 @@ import org.eclipse.hawkbit.api.UrlProtocol;
 import org.eclipse.hawkbit.ddi.dl.rest.api.DdiDlRestConstants;
 import org.eclipse.hawkbit.ddi.json.model.DdiArtifact;
 import org.eclipse.hawkbit.ddi.json.model.DdiArtifactHash;
-import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
 import org.eclipse.hawkbit.ddi.json.model.DdiConfig;
 import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
 import org.eclipse.hawkbit.ddi.json.model.DdiPolling;
@@ -46,16 +44,7 @@ public final class DataConversionHelper {
 
     }
 
-    static List<DdiChunk> createChunks(final String targetid, final Action uAction,
-            final ArtifactUrlHandler artifactUrlHandler) {
-        return uAction.getDistributionSet().getModules().stream()
-                .map(module -> new DdiChunk(mapChunkLegacyKeys(module.getType().getKey()), module.getVersion(),
-                        module.getName(), createArtifacts(targetid, module, artifactUrlHandler)))
-                .collect(Collectors.toList());
-
-    }
-
-    private static String mapChunkLegacyKeys(final String key) {
+    static String mapChunkLegacyKeys(final String key) {
         if ("application".equals(key)) {
             return "bApp";
         }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.SoftwareModuleContentChangedEvent;
+import org.eclipse.hawkbit.repository.ArtifactManagement;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Cache of the {@link LocalArtifact}s resolved by file name per tenant for
+ * the {@link DdiArtifactStoreController}. Legacy controllers download the same
+ * few files over and over again, so the query by file name across all
+ * software modules is only executed once per file name.
+ *
+ * Entries are invalidated on {@link SoftwareModuleContentChangedEvent}s of the
+ * tenant, i.e. if an artifact is uploaded or deleted, and expire after a
+ * while. As the event is delivered asynchronously the caller evicts an entry
+ * whose binary could not be found any more.
+ */
+@Component
+@EventSubscriber
+public class DdiArtifactFilenameCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DdiArtifactFilenameCache.class);
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    @Autowired
+    private ArtifactManagement artifactManagement;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    private final Cache<FilenameKey, LocalArtifact> artifacts = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES).build();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Resolves the artifact with the given file name in the current tenant.
+     * Unknown file names are not cached.
+     *
+     * @param filename
+     *            of the artifact
+     * @return the first found {@link LocalArtifact} or {@code null} if there is
+     *         none
+     */
+    public LocalArtifact findArtifact(final String filename) {
+        final FilenameKey key = new FilenameKey(tenantAware.getCurrentTenant(), filename);
+
+        final LocalArtifact cached = artifacts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long invalidationsBefore = invalidations.get();
+        final List<LocalArtifact> foundArtifacts = artifactManagement.findLocalArtifactByFilename(filename);
+        if (foundArtifacts.isEmpty()) {
+            return null;
+        }
+        if (foundArtifacts.size() > 1) {
+            LOG.warn("Software artifact name {} is not unique. We will use the first entry.", filename);
+        }
+
+        final LocalArtifact artifact = foundArtifacts.get(0);
+        // the module is needed to report the download, load it while the
+        // entity is still attached
+        artifact.getSoftwareModule().getId();
+        if (invalidationsBefore == invalidations.get()) {
+            artifacts.put(key, artifact);
+        }
+        return artifact;
+    }
+
+    /**
+     * Removes an outdated artifact from the cache.
+     *
+     * @param filename
+     *            of the artifact
+     */
+    public void evict(final String filename) {
+        artifacts.invalidate(new FilenameKey(tenantAware.getCurrentTenant(), filename));
+    }
+
+    /**
+     * Invalidates all artifacts of the tenant as the file names are not
+     * unique across software modules.
+     *
+     * @param event
+     *            the change event
+     */
+    @Subscribe
+    public void onSoftwareModuleContentChanged(final SoftwareModuleContentChangedEvent event) {
+        invalidations.incrementAndGet();
+        artifacts.asMap().keySet().removeIf(key -> key.tenant.equalsIgnoreCase(event.getTenant()));
+    }
+
+    private static final class FilenameKey {
+        private final String tenant;
+        private final String filename;
+
+        private FilenameKey(final String tenant, final String filename) {
+            this.tenant = tenant.toUpperCase();
+            this.filename = filename;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, filename);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FilenameKey)) {
+                return false;
+            }
+            final FilenameKey other = (FilenameKey) obj;
+            return tenant.equals(other.tenant) && filename.equals(other.filename);
+        }
+    }
+}
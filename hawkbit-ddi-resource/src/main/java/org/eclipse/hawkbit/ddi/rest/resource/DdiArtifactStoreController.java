@@ -10,34 +10,31 @@ package org.eclipse.hawkbit.ddi.rest.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.cache.CacheWriteNotify;
 import org.eclipse.hawkbit.ddi.dl.rest.api.DdiDlArtifactStoreControllerRestApi;
 import org.eclipse.hawkbit.repository.ArtifactManagement;
 import org.eclipse.hawkbit.repository.ControllerManagement;
-import org.eclipse.hawkbit.repository.model.Action;
-import org.eclipse.hawkbit.repository.model.Action.Status;
-import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.DownloadSession;
+import org.eclipse.hawkbit.repository.DownloadSessionTracker;
+import org.eclipse.hawkbit.repository.exception.GridFSDBFileNotFoundException;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.Target;
-import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
+import org.eclipse.hawkbit.rest.util.FilterHttpResponse;
 import org.eclipse.hawkbit.rest.util.RestResourceConversionHelper;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Scope;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.web.bind.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.context.WebApplicationContext;
 
 /**
  * The {@link DdiArtifactStoreController} of the HawkBit server controller API
@@ -45,9 +42,13 @@ import org.springframework.web.context.WebApplicationContext;
  * independent of their own individual resource. This is offered in addition to
  * the {@link DdiRootController#downloadArtifact(String, Long, String)} for
  * legacy controllers that can not be fed with a download URI at runtime.
+ *
+ * The controller is a stateless singleton. The current request is accessed
+ * through the request scoped proxy and the response through the
+ * {@link FilterHttpResponse}, the artifacts are resolved through the
+ * {@link DdiArtifactFilenameCache}.
  */
 @RestController
-@Scope(WebApplicationContext.SCOPE_REQUEST)
 public class DdiArtifactStoreController implements DdiDlArtifactStoreControllerRestApi {
 
     private static final Logger LOG = LoggerFactory.getLogger(DdiArtifactStoreController.class);
@@ -59,48 +60,60 @@ public class DdiArtifactStoreController implements DdiDlArtifactStoreControllerR
     private ControllerManagement controllerManagement;
 
     @Autowired
-    private CacheWriteNotify cacheWriteNotify;
+    private DownloadSessionTracker downloadSessionTracker;
 
     @Autowired
     private HawkbitSecurityProperties securityProperties;
 
     @Autowired
-    private RequestResponseContextHolder requestResponseContextHolder;
+    private DdiArtifactFilenameCache artifactFilenameCache;
+
+    @Autowired
+    private HttpServletRequest request;
+
+    @Autowired
+    private FilterHttpResponse filterHttpResponse;
 
     @Override
     public ResponseEntity<InputStream> downloadArtifactByFilename(@PathVariable("fileName") final String fileName,
             @AuthenticationPrincipal final String targetid) {
-        final List<LocalArtifact> foundArtifacts = artifactManagement.findLocalArtifactByFilename(fileName);
+        LocalArtifact artifact = artifactFilenameCache.findArtifact(fileName);
 
-        if (foundArtifacts.isEmpty()) {
+        if (artifact == null) {
             LOG.warn("Software artifact with name {} could not be found.", fileName);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
-        if (foundArtifacts.size() > 1) {
-            LOG.warn("Software artifact name {} is not unique. We will use the first entry.", fileName);
-        }
         ResponseEntity<InputStream> result;
-        final LocalArtifact artifact = foundArtifacts.get(0);
+        final HttpServletResponse response = filterHttpResponse.getHttpServletReponse();
 
-        final String ifMatch = requestResponseContextHolder.getHttpServletRequest().getHeader("If-Match");
+        final String ifMatch = request.getHeader("If-Match");
         if (ifMatch != null && !RestResourceConversionHelper.matchesHttpHeader(ifMatch, artifact.getSha1Hash())) {
             result = new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         } else {
-            final DbArtifact file = artifactManagement.loadLocalArtifactBinary(artifact);
+            DbArtifact file;
+            try {
+                file = artifactManagement.loadLocalArtifactBinary(artifact);
+            } catch (final GridFSDBFileNotFoundException e) {
+                // the artifact might have been replaced before the cache was
+                // invalidated
+                LOG.debug("Binary of cached artifact {} not found, resolving again.", fileName, e);
+                artifactFilenameCache.evict(fileName);
+                artifact = artifactFilenameCache.findArtifact(fileName);
+                if (artifact == null) {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                file = artifactManagement.loadLocalArtifactBinary(artifact);
+            }
 
             // we set a download status only if we are aware of the
             // targetid, i.e. authenticated and not anonymous
             if (targetid != null && !"anonymous".equals(targetid)) {
-                final Action action = checkAndReportDownloadByTarget(
-                        requestResponseContextHolder.getHttpServletRequest(), targetid, artifact);
-                result = RestResourceConversionHelper.writeFileResponse(artifact,
-                        requestResponseContextHolder.getHttpServletResponse(),
-                        requestResponseContextHolder.getHttpServletRequest(), file, cacheWriteNotify, action.getId());
+                final DownloadSession session = checkAndReportDownloadByTarget(request, targetid, artifact,
+                        file.getSize());
+                result = RestResourceConversionHelper.writeFileResponse(artifact, response, request, file, session);
             } else {
-                result = RestResourceConversionHelper.writeFileResponse(artifact,
-                        requestResponseContextHolder.getHttpServletResponse(),
-                        requestResponseContextHolder.getHttpServletRequest(), file);
+                result = RestResourceConversionHelper.writeFileResponse(artifact, response, request, file);
             }
 
         }
@@ -109,18 +122,15 @@ public class DdiArtifactStoreController implements DdiDlArtifactStoreControllerR
 
     @Override
     public ResponseEntity<Void> downloadArtifactMD5ByFilename(@PathVariable("fileName") final String fileName) {
-        final List<LocalArtifact> foundArtifacts = artifactManagement.findLocalArtifactByFilename(fileName);
+        final LocalArtifact artifact = artifactFilenameCache.findArtifact(fileName);
 
-        if (foundArtifacts.isEmpty()) {
+        if (artifact == null) {
             LOG.warn("Softeare artifact with name {} could not be found.", fileName);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } else if (foundArtifacts.size() > 1) {
-            LOG.error("Softeare artifact name {} is not unique.", fileName);
         }
 
         try {
-            DataConversionHelper.writeMD5FileResponse(fileName, requestResponseContextHolder.getHttpServletResponse(),
-                    foundArtifacts.get(0));
+            DataConversionHelper.writeMD5FileResponse(fileName, filterHttpResponse.getHttpServletReponse(), artifact);
         } catch (final IOException e) {
             LOG.error("Failed to stream MD5 File", e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -129,29 +139,15 @@ public class DdiArtifactStoreController implements DdiDlArtifactStoreControllerR
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    private Action checkAndReportDownloadByTarget(final HttpServletRequest request, final String targetid,
-            final LocalArtifact artifact) {
+    private DownloadSession checkAndReportDownloadByTarget(final HttpServletRequest request, final String targetid,
+            final LocalArtifact artifact, final long size) {
         final Target target = controllerManagement.updateLastTargetQuery(targetid,
                 IpUtil.getClientIpFromRequest(request, securityProperties.getClients().getRemoteIpHeader()));
 
-        final Action action = controllerManagement
-                .getActionForDownloadByTargetAndSoftwareModule(target.getControllerId(), artifact.getSoftwareModule());
-        final String range = request.getHeader("Range");
-
-        final ActionStatus actionStatus = new ActionStatus();
-        actionStatus.setAction(action);
-        actionStatus.setOccurredAt(System.currentTimeMillis());
-        actionStatus.setStatus(Status.DOWNLOAD);
-
-        if (range != null) {
-            actionStatus.addMessage(ControllerManagement.SERVER_MESSAGE_PREFIX + "Target downloads range " + range
-                    + " of: " + request.getRequestURI());
-        } else {
-            actionStatus.addMessage(
-                    ControllerManagement.SERVER_MESSAGE_PREFIX + "Target downloads: " + request.getRequestURI());
-        }
-        controllerManagement.addActionStatusMessage(actionStatus);
-        return action;
+        final Long actionId = downloadSessionTracker.findActionIdForDownload(target.getControllerId(),
+                artifact.getSoftwareModule());
+        return downloadSessionTracker.startOrResume(actionId, artifact.getSha1Hash(), size, request.getRequestURI(),
+                request.getHeader("Range"));
     }
 
 }
@@ -0,0 +1,334 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.UrlProtocol;
+import org.eclipse.hawkbit.ddi.dl.rest.api.DdiDlRestConstants;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifact;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifactDelta;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifactHash;
+import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
+import org.eclipse.hawkbit.ddi.rest.api.DdiRestConstants;
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.SoftwareModuleContentChangedEvent;
+import org.eclipse.hawkbit.repository.ArtifactDeltaManagement;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Cache of the target independent part of the DDI deploymentBase response per
+ * tenant, {@link DistributionSet} and installed {@link DistributionSet}, which
+ * determines the offered {@link ArtifactDelta}s. The chunks and artifacts are
+ * collected and the download URLs are rendered once with a marker for the
+ * target ID, so a request only has to insert the controller ID into the
+ * pre-split URLs instead of walking the modules and evaluating the URL
+ * patterns again.
+ *
+ * The modules of a distribution set cannot be changed as soon as it is
+ * assigned, but artifacts can still be added or removed. Entries are
+ * therefore invalidated on {@link SoftwareModuleContentChangedEvent}s and
+ * expire after a while to pick up changes of the URL handler configuration.
+ *
+ * Note: the {@link ArtifactUrlHandler} has to insert the target ID verbatim,
+ * which holds for the pattern based handler.
+ */
+@Component
+@EventSubscriber
+public class DdiDeploymentBaseSkeletonCache {
+
+    private static final String TARGET_ID_MARKER = "__hawkbitTargetId__";
+    private static final int MAX_ENTRIES = 1_000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    @Autowired
+    private ArtifactUrlHandler artifactUrlHandler;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private ArtifactDeltaManagement artifactDeltaManagement;
+
+    private final Cache<SkeletonKey, List<ChunkSkeleton>> skeletons = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES).expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES).build();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates the chunks of the deploymentBase response for the given action.
+     *
+     * @param targetid
+     *            the controller ID of the target
+     * @param action
+     *            the action to create the chunks for
+     * @param installedSet
+     *            the distribution set installed on the target or
+     *            {@code null}
+     * @return the chunks of the distribution set of the action
+     */
+    public List<DdiChunk> createChunks(final String targetid, final Action action,
+            final DistributionSet installedSet) {
+        final DistributionSet distributionSet = action.getDistributionSet();
+        final SkeletonKey key = new SkeletonKey(tenantAware.getCurrentTenant(), distributionSet.getId(),
+                installedSet == null ? null : installedSet.getId());
+
+        List<ChunkSkeleton> skeleton = skeletons.getIfPresent(key);
+        if (skeleton == null) {
+            final long invalidationsBefore = invalidations.get();
+            skeleton = createSkeleton(distributionSet, installedSet);
+            // don't cache a skeleton which might have been built from
+            // outdated artifacts
+            if (invalidationsBefore == invalidations.get()) {
+                skeletons.put(key, skeleton);
+            }
+        }
+
+        final List<DdiChunk> chunks = new ArrayList<>(skeleton.size());
+        for (final ChunkSkeleton chunk : skeleton) {
+            chunks.add(chunk.render(targetid));
+        }
+        return chunks;
+    }
+
+    /**
+     * Invalidates all skeletons of the tenant as a software module can be
+     * part of several distribution sets.
+     *
+     * @param event
+     *            the change event
+     */
+    @Subscribe
+    public void onSoftwareModuleContentChanged(final SoftwareModuleContentChangedEvent event) {
+        invalidations.incrementAndGet();
+        skeletons.asMap().keySet().removeIf(key -> key.tenant.equalsIgnoreCase(event.getTenant()));
+    }
+
+    private List<ChunkSkeleton> createSkeleton(final DistributionSet distributionSet,
+            final DistributionSet installedSet) {
+        final boolean http = artifactUrlHandler.protocolSupported(UrlProtocol.HTTP);
+        final boolean https = artifactUrlHandler.protocolSupported(UrlProtocol.HTTPS);
+        final Map<Long, List<ArtifactDelta>> deltasByArtifact = findDeltas(distributionSet, installedSet);
+
+        final List<ChunkSkeleton> chunks = new ArrayList<>();
+        for (final SoftwareModule module : distributionSet.getModules()) {
+            final List<ArtifactSkeleton> artifacts = new ArrayList<>();
+            for (final LocalArtifact artifact : module.getLocalArtifacts()) {
+                final List<LinkTemplate> links = new ArrayList<>(4);
+                final String linkHttp = http ? artifactUrlHandler.getUrl(TARGET_ID_MARKER, module.getId(),
+                        artifact.getFilename(), artifact.getSha1Hash(), UrlProtocol.HTTP) : null;
+                final String linkHttps = https ? artifactUrlHandler.getUrl(TARGET_ID_MARKER, module.getId(),
+                        artifact.getFilename(), artifact.getSha1Hash(), UrlProtocol.HTTPS) : null;
+                if (http) {
+                    links.add(new LinkTemplate(linkHttp, "download-http"));
+                    links.add(new LinkTemplate(linkHttp + DdiDlRestConstants.ARTIFACT_MD5_DWNL_SUFFIX, "md5sum-http"));
+                }
+                if (https) {
+                    links.add(new LinkTemplate(linkHttps, "download"));
+                    links.add(new LinkTemplate(linkHttps + DdiDlRestConstants.ARTIFACT_MD5_DWNL_SUFFIX, "md5sum"));
+                }
+
+                final List<DeltaSkeleton> deltas = new ArrayList<>();
+                for (final ArtifactDelta delta : deltasByArtifact.getOrDefault(artifact.getId(),
+                        Collections.emptyList())) {
+                    final String deltaPath = DdiRestConstants.ARTIFACT_DELTA_DWNL_PATH
+                            + delta.getBaseArtifact().getSha1Hash();
+                    final List<LinkTemplate> deltaLinks = new ArrayList<>(2);
+                    if (http) {
+                        deltaLinks.add(new LinkTemplate(linkHttp + deltaPath, "download-http"));
+                    }
+                    if (https) {
+                        deltaLinks.add(new LinkTemplate(linkHttps + deltaPath, "download"));
+                    }
+                    deltas.add(new DeltaSkeleton(delta, deltaLinks));
+                }
+                artifacts.add(new ArtifactSkeleton(artifact, links, deltas));
+            }
+            chunks.add(new ChunkSkeleton(DataConversionHelper.mapChunkLegacyKeys(module.getType().getKey()),
+                    module.getVersion(), module.getName(), artifacts));
+        }
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * Finds the deltas from the artifacts of the installed distribution set by
+     * the ID of the resulting artifact. The download URL of a delta is the one
+     * of the complete artifact with the SHA1 hash of the installed artifact
+     * appended, like the one of the MD5 checksum file.
+     */
+    private Map<Long, List<ArtifactDelta>> findDeltas(final DistributionSet distributionSet,
+            final DistributionSet installedSet) {
+        if (installedSet == null || installedSet.getId().equals(distributionSet.getId())) {
+            return Collections.emptyMap();
+        }
+        return artifactDeltaManagement
+                .findDeltas(
+                        distributionSet.getModules().stream().map(SoftwareModule::getId)
+                                .collect(Collectors.toList()),
+                        installedSet.getModules().stream().map(SoftwareModule::getId).collect(Collectors.toList()))
+                .stream().collect(Collectors.groupingBy(delta -> delta.getArtifact().getId()));
+    }
+
+    private static final class SkeletonKey {
+        private final String tenant;
+        private final Long distributionSetId;
+        private final Long installedSetId;
+
+        private SkeletonKey(final String tenant, final Long distributionSetId, final Long installedSetId) {
+            this.tenant = tenant.toUpperCase();
+            this.distributionSetId = distributionSetId;
+            this.installedSetId = installedSetId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, distributionSetId, installedSetId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SkeletonKey)) {
+                return false;
+            }
+            final SkeletonKey other = (SkeletonKey) obj;
+            return tenant.equals(other.tenant) && distributionSetId.equals(other.distributionSetId)
+                    && Objects.equals(installedSetId, other.installedSetId);
+        }
+    }
+
+    private static final class ChunkSkeleton {
+        private final String part;
+        private final String version;
+        private final String name;
+        private final List<ArtifactSkeleton> artifacts;
+
+        private ChunkSkeleton(final String part, final String version, final String name,
+                final List<ArtifactSkeleton> artifacts) {
+            this.part = part;
+            this.version = version;
+            this.name = name;
+            this.artifacts = artifacts;
+        }
+
+        private DdiChunk render(final String targetid) {
+            final List<DdiArtifact> files = new ArrayList<>(artifacts.size());
+            for (final ArtifactSkeleton artifact : artifacts) {
+                files.add(artifact.render(targetid));
+            }
+            return new DdiChunk(part, version, name, files);
+        }
+    }
+
+    private static final class ArtifactSkeleton {
+        private final String filename;
+        private final DdiArtifactHash hashes;
+        private final Long size;
+        private final List<LinkTemplate> links;
+        private final List<DeltaSkeleton> deltas;
+
+        private ArtifactSkeleton(final LocalArtifact artifact, final List<LinkTemplate> links,
+                final List<DeltaSkeleton> deltas) {
+            this.filename = artifact.getFilename();
+            this.hashes = new DdiArtifactHash(artifact.getSha1Hash(), artifact.getMd5Hash());
+            this.size = artifact.getSize();
+            this.links = links;
+            this.deltas = deltas;
+        }
+
+        private DdiArtifact render(final String targetid) {
+            final DdiArtifact file = new DdiArtifact();
+            file.setHashes(hashes);
+            file.setFilename(filename);
+            file.setSize(size);
+            for (final LinkTemplate link : links) {
+                file.add(link.render(targetid));
+            }
+            if (!deltas.isEmpty()) {
+                final List<DdiArtifactDelta> fileDeltas = new ArrayList<>(deltas.size());
+                for (final DeltaSkeleton delta : deltas) {
+                    fileDeltas.add(delta.render(targetid));
+                }
+                file.setDeltas(fileDeltas);
+            }
+            return file;
+        }
+    }
+
+    private static final class DeltaSkeleton {
+        private final String baseSha1;
+        private final DdiArtifactHash hashes;
+        private final Long size;
+        private final List<LinkTemplate> links;
+
+        private DeltaSkeleton(final ArtifactDelta delta, final List<LinkTemplate> links) {
+            this.baseSha1 = delta.getBaseArtifact().getSha1Hash();
+            this.hashes = new DdiArtifactHash(delta.getSha1Hash(), delta.getMd5Hash());
+            this.size = delta.getSize();
+            this.links = links;
+        }
+
+        private DdiArtifactDelta render(final String targetid) {
+            final DdiArtifactDelta delta = new DdiArtifactDelta();
+            delta.setBaseSha1(baseSha1);
+            delta.setHashes(hashes);
+            delta.setSize(size);
+            for (final LinkTemplate link : links) {
+                delta.add(link.render(targetid));
+            }
+            return delta;
+        }
+    }
+
+    private static final class LinkTemplate {
+        private static final Pattern MARKER = Pattern.compile(TARGET_ID_MARKER, Pattern.LITERAL);
+
+        private final String[] parts;
+        private final String rel;
+
+        private LinkTemplate(final String url, final String rel) {
+            this.parts = MARKER.split(url, -1);
+            this.rel = rel;
+        }
+
+        private Link render(final String targetid) {
+            if (parts.length == 1) {
+                return new Link(parts[0], rel);
+            }
+            final StringBuilder href = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                href.append(targetid).append(parts[i]);
+            }
+            return new Link(href.toString(), rel);
+        }
+    }
+}
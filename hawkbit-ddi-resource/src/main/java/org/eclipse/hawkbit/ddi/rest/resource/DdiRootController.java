@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.ddi.rest.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -17,7 +18,6 @@ import javax.validation.Valid;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.cache.CacheWriteNotify;
 import org.eclipse.hawkbit.ddi.json.model.DdiActionFeedback;
 import org.eclipse.hawkbit.ddi.json.model.DdiCancel;
 import org.eclipse.hawkbit.ddi.json.model.DdiCancelActionToStop;
@@ -29,13 +29,19 @@ import org.eclipse.hawkbit.ddi.json.model.DdiDeployment.HandlingType;
 import org.eclipse.hawkbit.ddi.json.model.DdiDeploymentBase;
 import org.eclipse.hawkbit.ddi.json.model.DdiResult.FinalResult;
 import org.eclipse.hawkbit.ddi.rest.api.DdiRootControllerRestApi;
+import org.eclipse.hawkbit.repository.ActionFeedbackProperties;
+import org.eclipse.hawkbit.repository.ActionFeedbackQueue;
+import org.eclipse.hawkbit.repository.ArtifactDeltaManagement;
 import org.eclipse.hawkbit.repository.ArtifactManagement;
 import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.DownloadSession;
+import org.eclipse.hawkbit.repository.DownloadSessionTracker;
 import org.eclipse.hawkbit.repository.SoftwareManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -82,7 +88,16 @@ public class DdiRootController implements DdiRootControllerRestApi {
     private ArtifactManagement artifactManagement;
 
     @Autowired
-    private CacheWriteNotify cacheWriteNotify;
+    private ArtifactDeltaManagement artifactDeltaManagement;
+
+    @Autowired
+    private DownloadSessionTracker downloadSessionTracker;
+
+    @Autowired
+    private ActionFeedbackQueue actionFeedbackQueue;
+
+    @Autowired
+    private ActionFeedbackProperties actionFeedbackProperties;
 
     @Autowired
     private HawkbitSecurityProperties securityProperties;
@@ -93,6 +108,9 @@ public class DdiRootController implements DdiRootControllerRestApi {
     @Autowired
     private ArtifactUrlHandler artifactUrlHandler;
 
+    @Autowired
+    private DdiDeploymentBaseSkeletonCache deploymentBaseSkeletonCache;
+
     @Autowired
     private RequestResponseContextHolder requestResponseContextHolder;
 
@@ -158,36 +176,56 @@ public class DdiRootController implements DdiRootControllerRestApi {
             if (ifMatch != null && !RestResourceConversionHelper.matchesHttpHeader(ifMatch, artifact.getSha1Hash())) {
                 result = new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
             } else {
-                final Action action = checkAndLogDownload(requestResponseContextHolder.getHttpServletRequest(), target,
-                        module);
+                final DownloadSession session = checkAndLogDownload(
+                        requestResponseContextHolder.getHttpServletRequest(), target, module, artifact.getSha1Hash(),
+                        file.getSize());
                 result = RestResourceConversionHelper.writeFileResponse(artifact,
                         requestResponseContextHolder.getHttpServletResponse(),
-                        requestResponseContextHolder.getHttpServletRequest(), file, cacheWriteNotify, action.getId());
+                        requestResponseContextHolder.getHttpServletRequest(), file, session);
             }
         }
         return result;
     }
 
-    private Action checkAndLogDownload(final HttpServletRequest request, final Target target,
-            final SoftwareModule module) {
-        final Action action = controllerManagement
-                .getActionForDownloadByTargetAndSoftwareModule(target.getControllerId(), module);
-        final String range = request.getHeader("Range");
+    @Override
+    public ResponseEntity<InputStream> downloadArtifactDelta(@PathVariable("targetid") final String targetid,
+            @PathVariable("softwareModuleId") final Long softwareModuleId,
+            @PathVariable("fileName") final String fileName, @PathVariable("baseSha1") final String baseSha1) {
+        final Target target = controllerManagement.updateLastTargetQuery(targetid,
+                IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
+                        securityProperties.getClients().getRemoteIpHeader()));
+        final SoftwareModule module = softwareManagement.findSoftwareModuleById(softwareModuleId);
+
+        if (checkModule(fileName, module)) {
+            LOG.warn("Softare module with id {} could not be found.", softwareModuleId);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
 
-        final ActionStatus statusMessage = new ActionStatus();
-        statusMessage.setAction(action);
-        statusMessage.setOccurredAt(System.currentTimeMillis());
-        statusMessage.setStatus(Status.DOWNLOAD);
+        final ArtifactDelta delta = artifactDeltaManagement.findDelta(softwareModuleId, fileName, baseSha1);
+        if (delta == null) {
+            LOG.debug("No delta of artifact {} of software module {} for base {}", fileName, softwareModuleId,
+                    baseSha1);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
 
-        if (range != null) {
-            statusMessage.addMessage(ControllerManagement.SERVER_MESSAGE_PREFIX + "Target downloads range " + range
-                    + " of: " + request.getRequestURI());
-        } else {
-            statusMessage.addMessage(
-                    ControllerManagement.SERVER_MESSAGE_PREFIX + "Target downloads " + request.getRequestURI());
+        final DbArtifact file = artifactDeltaManagement.loadDeltaBinary(delta);
+        final String ifMatch = requestResponseContextHolder.getHttpServletRequest().getHeader("If-Match");
+        if (ifMatch != null && !RestResourceConversionHelper.matchesHttpHeader(ifMatch, delta.getSha1Hash())) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         }
-        controllerManagement.addActionStatusMessage(statusMessage);
-        return action;
+
+        final DownloadSession session = checkAndLogDownload(requestResponseContextHolder.getHttpServletRequest(),
+                target, module, delta.getSha1Hash(), file.getSize());
+        return RestResourceConversionHelper.writeFileResponse(delta,
+                requestResponseContextHolder.getHttpServletResponse(),
+                requestResponseContextHolder.getHttpServletRequest(), file, session);
+    }
+
+    private DownloadSession checkAndLogDownload(final HttpServletRequest request, final Target target,
+            final SoftwareModule module, final String sha1Hash, final long size) {
+        final Long actionId = downloadSessionTracker.findActionIdForDownload(target.getControllerId(), module);
+        return downloadSessionTracker.startOrResume(actionId, sha1Hash, size, request.getRequestURI(),
+                request.getHeader("Range"));
     }
 
     private static boolean checkModule(final String fileName, final SoftwareModule module) {
@@ -238,7 +276,8 @@ public class DdiRootController implements DdiRootControllerRestApi {
 
         if (!action.isCancelingOrCanceled()) {
 
-            final List<DdiChunk> chunks = DataConversionHelper.createChunks(targetid, action, artifactUrlHandler);
+            final List<DdiChunk> chunks = deploymentBaseSkeletonCache.createChunks(targetid, action,
+                    target.getTargetInfo().getInstalledDistributionSet());
 
             final HandlingType handlingType = action.isForce() ? HandlingType.FORCED : HandlingType.ATTEMPT;
 
@@ -262,9 +301,13 @@ public class DdiRootController implements DdiRootControllerRestApi {
             @PathVariable("targetid") final String targetid, @PathVariable("actionId") @NotEmpty final Long actionId) {
         LOG.debug("provideBasedeploymentActionFeedback for target [{},{}]: {}", targetid, actionId, feedback);
 
-        final Target target = controllerManagement.updateLastTargetQuery(targetid,
-                IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
-                        securityProperties.getClients().getRemoteIpHeader()));
+        final URI address = IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
+                securityProperties.getClients().getRemoteIpHeader());
+        if (actionFeedbackProperties.isAsync()) {
+            return enqueueBasedeploymentActionFeedback(feedback, targetid, actionId, address);
+        }
+
+        final Target target = controllerManagement.updateLastTargetQuery(targetid, address);
 
         if (!actionId.equals(feedback.getId())) {
             LOG.warn(
@@ -292,6 +335,36 @@ public class DdiRootController implements DdiRootControllerRestApi {
 
     }
 
+    /**
+     * Validates the feedback by means of the action only and queues it, the
+     * last query of the target and the feedback are applied asynchronously.
+     */
+    private ResponseEntity<Void> enqueueBasedeploymentActionFeedback(final DdiActionFeedback feedback,
+            final String targetid, final Long actionId, final URI address) {
+        if (!actionId.equals(feedback.getId())) {
+            LOG.warn(
+                    "provideBasedeploymentActionFeedback: action in payload ({}) was not identical to action in path ({}).",
+                    feedback.getId(), actionId);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        final Action action = findActionWithExceptionIfNotFound(actionId);
+        if (!action.getTarget().getControllerId().equals(targetid)) {
+            LOG.warn(GIVEN_ACTION_IS_NOT_ASSIGNED_TO_GIVEN_TARGET, action.getId(), targetid);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        if (!action.isActive()) {
+            LOG.warn("Updating action {} with feedback {} not possible since action not active anymore.",
+                    action.getId(), feedback.getId());
+            return new ResponseEntity<>(HttpStatus.GONE);
+        }
+
+        actionFeedbackQueue.enqueue(generateUpdateStatus(feedback, targetid, feedback.getId(), action), address);
+
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
     private ActionStatus generateUpdateStatus(final DdiActionFeedback feedback, final String targetid,
             final Long actionid, final Action action) {
 
@@ -29,8 +29,11 @@ import org.apache.commons.lang3.RandomUtils;
 import org.eclipse.hawkbit.TestDataUtil;
 import org.eclipse.hawkbit.WithUser;
 import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.DownloadSessionProperties;
+import org.eclipse.hawkbit.repository.DownloadSessionTracker;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
@@ -69,6 +72,12 @@ public class DdiArtifactDownloadTest extends AbstractRestIntegrationTestWithMong
     @Autowired
     private EventBus eventBus;
 
+    @Autowired
+    private DownloadSessionTracker downloadSessionTracker;
+
+    @Autowired
+    private DownloadSessionProperties downloadSessionProperties;
+
     @Test
     @Description("Tests non allowed requests on the artifact ressource, e.g. invalid URI, wrong if-match, wrong command.")
     public void invalidRequestsOnArtifactResource() throws Exception {
@@ -392,9 +401,9 @@ public class DdiArtifactDownloadTest extends AbstractRestIntegrationTestWithMong
         assertThat(actionRepository.findByTargetAndDistributionSet(pageReq, target, ds).getContent()).hasSize(1);
         final Action action = actionRepository.findByTargetAndDistributionSet(pageReq, target, ds).getContent().get(0);
 
-        // one status - download
-        assertThat(actionStatusRepository.findAll()).hasSize(2);
-        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).hasSize(2);
+        // download start and completion in addition to the running status
+        assertThat(actionStatusRepository.findAll()).hasSize(3);
+        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).hasSize(3);
         assertThat(actionStatusRepository.findByAction(new PageRequest(0, 400, Direction.DESC, "id"), action)
                 .getContent().get(0).getStatus()).isEqualTo(Status.DOWNLOAD);
 
@@ -451,6 +460,11 @@ public class DdiArtifactDownloadTest extends AbstractRestIntegrationTestWithMong
 
         assertThat(outputStream.toByteArray()).isEqualTo(random);
 
+        // the range requests are documented as one download
+        final Action action = actionRepository.findByTargetAndDistributionSet(pageReq, target, ds).getContent().get(0);
+        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).hasSize(3);
+        assertThat(downloadSessionTracker.getSessionCount()).isEqualTo(0);
+
         // return last 1000 Bytes
         MvcResult result = mvc
                 .perform(get("/${tenant}/controller/artifacts/v1/filename/{filename}", tenantAware.getCurrentTenant(),
@@ -562,6 +576,89 @@ public class DdiArtifactDownloadTest extends AbstractRestIntegrationTestWithMong
                 .isEqualTo(new String(artifact.getMd5Hash() + "  file1.tar.bz2").getBytes(Charsets.US_ASCII));
     }
 
+    @Test
+    @WithUser(principal = "4712", authorities = "ROLE_CONTROLLER", allSpPermissions = true)
+    @Description("Ensures that the artifact resolved by file name is not served from the cache after it has been replaced.")
+    public void downloadArtifactByNameAfterArtifactReplaced() throws Exception {
+        // create target
+        Target target = new Target("4712");
+        target = targetManagement.createTarget(target);
+        final List<Target> targets = new ArrayList<>();
+        targets.add(target);
+
+        // create ds
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        deploymentManagement.assignDistributionSet(ds, targets);
+
+        // create artifact and download it
+        final byte first[] = RandomUtils.nextBytes(5 * 1024);
+        final LocalArtifact artifact = artifactManagement.createLocalArtifact(new ByteArrayInputStream(first),
+                ds.findFirstModuleByType(osType).getId(), "file1", false);
+        MvcResult result = mvc
+                .perform(get("/{tenant}/controller/artifacts/v1/filename/{filename}", tenantAware.getCurrentTenant(),
+                        "file1"))
+                .andExpect(status().isOk()).andExpect(header().string("ETag", artifact.getSha1Hash())).andReturn();
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(first);
+
+        // replace the artifact and download again
+        artifactManagement.deleteLocalArtifact(artifact.getId());
+        final byte second[] = RandomUtils.nextBytes(5 * 1024);
+        final LocalArtifact replaced = artifactManagement.createLocalArtifact(new ByteArrayInputStream(second),
+                ds.findFirstModuleByType(osType).getId(), "file1", false);
+        result = mvc
+                .perform(get("/{tenant}/controller/artifacts/v1/filename/{filename}", tenantAware.getCurrentTenant(),
+                        "file1"))
+                .andExpect(status().isOk()).andExpect(header().string("ETag", replaced.getSha1Hash())).andReturn();
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(second);
+    }
+
+    @Test
+    @WithUser(principal = "4712", authorities = "ROLE_CONTROLLER", allSpPermissions = true)
+    @Description("Ensures that an incomplete download is documented as abandoned once the session is idle.")
+    public void abandonedDownloadIsDocumented() throws Exception {
+        // create target
+        Target target = new Target("4712");
+        target = targetManagement.createTarget(target);
+        final List<Target> targets = new ArrayList<>();
+        targets.add(target);
+
+        // create ds
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        deploymentManagement.assignDistributionSet(ds, targets);
+
+        // create artifact
+        final byte random[] = RandomUtils.nextBytes(5 * 1024);
+        artifactManagement.createLocalArtifact(new ByteArrayInputStream(random),
+                ds.findFirstModuleByType(osType).getId(), "file1", false);
+
+        // download the first half in two requests
+        mvc.perform(get("/{tenant}/controller/artifacts/v1/filename/{filename}", tenantAware.getCurrentTenant(),
+                "file1").header("Range", "bytes=0-1023")).andExpect(status().isPartialContent());
+        mvc.perform(get("/{tenant}/controller/artifacts/v1/filename/{filename}", tenantAware.getCurrentTenant(),
+                "file1").header("Range", "bytes=1024-2559")).andExpect(status().isPartialContent());
+
+        final Action action = actionRepository.findByTargetAndDistributionSet(pageReq, target, ds).getContent().get(0);
+        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).hasSize(2);
+
+        final long idleTimeout = downloadSessionProperties.getIdleTimeout();
+        downloadSessionProperties.setIdleTimeout(0);
+        try {
+            downloadSessionTracker.closeIdleSessions();
+        } finally {
+            downloadSessionProperties.setIdleTimeout(idleTimeout);
+        }
+
+        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).hasSize(3);
+        final ActionStatus abandoned = deploymentManagement
+                .findActionStatusByAction(new PageRequest(0, 400, Direction.DESC, "id"), action, true).getContent()
+                .get(0);
+        assertThat(abandoned.getStatus()).isEqualTo(Status.DOWNLOAD);
+        assertThat(abandoned.getMessages().get(0)).contains("2560 of 5120 bytes in 2 request(s)");
+        assertThat(downloadSessionTracker.getSessionCount()).isEqualTo(0);
+    }
+
     @Subscribe
     public void listen(final DownloadProgressEvent event) {
         downLoadProgress++;
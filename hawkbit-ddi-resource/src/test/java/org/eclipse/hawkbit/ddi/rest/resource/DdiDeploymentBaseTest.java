@@ -23,9 +23,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.RandomUtils;
+import org.eclipse.hawkbit.ExecutorBlocker;
 import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.repository.ActionFeedbackProperties;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.Action.Status;
@@ -39,6 +44,7 @@ import org.eclipse.hawkbit.rest.util.JsonBuilder;
 import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
 import org.fest.assertions.core.Condition;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -60,6 +66,12 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTestWithMongoD
     private static final String HTTP_LOCALHOST = "http://localhost:8080/";
     private static final String HTTPS_LOCALHOST = "https://localhost:8080/";
 
+    @Autowired
+    private Executor asyncExecutor;
+
+    @Autowired
+    private ActionFeedbackProperties actionFeedbackProperties;
+
     @Test()
     @Description("Ensures that artifacts are not found, when softare module does not exists.")
     public void artifactsNotFound() throws Exception {
@@ -234,6 +246,50 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTestWithMongoD
         assertThat(actionStatusMessage.getStatus()).isEqualTo(Status.RETRIEVED);
     }
 
+    @Test
+    @Description("Verifies that the cached deployment of a distribution set contains the target specific download URLs "
+            + "and reflects artifacts which are added later on.")
+    public void deploymentOfSameDistributionSetForSeveralTargets() throws Exception {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement, true);
+        final Long osModuleId = ds.findFirstModuleByType(osType).getId();
+        final byte random[] = RandomUtils.nextBytes(1024);
+        artifactManagement.createLocalArtifact(new ByteArrayInputStream(random), osModuleId, "first", false);
+
+        final Target first = targetManagement.createTarget(new Target("first"));
+        final Target second = targetManagement.createTarget(new Target("second"));
+        deploymentManagement.assignDistributionSet(ds.getId(), new String[] { first.getControllerId(),
+                second.getControllerId() });
+
+        final Long firstAction = deploymentManagement.findActiveActionsByTarget(first).get(0).getId();
+        final Long secondAction = deploymentManagement.findActiveActionsByTarget(second).get(0).getId();
+
+        mvc.perform(get("/{tenant}/controller/v1/first/deploymentBase/" + firstAction, tenantAware.getCurrentTenant())
+                .accept(MediaType.APPLICATION_JSON)).andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$deployment.chunks[?(@.part==os)][0].artifacts", hasSize(1)))
+                .andExpect(jsonPath("$deployment.chunks[?(@.part==os)][0].artifacts[0]._links.download.href",
+                        equalTo(HTTPS_LOCALHOST + tenantAware.getCurrentTenant()
+                                + "/controller/v1/first/softwaremodules/" + osModuleId + "/artifacts/first")));
+
+        artifactManagement.createLocalArtifact(new ByteArrayInputStream(random), osModuleId, "second", false);
+        waitForAsyncEvents();
+
+        mvc.perform(get("/{tenant}/controller/v1/second/deploymentBase/" + secondAction, tenantAware.getCurrentTenant())
+                .accept(MediaType.APPLICATION_JSON)).andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$deployment.chunks[?(@.part==os)][0].artifacts", hasSize(2)))
+                .andExpect(jsonPath("$deployment.chunks[?(@.part==os)][0].artifacts[0]._links.download.href",
+                        equalTo(HTTPS_LOCALHOST + tenantAware.getCurrentTenant()
+                                + "/controller/v1/second/softwaremodules/" + osModuleId + "/artifacts/first")));
+    }
+
+    private void waitForAsyncEvents() throws InterruptedException {
+        // the test event bus dispatches with a single thread, so all events
+        // posted before have been handled when this task runs
+        final CountDownLatch latch = new CountDownLatch(1);
+        asyncExecutor.execute(latch::countDown);
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
     @Test
     @Description("Attempt/soft deployment to a controller. Checks if the resource reponse payload  for a given deployment is as expected.")
     public void deplomentAttemptAction() throws Exception {
@@ -675,6 +731,56 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTestWithMongoD
 
     }
 
+    @Test
+    @Description("Verfies that the feedback of the controller is queued and applied asynchronously if the asynchronous feedback is enabled.")
+    public void asyncDeplomentActionFeedback() throws Exception {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        final Target savedTarget = targetManagement.createTarget(new Target("4712"));
+        final List<Target> toAssign = new ArrayList<Target>();
+        toAssign.add(savedTarget);
+        deploymentManagement.assignDistributionSet(ds, toAssign);
+        final Action action = actionRepository.findByDistributionSet(pageReq, ds).getContent().get(0);
+
+        final long current = System.currentTimeMillis();
+        actionFeedbackProperties.setAsync(true);
+        try {
+            try (ExecutorBlocker blocker = blockAsyncTasks()) {
+                mvc.perform(post("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId() + "/feedback",
+                        tenantAware.getCurrentTenant())
+                                .content(JsonBuilder.deploymentActionFeedback(action.getId().toString(), "closed",
+                                        "success"))
+                                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                        .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk());
+
+                // the feedback is queued but not applied yet
+                assertThat(deploymentManagement.findActiveActionsByTarget(savedTarget)).hasSize(1);
+            }
+            waitForAsyncTasks(() -> deploymentManagement.findActiveActionsByTarget(savedTarget).isEmpty());
+
+            // the action is validated before the feedback is queued
+            mvc.perform(post("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId() + "/feedback",
+                    tenantAware.getCurrentTenant())
+                            .content(JsonBuilder.deploymentActionFeedback(action.getId().toString(), "closed",
+                                    "success"))
+                            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isGone());
+            mvc.perform(post("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId() + "/feedback",
+                    tenantAware.getCurrentTenant())
+                            .content(JsonBuilder.deploymentActionFeedback("1234", "closed", "success"))
+                            .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isNotFound());
+        } finally {
+            actionFeedbackProperties.setAsync(false);
+        }
+
+        final Target myT = targetManagement.findTargetByControllerID("4712");
+        assertThat(myT.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.IN_SYNC);
+        assertThat(myT.getTargetInfo().getLastTargetQuery()).isGreaterThanOrEqualTo(current);
+        assertThat(actionStatusRepository.findByAction(pageReq, action).getContent()).haveAtLeast(1,
+                new ActionStatusCondition(Status.FINISHED));
+    }
+
     @Test
     @Description("Verfies that an update action is correctly set to error if the controller provides error feedback.")
     public void rootRsSingleDeplomentActionWithErrorFeedback() throws Exception {
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.amqp;
 
 import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
@@ -138,6 +139,17 @@ public class AmqpConfiguration {
         return new AmqpMessageHandlerService(rabbitTemplate());
     }
 
+    /**
+     * Create the bean which registers the targets of THING_CREATED messages
+     * in batches.
+     *
+     * @return the target registration batcher bean
+     */
+    @Bean
+    public AmqpTargetRegistrationBatcher amqpTargetRegistrationBatcher() {
+        return new AmqpTargetRegistrationBatcher(amqpProperties);
+    }
+
     /**
      * Create default amqp sender service bean.
      *
@@ -150,7 +162,9 @@ public class AmqpConfiguration {
     }
 
     /**
-     * Returns the Listener factory.
+     * Returns the Listener factory. The messages are acknowledged manually, so
+     * THING_CREATED messages are acknowledged after the registration of their
+     * batch, and enough messages are prefetched to fill a batch.
      *
      * @return the {@link SimpleMessageListenerContainer} that gets used receive
      *         AMQP messages
@@ -158,6 +172,8 @@ public class AmqpConfiguration {
     @Bean(name = { "listenerContainerFactory" })
     public SimpleRabbitListenerContainerFactory listenerContainerFactory() {
         final SimpleRabbitListenerContainerFactory containerFactory = new SimpleRabbitListenerContainerFactory();
+        containerFactory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        containerFactory.setPrefetchCount(amqpProperties.getRegistrationBatchSize());
         containerFactory.setDefaultRequeueRejected(false);
         containerFactory.setConnectionFactory(connectionFactory);
         containerFactory.setMissingQueuesFatal(amqpProperties.isMissingQueuesFatal());
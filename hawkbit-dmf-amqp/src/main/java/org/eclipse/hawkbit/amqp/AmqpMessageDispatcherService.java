@@ -12,14 +12,17 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
 import org.eclipse.hawkbit.api.UrlProtocol;
+import org.eclipse.hawkbit.ddi.rest.api.DdiRestConstants;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.Artifact;
+import org.eclipse.hawkbit.dmf.json.model.ArtifactDelta;
 import org.eclipse.hawkbit.dmf.json.model.ArtifactHash;
 import org.eclipse.hawkbit.dmf.json.model.DownloadAndUpdateRequest;
 import org.eclipse.hawkbit.dmf.json.model.SoftwareModule;
@@ -84,14 +87,20 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         downloadAndUpdateRequest.setActionId(targetAssignDistributionSetEvent.getActionId());
         downloadAndUpdateRequest.setTargetSecurityToken(targetAssignDistributionSetEvent.getTargetToken());
 
+        final Map<Long, List<org.eclipse.hawkbit.repository.model.ArtifactDelta>> deltasByArtifact = targetAssignDistributionSetEvent
+                .getArtifactDeltas().stream().collect(Collectors.groupingBy(delta -> delta.getArtifact().getId()));
+
         for (final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule : modules) {
-            final SoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(controllerId, softwareModule);
+            final SoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(controllerId, softwareModule,
+                    deltasByArtifact);
             downloadAndUpdateRequest.addSoftwareModule(amqpSoftwareModule);
         }
 
         final Message message = getMessageConverter().toMessage(downloadAndUpdateRequest,
                 createConnectorMessageProperties(targetAssignDistributionSetEvent.getTenant(), controllerId,
                         EventTopic.DOWNLOAD_AND_INSTALL));
+        setIdempotencyKey(message, targetAssignDistributionSetEvent.getTenant(), controllerId,
+                EventTopic.DOWNLOAD_AND_INSTALL, targetAssignDistributionSetEvent.getActionId());
         amqpSenderService.sendMessage(message, targetAdress);
     }
 
@@ -109,6 +118,8 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         final Long actionId = cancelTargetAssignmentDistributionSetEvent.getActionId();
         final Message message = getMessageConverter().toMessage(actionId, createConnectorMessageProperties(
                 cancelTargetAssignmentDistributionSetEvent.getTenant(), controllerId, EventTopic.CANCEL_DOWNLOAD));
+        setIdempotencyKey(message, cancelTargetAssignmentDistributionSetEvent.getTenant(), controllerId,
+                EventTopic.CANCEL_DOWNLOAD, actionId);
 
         amqpSenderService.sendMessage(message, cancelTargetAssignmentDistributionSetEvent.getTargetAdress());
 
@@ -124,6 +135,15 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
+    /**
+     * The events are published at least once, so the message ID is derived
+     * from the action which allows the receivers to drop duplicates.
+     */
+    private static void setIdempotencyKey(final Message message, final String tenant, final String controllerId,
+            final EventTopic topic, final Long actionId) {
+        message.getMessageProperties().setMessageId(tenant + "." + controllerId + "." + topic + "." + actionId);
+    }
+
     private static MessageProperties createMessageProperties() {
         final MessageProperties messageProperties = new MessageProperties();
         messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
@@ -132,24 +152,55 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
     }
 
     private SoftwareModule convertToAmqpSoftwareModule(final String targetId,
-            final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
+            final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule,
+            final Map<Long, List<org.eclipse.hawkbit.repository.model.ArtifactDelta>> deltasByArtifact) {
         final SoftwareModule amqpSoftwareModule = new SoftwareModule();
         amqpSoftwareModule.setModuleId(softwareModule.getId());
         amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
         amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
 
-        final List<Artifact> artifacts = convertArtifacts(targetId, softwareModule.getLocalArtifacts());
+        final List<Artifact> artifacts = convertArtifacts(targetId, softwareModule.getLocalArtifacts(),
+                deltasByArtifact);
         amqpSoftwareModule.setArtifacts(artifacts);
         return amqpSoftwareModule;
     }
 
-    private List<Artifact> convertArtifacts(final String targetId, final List<LocalArtifact> localArtifacts) {
+    private List<Artifact> convertArtifacts(final String targetId, final List<LocalArtifact> localArtifacts,
+            final Map<Long, List<org.eclipse.hawkbit.repository.model.ArtifactDelta>> deltasByArtifact) {
         if (localArtifacts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(targetId, localArtifact))
-                .collect(Collectors.toList());
+        return localArtifacts.stream().map(localArtifact -> {
+            final Artifact artifact = convertArtifact(targetId, localArtifact);
+            final List<org.eclipse.hawkbit.repository.model.ArtifactDelta> deltas = deltasByArtifact
+                    .get(localArtifact.getId());
+            if (deltas != null) {
+                artifact.setDeltas(deltas.stream().map(delta -> convertArtifactDelta(artifact, delta))
+                        .collect(Collectors.toList()));
+            }
+            return artifact;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * The delta is downloaded from the URL of the artifact with the SHA1 hash
+     * of the installed artifact appended, which is supported by the DDI
+     * download resources.
+     */
+    private static ArtifactDelta convertArtifactDelta(final Artifact artifact,
+            final org.eclipse.hawkbit.repository.model.ArtifactDelta delta) {
+        final ArtifactDelta artifactDelta = new ArtifactDelta();
+        final String path = DdiRestConstants.ARTIFACT_DELTA_DWNL_PATH + delta.getBaseArtifact().getSha1Hash();
+        artifact.getUrls().forEach((protocol, url) -> {
+            if (protocol != Artifact.UrlProtocol.COAP) {
+                artifactDelta.getUrls().put(protocol, url + path);
+            }
+        });
+        artifactDelta.setBaseSha1(delta.getBaseArtifact().getSha1Hash());
+        artifactDelta.setHashes(new ArtifactHash(delta.getSha1Hash(), delta.getMd5Hash()));
+        artifactDelta.setSize(delta.getSize());
+        return artifactDelta;
     }
 
     private Artifact convertArtifact(final String targetId, final LocalArtifact localArtifact) {
@@ -33,6 +33,7 @@ import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken.FileResource;
 import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
+import org.eclipse.hawkbit.metrics.ServiceMetrics;
 import org.eclipse.hawkbit.repository.ArtifactManagement;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
@@ -43,6 +44,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.DownloadTokenSigner;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +69,7 @@ import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.google.common.eventbus.EventBus;
+import com.rabbitmq.client.Channel;
 
 /**
  *
@@ -97,6 +100,15 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     @Autowired
     private HostnameResolver hostnameResolver;
 
+    @Autowired
+    private DownloadTokenSigner downloadTokenSigner;
+
+    @Autowired
+    private AmqpTargetRegistrationBatcher targetRegistrationBatcher;
+
+    @Autowired(required = false)
+    private ServiceMetrics serviceMetrics;
+
     /**
      * Constructor.
      * 
@@ -109,8 +121,9 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.receiverQueue}", containerFactory = "listenerContainerFactory")
     private Message onMessage(final Message message, @Header(MessageHeaderKey.TYPE) final String type,
-            @Header(MessageHeaderKey.TENANT) final String tenant) {
-        return onMessage(message, type, tenant, getRabbitTemplate().getConnectionFactory().getVirtualHost());
+            @Header(MessageHeaderKey.TENANT) final String tenant, final Channel channel) {
+        return onMessage(message, type, tenant, getRabbitTemplate().getConnectionFactory().getVirtualHost(),
+                MessageAcknowledgement.of(channel, message.getMessageProperties().getDeliveryTag()));
     }
 
     /**
@@ -129,15 +142,58 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @return a message if <null> no message is send back to sender
      */
     public Message onMessage(final Message message, final String type, final String tenant, final String virtualHost) {
-        checkContentTypeJson(message);
+        return onMessage(message, type, tenant, virtualHost, MessageAcknowledgement.NONE);
+    }
+
+    /**
+     * Method to handle all incoming amqp messages which are acknowledged
+     * manually. A THING_CREATED message is acknowledged after the
+     * registration of its target has been committed, all other messages are
+     * acknowledged after they have been handled. Messages which could not be
+     * handled are rejected, i.e. sent to the dead letter queue.
+     *
+     * @param message
+     *            incoming message
+     * @param type
+     *            the message type
+     * @param tenant
+     *            the contentType of the message
+     * @param virtualHost
+     *            the virtual host
+     * @param acknowledgement
+     *            of the message
+     * @return a message if <null> no message is send back to sender
+     */
+    public Message onMessage(final Message message, final String type, final String tenant, final String virtualHost,
+            final MessageAcknowledgement acknowledgement) {
+        if (serviceMetrics == null) {
+            return handleMessage(message, type, tenant, virtualHost, acknowledgement);
+        }
+
+        final ServiceMetrics.Sample sample = serviceMetrics.start();
+        boolean failed = true;
+        try {
+            final Message response = handleMessage(message, type, tenant, virtualHost, acknowledgement);
+            failed = false;
+            return response;
+        } finally {
+            serviceMetrics.record(AmqpMessageHandlerService.class.getSimpleName() + "." + type, tenant, sample,
+                    failed);
+        }
+    }
+
+    private Message handleMessage(final Message message, final String type, final String tenant,
+            final String virtualHost, final MessageAcknowledgement acknowledgement) {
         final SecurityContext oldContext = SecurityContextHolder.getContext();
         try {
+            checkContentTypeJson(message);
             final MessageType messageType = MessageType.valueOf(type);
+            Message response = null;
             switch (messageType) {
             case THING_CREATED:
-                setTenantSecurityContext(tenant);
-                registerTarget(message, virtualHost);
-                break;
+                // acknowledged by the batcher after the registration
+                registerTarget(message, tenant, virtualHost, acknowledgement);
+                return null;
             case EVENT:
                 setTenantSecurityContext(tenant);
                 final String topicValue = getStringHeaderKey(message, MessageHeaderKey.TOPIC, "EventTopic is null");
@@ -145,14 +201,19 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
                 handleIncomingEvent(message, eventTopic);
                 break;
             case AUTHENTIFICATION:
-                return handleAuthentifiactionMessage(message);
+                response = handleAuthentifiactionMessage(message);
+                break;
             default:
                 logAndThrowMessageError(message, "No handle method was found for the given message type.");
             }
+            acknowledgement.ack();
+            return response;
+        } catch (final RuntimeException e) {
+            acknowledgement.reject();
+            throw e;
         } finally {
             SecurityContextHolder.setContext(oldContext);
         }
-        return null;
     }
 
     private Message handleAuthentifiactionMessage(final Message message) {
@@ -178,11 +239,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
                 throw new EntityNotFoundException();
             }
             authentificationResponse.setArtifact(artifact);
-            final String downloadId = UUID.randomUUID().toString();
-            // SHA1 key is set, download by SHA1
-            final DownloadArtifactCache downloadCache = new DownloadArtifactCache(DownloadType.BY_SHA1,
-                    localArtifact.getSha1Hash());
-            cache.put(downloadId, downloadCache);
+            final String downloadId = createDownloadId(secruityToken, localArtifact);
             authentificationResponse
                     .setDownloadUrl(UriComponentsBuilder.fromUri(hostnameResolver.resolveHostname().toURI())
                             .path("/api/v1/downloadserver/downloadId/").path(downloadId).build().toUriString());
@@ -205,6 +262,24 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         return getMessageConverter().toMessage(authentificationResponse, messageProperties);
     }
 
+    /**
+     * Creates the ID of the download URL, a signed token if configured,
+     * otherwise a random ID which is stored in the download ID cache.
+     */
+    private String createDownloadId(final TenantSecurityToken secruityToken, final LocalArtifact localArtifact) {
+        if (downloadTokenSigner.isEnabled()) {
+            return downloadTokenSigner.sign(secruityToken.getTenant(), localArtifact.getSha1Hash(),
+                    secruityToken.getControllerId());
+        }
+
+        final String downloadId = UUID.randomUUID().toString();
+        // SHA1 key is set, download by SHA1
+        final DownloadArtifactCache downloadCache = new DownloadArtifactCache(DownloadType.BY_SHA1,
+                localArtifact.getSha1Hash());
+        cache.put(downloadId, downloadCache);
+        return downloadId;
+    }
+
     /**
      * check action for this download purposes, the method will throw an
      * EntityNotFoundException in case the controller is not allowed to download
@@ -263,7 +338,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         SecurityContextHolder.setContext(securityContextImpl);
     }
 
-    private static void setTenantSecurityContext(final String tenantId) {
+    static void setTenantSecurityContext(final String tenantId) {
         final AnonymousAuthenticationToken authenticationToken = new AnonymousAuthenticationToken(
                 UUID.randomUUID().toString(), "AMQP-Controller",
                 Collections.singletonList(new SimpleGrantedAuthority(SpringEvalExpressions.CONTROLLER_ROLE_ANONYMOUS)));
@@ -273,13 +348,20 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     /**
      * Method to create a new target or to find the target if it already exists.
+     * The target is registered with the next batch of the
+     * {@link AmqpTargetRegistrationBatcher}.
      *
-     * @param targetID
-     *            the ID of the target/thing
-     * @param ip
-     *            the ip of the target/thing
+     * @param message
+     *            the THING_CREATED message
+     * @param tenant
+     *            of the target/thing
+     * @param virtualHost
+     *            the virtual host of the reply to queue
+     * @param acknowledgement
+     *            of the message after the target has been registered
      */
-    private void registerTarget(final Message message, final String virtualHost) {
+    private void registerTarget(final Message message, final String tenant, final String virtualHost,
+            final MessageAcknowledgement acknowledgement) {
         final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, "ThingId is null");
         final String replyTo = message.getMessageProperties().getReplyTo();
 
@@ -288,10 +370,8 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
 
         final URI amqpUri = IpUtil.createAmqpUri(virtualHost, replyTo);
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(thingId, amqpUri);
+        targetRegistrationBatcher.register(tenant, thingId, amqpUri, acknowledgement);
         LOG.debug("Target {} reported online state.", thingId);
-
-        lookIfUpdateAvailable(target);
     }
 
     private void lookIfUpdateAvailable(final Target target) {
@@ -445,8 +525,16 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         this.cache = cache;
     }
 
+    void setDownloadTokenSigner(final DownloadTokenSigner downloadTokenSigner) {
+        this.downloadTokenSigner = downloadTokenSigner;
+    }
+
     void setEventBus(final EventBus eventBus) {
         this.eventBus = eventBus;
     }
 
+    void setTargetRegistrationBatcher(final AmqpTargetRegistrationBatcher targetRegistrationBatcher) {
+        this.targetRegistrationBatcher = targetRegistrationBatcher;
+    }
+
 }
@@ -38,6 +38,17 @@ public class AmqpProperties {
      */
     private boolean missingQueuesFatal = false;
 
+    /**
+     * Maximum number of THING_CREATED messages which are registered together.
+     */
+    private int registrationBatchSize = 500;
+
+    /**
+     * Time in milliseconds THING_CREATED messages are collected before they
+     * are registered.
+     */
+    private long registrationBatchDelay = 100;
+
     /**
      * Is missingQueuesFatal enabled
      * 
@@ -95,6 +106,22 @@ public class AmqpProperties {
         this.deadLetterQueue = deadLetterQueue;
     }
 
+    public int getRegistrationBatchSize() {
+        return registrationBatchSize;
+    }
+
+    public void setRegistrationBatchSize(final int registrationBatchSize) {
+        this.registrationBatchSize = registrationBatchSize;
+    }
+
+    public long getRegistrationBatchDelay() {
+        return registrationBatchDelay;
+    }
+
+    public void setRegistrationBatchDelay(final long registrationBatchDelay) {
+        this.registrationBatchDelay = registrationBatchDelay;
+    }
+
     public String getReceiverQueue() {
         return receiverQueue;
     }
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Registers the targets of THING_CREATED messages in micro batches. When a
+ * gateway or broker restarts thousands of things announce themselves at
+ * once, so the registrations are collected for
+ * {@link AmqpProperties#getRegistrationBatchDelay()} or until
+ * {@link AmqpProperties#getRegistrationBatchSize()} registrations are
+ * pending. The targets of a batch are registered per tenant with a few
+ * statements and their pending actions are resolved with one query. The
+ * software modules of a distribution set are loaded once per batch for all
+ * targets the set is assigned to.
+ *
+ * The messages are acknowledged after the registration of their targets has
+ * been committed and rejected, i.e. dead lettered, if the registration
+ * failed. Messages of registrations which are still pending when the node
+ * stops are redelivered by the broker.
+ */
+public class AmqpTargetRegistrationBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpTargetRegistrationBatcher.class);
+
+    @Autowired
+    private ControllerManagement controllerManagement;
+
+    @Autowired
+    private EventBus eventBus;
+
+    private final int batchSize;
+    private final long batchDelay;
+
+    private final BlockingQueue<Registration> registrations = new LinkedBlockingQueue<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("dmf-target-registration-%d").setDaemon(true).build());
+
+    /**
+     * Constructor.
+     *
+     * @param amqpProperties
+     *            containing the size and the delay of the batches
+     */
+    public AmqpTargetRegistrationBatcher(final AmqpProperties amqpProperties) {
+        this.batchSize = amqpProperties.getRegistrationBatchSize();
+        this.batchDelay = amqpProperties.getRegistrationBatchDelay();
+    }
+
+    @PostConstruct
+    void start() {
+        executor.scheduleWithFixedDelay(this::flush, batchDelay, batchDelay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Adds the registration of a target to the next batch.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param address
+     *            the AMQP address of the target
+     * @param acknowledgement
+     *            of the THING_CREATED message
+     */
+    public void register(final String tenant, final String controllerId, final URI address,
+            final MessageAcknowledgement acknowledgement) {
+        registrations.add(new Registration(tenant, controllerId, address, acknowledgement));
+        if (registrations.size() >= batchSize) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Processes all pending registrations.
+     */
+    synchronized void flush() {
+        final List<Registration> batch = new ArrayList<>(batchSize);
+        while (registrations.drainTo(batch, batchSize) > 0) {
+            try {
+                process(batch);
+            } catch (final RuntimeException e) {
+                LOG.error("Registration of {} targets failed", batch.size(), e);
+                batch.forEach(Registration::reject);
+            }
+            batch.clear();
+        }
+    }
+
+    private void process(final List<Registration> batch) {
+        final Map<String, List<Registration>> registrationsByTenant = batch.stream()
+                .collect(Collectors.groupingBy(registration -> registration.tenant, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            registrationsByTenant.forEach((tenant, tenantRegistrations) -> {
+                // the last registration of a target wins
+                final Map<String, URI> addresses = new LinkedHashMap<>();
+                tenantRegistrations
+                        .forEach(registration -> addresses.put(registration.controllerId, registration.address));
+
+                AmqpMessageHandlerService.setTenantSecurityContext(tenant);
+                try {
+                    registerTargets(addresses);
+                    tenantRegistrations.forEach(Registration::ack);
+                } catch (final RuntimeException e) {
+                    // e.g. a target has been registered concurrently by
+                    // another node
+                    LOG.warn("Batch registration of {} targets of tenant {} failed, registering them one by one",
+                            addresses.size(), tenant, e);
+                    final Map<String, List<Registration>> byControllerId = tenantRegistrations.stream()
+                            .collect(Collectors.groupingBy(registration -> registration.controllerId));
+                    addresses.forEach((controllerId, address) -> {
+                        final boolean registered = registerTarget(controllerId, address);
+                        byControllerId.get(controllerId).forEach(registration -> {
+                            if (registered) {
+                                registration.ack();
+                            } else {
+                                registration.reject();
+                            }
+                        });
+                    });
+                }
+            });
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+        LOG.debug("Registered batch of {} targets", batch.size());
+    }
+
+    private void registerTargets(final Map<String, URI> addresses) {
+        final List<Target> targets = controllerManagement.findOrRegisterTargetsIfNotExist(addresses);
+
+        // actions are ordered by ID, the oldest action of a target is sent
+        final Map<Long, Action> actions = new HashMap<>();
+        controllerManagement.findActionByTargetsAndActive(targets)
+                .forEach(action -> actions.putIfAbsent(action.getTarget().getId(), action));
+
+        final Map<Long, List<SoftwareModule>> modules = new HashMap<>();
+        targets.forEach(target -> {
+            final Action action = actions.get(target.getId());
+            if (action != null) {
+                sendUpdate(target, action, addresses.get(target.getControllerId()), modules);
+            }
+        });
+    }
+
+    private boolean registerTarget(final String controllerId, final URI address) {
+        try {
+            final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(controllerId, address);
+            final List<Action> actions = controllerManagement.findActionByTargetAndActive(target);
+            if (!actions.isEmpty()) {
+                sendUpdate(target, actions.get(0), address, new HashMap<>());
+            }
+            return true;
+        } catch (final RuntimeException e) {
+            LOG.error("Registration of target {} failed", controllerId, e);
+            return false;
+        }
+    }
+
+    private void sendUpdate(final Target target, final Action action, final URI address,
+            final Map<Long, List<SoftwareModule>> modules) {
+        final List<SoftwareModule> softwareModules = modules.computeIfAbsent(action.getDistributionSet().getId(),
+                id -> controllerManagement.findSoftwareModulesByDistributionSet(action.getDistributionSet()));
+        eventBus.post(new TargetAssignDistributionSetEvent(target.getOptLockRevision(), target.getTenant(),
+                target.getControllerId(), action.getId(), softwareModules, address, target.getSecurityToken()));
+    }
+
+    void setControllerManagement(final ControllerManagement controllerManagement) {
+        this.controllerManagement = controllerManagement;
+    }
+
+    void setEventBus(final EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    private static final class Registration {
+        private final String tenant;
+        private final String controllerId;
+        private final URI address;
+        private final MessageAcknowledgement acknowledgement;
+        // a message must not be acknowledged twice
+        private boolean acknowledged;
+
+        private Registration(final String tenant, final String controllerId, final URI address,
+                final MessageAcknowledgement acknowledgement) {
+            this.tenant = tenant;
+            this.controllerId = controllerId;
+            this.address = address;
+            this.acknowledgement = acknowledgement;
+        }
+
+        private void ack() {
+            if (!acknowledged) {
+                acknowledged = true;
+                acknowledgement.ack();
+            }
+        }
+
+        private void reject() {
+            if (!acknowledged) {
+                acknowledged = true;
+                acknowledgement.reject();
+            }
+        }
+    }
+}
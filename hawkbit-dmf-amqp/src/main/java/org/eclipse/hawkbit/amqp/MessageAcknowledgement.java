@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rabbitmq.client.Channel;
+
+/**
+ * Acknowledges a received message after it has been processed, which might
+ * happen after the listener has returned, e.g. if the message is processed
+ * with the next batch of the {@link AmqpTargetRegistrationBatcher}.
+ */
+public interface MessageAcknowledgement {
+
+    /**
+     * Acknowledgement of a message which is not acknowledged manually.
+     */
+    MessageAcknowledgement NONE = new MessageAcknowledgement() {
+        @Override
+        public void ack() {
+            // acknowledged by the listener container
+        }
+
+        @Override
+        public void reject() {
+            // rejected by the listener container
+        }
+    };
+
+    /**
+     * Acknowledges the message, i.e. the broker removes it from the queue.
+     */
+    void ack();
+
+    /**
+     * Rejects the message without requeueing it, i.e. the broker sends it to
+     * the dead letter exchange of the queue.
+     */
+    void reject();
+
+    /**
+     * Creates the acknowledgement of a message which has been received with
+     * {@link org.springframework.amqp.core.AcknowledgeMode#MANUAL}.
+     *
+     * @param channel
+     *            the message has been received on
+     * @param deliveryTag
+     *            of the message
+     * @return the acknowledgement
+     */
+    static MessageAcknowledgement of(final Channel channel, final long deliveryTag) {
+        final Logger log = LoggerFactory.getLogger(MessageAcknowledgement.class);
+        return new MessageAcknowledgement() {
+            @Override
+            public void ack() {
+                try {
+                    channel.basicAck(deliveryTag, false);
+                } catch (final IOException | RuntimeException e) {
+                    // the broker redelivers the message
+                    log.warn("Message {} could not be acknowledged", deliveryTag, e);
+                }
+            }
+
+            @Override
+            public void reject() {
+                try {
+                    channel.basicNack(deliveryTag, false, false);
+                } catch (final IOException | RuntimeException e) {
+                    log.warn("Message {} could not be rejected", deliveryTag, e);
+                }
+            }
+        };
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +47,9 @@ import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.helper.SecurityTokenGeneratorHolder;
+import org.eclipse.hawkbit.security.DownloadToken;
+import org.eclipse.hawkbit.security.DownloadTokenSigner;
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.security.SecurityTokenGenerator;
 import org.junit.Before;
 import org.junit.Test;
@@ -103,6 +107,13 @@ public class AmqpMessageHandlerServiceTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Mock
+    private AmqpTargetRegistrationBatcher targetRegistrationBatcherMock;
+
+    private HawkbitSecurityProperties securityProperties;
+
+    private DownloadTokenSigner downloadTokenSigner;
+
     @Before
     public void before() throws Exception {
         messageConverter = new Jackson2JsonMessageConverter();
@@ -114,6 +125,10 @@ public class AmqpMessageHandlerServiceTest {
         amqpMessageHandlerService.setCache(cacheMock);
         amqpMessageHandlerService.setHostnameResolver(hostnameResolverMock);
         amqpMessageHandlerService.setEventBus(eventBus);
+        securityProperties = new HawkbitSecurityProperties();
+        downloadTokenSigner = new DownloadTokenSigner(securityProperties);
+        amqpMessageHandlerService.setDownloadTokenSigner(downloadTokenSigner);
+        amqpMessageHandlerService.setTargetRegistrationBatcher(targetRegistrationBatcherMock);
 
     }
 
@@ -140,14 +155,18 @@ public class AmqpMessageHandlerServiceTest {
 
         final ArgumentCaptor<String> targetIdCaptor = ArgumentCaptor.forClass(String.class);
         final ArgumentCaptor<URI> uriCaptor = ArgumentCaptor.forClass(URI.class);
-        when(controllerManagementMock.findOrRegisterTargetIfItDoesNotexist(targetIdCaptor.capture(),
-                uriCaptor.capture())).thenReturn(null);
+        final MessageAcknowledgement acknowledgement = mock(MessageAcknowledgement.class);
 
-        amqpMessageHandlerService.onMessage(message, MessageType.THING_CREATED.name(), TENANT, "vHost");
+        amqpMessageHandlerService.onMessage(message, MessageType.THING_CREATED.name(), TENANT, "vHost",
+                acknowledgement);
 
         // verify
+        verify(targetRegistrationBatcherMock).register(Matchers.eq(TENANT), targetIdCaptor.capture(),
+                uriCaptor.capture(), Matchers.eq(acknowledgement));
         assertThat(targetIdCaptor.getValue()).as("Thing id is wrong").isEqualTo(knownThingId);
         assertThat(uriCaptor.getValue().toString()).as("Uri is not right").isEqualTo("amqp://vHost/MyTest");
+        verify(acknowledgement, never()).ack();
+        verify(acknowledgement, never()).reject();
 
     }
 
@@ -187,13 +206,16 @@ public class AmqpMessageHandlerServiceTest {
         final MessageProperties messageProperties = createMessageProperties(MessageType.THING_CREATED);
         messageProperties.setHeader(MessageHeaderKey.THING_ID, "");
         final Message message = messageConverter.toMessage(new byte[0], messageProperties);
+        final MessageAcknowledgement acknowledgement = mock(MessageAcknowledgement.class);
 
         try {
-            amqpMessageHandlerService.onMessage(message, type, TENANT, "vHost");
+            amqpMessageHandlerService.onMessage(message, type, TENANT, "vHost", acknowledgement);
             fail("IllegalArgumentException was excepeted due to unknown message type");
         } catch (final IllegalArgumentException exception) {
             // test ok - exception was excepted
         }
+        verify(acknowledgement).reject();
+        verify(acknowledgement, never()).ack();
     }
 
     @Test
@@ -339,6 +361,48 @@ public class AmqpMessageHandlerServiceTest {
                 .startsWith("http://localhost/api/v1/downloadserver/downloadId/");
     }
 
+    @Test
+    @Description("Tests that the download URL contains a signed token instead of a cached download ID if a signing key is configured")
+    public void authenticationRequestIssuesSignedDownloadToken() throws MalformedURLException {
+        securityProperties.getDownloadToken().getKeys().put("k1", "secret");
+        securityProperties.getDownloadToken().setSigningKey("k1");
+
+        final MessageProperties messageProperties = createMessageProperties(MessageType.AUTHENTIFICATION);
+        final TenantSecurityToken securityToken = new TenantSecurityToken(TENANT, "123", FileResource.sha1("12345"));
+        final Message message = amqpMessageHandlerService.getMessageConverter().toMessage(securityToken,
+                messageProperties);
+
+        // mock
+        final LocalArtifact localArtifactMock = mock(LocalArtifact.class);
+        final DbArtifact dbArtifactMock = mock(DbArtifact.class);
+        when(localArtifactMock.getSha1Hash()).thenReturn("12345");
+        when(artifactManagementMock.findFirstLocalArtifactsBySHA1(anyString())).thenReturn(localArtifactMock);
+        when(controllerManagementMock.hasTargetArtifactAssigned(securityToken.getControllerId(), localArtifactMock))
+                .thenReturn(true);
+        when(artifactManagementMock.loadLocalArtifactBinary(localArtifactMock)).thenReturn(dbArtifactMock);
+        when(dbArtifactMock.getArtifactId()).thenReturn("artifactId");
+        when(dbArtifactMock.getSize()).thenReturn(1L);
+        when(dbArtifactMock.getHashes()).thenReturn(new DbArtifactHash("sha1", "md5"));
+        when(hostnameResolverMock.resolveHostname()).thenReturn(new URL("http://localhost"));
+
+        // test
+        final Message onMessage = amqpMessageHandlerService.onMessage(message, MessageType.AUTHENTIFICATION.name(),
+                TENANT, "vHost");
+
+        // verify
+        final DownloadResponse downloadResponse = (DownloadResponse) messageConverter.fromMessage(onMessage);
+        assertThat(downloadResponse.getResponseCode()).as("Message body response code is wrong")
+                .isEqualTo(HttpStatus.OK.value());
+        final String downloadId = downloadResponse.getDownloadUrl()
+                .substring("http://localhost/api/v1/downloadserver/downloadId/".length());
+        final DownloadToken token = downloadTokenSigner.verify(downloadId);
+        assertThat(token).as("download token is not valid").isNotNull();
+        assertThat(token.getTenant()).isEqualTo(TENANT);
+        assertThat(token.getSha1Hash()).isEqualTo("12345");
+        assertThat(token.getControllerId()).isEqualTo("123");
+        verify(cacheMock, never()).put(anyObject(), anyObject());
+    }
+
     @Test
     @Description("Tests TODO")
     public void lookupNextUpdateActionAfterFinished() throws IllegalAccessException {
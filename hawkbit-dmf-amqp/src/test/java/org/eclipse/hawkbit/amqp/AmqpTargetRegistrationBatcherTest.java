@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.eventbus.EventBus;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpTargetRegistrationBatcher Test")
+public class AmqpTargetRegistrationBatcherTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final URI ADDRESS = URI.create("amqp://vHost/MyTest");
+
+    private AmqpTargetRegistrationBatcher batcher;
+
+    @Mock
+    private ControllerManagement controllerManagementMock;
+
+    @Mock
+    private EventBus eventBus;
+
+    @Before
+    public void before() {
+        batcher = new AmqpTargetRegistrationBatcher(new AmqpProperties());
+        batcher.setControllerManagement(controllerManagementMock);
+        batcher.setEventBus(eventBus);
+    }
+
+    @Test
+    @Description("Verifies that the targets of several THING_CREATED messages are registered together and that the "
+            + "software modules of a distribution set are loaded once for all targets it is assigned to.")
+    @SuppressWarnings("unchecked")
+    public void targetsAreRegisteredInOneBatch() {
+        final Target target1 = createTarget(1L, "1");
+        final Target target2 = createTarget(2L, "2");
+        final Target target3 = createTarget(3L, "3");
+        final DistributionSet ds = mock(DistributionSet.class);
+        when(ds.getId()).thenReturn(10L);
+        final List<SoftwareModule> modules = Collections.singletonList(mock(SoftwareModule.class));
+
+        when(controllerManagementMock.findOrRegisterTargetsIfNotExist(Matchers.any()))
+                .thenReturn(Arrays.asList(target1, target2, target3));
+        when(controllerManagementMock.findActionByTargetsAndActive(Matchers.any())).thenReturn(Arrays.asList(
+                createAction(21L, target1, ds), createAction(22L, target2, ds), createAction(23L, target2, ds)));
+        when(controllerManagementMock.findSoftwareModulesByDistributionSet(ds)).thenReturn(modules);
+
+        final MessageAcknowledgement acknowledgement = mock(MessageAcknowledgement.class);
+        batcher.register(TENANT, "1", ADDRESS, acknowledgement);
+        batcher.register(TENANT, "2", ADDRESS, acknowledgement);
+        batcher.register(TENANT, "3", ADDRESS, acknowledgement);
+        batcher.register(TENANT, "1", ADDRESS, acknowledgement);
+        verify(acknowledgement, never()).ack();
+        batcher.flush();
+
+        verify(acknowledgement, times(4)).ack();
+        verify(acknowledgement, never()).reject();
+
+        final ArgumentCaptor<Map> addressesCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(controllerManagementMock, times(1)).findOrRegisterTargetsIfNotExist(addressesCaptor.capture());
+        assertThat(addressesCaptor.getValue()).hasSize(3);
+        verify(controllerManagementMock, times(1)).findSoftwareModulesByDistributionSet(ds);
+        verify(controllerManagementMock, never()).findOrRegisterTargetIfItDoesNotexist(Matchers.any(),
+                Matchers.any());
+
+        final ArgumentCaptor<TargetAssignDistributionSetEvent> eventCaptor = ArgumentCaptor
+                .forClass(TargetAssignDistributionSetEvent.class);
+        verify(eventBus, times(2)).post(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().get(0).getActionId()).isEqualTo(21L);
+        assertThat(eventCaptor.getAllValues().get(1).getActionId()).as("oldest action of the target is sent")
+                .isEqualTo(22L);
+        assertThat(eventCaptor.getAllValues().get(1).getSoftwareModules()).isEqualTo(modules);
+        assertThat(eventCaptor.getAllValues().get(1).getTargetAdress()).isEqualTo(ADDRESS);
+    }
+
+    @Test
+    @Description("Verifies that the targets of a failed batch are registered one by one and that the messages of "
+            + "targets which could not be registered are rejected.")
+    public void failedBatchIsRegisteredOneByOne() {
+        when(controllerManagementMock.findOrRegisterTargetsIfNotExist(Matchers.any()))
+                .thenThrow(new EntityAlreadyExistsException());
+        when(controllerManagementMock.findOrRegisterTargetIfItDoesNotexist("1", ADDRESS))
+                .thenReturn(createTarget(1L, "1"));
+        when(controllerManagementMock.findOrRegisterTargetIfItDoesNotexist("2", ADDRESS))
+                .thenThrow(new EntityAlreadyExistsException());
+
+        final MessageAcknowledgement acknowledgement1 = mock(MessageAcknowledgement.class);
+        final MessageAcknowledgement acknowledgement2 = mock(MessageAcknowledgement.class);
+        batcher.register(TENANT, "1", ADDRESS, acknowledgement1);
+        batcher.register(TENANT, "2", ADDRESS, acknowledgement2);
+        batcher.flush();
+
+        verify(controllerManagementMock).findOrRegisterTargetIfItDoesNotexist("1", ADDRESS);
+        verify(controllerManagementMock).findOrRegisterTargetIfItDoesNotexist("2", ADDRESS);
+        verify(eventBus, never()).post(Matchers.any());
+        verify(acknowledgement1).ack();
+        verify(acknowledgement1, never()).reject();
+        verify(acknowledgement2).reject();
+        verify(acknowledgement2, never()).ack();
+    }
+
+    private static Target createTarget(final Long id, final String controllerId) {
+        final Target target = mock(Target.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getControllerId()).thenReturn(controllerId);
+        when(target.getTenant()).thenReturn(TENANT);
+        return target;
+    }
+
+    private static Action createAction(final Long id, final Target target, final DistributionSet ds) {
+        final Action action = mock(Action.class);
+        when(action.getId()).thenReturn(id);
+        when(action.getTarget()).thenReturn(target);
+        when(action.getDistributionSet()).thenReturn(ds);
+        return action;
+    }
+}
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.dmf.json.model;
 
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -46,6 +47,10 @@ public class Artifact {
     @JsonProperty
     private Map<UrlProtocol, String> urls = new EnumMap<>(UrlProtocol.class);
 
+    @JsonProperty
+    @JsonInclude(Include.NON_EMPTY)
+    private List<ArtifactDelta> deltas;
+
     public Map<UrlProtocol, String> getUrls() {
         return urls;
     }
@@ -78,4 +83,15 @@ public class Artifact {
         this.size = size;
     }
 
+    /**
+     * @return the deltas from installed artifacts to this artifact, if any
+     */
+    public List<ArtifactDelta> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(final List<ArtifactDelta> deltas) {
+        this.deltas = deltas;
+    }
+
 }
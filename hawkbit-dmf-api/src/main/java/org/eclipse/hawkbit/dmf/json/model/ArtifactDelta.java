@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.dmf.json.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.eclipse.hawkbit.dmf.json.model.Artifact.UrlProtocol;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * JSON representation of a binary delta which turns an installed artifact,
+ * identified by its SHA1 hash, into the {@link Artifact} it belongs to.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ArtifactDelta {
+
+    @JsonProperty
+    private String baseSha1;
+
+    @JsonProperty
+    private ArtifactHash hashes;
+
+    @JsonProperty
+    private Long size;
+
+    @JsonProperty
+    private Map<UrlProtocol, String> urls = new EnumMap<>(UrlProtocol.class);
+
+    public String getBaseSha1() {
+        return baseSha1;
+    }
+
+    public void setBaseSha1(final String baseSha1) {
+        this.baseSha1 = baseSha1;
+    }
+
+    public ArtifactHash getHashes() {
+        return hashes;
+    }
+
+    public void setHashes(final ArtifactHash hashes) {
+        this.hashes = hashes;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(final Long size) {
+        this.size = size;
+    }
+
+    public Map<UrlProtocol, String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(final Map<UrlProtocol, String> urls) {
+        this.urls = urls;
+    }
+
+}
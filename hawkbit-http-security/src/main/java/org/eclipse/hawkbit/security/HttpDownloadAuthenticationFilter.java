@@ -16,11 +16,13 @@ import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.security.web.authentication.preauth.AbstractPreAuthenticatedProcessingFilter;
 
 /**
  * Extracts download or upload id from the request URI secruity token and set
- * the security context.
+ * the security context. The id is either a token signed by the
+ * {@link DownloadTokenSigner} or an id stored in the download id cache.
  * 
  *
  *
@@ -32,15 +34,19 @@ public class HttpDownloadAuthenticationFilter extends AbstractPreAuthenticatedPr
 
     private final Pattern pattern;
     private final Cache cache;
+    private final DownloadTokenSigner downloadTokenSigner;
 
     /**
      * Constructor.
      * 
      * @param cache
      *            the cache
+     * @param downloadTokenSigner
+     *            to validate signed download tokens
      */
-    public HttpDownloadAuthenticationFilter(final Cache cache) {
+    public HttpDownloadAuthenticationFilter(final Cache cache, final DownloadTokenSigner downloadTokenSigner) {
         this.cache = cache;
+        this.downloadTokenSigner = downloadTokenSigner;
         this.pattern = Pattern.compile(REQUEST_ID_REGEX_PATTERN);
 
     }
@@ -56,7 +62,12 @@ public class HttpDownloadAuthenticationFilter extends AbstractPreAuthenticatedPr
         if (id == null) {
             return null;
         }
-        return cache.get(id).get();
+        final DownloadToken token = downloadTokenSigner.verify(id);
+        if (token != null) {
+            return token;
+        }
+        final ValueWrapper cached = cache.get(id);
+        return cached == null ? null : cached.get();
     }
 
     @Override
@@ -28,6 +28,8 @@ public class MgmtRolloutRestRequestBody extends MgmtNamedEntity {
 
     private int amountGroups = 1;
 
+    private boolean virtualGroups;
+
     private MgmtRolloutCondition successCondition = new MgmtRolloutCondition();
     private MgmtRolloutSuccessAction successAction = new MgmtRolloutSuccessAction();
     private MgmtRolloutCondition errorCondition = null;
@@ -127,6 +129,22 @@ public class MgmtRolloutRestRequestBody extends MgmtNamedEntity {
         this.amountGroups = groupSize;
     }
 
+    /**
+     * @return {@code true} if the targets of a group are resolved when the
+     *         group is started instead of on creation of the rollout
+     */
+    public boolean isVirtualGroups() {
+        return virtualGroups;
+    }
+
+    /**
+     * @param virtualGroups
+     *            the virtualGroups to set
+     */
+    public void setVirtualGroups(final boolean virtualGroups) {
+        this.virtualGroups = virtualGroups;
+    }
+
     /**
      * @return the forcetime
      */
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.json.model.systemmanagement;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Response body for the progress of a tenant deletion.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtSystemTenantDeletion {
+
+    private final String tenantName;
+    private String state;
+    private String step;
+    private long startedAt;
+    private Long finishedAt;
+    private long deletedEntities;
+    private long deletedBinaries;
+    private double entitiesPerSecond;
+    private String error;
+
+    /**
+     * Constructor.
+     *
+     * @param tenantName
+     */
+    public MgmtSystemTenantDeletion(final String tenantName) {
+        super();
+        this.tenantName = tenantName;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    public void setStep(final String step) {
+        this.step = step;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(final Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getDeletedEntities() {
+        return deletedEntities;
+    }
+
+    public void setDeletedEntities(final long deletedEntities) {
+        this.deletedEntities = deletedEntities;
+    }
+
+    public long getDeletedBinaries() {
+        return deletedBinaries;
+    }
+
+    public void setDeletedBinaries(final long deletedBinaries) {
+        this.deletedBinaries = deletedBinaries;
+    }
+
+    public double getEntitiesPerSecond() {
+        return entitiesPerSecond;
+    }
+
+    public void setEntitiesPerSecond(final double entitiesPerSecond) {
+        this.entitiesPerSecond = entitiesPerSecond;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
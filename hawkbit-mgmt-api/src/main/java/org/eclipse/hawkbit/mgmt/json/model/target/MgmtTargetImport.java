@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.json.model.target;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Response body for the progress of a bulk target import.
+ *
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtTargetImport {
+
+    private final String importId;
+    private String state;
+    private long startedAt;
+    private Long finishedAt;
+    private long processedLines;
+    private long createdTargets;
+    private long failedLines;
+    private double targetsPerSecond;
+    private List<String> errors;
+    private String error;
+
+    /**
+     * Constructor.
+     *
+     * @param importId
+     */
+    public MgmtTargetImport(final String importId) {
+        super();
+        this.importId = importId;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(final Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getProcessedLines() {
+        return processedLines;
+    }
+
+    public void setProcessedLines(final long processedLines) {
+        this.processedLines = processedLines;
+    }
+
+    public long getCreatedTargets() {
+        return createdTargets;
+    }
+
+    public void setCreatedTargets(final long createdTargets) {
+        this.createdTargets = createdTargets;
+    }
+
+    public long getFailedLines() {
+        return failedLines;
+    }
+
+    public void setFailedLines(final long failedLines) {
+        this.failedLines = failedLines;
+    }
+
+    public double getTargetsPerSecond() {
+        return targetsPerSecond;
+    }
+
+    public void setTargetsPerSecond(final double targetsPerSecond) {
+        this.targetsPerSecond = targetsPerSecond;
+    }
+
+    /**
+     * @return the first lines which could not be imported
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(final List<String> errors) {
+        this.errors = errors;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
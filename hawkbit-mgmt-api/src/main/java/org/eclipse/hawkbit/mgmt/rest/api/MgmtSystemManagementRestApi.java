@@ -9,9 +9,11 @@
 package org.eclipse.hawkbit.mgmt.rest.api;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemTenantDeletion;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -26,15 +28,28 @@ import org.springframework.web.bind.annotation.RequestMethod;
 public interface MgmtSystemManagementRestApi {
 
     /**
-     * Deletes the tenant data of a given tenant. USE WITH CARE!
+     * Deletes the tenant data of a given tenant. USE WITH CARE! The tenant
+     * does not accept requests anymore, its data is purged in the background.
      *
      * @param tenant
      *            to delete
-     * @return HttpStatus.OK
+     * @return HttpStatus.ACCEPTED
      */
     @RequestMapping(method = RequestMethod.DELETE, value = "/tenants/{tenant}")
     ResponseEntity<Void> deleteTenant(@PathVariable("tenant") final String tenant);
 
+    /**
+     * Returns the progress of the tenant deletions. The progress is tracked by
+     * the node which purges a tenant, deletions which are purged by another
+     * node are reported as pending.
+     *
+     * @return a list of tenants which are being deleted or have been deleted
+     *         recently
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/tenants/deletions", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<List<MgmtSystemTenantDeletion>> getTenantDeletions();
+
     /**
      * Collects and returns system usage statistics. It provides a system wide
      * overview and tenant based stats.
@@ -45,6 +60,17 @@ public interface MgmtSystemManagementRestApi {
             MediaType.APPLICATION_JSON_VALUE })
     ResponseEntity<MgmtSystemStatisticsRest> getSystemUsageStats();
 
+    /**
+     * Returns the system usage statistics which have been calculated last in
+     * the background. In contrast to {@link #getSystemUsageStats()} the
+     * statistics are not calculated on request, i.e. they might be outdated.
+     *
+     * @return system usage statistics snapshot
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/usage/snapshot", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtSystemStatisticsRest> getSystemUsageStatsSnapshot();
+
     /**
      * Returns a list of all caches.
      *
@@ -17,6 +17,7 @@ import org.eclipse.hawkbit.mgmt.json.model.distributionset.MgmtDistributionSet;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtDistributionSetAssigment;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTarget;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetAttributes;
+import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetImport;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetRequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Api for handling target operations.
@@ -86,6 +88,44 @@ public interface MgmtTargetRestApi {
             MediaType.APPLICATION_JSON_VALUE }, produces = { "application/hal+json", MediaType.APPLICATION_JSON_VALUE })
     ResponseEntity<List<MgmtTarget>> createTargets(@RequestBody final List<MgmtTargetRequestBody> targets);
 
+    /**
+     * Handles the POST request of importing a large number of targets from a
+     * CSV file with one {@code controllerId,name} pair per line. The targets
+     * are imported in the background.
+     *
+     * @param file
+     *            the UTF-8 encoded CSV file
+     * @param description
+     *            of all imported targets
+     * @param distributionSetId
+     *            of the distribution set which is assigned to all imported
+     *            targets
+     * @param tagIds
+     *            of the target tags which are assigned to all imported
+     *            targets
+     * @return the progress of the started import with status ACCEPTED. In
+     *         any failure the JsonResponseExceptionHandler is handling the
+     *         response.
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/imports", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTargetImport> importTargets(@RequestParam("file") final MultipartFile file,
+            @RequestParam(value = "description", required = false) final String description,
+            @RequestParam(value = "distributionSetId", required = false) final Long distributionSetId,
+            @RequestParam(value = "tagIds", required = false) final List<Long> tagIds);
+
+    /**
+     * Handles the GET request of retrieving the progress of a target import.
+     *
+     * @param importId
+     *            the ID of the import
+     * @return the progress of the import with status OK or NOT_FOUND if the
+     *         import is not known.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/imports/{importId}", produces = { "application/hal+json",
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtTargetImport> getTargetImport(@PathVariable("importId") final String importId);
+
     /**
      * Handles the PUT request of updating a target. The ID is within the URL
      * path of the request. A given ID in the request body is ignored. It's not
@@ -17,6 +17,8 @@ import org.eclipse.hawkbit.cache.CacheConstants;
 import org.eclipse.hawkbit.cache.DownloadArtifactCache;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtDownloadRestApi;
 import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
+import org.eclipse.hawkbit.security.DownloadToken;
+import org.eclipse.hawkbit.security.DownloadTokenSigner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,8 +55,13 @@ public class MgmtDownloadResource implements MgmtDownloadRestApi {
     @Autowired
     private RequestResponseContextHolder requestResponseContextHolder;
 
+    @Autowired
+    private DownloadTokenSigner downloadTokenSigner;
+
     /**
-     * Handles the GET request for downloading an artifact.
+     * Handles the GET request for downloading an artifact. The download id is
+     * either a signed token which can be used until it expires or a cached id
+     * which is removed with the download.
      * 
      * @param downloadId
      *            the generated download id
@@ -64,6 +71,17 @@ public class MgmtDownloadResource implements MgmtDownloadRestApi {
     @Override
     @ResponseBody
     public ResponseEntity<Void> downloadArtifactByDownloadId(@PathVariable("downloadId") final String downloadId) {
+        final DownloadToken token = downloadTokenSigner.verify(downloadId);
+        if (token != null) {
+            final DbArtifact artifact = artifactRepository.getArtifactBySha1(token.getSha1Hash());
+            if (artifact == null) {
+                LOGGER.warn("Artifact with signed SHA1 {} of tenant {} could not be found.", token.getSha1Hash(),
+                        token.getTenant());
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return writeArtifact(artifact);
+        }
+
         try {
             final ValueWrapper cacheWrapper = cache.get(downloadId);
             if (cacheWrapper == null) {
@@ -88,17 +106,20 @@ public class MgmtDownloadResource implements MgmtDownloadRestApi {
                         artifactCache.getId(), artifactCache.getDownloadType());
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            try {
-                IOUtils.copy(artifact.getFileInputStream(),
-                        requestResponseContextHolder.getHttpServletResponse().getOutputStream());
-            } catch (final IOException e) {
-                LOGGER.error("Cannot copy streams", e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-            }
+            return writeArtifact(artifact);
         } finally {
             cache.evict(downloadId);
         }
+    }
 
+    private ResponseEntity<Void> writeArtifact(final DbArtifact artifact) {
+        try {
+            IOUtils.copy(artifact.getFileInputStream(),
+                    requestResponseContextHolder.getHttpServletResponse().getOutputStream());
+        } catch (final IOException e) {
+            LOGGER.error("Cannot copy streams", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
         return ResponseEntity.ok().build();
     }
 }
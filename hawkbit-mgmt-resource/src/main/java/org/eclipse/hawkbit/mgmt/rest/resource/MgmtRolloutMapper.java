@@ -90,6 +90,7 @@ final class MgmtRolloutMapper {
         rollout.setDescription(restRequest.getDescription());
         rollout.setDistributionSet(distributionSet);
         rollout.setTargetFilterQuery(filterQuery);
+        rollout.setVirtualGroups(restRequest.isVirtualGroups());
         final ActionType convertActionType = MgmtRestModelMapper.convertActionType(restRequest.getType());
         if (convertActionType != null) {
             rollout.setActionType(convertActionType);
@@ -16,11 +16,13 @@ import java.util.stream.Collectors;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemTenantDeletion;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemTenantServiceUsage;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtSystemManagementRestApi;
 import org.eclipse.hawkbit.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.report.model.TenantUsage;
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,16 +50,43 @@ public class MgmtSystemManagementResource implements MgmtSystemManagementRestApi
     private CacheManager cacheManager;
 
     /**
-     * Deletes the tenant data of a given tenant. USE WITH CARE!
+     * Deletes the tenant data of a given tenant. USE WITH CARE! The tenant
+     * does not accept requests anymore, its data is purged in the background.
      *
      * @param tenant
      *            to delete
-     * @return HttpStatus.OK
+     * @return HttpStatus.ACCEPTED
      */
     @Override
     public ResponseEntity<Void> deleteTenant(@PathVariable("tenant") final String tenant) {
         systemManagement.deleteTenant(tenant);
-        return new ResponseEntity<>(HttpStatus.OK);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Returns the progress of the tenant deletions.
+     *
+     * @return a list of tenants which are being deleted or have been deleted
+     *         recently
+     */
+    @Override
+    public ResponseEntity<List<MgmtSystemTenantDeletion>> getTenantDeletions() {
+        return ResponseEntity.ok(systemManagement.findTenantDeletions().stream()
+                .map(MgmtSystemManagementResource::convertDeletion).collect(Collectors.toList()));
+    }
+
+    private static MgmtSystemTenantDeletion convertDeletion(final TenantDeletionProgress progress) {
+        final MgmtSystemTenantDeletion result = new MgmtSystemTenantDeletion(progress.getTenant());
+        result.setState(progress.getState().name());
+        result.setStep(progress.getStep());
+        result.setStartedAt(progress.getStartedAt());
+        result.setFinishedAt(progress.getFinishedAt());
+        result.setDeletedEntities(progress.getDeletedEntities());
+        result.setDeletedBinaries(progress.getDeletedBinaries());
+        result.setEntitiesPerSecond(progress.getEntitiesPerSecond());
+        result.setError(progress.getError());
+
+        return result;
     }
 
     /**
@@ -68,8 +97,20 @@ public class MgmtSystemManagementResource implements MgmtSystemManagementRestApi
      */
     @Override
     public ResponseEntity<MgmtSystemStatisticsRest> getSystemUsageStats() {
-        final SystemUsageReport report = systemManagement.getSystemUsageStatistics();
+        return ResponseEntity.ok(convertUsage(systemManagement.getSystemUsageStatistics()));
+    }
 
+    /**
+     * Returns the system usage statistics which have been calculated last.
+     *
+     * @return system usage statistics snapshot
+     */
+    @Override
+    public ResponseEntity<MgmtSystemStatisticsRest> getSystemUsageStatsSnapshot() {
+        return ResponseEntity.ok(convertUsage(systemManagement.getSystemUsageStatisticsSnapshot()));
+    }
+
+    private static MgmtSystemStatisticsRest convertUsage(final SystemUsageReport report) {
         final MgmtSystemStatisticsRest result = new MgmtSystemStatisticsRest()
                 .setOverallActions(report.getOverallActions()).setOverallArtifacts(report.getOverallArtifacts())
                 .setOverallArtifactVolumeInBytes(report.getOverallArtifactVolumeInBytes())
@@ -78,7 +119,7 @@ public class MgmtSystemManagementResource implements MgmtSystemManagementRestApi
         result.setTenantStats(report.getTenants().stream().map(MgmtSystemManagementResource::convertTenant)
                 .collect(Collectors.toList()));
 
-        return ResponseEntity.ok(result);
+        return result;
     }
 
     private static MgmtSystemTenantServiceUsage convertTenant(final TenantUsage tenant) {
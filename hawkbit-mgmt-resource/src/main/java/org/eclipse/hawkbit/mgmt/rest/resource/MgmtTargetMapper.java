@@ -21,6 +21,7 @@ import org.eclipse.hawkbit.mgmt.json.model.MgmtPollStatus;
 import org.eclipse.hawkbit.mgmt.json.model.action.MgmtAction;
 import org.eclipse.hawkbit.mgmt.json.model.action.MgmtActionStatus;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTarget;
+import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetImport;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetRequestBody;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetRestApi;
@@ -28,6 +29,7 @@ import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress;
 import org.eclipse.hawkbit.repository.model.TargetInfo.PollStatus;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.rest.data.SortDirection;
@@ -168,6 +170,20 @@ public final class MgmtTargetMapper {
         return targetRest;
     }
 
+    static MgmtTargetImport toResponse(final TargetImportProgress progress) {
+        final MgmtTargetImport result = new MgmtTargetImport(progress.getId());
+        result.setState(progress.getState().name());
+        result.setStartedAt(progress.getStartedAt());
+        result.setFinishedAt(progress.getFinishedAt());
+        result.setProcessedLines(progress.getProcessedLines());
+        result.setCreatedTargets(progress.getCreatedTargets());
+        result.setFailedLines(progress.getFailedLines());
+        result.setTargetsPerSecond(progress.getTargetsPerSecond());
+        result.setErrors(progress.getErrors());
+        result.setError(progress.getError());
+        return result;
+    }
+
     static List<Target> fromRequest(final Iterable<MgmtTargetRequestBody> targetsRest) {
         final List<Target> mappedList = new ArrayList<>();
         for (final MgmtTargetRequestBody targetRest : targetsRest) {
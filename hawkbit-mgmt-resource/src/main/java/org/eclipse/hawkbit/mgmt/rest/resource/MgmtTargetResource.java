@@ -11,6 +11,9 @@ package org.eclipse.hawkbit.mgmt.rest.resource;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +25,7 @@ import org.eclipse.hawkbit.mgmt.json.model.distributionset.MgmtDistributionSet;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtDistributionSetAssigment;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTarget;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetAttributes;
+import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetImport;
 import org.eclipse.hawkbit.mgmt.json.model.target.MgmtTargetRequestBody;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtDistributionSetRestApi;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
@@ -31,12 +35,14 @@ import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress;
 import org.eclipse.hawkbit.repository.rsql.RSQLUtility;
 import org.eclipse.hawkbit.rest.data.SortDirection;
 import org.slf4j.Logger;
@@ -53,6 +59,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * REST Resource handling target CRUD operations.
@@ -67,6 +74,9 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
     @Autowired
     private DeploymentManagement deploymentManagement;
 
+    @Autowired
+    private TargetImportManagement targetImportManagement;
+
     @Override
     public ResponseEntity<MgmtTarget> getTarget(@PathVariable("targetId") final String targetId) {
         final Target findTarget = findTargetWithExceptionIfNotFound(targetId);
@@ -115,6 +125,46 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
         return new ResponseEntity<>(MgmtTargetMapper.toResponse(createdTargets), HttpStatus.CREATED);
     }
 
+    @Override
+    public ResponseEntity<MgmtTargetImport> importTargets(@RequestParam("file") final MultipartFile file,
+            @RequestParam(value = "description", required = false) final String description,
+            @RequestParam(value = "distributionSetId", required = false) final Long distributionSetId,
+            @RequestParam(value = "tagIds", required = false) final List<Long> tagIds) {
+        if (file.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // the upload is only available during the request, the import
+        // deletes the copy as soon as it has been started
+        File csvFile = null;
+        boolean started = false;
+        try {
+            csvFile = File.createTempFile("target-import", ".csv");
+            file.transferTo(csvFile);
+            final TargetImportProgress progress = targetImportManagement.importTargetsAsync(csvFile, description,
+                    distributionSetId, tagIds == null ? Collections.emptyList() : tagIds);
+            started = true;
+            return new ResponseEntity<>(MgmtTargetMapper.toResponse(progress), HttpStatus.ACCEPTED);
+        } catch (final IOException e) {
+            LOG.error("Failed to store target import file", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            // e.g. if the import has been denied before it has been started
+            if (!started && csvFile != null && csvFile.exists() && !csvFile.delete()) {
+                LOG.warn("Target import file {} could not be deleted", csvFile);
+            }
+        }
+    }
+
+    @Override
+    public ResponseEntity<MgmtTargetImport> getTargetImport(@PathVariable("importId") final String importId) {
+        final TargetImportProgress progress = targetImportManagement.findTargetImport(importId);
+        if (progress == null) {
+            throw new EntityNotFoundException("Target import with Id {" + importId + "} does not exist");
+        }
+        return new ResponseEntity<>(MgmtTargetMapper.toResponse(progress), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<MgmtTarget> updateTarget(@PathVariable("targetId") final String targetId,
             @RequestBody final MgmtTargetRequestBody targetRest) {
@@ -21,6 +21,9 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.rest.AbstractRestIntegrationTestWithMongoDB;
 import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.eclipse.hawkbit.security.DownloadTokenSigner;
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,8 +42,16 @@ public class MgmtDownloadResourceTest extends AbstractRestIntegrationTestWithMon
     @Qualifier(CacheConstants.DOWNLOAD_ID_CACHE)
     private Cache downloadIdCache;
 
+    @Autowired
+    private DownloadTokenSigner downloadTokenSigner;
+
+    @Autowired
+    private HawkbitSecurityProperties securityProperties;
+
     private final String downloadIdSha1 = "downloadIdSha1";
 
+    private String artifactSha1;
+
     private final String downloadIdNotAvailable = "downloadIdNotAvailable";
 
     @Before
@@ -52,7 +63,14 @@ public class MgmtDownloadResourceTest extends AbstractRestIntegrationTestWithMon
         final Artifact artifact = TestDataUtil.generateArtifacts(artifactManagement, softwareModule.getId()).stream()
                 .findFirst().get();
 
-        downloadIdCache.put(downloadIdSha1, new DownloadArtifactCache(DownloadType.BY_SHA1, artifact.getSha1Hash()));
+        artifactSha1 = artifact.getSha1Hash();
+        downloadIdCache.put(downloadIdSha1, new DownloadArtifactCache(DownloadType.BY_SHA1, artifactSha1));
+    }
+
+    @After
+    public void removeSigningKey() {
+        securityProperties.getDownloadToken().getKeys().clear();
+        securityProperties.getDownloadToken().setSigningKey("");
     }
 
     @Test
@@ -78,4 +96,29 @@ public class MgmtDownloadResourceTest extends AbstractRestIntegrationTestWithMon
 
     }
 
+    @Test
+    @Description("This test verifies that a signed download token is accepted repeatedly without the cache and rejected once its key is removed.")
+    public void testDownloadWithSignedToken() throws Exception {
+        securityProperties.getDownloadToken().getKeys().put("k1", "secret");
+        securityProperties.getDownloadToken().setSigningKey("k1");
+        final String token = downloadTokenSigner.sign(tenantAware.getCurrentTenant(), artifactSha1, "4711");
+
+        mvc.perform(get(MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING_BASE
+                + MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING, token)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk());
+
+        // not bound to a cache entry
+        mvc.perform(get(MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING_BASE
+                + MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING, token)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk());
+
+        // signed with a key which has been removed
+        securityProperties.getDownloadToken().getKeys().put("k2", "other");
+        securityProperties.getDownloadToken().setSigningKey("k2");
+        securityProperties.getDownloadToken().getKeys().remove("k1");
+        mvc.perform(get(MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING_BASE
+                + MgmtRestConstants.DOWNLOAD_ID_V1_REQUEST_MAPPING, token)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isNotFound());
+    }
+
 }
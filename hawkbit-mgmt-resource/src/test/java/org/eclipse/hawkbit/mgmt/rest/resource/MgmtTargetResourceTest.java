@@ -15,6 +15,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -22,6 +23,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -61,6 +63,7 @@ import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MvcResult;
 
 import com.google.common.collect.Lists;
@@ -1280,6 +1283,39 @@ public class MgmtTargetResourceTest extends AbstractRestIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Verifies that a CSV import is started in the background and that its progress can be retrieved.")
+    public void importTargetsFromCsv() throws Exception {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("import", softwareManagement,
+                distributionSetManagement);
+        final MockMultipartFile file = new MockMultipartFile("file", "targets.csv", null,
+                "import1,name1\nimport2,name2\ninvalid\n".getBytes(StandardCharsets.UTF_8));
+
+        final MvcResult result = mvc
+                .perform(fileUpload(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/imports").file(file)
+                        .param("distributionSetId", String.valueOf(ds.getId())).accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isAccepted())
+                .andExpect(jsonPath("$importId").exists()).andReturn();
+        final String importId = JsonPath.read(result.getResponse().getContentAsString(), "$importId");
+
+        String state = "RUNNING";
+        for (int i = 0; i < 100 && "RUNNING".equals(state); i++) {
+            Thread.sleep(100);
+            state = JsonPath.read(mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/imports/{importId}",
+                    importId)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), "$state");
+        }
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/imports/{importId}", importId))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$state", equalTo("FINISHED"))).andExpect(jsonPath("$createdTargets", equalTo(2)))
+                .andExpect(jsonPath("$failedLines", equalTo(1))).andExpect(jsonPath("$errors", hasSize(1)));
+        assertThat(targetManagement.findTargetByControllerIDWithDetails("import2").getAssignedDistributionSet()
+                .getId()).isEqualTo(ds.getId());
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/imports/{importId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * helper method to give feedback mark an target IN_SNCY
      * 
@@ -17,12 +17,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.orm.jpa.EntityManagerHolder;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * {@link JpaTransactionManager} that sets the
  * {@link TenantAware#getCurrentTenant()} in the eclipselink session. This has
  * to be done in eclipselink after a {@link Transaction} has been started.
+ * Committed write transactions are reported to the
+ * {@link ReplicaRoutingDataSource} if read replicas are configured.
  *
  */
 public class MultiTenantJpaTransactionManager extends JpaTransactionManager {
@@ -31,6 +34,9 @@ public class MultiTenantJpaTransactionManager extends JpaTransactionManager {
     @Autowired
     private transient TenantAware tenantAware;
 
+    @Autowired(required = false)
+    private transient ReplicaRoutingDataSource replicaRoutingDataSource;
+
     @Override
     protected void doBegin(final Object transaction, final TransactionDefinition definition) {
         super.doBegin(transaction, definition);
@@ -43,4 +49,13 @@ public class MultiTenantJpaTransactionManager extends JpaTransactionManager {
             em.setProperty(PersistenceUnitProperties.MULTITENANT_PROPERTY_DEFAULT, currentTenant.toUpperCase());
         }
     }
+
+    @Override
+    protected void doCommit(final DefaultTransactionStatus status) {
+        super.doCommit(status);
+
+        if (replicaRoutingDataSource != null && !status.isReadOnly()) {
+            replicaRoutingDataSource.writeCommitted();
+        }
+    }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties of the read replicas which serve the read-only transactions of
+ * the repository. Credentials and driver default to the ones of the primary
+ * {@code spring.datasource}.
+ *
+ */
+@ConfigurationProperties("hawkbit.server.repository.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Routes read-only transactions to the replicas if enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * JDBC URLs of the replicas, the read-only transactions are distributed
+     * round robin.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Login user of the replicas, defaults to the one of the primary.
+     */
+    private String username;
+
+    /**
+     * Login password of the replicas, defaults to the one of the primary.
+     */
+    private String password;
+
+    /**
+     * Time in milliseconds after a write transaction in which read-only
+     * transactions of the same user and tenant are still served by the
+     * primary, i.e. the maximum accepted replication lag.
+     */
+    private long readYourWritesWindow = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(final List<String> urls) {
+        this.urls = urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(final String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(final String password) {
+        this.password = password;
+    }
+
+    public long getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(final long readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuration of the {@link ReplicaRoutingDataSource} which is used by JPA
+ * and flyway instead of the default {@code spring.datasource} if the read
+ * replicas are enabled by {@link ReplicaDataSourceProperties#isEnabled()}.
+ * The router is wrapped into a {@link LazyConnectionDataSourceProxy} as the
+ * transaction manager fetches the connection when it begins the transaction,
+ * i.e. before the read-only flag of the transaction is known to the router.
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hawkbit.server.repository.replica", name = "enabled")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaRoutingConfiguration {
+
+    /**
+     * @param properties
+     *            of the primary database
+     * @return the primary {@link DataSource}, bound to the
+     *         {@code spring.datasource} properties as the default one
+     */
+    @Bean
+    @ConfigurationProperties(prefix = DataSourceProperties.PREFIX)
+    public DataSource primaryDataSource(final DataSourceProperties properties) {
+        return DataSourceBuilder.create(properties.getClassLoader()).driverClassName(properties.getDriverClassName())
+                .url(properties.getUrl()).username(properties.getUsername()).password(properties.getPassword())
+                .build();
+    }
+
+    /**
+     * @param properties
+     *            of the primary database
+     * @param replicaProperties
+     *            of the read replicas
+     * @param tenantAware
+     *            to determine the tenant of the writing user
+     * @return the {@link ReplicaRoutingDataSource}
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final DataSourceProperties properties,
+            final ReplicaDataSourceProperties replicaProperties, final TenantAware tenantAware) {
+        final String username = replicaProperties.getUsername() != null ? replicaProperties.getUsername()
+                : properties.getUsername();
+        final String password = replicaProperties.getPassword() != null ? replicaProperties.getPassword()
+                : properties.getPassword();
+
+        final List<DataSource> replicas = replicaProperties.getUrls().stream()
+                .map(url -> DataSourceBuilder.create(properties.getClassLoader())
+                        .driverClassName(properties.getDriverClassName()).url(url).username(username)
+                        .password(password).build())
+                .collect(Collectors.toList());
+
+        return new ReplicaRoutingDataSource(primaryDataSource(properties), replicas, tenantAware,
+                replicaProperties.getReadYourWritesWindow());
+    }
+
+    /**
+     * @param replicaRoutingDataSource
+     *            which routes the connections
+     * @return the {@link DataSource} which fetches the connection from the
+     *         {@link ReplicaRoutingDataSource} on the first statement of the
+     *         transaction
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
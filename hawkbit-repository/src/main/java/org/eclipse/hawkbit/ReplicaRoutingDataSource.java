@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link DataSource} which hands out connections of the read replicas for
+ * read-only transactions and connections of the primary database for
+ * everything else. The router has to be wrapped into a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so
+ * the connection is looked up when the first statement of the transaction is
+ * executed, i.e. after the {@link MultiTenantJpaTransactionManager} has begun
+ * the transaction and marked it as read-only. Otherwise every transaction is
+ * served by the primary as the connection is fetched on begin.
+ *
+ * As guard against the replication lag the read-only transactions of a user
+ * of a tenant are served by the primary within a configurable window after
+ * the user has committed a write transaction on this node, i.e. a user reads
+ * its own writes.
+ *
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final TenantAware tenantAware;
+    private final Cache<String, Boolean> recentWriters;
+
+    /**
+     * Constructor.
+     *
+     * @param primary
+     *            database for write transactions
+     * @param replicas
+     *            of the primary database for read-only transactions
+     * @param tenantAware
+     *            to determine the tenant of the writing user
+     * @param readYourWritesWindow
+     *            in milliseconds after a write of a user in which its
+     *            read-only transactions are still served by the primary
+     */
+    public ReplicaRoutingDataSource(final DataSource primary, final List<DataSource> replicas,
+            final TenantAware tenantAware, final long readYourWritesWindow) {
+        this.tenantAware = tenantAware;
+        this.recentWriters = CacheBuilder.newBuilder().expireAfterWrite(readYourWritesWindow, TimeUnit.MILLISECONDS)
+                .build();
+
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            final String key = "replica" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Notifies about a committed write transaction of the current user, which
+     * will read from the primary for the configured window from now on.
+     */
+    public void writeCommitted() {
+        if (!replicaKeys.isEmpty()) {
+            recentWriters.put(currentWriter(), Boolean.TRUE);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || recentWriters.getIfPresent(currentWriter()) != null) {
+            return PRIMARY;
+        }
+
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private String currentWriter() {
+        final String tenant = tenantAware.getCurrentTenant();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return (tenant != null ? tenant.toUpperCase() : "") + ":"
+                + (authentication != null ? authentication.getName() : "");
+    }
+}
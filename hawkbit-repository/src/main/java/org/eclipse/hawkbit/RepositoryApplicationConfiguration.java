@@ -12,8 +12,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.hawkbit.aspects.ExceptionMappingAspectHandler;
+import org.eclipse.hawkbit.aspects.ServiceMetricsAspect;
+import org.eclipse.hawkbit.metrics.JpaStatementCounter;
+import org.eclipse.hawkbit.metrics.ServiceMetrics;
+import org.eclipse.hawkbit.metrics.ServiceMetricsProperties;
+import org.eclipse.hawkbit.repository.JpaWriteProperties;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.model.EntityIdSequenceCustomizer;
 import org.eclipse.hawkbit.repository.model.helper.AfterTransactionCommitExecutorHolder;
 import org.eclipse.hawkbit.repository.model.helper.CacheManagerHolder;
 import org.eclipse.hawkbit.repository.model.helper.SecurityTokenGeneratorHolder;
@@ -24,6 +30,7 @@ import org.eclipse.hawkbit.repository.model.helper.TenantConfigurationManagement
 import org.eclipse.hawkbit.security.SecurityTokenGenerator;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaBaseConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -51,6 +58,9 @@ import org.springframework.validation.beanvalidation.MethodValidationPostProcess
 @EnableAutoConfiguration
 public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
 
+    @Autowired
+    private JpaWriteProperties jpaWriteProperties;
+
     /**
      * @return the {@link SystemSecurityContext} singleton bean which make it
      *         accessible in beans which cannot access the service directly,
@@ -140,6 +150,24 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new ExceptionMappingAspectHandler();
     }
 
+    /**
+     * @param properties
+     *            of the service call metrics
+     * @return {@link ServiceMetrics} registry of the service call metrics
+     */
+    @Bean
+    public ServiceMetrics serviceMetrics(final ServiceMetricsProperties properties) {
+        return new ServiceMetrics(properties.isPerTenant());
+    }
+
+    /**
+     * @return {@link ServiceMetricsAspect} aspect bean
+     */
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect() {
+        return new ServiceMetricsAspect();
+    }
+
     @Override
     protected AbstractJpaVendorAdapter createJpaVendorAdapter() {
         return new EclipseLinkJpaVendorAdapter();
@@ -157,6 +185,19 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         properties.put("eclipselink.ddl-generation", "none");
 
         properties.put("eclipselink.persistence-context.flush-mode", "auto");
+        // statement count per service call
+        properties.put("eclipselink.session-event-listener", JpaStatementCounter.class.getName());
+
+        // IDs are allocated in blocks in a separate transaction so the
+        // sequence row is not locked until the end of the business transaction
+        properties.put("eclipselink.session.customizer", EntityIdSequenceCustomizer.class.getName());
+        properties.put(EntityIdSequenceCustomizer.ALLOCATION_SIZE_PROPERTY,
+                String.valueOf(jpaWriteProperties.getIdAllocationSize()));
+        properties.put("eclipselink.jdbc.sequence-connection-pool", "true");
+        if (jpaWriteProperties.isBatchWriting()) {
+            properties.put("eclipselink.jdbc.batch-writing", "JDBC");
+            properties.put("eclipselink.jdbc.batch-writing.size", String.valueOf(jpaWriteProperties.getBatchSize()));
+        }
 
         return properties;
     }
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.eclipse.hawkbit.metrics.ServiceMetrics;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+
+/**
+ * {@link Aspect} which records latency, errors and JPA statements of the
+ * public methods of the central management services in the
+ * {@link ServiceMetrics}. It is ordered before the transaction handling so the
+ * commit is part of the measured time.
+ *
+ */
+@Aspect
+public class ServiceMetricsAspect implements Ordered {
+
+    @Autowired
+    private ServiceMetrics serviceMetrics;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    /**
+     * Measures a service call.
+     *
+     * @param joinpoint
+     *            the aspect join point
+     * @return the object of the {@link ProceedingJoinPoint#proceed()}
+     * @throws Throwable
+     *             in case exception happens in the
+     *             {@link ProceedingJoinPoint#proceed()}
+     */
+    @Around("execution(public * org.eclipse.hawkbit.repository.ControllerManagement.*(..)) "
+            + " || execution(public * org.eclipse.hawkbit.repository.DeploymentManagement.*(..)) "
+            + " || execution(public * org.eclipse.hawkbit.repository.RolloutManagement.*(..)) "
+            + " || execution(public * org.eclipse.hawkbit.repository.TargetManagement.*(..)) "
+            + " || execution(public * org.eclipse.hawkbit.repository.ArtifactManagement.*(..))")
+    // Exception squid:S00112 - Is aspectJ proxy
+    @SuppressWarnings({ "squid:S00112" })
+    public Object measure(final ProceedingJoinPoint joinpoint) throws Throwable {
+        final String tenant = tenantAware.getCurrentTenant();
+        final ServiceMetrics.Sample sample = serviceMetrics.start();
+        boolean failed = true;
+        try {
+            final Object result = joinpoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            serviceMetrics.record(
+                    joinpoint.getSignature().getDeclaringType().getSimpleName() + "."
+                            + joinpoint.getSignature().getName(),
+                    tenant, sample, failed);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
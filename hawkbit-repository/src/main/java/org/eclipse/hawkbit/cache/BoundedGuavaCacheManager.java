@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.guava.GuavaCache;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Guava based {@link CacheManager} which bounds the entity caches, see
+ * {@link EntityCacheInvalidator#ENTITY_CACHES}, by the
+ * {@link EntityCacheProperties} and keeps all other caches unbounded as
+ * before. The caches record their statistics, e.g. for the hit ratio.
+ *
+ * The cache names are expected to be prefixed with the tenant by the
+ * {@link TenantAwareCacheManager}, i.e. the limits apply per tenant.
+ *
+ */
+public class BoundedGuavaCacheManager implements CacheManager {
+
+    private static final String TENANT_CACHE_DELIMITER = "|";
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final EntityCacheProperties properties;
+
+    /**
+     * @param properties
+     *            of the entity caches
+     */
+    public BoundedGuavaCacheManager(final EntityCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private Cache createCache(final String name) {
+        final String cacheName = name.substring(name.indexOf(TENANT_CACHE_DELIMITER) + 1);
+        final CacheBuilder<Object, Object> builder = EntityCacheInvalidator.ENTITY_CACHES.contains(cacheName)
+                ? CacheBuilder.from(properties.getSpec(cacheName)) : CacheBuilder.newBuilder();
+
+        return new GuavaCache(name, builder.recordStats().build());
+    }
+}
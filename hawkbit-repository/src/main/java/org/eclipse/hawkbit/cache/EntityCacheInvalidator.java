@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.EntityCacheEvictedEvent;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Invalidates the tenant aware caches of read-mostly entities. The tenant
+ * metadata is cached by the
+ * {@link org.eclipse.hawkbit.repository.SystemManagement}, the types are
+ * mutable entities and only their IDs are cached by key. The caches are
+ * evicted locally right away and on all nodes after the commit of the
+ * modifying transaction by means of an {@link EntityCacheEvictedEvent}, which
+ * is distributed through the cluster event channel.
+ *
+ * Frequently written entities, e.g. targets, actions and their status, are
+ * not cached.
+ */
+@Component
+@EventSubscriber
+public class EntityCacheInvalidator {
+
+    /**
+     * Cache of the {@link org.eclipse.hawkbit.repository.model.TenantMetaData}
+     * by tenant.
+     */
+    public static final String TENANT_METADATA = "tenantMetadata";
+
+    /**
+     * Cache of the
+     * {@link org.eclipse.hawkbit.repository.model.SoftwareModuleType} IDs by
+     * key.
+     */
+    public static final String SOFTWARE_MODULE_TYPE = "softwareModuleType";
+
+    /**
+     * Cache of the
+     * {@link org.eclipse.hawkbit.repository.model.DistributionSetType} IDs by
+     * key.
+     */
+    public static final String DISTRIBUTION_SET_TYPE = "distributionSetType";
+
+    /**
+     * All entity caches, which are bounded by the
+     * {@link EntityCacheProperties}.
+     */
+    public static final Set<String> ENTITY_CACHES = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(TENANT_METADATA, SOFTWARE_MODULE_TYPE, DISTRIBUTION_SET_TYPE)));
+
+    @Autowired
+    private TenancyCacheManager cacheManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    /**
+     * Evicts the entity cache of the current tenant on this node and on all
+     * nodes after the commit of the current transaction, so that concurrent
+     * readers cannot repopulate the cache with the old state.
+     *
+     * @param cacheName
+     *            of the entity cache
+     */
+    public void evict(final String cacheName) {
+        final String tenant = tenantAware.getCurrentTenant();
+        clear(cacheName);
+        afterCommit.afterCommit(() -> eventBus.post(new EntityCacheEvictedEvent(tenant, cacheName)));
+    }
+
+    /**
+     * Evicts all caches of a tenant, including the tenant existence check of
+     * the {@link org.eclipse.hawkbit.repository.SystemManagement}, on this
+     * node and on all nodes after the commit of the current transaction, e.g.
+     * when the tenant is deleted.
+     *
+     * @param tenant
+     *            whose caches are evicted
+     */
+    public void evictTenant(final String tenant) {
+        cacheManager.evictCaches(tenant.toUpperCase());
+        afterCommit.afterCommit(() -> eventBus.post(new EntityCacheEvictedEvent(tenant)));
+    }
+
+    /**
+     * Evicts the entity cache of the tenant of the event, which has been
+     * posted locally or by another node.
+     *
+     * @param event
+     *            the eviction event
+     */
+    @Subscribe
+    public void onEntityCacheEvicted(final EntityCacheEvictedEvent event) {
+        if (event.getCacheName() == null) {
+            cacheManager.evictCaches(event.getTenant().toUpperCase());
+            return;
+        }
+        tenantAware.runAsTenant(event.getTenant(), () -> {
+            clear(event.getCacheName());
+            return null;
+        });
+    }
+
+    private void clear(final String cacheName) {
+        final Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size limits and time to live of the tenant aware entity caches, see
+ * {@link EntityCacheInvalidator#ENTITY_CACHES}, in the syntax of the guava
+ * {@link com.google.common.cache.CacheBuilderSpec}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.cache")
+public class EntityCacheProperties {
+
+    /**
+     * Specification of the entity caches of one tenant which are not
+     * configured by {@link #specs}.
+     */
+    private String defaultSpec = "maximumSize=500,expireAfterWrite=10m";
+
+    /**
+     * Specifications of single entity caches by cache name.
+     */
+    private Map<String, String> specs = new HashMap<>();
+
+    public String getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    public void setDefaultSpec(final String defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    public Map<String, String> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(final Map<String, String> specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * @param cacheName
+     *            of the entity cache
+     * @return the specification of the cache
+     */
+    public String getSpec(final String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
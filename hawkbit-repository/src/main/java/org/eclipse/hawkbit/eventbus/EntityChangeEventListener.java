@@ -19,6 +19,7 @@ import org.eclipse.hawkbit.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.repository.TargetInfoRepository;
 import org.eclipse.hawkbit.repository.TargetRepository;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
@@ -82,6 +83,30 @@ public class EntityChangeEventListener {
         return result;
     }
 
+    /**
+     * Proxy method around the bulk update of the last target query of the
+     * {@link TargetInfoRepository} to notify the {@link TargetInfoUpdateEvent}
+     * for each updated {@link TargetInfo} as the update bypasses
+     * {@link TargetInfoRepository#save(TargetInfo)}.
+     * 
+     * @param joinpoint
+     *            the aspect join point
+     * @return the object of the {@link ProceedingJoinPoint#proceed()}
+     * @throws Throwable
+     *             in case exception happens in the
+     *             {@link ProceedingJoinPoint#proceed()}
+     */
+    @Around("execution(* org.eclipse.hawkbit.repository.TargetInfoRepository.updateLastTargetQuery(..))")
+    // Exception squid:S00112 - Is aspectJ proxy
+    @SuppressWarnings({ "squid:S00112", "unchecked" })
+    public Object targetInfosUpdated(final ProceedingJoinPoint joinpoint) throws Throwable {
+        final Object result = joinpoint.proceed();
+        if (result instanceof Collection) {
+            ((Collection<TargetInfo>) result).forEach(this::notifyTargetInfoChanged);
+        }
+        return result;
+    }
+
     /**
      * Proxy method around the delete method of the {@link TargetRepository} to
      * notify the {@link TargetDeletedEvent} in case targets has been deleted.
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.ClusterNode;
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Transactional outbox for domain events. The events are stored as compact
+ * rows (tenant, target and action ID) in the transaction which causes them,
+ * so they are committed or rolled back together with the business data. The
+ * {@link EventOutboxRelay} drains the outbox asynchronously after the commit
+ * and publishes the events, i.e. the events are delivered at least once even
+ * if the node crashes after the commit.
+ *
+ */
+@Service
+public class EventOutbox {
+
+    // 6 parameters per row
+    private static final int ROWS_PER_STATEMENT = 150;
+
+    /**
+     * The type of an outbox entry, stored by its ordinal.
+     */
+    enum EventType {
+        /**
+         * {@link TargetAssignDistributionSetEvent} of an action.
+         */
+        TARGET_ASSIGN_DISTRIBUTION_SET;
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private EventOutboxRelay relay;
+
+    /**
+     * Stores the {@link TargetAssignDistributionSetEvent}s of the given
+     * persisted actions in the outbox of the current transaction. The relay
+     * is triggered after the commit.
+     *
+     * @param actions
+     *            the assignment actions to publish
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addTargetAssignments(final Collection<Action> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        Lists.partition(Lists.newArrayList(actions), ROWS_PER_STATEMENT)
+                .forEach(chunk -> insert(EventType.TARGET_ASSIGN_DISTRIBUTION_SET, chunk, now));
+
+        afterCommit.afterCommit(relay::relayAsync);
+    }
+
+    private void insert(final EventType type, final List<Action> actions, final long createdAt) {
+        final StringBuilder sql = new StringBuilder(
+                "INSERT INTO sp_event_outbox (tenant, node_id, created_at, event_type, target_id, action_id) VALUES ");
+        for (int i = 0; i < actions.size(); i++) {
+            final int offset = i * 6;
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?").append(offset + 1).append(", ?").append(offset + 2).append(", ?").append(offset + 3)
+                    .append(", ?").append(offset + 4).append(", ?").append(offset + 5).append(", ?")
+                    .append(offset + 6).append(')');
+        }
+
+        final Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < actions.size(); i++) {
+            final Action action = actions.get(i);
+            final int offset = i * 6;
+            query.setParameter(offset + 1, action.getTenant());
+            query.setParameter(offset + 2, ClusterNode.getId());
+            query.setParameter(offset + 3, createdAt);
+            query.setParameter(offset + 4, type.ordinal());
+            query.setParameter(offset + 5, action.getTarget().getId());
+            query.setParameter(offset + 6, action.getId());
+        }
+        query.executeUpdate();
+    }
+}
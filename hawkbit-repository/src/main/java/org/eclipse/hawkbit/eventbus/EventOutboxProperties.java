@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the {@link EventOutbox} and its {@link EventOutboxRelay}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.outbox")
+public class EventOutboxProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    /**
+     * Number of outbox entries which are relayed within one transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Time in milliseconds after which outbox entries which have not been
+     * relayed by the node which wrote them, e.g. because the node crashed,
+     * are taken over by another node.
+     */
+    private long staleAfter = 60000L;
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(final long staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Scheduler which relays left over and stale outbox entries.
+     */
+    public static class Scheduler {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.outbox.scheduler.fixedDelay:10000}";
+
+        /**
+         * Delay between two checks for left over outbox entries in
+         * milliseconds.
+         */
+        private long fixedDelay = 10000L;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.inList;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.setParameters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.ClusterNode;
+import org.eclipse.hawkbit.eventbus.EventOutbox.EventType;
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
+import org.eclipse.hawkbit.repository.ActionRepository;
+import org.eclipse.hawkbit.repository.ArtifactDeltaRepository;
+import org.eclipse.hawkbit.repository.SoftwareModuleRepository;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * Relays the entries of the {@link EventOutbox} which have been written by
+ * this node to the {@link EventBus}, from where they are distributed to the
+ * cluster and the device integrations. The entries are relayed in the order
+ * they have been written, in chunks of
+ * {@link EventOutboxProperties#getBatchSize()}. Every chunk is loaded,
+ * published and deleted in its own transaction, so a chunk is published again
+ * if the deletion fails (at least once delivery). Consumers which have to be
+ * idempotent can rely on the action ID of the events.
+ *
+ * Assignments whose action has been canceled or closed in the meantime are
+ * not published anymore, as the cancellation has been published already.
+ *
+ */
+@Service
+public class EventOutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventOutboxRelay.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ActionRepository actionRepository;
+
+    @Autowired
+    private SoftwareModuleRepository softwareModuleRepository;
+
+    @Autowired
+    private ArtifactDeltaRepository artifactDeltaRepository;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("eventOutboxExecutor")
+    private Executor executor;
+
+    @Autowired
+    private EventOutboxProperties properties;
+
+    private final AtomicBoolean relayQueued = new AtomicBoolean();
+    private final Object relayLock = new Object();
+
+    private final LongAdder relayedEvents = new LongAdder();
+    private final LongAdder skippedEvents = new LongAdder();
+    private final LongAdder failedRelays = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    /**
+     * Triggers the relay in the background. Triggers are coalesced as long as
+     * a relay is queued, as every relay drains the whole outbox of this node.
+     */
+    public void relayAsync() {
+        if (!relayQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                relayQueued.set(false);
+                relay();
+            });
+        } catch (final RejectedExecutionException e) {
+            relayQueued.set(false);
+            LOG.warn("Outbox relay rejected by executor, left over entries are relayed by the scheduler", e);
+        }
+    }
+
+    /**
+     * Relays all outbox entries of this node.
+     *
+     * @return number of relayed entries
+     */
+    public int relay() {
+        synchronized (relayLock) {
+            int relayed = 0;
+            try {
+                List<OutboxEntry> entries;
+                do {
+                    entries = runInNewTransaction(txManager, "fetchOutbox", status -> fetchEntries());
+                    relayed += relayEntries(entries);
+                } while (entries.size() >= properties.getBatchSize());
+            } catch (final RuntimeException e) {
+                failedRelays.increment();
+                LOG.error("Outbox relay failed, entries are relayed again by the next run", e);
+            }
+            return relayed;
+        }
+    }
+
+    /**
+     * Takes over the outbox entries of other nodes which have not been
+     * relayed within {@link EventOutboxProperties#getStaleAfter()}, e.g.
+     * because the node crashed.
+     *
+     * @return number of entries taken over
+     */
+    public int takeOverStaleEntries() {
+        return runInNewTransaction(txManager, "takeOverOutbox", status -> {
+            final Query query = entityManager.createNativeQuery(
+                    "UPDATE sp_event_outbox SET node_id = ?1 WHERE node_id <> ?2 AND created_at < ?3");
+            query.setParameter(1, ClusterNode.getId());
+            query.setParameter(2, ClusterNode.getId());
+            query.setParameter(3, System.currentTimeMillis() - properties.getStaleAfter());
+            return query.executeUpdate();
+        });
+    }
+
+    /**
+     * @return number of entries in the outbox of the whole cluster
+     */
+    public long countPendingEntries() {
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_event_outbox").getSingleResult())
+                .longValue();
+    }
+
+    /**
+     * @return age of the oldest entry in the outbox of the whole cluster in
+     *         milliseconds or {@code 0} if the outbox is empty
+     */
+    public long getOldestPendingEntryAgeMillis() {
+        final Number oldest = (Number) entityManager.createNativeQuery("SELECT MIN(created_at) FROM sp_event_outbox")
+                .getSingleResult();
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.longValue());
+    }
+
+    public long getRelayedEvents() {
+        return relayedEvents.sum();
+    }
+
+    public long getSkippedEvents() {
+        return skippedEvents.sum();
+    }
+
+    public long getFailedRelays() {
+        return failedRelays.sum();
+    }
+
+    /**
+     * @return time in milliseconds between writing and relaying of the last
+     *         relayed entry
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    /**
+     * @return maximum time in milliseconds between writing and relaying of an
+     *         entry since the start of the node
+     */
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxEntry> fetchEntries() {
+        final Query query = entityManager.createNativeQuery(
+                "SELECT id, tenant, created_at, action_id FROM sp_event_outbox WHERE node_id = ?1 AND event_type = ?2 ORDER BY id");
+        query.setParameter(1, ClusterNode.getId());
+        query.setParameter(2, EventType.TARGET_ASSIGN_DISTRIBUTION_SET.ordinal());
+        query.setMaxResults(properties.getBatchSize());
+        return ((List<Object[]>) query.getResultList()).stream()
+                .map(row -> new OutboxEntry(((Number) row[0]).longValue(), (String) row[1],
+                        ((Number) row[2]).longValue(), ((Number) row[3]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private int relayEntries(final List<OutboxEntry> entries) {
+        // keeps the order within every tenant
+        final Map<String, List<OutboxEntry>> entriesByTenant = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.tenant, LinkedHashMap::new, Collectors.toList()));
+
+        entriesByTenant.forEach((tenant, tenantEntries) -> tenantAware.runAsTenant(tenant,
+                () -> systemSecurityContext.runAsSystem(() -> runInNewTransaction(txManager, "relayOutbox", status -> {
+                    publish(tenantEntries);
+                    deleteEntries(tenantEntries);
+                    return null;
+                }))));
+        return entries.size();
+    }
+
+    private void publish(final List<OutboxEntry> entries) {
+        final Map<Long, Action> actions = actionRepository
+                .findByIdIn(entries.stream().map(entry -> entry.actionId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Action::getId, Function.identity()));
+
+        // the target infos are loaded at once instead of lazily per target
+        if (!actions.isEmpty()) {
+            entityManager.createQuery("SELECT ti FROM TargetInfo ti WHERE ti.targetId IN :targetIds")
+                    .setParameter("targetIds", actions.values().stream().map(action -> action.getTarget().getId())
+                            .collect(Collectors.toList()))
+                    .getResultList();
+        }
+
+        final Map<Long, List<SoftwareModule>> modulesByDistributionSet = new HashMap<>();
+        // deltas by assigned and installed distribution set
+        final Map<List<Long>, List<ArtifactDelta>> deltasByDistributionSets = new HashMap<>();
+        final long now = System.currentTimeMillis();
+        entries.forEach(entry -> {
+            final Action action = actions.get(entry.actionId);
+            if (action == null || !action.isActive() || action.getStatus() == Status.CANCELING) {
+                LOG.debug("Action {} has been deleted or closed before the assignment has been relayed",
+                        entry.actionId);
+                skippedEvents.increment();
+                return;
+            }
+
+            final Target target = action.getTarget();
+            final List<SoftwareModule> softwareModules = modulesByDistributionSet.computeIfAbsent(
+                    action.getDistributionSet().getId(),
+                    id -> softwareModuleRepository.findByAssignedTo(action.getDistributionSet()));
+
+            final DistributionSet installedSet = target.getTargetInfo().getInstalledDistributionSet();
+            final List<ArtifactDelta> artifactDeltas = installedSet == null ? Collections.emptyList()
+                    : deltasByDistributionSets.computeIfAbsent(
+                            Arrays.asList(action.getDistributionSet().getId(), installedSet.getId()),
+                            ids -> findDeltas(softwareModules, installedSet));
+
+            eventBus.post(new TargetInfoUpdateEvent(target.getTargetInfo()));
+            eventBus.post(new TargetAssignDistributionSetEvent(target.getOptLockRevision(), target.getTenant(),
+                    target.getControllerId(), action.getId(), softwareModules, target.getTargetInfo().getAddress(),
+                    target.getSecurityToken(), artifactDeltas));
+
+            relayedEvents.increment();
+            final long lag = now - entry.createdAt;
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+        });
+    }
+
+    private List<ArtifactDelta> findDeltas(final List<SoftwareModule> softwareModules,
+            final DistributionSet installedSet) {
+        if (softwareModules.isEmpty() || installedSet.getModules().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return artifactDeltaRepository.findByArtifactSoftwareModuleIdInAndBaseArtifactSoftwareModuleIdIn(
+                softwareModules.stream().map(SoftwareModule::getId).collect(Collectors.toList()),
+                installedSet.getModules().stream().map(SoftwareModule::getId).collect(Collectors.toList()));
+    }
+
+    private void deleteEntries(final List<OutboxEntry> entries) {
+        final Query query = entityManager
+                .createNativeQuery("DELETE FROM sp_event_outbox WHERE id IN " + inList(1, entries.size()));
+        setParameters(query, 1, entries.stream().map(entry -> entry.id).collect(Collectors.toList()));
+        query.executeUpdate();
+    }
+
+    private static final class OutboxEntry {
+        private final long id;
+        private final String tenant;
+        private final long createdAt;
+        private final long actionId;
+
+        private OutboxEntry(final long id, final String tenant, final long createdAt, final long actionId) {
+            this.id = id;
+            this.tenant = tenant;
+            this.createdAt = createdAt;
+            this.actionId = actionId;
+        }
+    }
+}
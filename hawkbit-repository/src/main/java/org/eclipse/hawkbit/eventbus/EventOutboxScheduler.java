@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which relays the {@link EventOutbox} entries which have been left
+ * over, e.g. because the relay failed, and takes over the stale entries of
+ * other nodes by means of the {@link EventOutboxRelay}. The delay between the
+ * checks can be configured using the property
+ * {@link EventOutboxProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the relay is triggered after every
+// commit.
+@Profile("!test")
+public class EventOutboxScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutboxScheduler.class);
+
+    @Autowired
+    private EventOutboxRelay relay;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Takes over the
+     * stale entries and relays the outbox of this node.
+     */
+    @Scheduled(initialDelayString = EventOutboxProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = EventOutboxProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void relayOutbox() {
+        LOGGER.debug("event outbox check has been triggered.");
+        final int takenOver = relay.takeOverStaleEntries();
+        if (takenOver > 0) {
+            LOGGER.info("Took over {} stale event outbox entries of other nodes", takenOver);
+        }
+        relay.relay();
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus.event;
+
+/**
+ * Lightweight event of a bulk tag assignment which only carries the ID range
+ * of one processed chunk instead of the changed entities. Listeners which are
+ * interested in a specific entity check if its ID is within the range and
+ * reload the entity if necessary.
+ *
+ */
+public abstract class AbstractTagBulkAssignmentEvent extends AbstractDistributedEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long tagId;
+    private final long firstId;
+    private final long lastId;
+    private final int count;
+    private final boolean assigned;
+
+    /**
+     * @param tenant
+     *            the tenant for this event
+     * @param tagId
+     *            the ID of the assigned or unassigned tag
+     * @param firstId
+     *            the lowest entity ID of the chunk
+     * @param lastId
+     *            the highest entity ID of the chunk
+     * @param count
+     *            number of changed entities within the chunk
+     * @param assigned
+     *            {@code true} if the tag has been assigned, {@code false} if
+     *            it has been unassigned
+     */
+    protected AbstractTagBulkAssignmentEvent(final String tenant, final long tagId, final long firstId,
+            final long lastId, final int count, final boolean assigned) {
+        super(-1, tenant);
+        this.tagId = tagId;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.count = count;
+        this.assigned = assigned;
+    }
+
+    public long getTagId() {
+        return tagId;
+    }
+
+    public long getFirstId() {
+        return firstId;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isAssigned() {
+        return assigned;
+    }
+
+    /**
+     * @param id
+     *            of the entity
+     * @return {@code true} if the entity might have been changed
+     */
+    public boolean isInRange(final long id) {
+        return id >= firstId && id <= lastId;
+    }
+}
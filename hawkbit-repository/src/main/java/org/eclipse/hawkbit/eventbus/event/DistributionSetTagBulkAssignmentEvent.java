@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus.event;
+
+/**
+ * Event of a chunk of a bulk distribution set tag assignment.
+ *
+ */
+public class DistributionSetTagBulkAssignmentEvent extends AbstractTagBulkAssignmentEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param tenant
+     *            the tenant for this event
+     * @param tagId
+     *            the ID of the assigned or unassigned tag
+     * @param firstId
+     *            the lowest distribution set ID of the chunk
+     * @param lastId
+     *            the highest distribution set ID of the chunk
+     * @param count
+     *            number of changed distribution sets within the chunk
+     * @param assigned
+     *            {@code true} if the tag has been assigned, {@code false} if
+     *            it has been unassigned
+     */
+    public DistributionSetTagBulkAssignmentEvent(final String tenant, final long tagId, final long firstId, final long lastId,
+            final int count, final boolean assigned) {
+        super(tenant, tagId, firstId, lastId, count, assigned);
+    }
+}
@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.eventbus.event;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.hawkbit.eventbus.EventSubscriber;
 import org.eclipse.hawkbit.repository.model.Rollout;
@@ -39,6 +40,12 @@ public class EventMerger {
     private static final Set<RolloutEventKey> rolloutEvents = ConcurrentHashMap.newKeySet();
     private static final Set<RolloutEventKey> rolloutGroupEvents = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Revision of the merged events, which increases with every interval, so
+     * consumers can tell a newer merged event from an older one.
+     */
+    private static final AtomicLong revision = new AtomicLong();
+
     @Autowired
     private EventBus eventBus;
 
@@ -47,17 +54,18 @@ public class EventMerger {
      */
     @Scheduled(initialDelay = 10000, fixedDelay = 2000)
     public void rolloutEventScheduler() {
+        final long currentRevision = revision.incrementAndGet();
         final Iterator<RolloutEventKey> rolloutIterator = rolloutEvents.iterator();
         while (rolloutIterator.hasNext()) {
             final RolloutEventKey eventKey = rolloutIterator.next();
-            eventBus.post(new RolloutChangeEvent(1, eventKey.tenant, eventKey.rolloutId));
+            eventBus.post(new RolloutChangeEvent(currentRevision, eventKey.tenant, eventKey.rolloutId));
             rolloutIterator.remove();
         }
 
         final Iterator<RolloutEventKey> rolloutGroupIterator = rolloutGroupEvents.iterator();
         while (rolloutGroupIterator.hasNext()) {
             final RolloutEventKey eventKey = rolloutGroupIterator.next();
-            eventBus.post(new RolloutGroupChangeEvent(1, eventKey.tenant, eventKey.rolloutId, eventKey.rolloutGroupId));
+            eventBus.post(new RolloutGroupChangeEvent(currentRevision, eventKey.tenant, eventKey.rolloutId, eventKey.rolloutGroupId));
             rolloutGroupIterator.remove();
         }
     }
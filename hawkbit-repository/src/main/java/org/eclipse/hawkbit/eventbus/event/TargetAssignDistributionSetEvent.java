@@ -10,7 +10,9 @@ package org.eclipse.hawkbit.eventbus.event;
 
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 
 /**
@@ -24,6 +26,7 @@ public class TargetAssignDistributionSetEvent extends AbstractEvent {
     private final Long actionId;
     private final URI targetAdress;
     private final String targetToken;
+    private final Collection<ArtifactDelta> artifactDeltas;
 
     /**
      * Creates a new {@link TargetAssignDistributionSetEvent}.
@@ -46,12 +49,42 @@ public class TargetAssignDistributionSetEvent extends AbstractEvent {
     public TargetAssignDistributionSetEvent(final long revision, final String tenant, final String controllerId,
             final Long actionId, final Collection<SoftwareModule> softwareModules, final URI targetAdress,
             final String targetToken) {
+        this(revision, tenant, controllerId, actionId, softwareModules, targetAdress, targetToken,
+                Collections.emptyList());
+    }
+
+    /**
+     * Creates a new {@link TargetAssignDistributionSetEvent} which offers
+     * deltas from the installed software modules of the target.
+     *
+     * @param revision
+     *            the revision of the event
+     * @param tenant
+     *            the tenant of the event
+     * @param controllerId
+     *            the ID of the controller
+     * @param actionId
+     *            the action id of the assignment
+     * @param softwareModules
+     *            the software modules which have been assigned to the target
+     * @param targetAdress
+     *            the targetAdress of the target
+     * @param targetToken
+     *            the authentication token of the target
+     * @param artifactDeltas
+     *            the deltas from the installed artifacts of the target to the
+     *            artifacts of the assigned software modules
+     */
+    public TargetAssignDistributionSetEvent(final long revision, final String tenant, final String controllerId,
+            final Long actionId, final Collection<SoftwareModule> softwareModules, final URI targetAdress,
+            final String targetToken, final Collection<ArtifactDelta> artifactDeltas) {
         super(revision, tenant);
         this.controllerId = controllerId;
         this.actionId = actionId;
         this.softwareModules = softwareModules;
         this.targetAdress = targetAdress;
         this.targetToken = targetToken;
+        this.artifactDeltas = artifactDeltas;
     }
 
     /**
@@ -83,4 +116,12 @@ public class TargetAssignDistributionSetEvent extends AbstractEvent {
     public String getTargetToken() {
         return targetToken;
     }
+
+    /**
+     * @return the deltas from the installed artifacts of the target to the
+     *         artifacts of the assigned software modules
+     */
+    public Collection<ArtifactDelta> getArtifactDeltas() {
+        return artifactDeltas;
+    }
 }
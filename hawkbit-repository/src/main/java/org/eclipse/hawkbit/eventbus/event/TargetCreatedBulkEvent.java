@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus.event;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * A bulk event which contains many new targets after a bulk import. It is
+ * published instead of a {@link TargetCreatedEvent} per target.
+ */
+public class TargetCreatedBulkEvent extends AbstractEntityBulkEvent<Target> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param entities
+     *            the new targets
+     */
+    public TargetCreatedBulkEvent(final String tenant, final List<Target> entities) {
+        super(tenant, entities);
+    }
+
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.metrics;
+
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * EclipseLink session event listener which counts the SQL statements executed
+ * by the current thread. The count is never reset, callers calculate the
+ * difference between two calls of {@link #current()}.
+ *
+ */
+public class JpaStatementCounter extends SessionEventAdapter {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void postExecuteCall(final SessionEvent event) {
+        STATEMENTS.get()[0]++;
+    }
+
+    /**
+     * @return the number of statements executed by the current thread
+     */
+    public static long current() {
+        return STATEMENTS.get()[0];
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Registry of latency and throughput metrics of service calls. Per service
+ * method the latency distribution is recorded in a lock free HdrHistogram
+ * {@link Recorder}. Optionally the calls are counted per tenant over all
+ * methods, i.e. the number of metrics grows with the number of tenants but not
+ * with the number of tenants times the number of methods.
+ *
+ */
+public class ServiceMetrics {
+
+    /**
+     * Tenant used for calls outside of a tenant context.
+     */
+    public static final String NO_TENANT = "_none";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TenantMetrics> tenants = new ConcurrentHashMap<>();
+    private final boolean perTenant;
+
+    /**
+     * Constructor.
+     *
+     * @param perTenant
+     *            {@code true} if the calls are counted per tenant as well
+     */
+    public ServiceMetrics(final boolean perTenant) {
+        this.perTenant = perTenant;
+    }
+
+    /**
+     * Starts the measurement of a call.
+     *
+     * @return the sample to pass to
+     *         {@link #record(String, String, Sample, boolean)}
+     */
+    public Sample start() {
+        return new Sample(System.nanoTime(), JpaStatementCounter.current());
+    }
+
+    /**
+     * Records a finished call.
+     *
+     * @param name
+     *            of the call, e.g. {@code TargetManagement.createTarget}
+     * @param tenant
+     *            the tenant of the call or {@code null}
+     * @param sample
+     *            created by {@link #start()} when the call started
+     * @param failed
+     *            {@code true} if the call failed with an exception
+     */
+    public void record(final String name, final String tenant, final Sample sample, final boolean failed) {
+        final long durationNanos = System.nanoTime() - sample.startNanos;
+        final long statements = JpaStatementCounter.current() - sample.startStatements;
+
+        methods.computeIfAbsent(name, key -> new MethodMetrics()).record(durationNanos, statements, failed);
+        if (perTenant) {
+            tenants.computeIfAbsent(tenant == null ? NO_TENANT : tenant, key -> new TenantMetrics())
+                    .record(durationNanos, failed);
+        }
+    }
+
+    /**
+     * @return metrics per call name
+     */
+    public Map<String, MethodMetrics> getMethodMetrics() {
+        return Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * @return metrics of all calls per tenant, empty if the calls are not
+     *         counted per tenant
+     */
+    public Map<String, TenantMetrics> getTenantMetrics() {
+        return Collections.unmodifiableMap(tenants);
+    }
+
+    /**
+     * Start of a measured call.
+     *
+     */
+    public static final class Sample {
+        private final long startNanos;
+        private final long startStatements;
+
+        private Sample(final long startNanos, final long startStatements) {
+            this.startNanos = startNanos;
+            this.startStatements = startStatements;
+        }
+    }
+
+    /**
+     * Latency distribution, error and statement count of one call.
+     *
+     */
+    public static final class MethodMetrics {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram intervalHistogram;
+
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        private void record(final long durationNanos, final long statementCount, final boolean failed) {
+            recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), HIGHEST_TRACKABLE_MICROS));
+            statements.add(statementCount);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        /**
+         * @return the latency distribution in microseconds since startup
+         */
+        public synchronized Histogram getLatencyHistogram() {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            accumulated.add(intervalHistogram);
+            return accumulated.copy();
+        }
+
+        /**
+         * @return number of failed calls
+         */
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /**
+         * @return number of JPA statements issued by all calls
+         */
+        public long getStatementCount() {
+            return statements.sum();
+        }
+    }
+
+    /**
+     * Counters of all calls of one tenant.
+     *
+     */
+    public static final class TenantMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private void record(final long durationNanos, final boolean failed) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /**
+         * @return total time spent in milliseconds
+         */
+        public long getTotalTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the {@link ServiceMetrics}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.metrics")
+public class ServiceMetricsProperties {
+
+    /**
+     * Counts the service calls per tenant in addition to the metrics per
+     * service method. Off by default as every tenant adds its own metrics.
+     */
+    private boolean perTenant;
+
+    public boolean isPerTenant() {
+        return perTenant;
+    }
+
+    public void setPerTenant(final boolean perTenant) {
+        this.perTenant = perTenant;
+    }
+}
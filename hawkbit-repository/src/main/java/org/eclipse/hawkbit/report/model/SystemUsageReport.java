@@ -22,6 +22,7 @@ public class SystemUsageReport {
     private final long overallArtifacts;
     private final long overallArtifactVolumeInBytes;
     private final long overallActions;
+    private final long createdAt = System.currentTimeMillis();
 
     private final List<TenantUsage> tenants = new ArrayList<>();
 
@@ -85,6 +86,13 @@ public class SystemUsageReport {
         return overallActions;
     }
 
+    /**
+     * @return time in millis the report has been calculated
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
     /**
      * @return tenant data
      */
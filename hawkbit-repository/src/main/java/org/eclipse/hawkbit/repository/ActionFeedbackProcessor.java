@@ -0,0 +1,539 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.inList;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.setParameters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.ClusterNode;
+import org.eclipse.hawkbit.repository.exception.ConcurrentModificationException;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.base.Throwables;
+
+/**
+ * Applies the feedback of the {@link ActionFeedbackQueue} which has been
+ * received by this node. The feedback is partitioned by target over
+ * {@link ActionFeedbackProperties#getWorkers()} workers, every worker applies
+ * the feedback of its targets in the order it has been received, in chunks of
+ * {@link ActionFeedbackProperties#getBatchSize()}. Every chunk is applied and
+ * deleted from the queue in its own transaction, the last query of every
+ * target is refreshed once per chunk.
+ *
+ * A chunk which fails due to a concurrent modification, e.g. by an
+ * assignment or cancellation of the management API, is retried up to
+ * {@link ActionFeedbackProperties#getMaxAttempts()} times. If it still fails
+ * the feedback of the chunk is applied one by one, feedback which cannot be
+ * applied at all (e.g. due to too many status entries) is dropped.
+ *
+ * Dropped feedback and feedback which fails in
+ * {@link ActionFeedbackProperties#getMaxFailedRuns()} runs, e.g. as it cannot
+ * be read, is kept as dead letter in the queue and not applied anymore, so it
+ * does not block the following feedback of its target.
+ *
+ * The entries of a chunk are deleted from the queue before the feedback is
+ * applied, only if they are still owned by this node. So feedback which has
+ * been taken over by another node in the meantime is not applied twice.
+ *
+ */
+@Service
+public class ActionFeedbackProcessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActionFeedbackProcessor.class);
+
+    private static final TypeReference<List<String>> MESSAGES_TYPE = new TypeReference<List<String>>() {
+    };
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ActionRepository actionRepository;
+
+    @Autowired
+    private ControllerManagement controllerManagement;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("actionFeedbackExecutor")
+    private Executor executor;
+
+    @Autowired
+    private ActionFeedbackProperties properties;
+
+    private Worker[] workers;
+
+    private final LongAdder appliedFeedback = new LongAdder();
+    private final LongAdder skippedFeedback = new LongAdder();
+    private final LongAdder droppedFeedback = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    @PostConstruct
+    void initWorkers() {
+        workers = new Worker[Math.max(1, properties.getWorkers())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    /**
+     * Triggers the worker of the given target in the background. Triggers are
+     * coalesced as long as the worker is queued, as every run drains the
+     * whole partition of the worker.
+     *
+     * @param targetId
+     *            the target which has reported feedback
+     */
+    public void processAsync(final long targetId) {
+        final Worker worker = workers[(int) (targetId % workers.length)];
+        if (!worker.queued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                worker.queued.set(false);
+                process(worker);
+            });
+        } catch (final RejectedExecutionException e) {
+            worker.queued.set(false);
+            LOG.warn("Action feedback worker rejected by executor, left over feedback is applied by the scheduler", e);
+        }
+    }
+
+    /**
+     * Applies all queued feedback of this node.
+     *
+     * @return number of processed feedback entries
+     */
+    public int process() {
+        int processed = 0;
+        for (final Worker worker : workers) {
+            processed += process(worker);
+        }
+        return processed;
+    }
+
+    /**
+     * Takes over the queued feedback of other nodes which has not been
+     * applied within {@link ActionFeedbackProperties#getStaleAfter()}, e.g.
+     * because the node crashed.
+     *
+     * @return number of entries taken over
+     */
+    public int takeOverStaleEntries() {
+        return runInNewTransaction(txManager, "takeOverActionFeedback", status -> {
+            final Query query = entityManager.createNativeQuery(
+                    "UPDATE sp_action_feedback SET node_id = ?1 WHERE node_id <> ?2 AND created_at < ?3 AND dead_lettered_at IS NULL");
+            query.setParameter(1, ClusterNode.getId());
+            query.setParameter(2, ClusterNode.getId());
+            query.setParameter(3, System.currentTimeMillis() - properties.getStaleAfter());
+            return query.executeUpdate();
+        });
+    }
+
+    /**
+     * @return number of queued feedback entries of the whole cluster
+     */
+    public long countPendingEntries() {
+        return ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(id) FROM sp_action_feedback WHERE dead_lettered_at IS NULL")
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * @return number of feedback entries of the whole cluster which have been
+     *         dropped or failed too often and are kept as dead letters
+     */
+    public long countDeadLetteredEntries() {
+        return ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(id) FROM sp_action_feedback WHERE dead_lettered_at IS NOT NULL")
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * @return age of the oldest queued feedback of the whole cluster in
+     *         milliseconds or {@code 0} if the queue is empty
+     */
+    public long getOldestPendingEntryAgeMillis() {
+        final Number oldest = (Number) entityManager
+                .createNativeQuery("SELECT MIN(created_at) FROM sp_action_feedback WHERE dead_lettered_at IS NULL")
+                .getSingleResult();
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.longValue());
+    }
+
+    public long getAppliedFeedback() {
+        return appliedFeedback.sum();
+    }
+
+    /**
+     * @return number of feedback entries whose action has been deleted or
+     *         closed before the feedback has been applied
+     */
+    public long getSkippedFeedback() {
+        return skippedFeedback.sum();
+    }
+
+    /**
+     * @return number of feedback entries which could not be applied and have
+     *         been dead lettered by this node
+     */
+    public long getDroppedFeedback() {
+        return droppedFeedback.sum();
+    }
+
+    /**
+     * @return number of chunks and entries which have been retried due to a
+     *         concurrent modification
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getFailedRuns() {
+        return failedRuns.sum();
+    }
+
+    /**
+     * @return time in milliseconds between receiving and applying of the last
+     *         applied feedback
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    /**
+     * @return maximum time in milliseconds between receiving and applying of
+     *         a feedback since the start of the node
+     */
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    private int process(final Worker worker) {
+        synchronized (worker) {
+            int processed = 0;
+            try {
+                List<FeedbackEntry> entries;
+                do {
+                    entries = runInNewTransaction(txManager, "fetchActionFeedback", status -> fetchEntries(worker));
+                    entries.stream()
+                            .collect(Collectors.groupingBy(entry -> entry.tenant, LinkedHashMap::new,
+                                    Collectors.toList()))
+                            .forEach((tenant, tenantEntries) -> tenantAware.runAsTenant(tenant,
+                                    () -> systemSecurityContext.runAsSystem(() -> {
+                                        applyChunk(tenantEntries);
+                                        return null;
+                                    })));
+                    processed += entries.size();
+                } while (entries.size() >= properties.getBatchSize());
+            } catch (final RuntimeException e) {
+                failedRuns.increment();
+                LOG.error("Action feedback worker {} failed, feedback is applied again by the next run", worker.index,
+                        e);
+            }
+            return processed;
+        }
+    }
+
+    /**
+     * Fetches the next chunk of the worker. The chunk ends before the first
+     * entry which cannot be read, so the order of the feedback of its target
+     * is kept until the entry is dead lettered and skipped.
+     */
+    @SuppressWarnings("unchecked")
+    private List<FeedbackEntry> fetchEntries(final Worker worker) {
+        final Query query = entityManager.createNativeQuery(
+                "SELECT id, tenant, created_at, target_id, action_id, status, occurred_at, address, messages FROM sp_action_feedback WHERE node_id = ?1 AND dead_lettered_at IS NULL AND MOD(target_id, ?2) = ?3 ORDER BY id");
+        query.setParameter(1, ClusterNode.getId());
+        query.setParameter(2, workers.length);
+        query.setParameter(3, worker.index);
+        query.setMaxResults(properties.getBatchSize());
+
+        final List<FeedbackEntry> entries = new ArrayList<>();
+        for (final Object[] row : (List<Object[]>) query.getResultList()) {
+            try {
+                entries.add(new FeedbackEntry(row));
+            } catch (final RuntimeException e) {
+                final long id = ((Number) row[0]).longValue();
+                LOG.warn("Action feedback {} cannot be read", id, e);
+                if (!recordFailedRun(id)) {
+                    break;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void applyChunk(final List<FeedbackEntry> entries) {
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            try {
+                final int applied = runInNewTransaction(txManager, "applyActionFeedback", status -> {
+                    claimEntries(entries);
+                    return applyEntries(entries);
+                });
+                recordApplied(entries, applied);
+                return;
+            } catch (final EntriesTakenOverException e) {
+                LOG.info("Action feedback chunk has been taken over by another node", e);
+                return;
+            } catch (final RuntimeException e) {
+                if (!isConcurrentModification(e)) {
+                    LOG.warn("Action feedback chunk could not be applied, feedback is applied one by one", e);
+                    break;
+                }
+                retries.increment();
+                LOG.debug("Action feedback chunk failed due to a concurrent modification (attempt {})", attempt, e);
+            }
+        }
+
+        entries.forEach(this::applySingle);
+    }
+
+    private void applySingle(final FeedbackEntry entry) {
+        final List<FeedbackEntry> single = Collections.singletonList(entry);
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            try {
+                final int applied = runInNewTransaction(txManager, "applyActionFeedback", status -> {
+                    claimEntries(single);
+                    return applyEntries(single);
+                });
+                recordApplied(single, applied);
+                return;
+            } catch (final EntriesTakenOverException e) {
+                LOG.info("Action feedback {} has been taken over by another node", entry.id, e);
+                return;
+            } catch (final RuntimeException e) {
+                if (!isConcurrentModification(e)) {
+                    LOG.error("Action feedback {} for action {} cannot be applied and is dropped", entry.id,
+                            entry.actionId, e);
+                    runInNewTransaction(txManager, "dropActionFeedback", status -> deadLetter(entry.id));
+                    droppedFeedback.increment();
+                    return;
+                }
+                retries.increment();
+            }
+        }
+
+        if (recordFailedRun(entry.id)) {
+            return;
+        }
+        // keeps the order of the target, the feedback and the following
+        // feedback are applied by the next run
+        throw new ConcurrentModificationException(
+                "Action feedback " + entry.id + " for action " + entry.actionId + " failed repeatedly");
+    }
+
+    /**
+     * Counts a failed run of the given entry and dead letters it after
+     * {@link ActionFeedbackProperties#getMaxFailedRuns()} runs.
+     *
+     * @return {@code true} if the entry has been dead lettered
+     */
+    private boolean recordFailedRun(final long id) {
+        return runInNewTransaction(txManager, "failActionFeedback", status -> {
+            final Query query = entityManager.createNativeQuery(
+                    "UPDATE sp_action_feedback SET failed_runs = failed_runs + 1 WHERE id = ?1 AND node_id = ?2");
+            query.setParameter(1, id);
+            query.setParameter(2, ClusterNode.getId());
+            query.executeUpdate();
+
+            final Query select = entityManager
+                    .createNativeQuery("SELECT failed_runs FROM sp_action_feedback WHERE id = ?1");
+            select.setParameter(1, id);
+            final Number failedRuns = (Number) select.getResultList().stream().findFirst().orElse(null);
+            if (failedRuns == null || failedRuns.intValue() < properties.getMaxFailedRuns()) {
+                return false;
+            }
+            LOG.error("Action feedback {} failed in {} runs and is dead lettered", id, failedRuns);
+            deadLetter(id);
+            droppedFeedback.increment();
+            return true;
+        });
+    }
+
+    private boolean deadLetter(final long id) {
+        final Query query = entityManager
+                .createNativeQuery("UPDATE sp_action_feedback SET dead_lettered_at = ?1 WHERE id = ?2");
+        query.setParameter(1, System.currentTimeMillis());
+        query.setParameter(2, id);
+        return query.executeUpdate() > 0;
+    }
+
+    private int applyEntries(final List<FeedbackEntry> entries) {
+        final Map<Long, Action> actions = actionRepository
+                .findByIdIn(entries.stream().map(entry -> entry.actionId).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Action::getId, Function.identity()));
+
+        // the target infos are loaded at once instead of lazily per action
+        @SuppressWarnings("unchecked")
+        final Map<Long, TargetInfo> targetInfos = ((List<TargetInfo>) entityManager
+                .createQuery("SELECT ti FROM TargetInfo ti WHERE ti.targetId IN :targetIds")
+                .setParameter("targetIds",
+                        entries.stream().map(entry -> entry.targetId).distinct().collect(Collectors.toList()))
+                .getResultList()).stream().collect(Collectors.toMap(TargetInfo::getTargetId, Function.identity()));
+
+        int applied = 0;
+        for (final FeedbackEntry entry : entries) {
+            final Action action = actions.get(entry.actionId);
+            if (action == null || !action.isActive()) {
+                LOG.debug("Action {} has been deleted or closed before the feedback has been applied",
+                        entry.actionId);
+                continue;
+            }
+
+            final ActionStatus actionStatus = new ActionStatus(action, entry.status, entry.occurredAt);
+            entry.messages.forEach(actionStatus::addMessage);
+            action.setStatus(entry.status);
+            controllerManagement.handleAddUpdateActionStatus(actionStatus, action);
+            applied++;
+        }
+
+        // the last query of every target is refreshed once per chunk
+        entries.forEach(entry -> {
+            final TargetInfo targetInfo = targetInfos.get(entry.targetId);
+            if (targetInfo == null) {
+                return;
+            }
+            if (targetInfo.getLastTargetQuery() == null || targetInfo.getLastTargetQuery() < entry.createdAt) {
+                targetInfo.setLastTargetQuery(entry.createdAt);
+            }
+            if (entry.address != null) {
+                targetInfo.setAddress(entry.address);
+            }
+        });
+
+        return applied;
+    }
+
+    private void recordApplied(final List<FeedbackEntry> entries, final int applied) {
+        appliedFeedback.add(applied);
+        skippedFeedback.add(entries.size() - (long) applied);
+        final long lag = System.currentTimeMillis() - entries.get(0).createdAt;
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+    }
+
+    /**
+     * Deletes the entries from the queue within the transaction which applies
+     * them. Entries which are not owned by this node anymore have been taken
+     * over by another node, the transaction is rolled back then.
+     */
+    private void claimEntries(final List<FeedbackEntry> entries) {
+        final Query query = entityManager.createNativeQuery(
+                "DELETE FROM sp_action_feedback WHERE node_id = ?1 AND id IN " + inList(2, entries.size()));
+        query.setParameter(1, ClusterNode.getId());
+        setParameters(query, 2, entries.stream().map(entry -> entry.id).collect(Collectors.toList()));
+        if (query.executeUpdate() != entries.size()) {
+            throw new EntriesTakenOverException();
+        }
+    }
+
+    private static boolean isConcurrentModification(final Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrentModificationException || cause instanceof ConcurrencyFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof org.eclipse.persistence.exceptions.OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class EntriesTakenOverException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Worker {
+        private final int index;
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private Worker(final int index) {
+            this.index = index;
+        }
+    }
+
+    private static final class FeedbackEntry {
+        private final long id;
+        private final String tenant;
+        private final long createdAt;
+        private final long targetId;
+        private final long actionId;
+        private final Status status;
+        private final long occurredAt;
+        private final String address;
+        private final List<String> messages;
+
+        private FeedbackEntry(final Object[] row) {
+            id = ((Number) row[0]).longValue();
+            tenant = (String) row[1];
+            createdAt = ((Number) row[2]).longValue();
+            targetId = ((Number) row[3]).longValue();
+            actionId = ((Number) row[4]).longValue();
+            status = Status.values()[((Number) row[5]).intValue()];
+            occurredAt = ((Number) row[6]).longValue();
+            address = (String) row[7];
+            messages = readMessages((String) row[8]);
+        }
+
+        private static List<String> readMessages(final String messages) {
+            if (messages == null) {
+                return Collections.emptyList();
+            }
+            try {
+                return ActionFeedbackQueue.MAPPER.readValue(messages, MESSAGES_TYPE);
+            } catch (final IOException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+}
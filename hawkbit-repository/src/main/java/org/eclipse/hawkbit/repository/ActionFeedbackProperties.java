@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the {@link ActionFeedbackQueue} and its
+ * {@link ActionFeedbackProcessor}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.feedback")
+public class ActionFeedbackProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    /**
+     * Action feedback of the targets is queued and applied asynchronously
+     * instead of within the request.
+     */
+    private boolean async;
+
+    /**
+     * Number of workers which apply the queued feedback in parallel. The
+     * feedback of a target is always applied by the same worker.
+     */
+    private int workers = 4;
+
+    /**
+     * Number of queued feedback entries a worker applies within one
+     * transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Number of attempts to apply feedback which fails due to a concurrent
+     * modification.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Time in milliseconds after which queued feedback which has not been
+     * applied by the node which received it, e.g. because the node crashed,
+     * is taken over by another node.
+     */
+    private long staleAfter = 60000L;
+
+    /**
+     * Number of runs after which feedback which still cannot be read or
+     * applied is dead lettered, so the following feedback of its target is
+     * applied.
+     */
+    private int maxFailedRuns = 5;
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(final boolean async) {
+        this.async = async;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(final int workers) {
+        this.workers = workers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(final long staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    public int getMaxFailedRuns() {
+        return maxFailedRuns;
+    }
+
+    public void setMaxFailedRuns(final int maxFailedRuns) {
+        this.maxFailedRuns = maxFailedRuns;
+    }
+
+    /**
+     * Scheduler which applies left over and stale feedback.
+     */
+    public static class Scheduler {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.feedback.scheduler.fixedDelay:10000}";
+
+        /**
+         * Delay between two checks for left over feedback in milliseconds.
+         */
+        private long fixedDelay = 10000L;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+}
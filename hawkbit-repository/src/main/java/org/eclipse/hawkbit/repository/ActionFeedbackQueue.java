@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.net.URI;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.ClusterNode;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
+
+/**
+ * Durable queue for the action feedback of the targets. The feedback is
+ * stored as a single row in the request of the target, which answers the
+ * request as soon as the feedback is committed. The
+ * {@link ActionFeedbackProcessor} applies the queued feedback asynchronously
+ * by means of {@link ControllerManagement#handleAddUpdateActionStatus}.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+@Validated
+@Service
+public class ActionFeedbackQueue {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private ActionFeedbackProcessor processor;
+
+    /**
+     * Queues the given feedback of a target. The worker of the target is
+     * triggered after the commit.
+     *
+     * @param actionStatus
+     *            the feedback, including the {@link Action} it is for
+     * @param address
+     *            the client address of the target, might be {@code null}
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    public void enqueue(@NotNull final ActionStatus actionStatus, final URI address) {
+        final Action action = actionStatus.getAction();
+        final Long targetId = action.getTarget().getId();
+
+        final Query query = entityManager.createNativeQuery(
+                "INSERT INTO sp_action_feedback (tenant, node_id, created_at, target_id, action_id, status, occurred_at, address, messages) VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9)");
+        query.setParameter(1, action.getTenant());
+        query.setParameter(2, ClusterNode.getId());
+        query.setParameter(3, System.currentTimeMillis());
+        query.setParameter(4, targetId);
+        query.setParameter(5, action.getId());
+        query.setParameter(6, actionStatus.getStatus().ordinal());
+        query.setParameter(7, actionStatus.getOccurredAt());
+        query.setParameter(8, address == null ? null : address.toString());
+        query.setParameter(9, writeMessages(actionStatus));
+        query.executeUpdate();
+
+        afterCommit.afterCommit(() -> processor.processAsync(targetId));
+    }
+
+    private static String writeMessages(final ActionStatus actionStatus) {
+        if (actionStatus.getMessages().isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(actionStatus.getMessages());
+        } catch (final JsonProcessingException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which applies the {@link ActionFeedbackQueue} entries which have
+ * been left over, e.g. because a worker failed, and takes over the stale
+ * entries of other nodes by means of the {@link ActionFeedbackProcessor}. The
+ * delay between the checks can be configured using the property
+ * {@link ActionFeedbackProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the workers are triggered after every
+// commit.
+@Profile("!test")
+public class ActionFeedbackScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionFeedbackScheduler.class);
+
+    @Autowired
+    private ActionFeedbackProcessor processor;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Takes over the
+     * stale entries and applies the queued feedback of this node.
+     */
+    @Scheduled(initialDelayString = ActionFeedbackProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = ActionFeedbackProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void processQueuedFeedback() {
+        LOGGER.debug("action feedback queue check has been triggered.");
+        final int takenOver = processor.takeOverStaleEntries();
+        if (takenOver > 0) {
+            LOGGER.info("Took over {} stale action feedback entries of other nodes", takenOver);
+        }
+        processor.process();
+    }
+}
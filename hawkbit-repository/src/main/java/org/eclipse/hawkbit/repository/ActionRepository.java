@@ -48,6 +48,17 @@ public interface ActionRepository extends BaseEntityRepository<Action, Long>, Jp
     @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
     Action findById(Long actionId);
 
+    /**
+     * Retrieves the {@link Action}s with the given IDs with all lazy
+     * attributes.
+     *
+     * @param actionIds
+     *            the IDs of the actions
+     * @return the found {@link Action}s
+     */
+    @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
+    List<Action> findByIdIn(Collection<Long> actionIds);
+
     /**
      * Retrieves all {@link Action}s which are referring the given
      * {@link DistributionSet}.
@@ -88,6 +99,21 @@ public interface ActionRepository extends BaseEntityRepository<Action, Long>, Jp
     @EntityGraph(value = "Action.ds", type = EntityGraphType.LOAD)
     List<Action> findByTargetAndActiveOrderByIdAsc(final Target target, boolean active);
 
+    /**
+     * Retrieves all {@link Action}s of the given {@link Target}s with the given
+     * active flag ordered by their ID. Loads also the lazy
+     * {@link Action#getDistributionSet()} and {@link Action#getTarget()}
+     * fields.
+     *
+     * @param targetIds
+     *            IDs of the targets to find the actions of
+     * @param active
+     *            the action active flag
+     * @return the found {@link Action}s
+     */
+    @EntityGraph(value = "Action.all", type = EntityGraphType.LOAD)
+    List<Action> findByTargetIdInAndActiveOrderByIdAsc(final Collection<Long> targetIds, boolean active);
+
     /**
      * Retrieves latest {@link UpdateAction} for given target and
      * {@link SoftwareModule}.
@@ -177,6 +203,41 @@ public interface ActionRepository extends BaseEntityRepository<Action, Long>, Jp
     @Query("UPDATE Action a SET a.active = false WHERE a IN :keySet AND a.target IN :targetsIds")
     void setToInactive(@Param("keySet") List<Action> keySet, @Param("targetsIds") List<Long> targetsIds);
 
+    /**
+     * Removes purged {@link org.eclipse.hawkbit.repository.model.ActionStatus}
+     * entries from the status counter of an action. The counter is not written
+     * with the action, so the revision of the action is left untouched.
+     *
+     * @param actionId
+     *            the ID of the action
+     * @param purged
+     *            number of purged entries
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE Action a SET a.statusCount = a.statusCount - :purged WHERE a.id = :actionId")
+    void decrementStatusCount(@Param("actionId") Long actionId, @Param("purged") long purged);
+
+    /**
+     * Records a new {@link org.eclipse.hawkbit.repository.model.ActionStatus}
+     * entry in the status summary of an action by an atomic update, which
+     * neither checks nor increments the revision of the action. So a status
+     * entry, e.g. of a download, does not fail concurrent updates of the
+     * action, e.g. by the feedback of the controller or a cancellation.
+     *
+     * @param actionId
+     *            the ID of the action
+     * @param status
+     *            of the new entry
+     * @param occurredAt
+     *            of the new entry
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE Action a SET a.statusCount = a.statusCount + 1, a.lastStatus = :status, a.lastStatusAt = :occurredAt WHERE a.id = :actionId")
+    void addToStatusSummary(@Param("actionId") Long actionId, @Param("status") Status status,
+            @Param("occurredAt") Long occurredAt);
+
     /**
      * Switches the status of actions from one specific status into another,
      * only if the actions are in a specific status. This should be a atomar
@@ -387,4 +448,19 @@ public interface ActionRepository extends BaseEntityRepository<Action, Long>, Jp
     @Query("SELECT NEW org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus(a.rolloutGroup.id, a.status , COUNT(a.target)) FROM Action a WHERE a.rolloutGroup.id IN ?1 GROUP BY a.rolloutGroup.id, a.status")
     List<TotalTargetCountActionStatus> getStatusCountByRolloutGroupId(List<Long> rolloutGroupId);
 
+    /**
+     * Retrieves the IDs of the {@link Action}s with an ID greater than the
+     * given one, ordered by ID. Used for keyset paging through all actions of
+     * a tenant.
+     *
+     * @param lastId
+     *            the last ID of the previous page or {@code 0} for the first
+     *            page
+     * @param pageable
+     *            the page size
+     * @return the action IDs
+     */
+    @Query("SELECT a.id FROM Action a WHERE a.id > :lastId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
 }
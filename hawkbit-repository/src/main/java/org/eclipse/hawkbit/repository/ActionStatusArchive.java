@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+
+/**
+ * Archive for {@link ActionStatus} entries which are purged by the
+ * {@link ActionStatusRetentionManagement}.
+ *
+ */
+@FunctionalInterface
+public interface ActionStatusArchive {
+
+    /**
+     * Archives the given status entries. The entries are deleted after the
+     * method returns, so an exception prevents the deletion.
+     *
+     * @param statuses
+     *            to archive including their messages
+     */
+    void archive(List<ActionStatus> statuses);
+}
@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
@@ -16,6 +19,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -76,4 +82,54 @@ public interface ActionStatusRepository
     @EntityGraph(value = "ActionStatus.withMessages", type = EntityGraphType.LOAD)
     Page<ActionStatus> getByAction(Pageable pageReq, Action action);
 
+    /**
+     * Retrieves the IDs of the given {@link Action}s which have more status
+     * entries than the given threshold.
+     *
+     * @param actionIds
+     *            to check
+     * @param threshold
+     *            the number of status entries
+     * @return the IDs of the actions with more status entries
+     */
+    @Query("SELECT s.action.id FROM ActionStatus s WHERE s.action.id IN :actionIds GROUP BY s.action.id HAVING COUNT(s.id) > :threshold")
+    List<Long> findActionIdsWithMoreStatusEntriesThan(@Param("actionIds") Collection<Long> actionIds,
+            @Param("threshold") long threshold);
+
+    /**
+     * Retrieves ID and {@link Status} of all {@link ActionStatus} entries of
+     * the given {@link Action}s ordered by action and ID without loading the
+     * entities.
+     *
+     * @param actionIds
+     *            of the status entries
+     * @return list of {@code [actionId, id, status]} tuples
+     */
+    @Query("SELECT s.action.id, s.id, s.status FROM ActionStatus s WHERE s.action.id IN :actionIds ORDER BY s.action.id, s.id")
+    List<Object[]> findIdAndStatusByActionIdIn(@Param("actionIds") Collection<Long> actionIds);
+
+    /**
+     * Retrieves the {@link ActionStatus} entries with the given IDs including
+     * {@link ActionStatus#getMessages()}.
+     *
+     * @param ids
+     *            of the status entries
+     * @return the status entries
+     */
+    @EntityGraph(value = "ActionStatus.withMessages", type = EntityGraphType.LOAD)
+    List<ActionStatus> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Deletes the {@link ActionStatus} entries with the given IDs. The
+     * messages are deleted by the database (on delete cascade).
+     *
+     * @param ids
+     *            of the status entries to delete
+     * @return number of deleted entries
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("DELETE FROM ActionStatus s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Business service facade for the retention of the {@link ActionStatus}
+ * history. Per {@link Action} the first status, all final states and the
+ * latest intermediate states are kept, all other status entries are purged.
+ *
+ * The actions are processed in small batches which are paged by ID, so every
+ * batch is a short transaction which does not lock the status tables for a
+ * long time.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+@Validated
+@Service
+public class ActionStatusRetentionManagement {
+
+    private static final int MAX_ENTRIES_PER_STATEMENT = 1000;
+
+    private static final Set<Status> FINAL_STATES = EnumSet.of(Status.FINISHED, Status.ERROR, Status.CANCELED);
+
+    @Autowired
+    private ActionRepository actionRepository;
+
+    @Autowired
+    private ActionStatusRepository actionStatusRepository;
+
+    @Autowired
+    private TenantConfigurationManagement tenantConfigurationManagement;
+
+    /**
+     * @return {@code true} if the compaction of the action status history is
+     *         enabled for the current tenant
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public boolean isRetentionEnabled() {
+        return tenantConfigurationManagement
+                .getConfigurationValue(TenantConfigurationKey.ACTION_STATUS_RETENTION_ENABLED, Boolean.class)
+                .getValue();
+    }
+
+    /**
+     * @return the number of intermediate status entries which are kept per
+     *         action for the current tenant
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public int getKeepIntermediate() {
+        return tenantConfigurationManagement
+                .getConfigurationValue(TenantConfigurationKey.ACTION_STATUS_RETENTION_KEEP_INTERMEDIATE, Integer.class)
+                .getValue();
+    }
+
+    /**
+     * Retrieves the next batch of action IDs of the current tenant.
+     *
+     * @param lastActionId
+     *            the last ID of the previous batch or {@code 0} to start
+     * @param batchSize
+     *            the maximum number of IDs
+     * @return the action IDs in ascending order, empty if there are no more
+     *         actions
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public List<Long> findActionIdsAfter(final long lastActionId, final int batchSize) {
+        return actionRepository.findIdsAfter(lastActionId, new OffsetBasedPageRequest(0, batchSize));
+    }
+
+    /**
+     * Purges the status entries of the given actions which are not covered by
+     * the retention policy.
+     *
+     * @param actionIds
+     *            the actions to compact
+     * @param keepIntermediate
+     *            number of latest intermediate status entries to keep per
+     *            action
+     * @param archive
+     *            to archive the purged entries before they are deleted, may
+     *            be {@code null}
+     * @return the number of purged status entries
+     */
+    @Transactional
+    @Modifying
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public int compactActionStatus(@NotNull final List<Long> actionIds, final int keepIntermediate,
+            final ActionStatusArchive archive) {
+        if (actionIds.isEmpty()) {
+            return 0;
+        }
+
+        // first status + last status + intermediate ones, final states are
+        // rare enough to be ignored here
+        final List<Long> candidates = actionStatusRepository.findActionIdsWithMoreStatusEntriesThan(actionIds,
+                keepIntermediate + 2L);
+
+        final List<Long> toDelete = new ArrayList<>();
+        final Map<Long, Integer> purgedPerAction = new HashMap<>();
+        for (final List<Long> chunk : Lists.partition(candidates, MAX_ENTRIES_PER_STATEMENT)) {
+            // the status entries of all actions of the chunk are read at once
+            // and grouped by action in their order
+            final Map<Long, List<Object[]>> idAndStatusPerAction = actionStatusRepository
+                    .findIdAndStatusByActionIdIn(chunk).stream()
+                    .collect(Collectors.groupingBy(row -> (Long) row[0], LinkedHashMap::new,
+                            Collectors.mapping(row -> new Object[] { row[1], row[2] }, Collectors.toList())));
+            idAndStatusPerAction.forEach((actionId, idAndStatus) -> {
+                final List<Long> purgeable = selectPurgeableStatus(idAndStatus, keepIntermediate);
+                if (!purgeable.isEmpty()) {
+                    toDelete.addAll(purgeable);
+                    purgedPerAction.put(actionId, purgeable.size());
+                }
+            });
+        }
+
+        if (toDelete.isEmpty()) {
+            return 0;
+        }
+
+        int purged = 0;
+        for (final List<Long> chunk : Lists.partition(toDelete, MAX_ENTRIES_PER_STATEMENT)) {
+            if (archive != null) {
+                archive.archive(actionStatusRepository.findByIdIn(chunk));
+            }
+            purged += actionStatusRepository.deleteByIdIn(chunk);
+        }
+        // the first and the last entry are kept, so only the counter changes
+        purgedPerAction.forEach((actionId, count) -> actionRepository.decrementStatusCount(actionId, count));
+        return purged;
+    }
+
+    /**
+     * Selects the status entries which are not covered by the retention
+     * policy.
+     *
+     * @param idAndStatus
+     *            {@code [id, status]} tuples of one action ordered by ID
+     * @param keepIntermediate
+     *            number of latest intermediate status entries to keep
+     * @return IDs of the status entries to purge
+     */
+    static List<Long> selectPurgeableStatus(final List<Object[]> idAndStatus, final int keepIntermediate) {
+        final List<Long> purgeable = new ArrayList<>();
+        int intermediateKept = 0;
+        // the first and the last status are always kept
+        for (int i = idAndStatus.size() - 2; i > 0; i--) {
+            final Object[] entry = idAndStatus.get(i);
+            if (FINAL_STATES.contains(entry[1])) {
+                continue;
+            }
+            if (intermediateKept < keepIntermediate) {
+                intermediateKept++;
+            } else {
+                purgeable.add((Long) entry[0]);
+            }
+        }
+        return purgeable;
+    }
+}
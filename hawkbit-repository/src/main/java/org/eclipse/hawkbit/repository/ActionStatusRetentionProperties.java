@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Action status retention properties. Whether the history is compacted and
+ * how many intermediate status entries are kept is configured per tenant, see
+ * {@link org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey#ACTION_STATUS_RETENTION_ENABLED}
+ * .
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.actionstatus.retention")
+public class ActionStatusRetentionProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    /**
+     * Number of actions which are compacted within one transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Directory to which the purged status entries are exported as CSV files
+     * before they are deleted. No export if empty.
+     */
+    private String archiveDirectory = "";
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    public void setArchiveDirectory(final String archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    /**
+     * Compaction scheduler configuration.
+     */
+    public static class Scheduler {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.actionstatus.retention.scheduler.fixedDelay:3600000}";
+
+        /**
+         * Delay between two compaction runs in milliseconds.
+         */
+        private long fixedDelay = 3600000L;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which compacts the action status history of all tenants which
+ * have the retention enabled by means of the
+ * {@link ActionStatusRetentionManagement}. The delay between the runs can be
+ * configured using the property
+ * {@link ActionStatusRetentionProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}
+ * .
+ */
+@Component
+// don't active the scheduler in test, status entries would be purged while
+// the tests are running.
+@Profile("!test")
+public class ActionStatusRetentionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionStatusRetentionScheduler.class);
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemManagement systemManagement;
+
+    @Autowired
+    private ActionStatusRetentionManagement actionStatusRetentionManagement;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private ActionStatusRetentionProperties retentionProperties;
+
+    @Autowired(required = false)
+    private ActionStatusArchive archive;
+
+    private final LongAdder purgedEntries = new LongAdder();
+    private final LongAdder failedTenants = new LongAdder();
+    private final LongAdder runTimeMillis = new LongAdder();
+    private final AtomicLong lastRunTimeMillis = new AtomicLong();
+
+    @PostConstruct
+    void initArchive() {
+        if (archive == null && !retentionProperties.getArchiveDirectory().isEmpty()) {
+            archive = new CsvFileActionStatusArchive(retentionProperties.getArchiveDirectory());
+        }
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Retrieves all
+     * tenants from the {@link SystemManagement#findTenants()} and compacts the
+     * action status history of each tenant in the
+     * {@link SystemSecurityContext}.
+     */
+    @Scheduled(initialDelayString = ActionStatusRetentionProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = ActionStatusRetentionProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void compactActionStatus() {
+        LOGGER.debug("action status retention has been triggered.");
+        final long start = System.currentTimeMillis();
+
+        systemSecurityContext.runAsSystem(() -> {
+            // workaround eclipselink that is currently not possible to
+            // execute a query without multitenancy if MultiTenant
+            // annotation is used.
+            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
+            // iterate through all tenants and compact each tenant seperately.
+            for (final String tenant : systemManagement.findTenants()) {
+                // a failing tenant must not prevent the compaction of the
+                // other tenants, it is compacted again by the next run
+                try {
+                    tenantAware.runAsTenant(tenant, () -> {
+                        compactTenant(tenant);
+                        return null;
+                    });
+                } catch (final RuntimeException e) {
+                    failedTenants.increment();
+                    LOGGER.error("Action status retention of tenant {} failed", tenant, e);
+                }
+            }
+            return null;
+        });
+
+        final long duration = System.currentTimeMillis() - start;
+        lastRunTimeMillis.set(duration);
+        runTimeMillis.add(duration);
+    }
+
+    private void compactTenant(final String tenant) {
+        if (!actionStatusRetentionManagement.isRetentionEnabled()) {
+            return;
+        }
+        final int keepIntermediate = actionStatusRetentionManagement.getKeepIntermediate();
+
+        long purged = 0;
+        long lastActionId = 0;
+        List<Long> actionIds;
+        while (!(actionIds = actionStatusRetentionManagement.findActionIdsAfter(lastActionId,
+                retentionProperties.getBatchSize())).isEmpty()) {
+            purged += actionStatusRetentionManagement.compactActionStatus(actionIds, keepIntermediate, archive);
+            lastActionId = actionIds.get(actionIds.size() - 1);
+        }
+
+        purgedEntries.add(purged);
+        LOGGER.info("Purged {} action status entries of tenant {}", purged, tenant);
+    }
+
+    /**
+     * @return number of purged status entries since startup
+     */
+    public long getPurgedEntries() {
+        return purgedEntries.sum();
+    }
+
+    /**
+     * @return number of tenant compactions which failed since startup
+     */
+    public long getFailedTenants() {
+        return failedTenants.sum();
+    }
+
+    /**
+     * @return time spent on compaction since startup in milliseconds
+     */
+    public long getRunTimeMillis() {
+        return runTimeMillis.sum();
+    }
+
+    /**
+     * @return duration of the last compaction run in milliseconds
+     */
+    public long getLastRunTimeMillis() {
+        return lastRunTimeMillis.get();
+    }
+}
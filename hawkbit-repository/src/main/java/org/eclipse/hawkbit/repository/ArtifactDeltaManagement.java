@@ -0,0 +1,467 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.artifact.delta.BinaryDelta;
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactStoreException;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.eventbus.event.SoftwareModuleContentChangedEvent;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.exception.ArtifactDeleteFailedException;
+import org.eclipse.hawkbit.repository.exception.GridFSDBFileNotFoundException;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * Service for {@link ArtifactDelta} management operations.
+ *
+ * Deltas are generated in the background after a {@link LocalArtifact} has
+ * been uploaded, against the artifact with the same file name of the last
+ * {@link ArtifactDeltaProperties#getMaxBaseVersions()} versions of the
+ * software module, i.e. the modules with same type and name. Devices which
+ * have one of these versions installed can download the delta instead of the
+ * complete artifact.
+ *
+ * The binaries are spooled to temporary files and memory mapped for the
+ * generation, so the heap usage does not depend on the artifact size.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+@Validated
+@Service
+public class ArtifactDeltaManagement {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactDeltaManagement.class);
+
+    private static final String DELTA_CONTENT_TYPE = "application/octet-stream";
+
+    @Autowired
+    private ArtifactDeltaRepository artifactDeltaRepository;
+
+    @Autowired
+    private LocalArtifactRepository localArtifactRepository;
+
+    @Autowired
+    private SoftwareModuleRepository softwareModuleRepository;
+
+    @Autowired
+    private ArtifactRepository artifactRepository;
+
+    @Autowired
+    private ArtifactDeltaProperties deltaProperties;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor executor;
+
+    /**
+     * Generates the deltas of the given artifact in the background after the
+     * current transaction has been committed. Nothing happens if the artifact
+     * is not within the configured size limits.
+     *
+     * @param artifact
+     *            the new artifact
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public void generateDeltasAfterCommit(@NotNull final LocalArtifact artifact) {
+        if (!deltaProperties.isEnabled() || !isWithinSizeLimits(artifact)) {
+            return;
+        }
+
+        final String tenant = tenantAware.getCurrentTenant();
+        final Long artifactId = artifact.getId();
+        afterCommit.afterCommit(() -> {
+            try {
+                executor.execute(() -> tenantAware.runAsTenant(tenant,
+                        () -> systemSecurityContext.runAsSystem(() -> generateDeltas(artifactId))));
+            } catch (final RejectedExecutionException e) {
+                LOG.warn("Delta generation for artifact {} rejected by executor, no deltas are offered", artifactId,
+                        e);
+            }
+        });
+    }
+
+    /**
+     * Generates the deltas of the given artifact to the previous versions of
+     * its software module which do not exist yet.
+     *
+     * @param artifactId
+     *            of the new artifact
+     * @return number of generated deltas
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int generateDeltas(@NotNull final Long artifactId) {
+        final List<DeltaCandidate> candidates = runInNewTransaction(txManager, "findDeltaCandidates",
+                status -> findCandidates(artifactId));
+
+        int generated = 0;
+        for (final DeltaCandidate candidate : candidates) {
+            if (generateDelta(candidate)) {
+                generated++;
+            }
+        }
+
+        if (generated > 0) {
+            // the deltas are offered with the next deployment of the module
+            eventBus.post(new SoftwareModuleContentChangedEvent(tenantAware.getCurrentTenant(),
+                    candidates.get(0).moduleId));
+        }
+        return generated;
+    }
+
+    /**
+     * Retrieves the deltas which turn the artifacts of the given base modules
+     * into the artifacts of the given modules, e.g. from the modules of the
+     * installed distribution set to the modules of the assigned one.
+     *
+     * @param moduleIds
+     *            of the new modules
+     * @param baseModuleIds
+     *            of the installed modules
+     * @return the found {@link ArtifactDelta}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_CONTROLLER + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public List<ArtifactDelta> findDeltas(@NotNull final Collection<Long> moduleIds,
+            @NotNull final Collection<Long> baseModuleIds) {
+        if (moduleIds.isEmpty() || baseModuleIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return artifactDeltaRepository.findByArtifactSoftwareModuleIdInAndBaseArtifactSoftwareModuleIdIn(moduleIds,
+                baseModuleIds);
+    }
+
+    /**
+     * Retrieves the delta of an artifact for a base artifact.
+     *
+     * @param moduleId
+     *            of the artifact
+     * @param filename
+     *            of the artifact
+     * @param baseSha1Hash
+     *            SHA1 hash of the base artifact
+     * @return the found {@link ArtifactDelta} or {@code null}
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_CONTROLLER)
+    public ArtifactDelta findDelta(@NotNull final Long moduleId, @NotNull final String filename,
+            @NotNull final String baseSha1Hash) {
+        return artifactDeltaRepository.findFirstByArtifactSoftwareModuleIdAndArtifactFilenameAndBaseArtifactSha1Hash(
+                moduleId, filename, baseSha1Hash);
+    }
+
+    /**
+     * Loads the binary of the given delta from the store.
+     *
+     * @param delta
+     *            to load
+     * @return loaded {@link DbArtifact}
+     *
+     * @throws GridFSDBFileNotFoundException
+     *             if file could not be found in store
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_DOWNLOAD_ARTIFACT + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.HAS_CONTROLLER_DOWNLOAD)
+    public DbArtifact loadDeltaBinary(@NotNull final ArtifactDelta delta) {
+        final DbArtifact result = artifactRepository.getArtifactBySha1(delta.getGridFsFileName());
+        if (result == null) {
+            throw new GridFSDBFileNotFoundException(delta.getGridFsFileName());
+        }
+
+        return result;
+    }
+
+    /**
+     * Deletes the deltas based on or resulting in the given artifact including
+     * their binaries if they are not referenced anymore, e.g. as the artifact
+     * is deleted or overridden.
+     *
+     * @param artifact
+     *            whose deltas are deleted
+     * @throws ArtifactDeleteFailedException
+     *             if deletion failed (MongoDB is not available)
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_DELETE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.HAS_AUTH_CREATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public void deleteDeltas(@NotNull final LocalArtifact artifact) {
+        delete(artifactDeltaRepository.findByBaseArtifactOrArtifact(artifact, artifact));
+    }
+
+    /**
+     * Deletes the deltas based on or resulting in an artifact of the given
+     * software module including their binaries if they are not referenced
+     * anymore, e.g. as the module is deleted.
+     *
+     * @param module
+     *            whose deltas are deleted
+     * @throws ArtifactDeleteFailedException
+     *             if deletion failed (MongoDB is not available)
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_DELETE_REPOSITORY + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public void deleteDeltas(@NotNull final SoftwareModule module) {
+        delete(artifactDeltaRepository.findByArtifactSoftwareModuleOrBaseArtifactSoftwareModule(module, module));
+    }
+
+    private void delete(final List<ArtifactDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        artifactDeltaRepository.delete(deltas);
+
+        deltas.stream().map(ArtifactDelta::getGridFsFileName).distinct().filter(this::isUnreferenced)
+                .forEach(gridFsFileName -> {
+                    try {
+                        LOG.debug("deleting artifact delta from repository {}", gridFsFileName);
+                        artifactRepository.deleteBySha1(gridFsFileName);
+                    } catch (final ArtifactStoreException e) {
+                        throw new ArtifactDeleteFailedException(e);
+                    }
+                });
+    }
+
+    private boolean isUnreferenced(final String gridFsFileName) {
+        return artifactDeltaRepository.countByGridFsFileName(gridFsFileName) == 0
+                && localArtifactRepository.findFirstByGridFsFileName(gridFsFileName) == null;
+    }
+
+    private boolean isWithinSizeLimits(final LocalArtifact artifact) {
+        return artifact.getSize() != null && artifact.getSize() >= deltaProperties.getMinArtifactSize()
+                && artifact.getSize() <= deltaProperties.getMaxArtifactSize();
+    }
+
+    private List<DeltaCandidate> findCandidates(final Long artifactId) {
+        final LocalArtifact artifact = localArtifactRepository.findOne(artifactId);
+        if (artifact == null || artifact.getSoftwareModule().isDeleted() || !isWithinSizeLimits(artifact)) {
+            return Collections.emptyList();
+        }
+
+        final SoftwareModule module = artifact.getSoftwareModule();
+        final List<SoftwareModule> previousVersions = softwareModuleRepository
+                .findByTypeAndNameAndDeletedFalseAndIdLessThan(module.getType(), module.getName(), module.getId(),
+                        new PageRequest(0, deltaProperties.getMaxBaseVersions(), Direction.DESC, "id"));
+
+        final List<DeltaCandidate> candidates = new ArrayList<>();
+        for (final SoftwareModule previousVersion : previousVersions) {
+            findBaseArtifact(module, artifact, previousVersion)
+                    .filter(base -> !base.getSha1Hash().equals(artifact.getSha1Hash()))
+                    .filter(this::isWithinSizeLimits)
+                    .filter(base -> artifactDeltaRepository.countByBaseArtifactAndArtifact(base, artifact) == 0)
+                    .ifPresent(base -> candidates.add(new DeltaCandidate(base, artifact)));
+        }
+        return candidates;
+    }
+
+    /**
+     * The base artifact has the same file name, modules with a single artifact
+     * are matched even if the file name contains e.g. the version.
+     */
+    private static Optional<LocalArtifact> findBaseArtifact(final SoftwareModule module, final LocalArtifact artifact,
+            final SoftwareModule previousVersion) {
+        final Optional<LocalArtifact> sameName = previousVersion.getLocalArtifactByFilename(artifact.getFilename());
+        if (sameName.isPresent()) {
+            return sameName;
+        }
+        if (module.getLocalArtifacts().size() == 1 && previousVersion.getLocalArtifacts().size() == 1) {
+            return Optional.of(previousVersion.getLocalArtifacts().get(0));
+        }
+        return Optional.empty();
+    }
+
+    private boolean generateDelta(final DeltaCandidate candidate) {
+        File base = null;
+        File target = null;
+        File delta = null;
+        try {
+            base = spool(candidate.baseGridFsFileName);
+            target = spool(candidate.gridFsFileName);
+            delta = File.createTempFile("hawkbit-delta-", ".tmp");
+
+            final long started = System.currentTimeMillis();
+            encode(base, target, delta);
+            if (delta.length() > candidate.size * deltaProperties.getMaxSizeRatio()) {
+                LOG.debug("Delta of artifact {} to artifact {} has {} of {} bytes and is discarded",
+                        candidate.artifactId, candidate.baseArtifactId, delta.length(), candidate.size);
+                return false;
+            }
+
+            final DbArtifact stored;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(delta))) {
+                stored = artifactRepository.store(in, candidate.filename + ArtifactDelta.FILENAME_EXTENSION,
+                        DELTA_CONTENT_TYPE);
+            }
+
+            final boolean saved = runInNewTransaction(txManager, "storeArtifactDelta",
+                    status -> saveDelta(candidate, stored));
+            if (saved) {
+                LOG.info("Generated delta of artifact {} to artifact {} with {} of {} bytes in {} ms",
+                        candidate.artifactId, candidate.baseArtifactId, stored.getSize(), candidate.size,
+                        System.currentTimeMillis() - started);
+            } else if (runInNewTransaction(txManager, "checkArtifactDelta",
+                    status -> isUnreferenced(stored.getHashes().getSha1()))) {
+                artifactRepository.deleteBySha1(stored.getHashes().getSha1());
+            }
+            return saved;
+        } catch (final IOException | ArtifactStoreException | GridFSDBFileNotFoundException e) {
+            LOG.warn("Failed to generate delta of artifact {} to artifact {}", candidate.artifactId,
+                    candidate.baseArtifactId, e);
+            return false;
+        } finally {
+            deleteQuietly(base);
+            deleteQuietly(target);
+            deleteQuietly(delta);
+        }
+    }
+
+    private boolean saveDelta(final DeltaCandidate candidate, final DbArtifact stored) {
+        final LocalArtifact baseArtifact = localArtifactRepository.findOne(candidate.baseArtifactId);
+        final LocalArtifact artifact = localArtifactRepository.findOne(candidate.artifactId);
+        // the artifacts may have been deleted or replaced in the meantime
+        if (baseArtifact == null || artifact == null
+                || !candidate.gridFsFileName.equals(artifact.getGridFsFileName())
+                || !candidate.baseGridFsFileName.equals(baseArtifact.getGridFsFileName())
+                || artifactDeltaRepository.countByBaseArtifactAndArtifact(baseArtifact, artifact) > 0) {
+            return false;
+        }
+
+        final ArtifactDelta delta = new ArtifactDelta(stored.getHashes().getSha1(), baseArtifact, artifact);
+        delta.setSha1Hash(stored.getHashes().getSha1());
+        delta.setMd5Hash(stored.getHashes().getMd5());
+        delta.setSize(stored.getSize());
+        artifactDeltaRepository.save(delta);
+        return true;
+    }
+
+    private File spool(final String gridFsFileName) throws IOException {
+        final DbArtifact binary = artifactRepository.getArtifactBySha1(gridFsFileName);
+        if (binary == null) {
+            throw new GridFSDBFileNotFoundException(gridFsFileName);
+        }
+
+        final File file = File.createTempFile("hawkbit-artifact-", ".tmp");
+        try (InputStream in = binary.getFileInputStream()) {
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private void encode(final File base, final File target, final File delta) throws IOException {
+        try (RandomAccessFile baseFile = new RandomAccessFile(base, "r");
+                RandomAccessFile targetFile = new RandomAccessFile(target, "r");
+                OutputStream out = new BufferedOutputStream(new FileOutputStream(delta))) {
+            final ByteBuffer baseBuffer = baseFile.getChannel().map(MapMode.READ_ONLY, 0, baseFile.length());
+            final ByteBuffer targetBuffer = targetFile.getChannel().map(MapMode.READ_ONLY, 0, targetFile.length());
+            BinaryDelta.encode(BinaryDelta.of(baseBuffer), BinaryDelta.of(targetBuffer), out,
+                    deltaProperties.getBlockSize());
+        }
+    }
+
+    private static void deleteQuietly(final File file) {
+        if (file != null && !file.delete() && file.exists()) {
+            LOG.warn("Failed to delete temporary file {}", file);
+        }
+    }
+
+    private static final class DeltaCandidate {
+        private final Long moduleId;
+        private final Long baseArtifactId;
+        private final String baseGridFsFileName;
+        private final Long artifactId;
+        private final String gridFsFileName;
+        private final String filename;
+        private final long size;
+
+        private DeltaCandidate(final LocalArtifact baseArtifact, final LocalArtifact artifact) {
+            this.moduleId = artifact.getSoftwareModule().getId();
+            this.baseArtifactId = baseArtifact.getId();
+            this.baseGridFsFileName = baseArtifact.getGridFsFileName();
+            this.artifactId = artifact.getId();
+            this.gridFsFileName = artifact.getGridFsFileName();
+            this.filename = artifact.getFilename();
+            this.size = artifact.getSize();
+        }
+    }
+}
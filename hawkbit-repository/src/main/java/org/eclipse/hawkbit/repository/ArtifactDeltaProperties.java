@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.artifact.delta.BinaryDelta;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the {@link ArtifactDeltaManagement}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.artifact.delta")
+public class ArtifactDeltaProperties {
+
+    /**
+     * Binaries are memory mapped for the delta generation which limits their
+     * size.
+     */
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * Generate deltas for new artifacts.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Artifacts smaller than this size in bytes are always downloaded
+     * completely.
+     */
+    private long minArtifactSize = 1024L * 1024L;
+
+    /**
+     * No deltas are generated for artifacts bigger than this size in bytes,
+     * at most 2 GB.
+     */
+    private long maxArtifactSize = 1024L * 1024L * 1024L;
+
+    /**
+     * Number of previous software module versions a delta is generated for.
+     */
+    private int maxBaseVersions = 3;
+
+    /**
+     * Deltas bigger than this fraction of the artifact size are discarded.
+     */
+    private double maxSizeRatio = 0.5;
+
+    /**
+     * Size of the blocks of the base artifact which are matched in bytes.
+     */
+    private int blockSize = BinaryDelta.DEFAULT_BLOCK_SIZE;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMinArtifactSize() {
+        return minArtifactSize;
+    }
+
+    public void setMinArtifactSize(final long minArtifactSize) {
+        this.minArtifactSize = minArtifactSize;
+    }
+
+    public long getMaxArtifactSize() {
+        return Math.min(maxArtifactSize, MAX_MAPPED_SIZE);
+    }
+
+    public void setMaxArtifactSize(final long maxArtifactSize) {
+        this.maxArtifactSize = maxArtifactSize;
+    }
+
+    public int getMaxBaseVersions() {
+        return maxBaseVersions;
+    }
+
+    public void setMaxBaseVersions(final int maxBaseVersions) {
+        this.maxBaseVersions = maxBaseVersions;
+    }
+
+    public double getMaxSizeRatio() {
+        return maxSizeRatio;
+    }
+
+    public void setMaxSizeRatio(final double maxSizeRatio) {
+        this.maxSizeRatio = maxSizeRatio;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(final int blockSize) {
+        this.blockSize = blockSize;
+    }
+}
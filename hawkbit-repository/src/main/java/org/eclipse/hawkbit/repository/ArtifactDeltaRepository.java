@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link ArtifactDelta} repository.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+public interface ArtifactDeltaRepository extends BaseEntityRepository<ArtifactDelta, Long> {
+
+    /**
+     * Retrieves the deltas which turn an artifact of one of the given base
+     * modules into an artifact of one of the given modules.
+     *
+     * @param moduleIds
+     *            the modules of the resulting artifacts
+     * @param baseModuleIds
+     *            the modules of the base artifacts
+     * @return the found {@link ArtifactDelta}s including base artifact and
+     *         artifact
+     */
+    @EntityGraph(value = "ArtifactDelta.artifacts", type = EntityGraphType.LOAD)
+    List<ArtifactDelta> findByArtifactSoftwareModuleIdInAndBaseArtifactSoftwareModuleIdIn(
+            Collection<Long> moduleIds, Collection<Long> baseModuleIds);
+
+    /**
+     * Retrieves the delta of a given artifact for a base artifact.
+     *
+     * @param softwareModuleId
+     *            the module of the resulting artifact
+     * @param filename
+     *            the file name of the resulting artifact
+     * @param baseSha1Hash
+     *            the SHA1 hash of the base artifact
+     * @return the found {@link ArtifactDelta} or {@code null}
+     */
+    ArtifactDelta findFirstByArtifactSoftwareModuleIdAndArtifactFilenameAndBaseArtifactSha1Hash(
+            Long softwareModuleId, String filename, String baseSha1Hash);
+
+    /**
+     * @param baseArtifact
+     *            the base artifact
+     * @param artifact
+     *            the resulting artifact
+     * @return number of deltas between the given artifacts
+     */
+    Long countByBaseArtifactAndArtifact(LocalArtifact baseArtifact, LocalArtifact artifact);
+
+    /**
+     * @param baseArtifact
+     *            the base artifact
+     * @param artifact
+     *            the resulting artifact
+     * @return all deltas based on or resulting in one of the given artifacts
+     */
+    List<ArtifactDelta> findByBaseArtifactOrArtifact(LocalArtifact baseArtifact, LocalArtifact artifact);
+
+    /**
+     * @param module
+     *            the module of the resulting artifacts
+     * @param baseModule
+     *            the module of the base artifacts
+     * @return all deltas based on or resulting in an artifact of the given
+     *         modules
+     */
+    List<ArtifactDelta> findByArtifactSoftwareModuleOrBaseArtifactSoftwareModule(SoftwareModule module,
+            SoftwareModule baseModule);
+
+    /**
+     * @param gridFsFileName
+     *            of the delta binary
+     * @return number of deltas which reference the binary
+     */
+    Long countByGridFsFileName(String gridFsFileName);
+}
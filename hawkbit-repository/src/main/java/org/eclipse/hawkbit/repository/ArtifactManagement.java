@@ -18,6 +18,8 @@ import org.eclipse.hawkbit.artifact.repository.ArtifactStoreException;
 import org.eclipse.hawkbit.artifact.repository.HashNotMatchException;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.eclipse.hawkbit.eventbus.event.SoftwareModuleContentChangedEvent;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.ArtifactDeleteFailedException;
 import org.eclipse.hawkbit.repository.exception.ArtifactUploadFailedException;
@@ -32,6 +34,7 @@ import org.eclipse.hawkbit.repository.model.ExternalArtifactProvider;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.specifications.SoftwareModuleSpecification;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +50,8 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.eventbus.EventBus;
+
 /**
  * Service for {@link Artifact} management operations.
  *
@@ -73,6 +78,18 @@ public class ArtifactManagement {
     @Autowired
     private ArtifactRepository artifactRepository;
 
+    @Autowired
+    private ArtifactDeltaManagement artifactDeltaManagement;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
     /**
      * Persists artifact binary as provided by given InputStream. assign the
      * artifact in addition to given {@link SoftwareModule}.
@@ -133,7 +150,19 @@ public class ArtifactManagement {
             return null;
         }
 
-        return storeArtifactMetadata(softwareModule, filename, result, existing);
+        if (existing != null) {
+            artifactDeltaManagement.deleteDeltas(existing);
+        }
+        final LocalArtifact artifact = storeArtifactMetadata(softwareModule, filename, result, existing);
+        artifactDeltaManagement.generateDeltasAfterCommit(artifact);
+        notifyContentChanged(softwareModule);
+        return artifact;
+    }
+
+    private void notifyContentChanged(final SoftwareModule softwareModule) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final Long moduleId = softwareModule.getId();
+        afterCommit.afterCommit(() -> eventBus.post(new SoftwareModuleContentChangedEvent(tenant, moduleId)));
     }
 
     private static LocalArtifact checkForExistingArtifact(final String filename, final boolean overrideExisting,
@@ -297,6 +326,7 @@ public class ArtifactManagement {
         existing.getSoftwareModule().removeArtifact(existing);
         softwareModuleRepository.save(existing.getSoftwareModule());
         localArtifactRepository.delete(id);
+        notifyContentChanged(existing.getSoftwareModule());
     }
 
     /**
@@ -313,6 +343,8 @@ public class ArtifactManagement {
             return;
         }
 
+        artifactDeltaManagement.deleteDeltas(existing);
+
         boolean artifactIsOnlyUsedByOneSoftwareModule = true;
         for (final LocalArtifact lArtifact : localArtifactRepository
                 .findByGridFsFileName(existing.getGridFsFileName())) {
@@ -9,15 +9,20 @@
 package org.eclipse.hawkbit.repository;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.Constants;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
@@ -26,7 +31,6 @@ import org.eclipse.hawkbit.repository.exception.ToManyStatusEntriesException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
-import org.eclipse.hawkbit.repository.model.ActionStatus_;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
@@ -50,6 +54,10 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 /**
  * Service layer for all operations of the controller API (with access
  * permissions only for the controller).
@@ -75,6 +83,9 @@ public class ControllerManagement {
     @Autowired
     private TargetRepository targetRepository;
 
+    @Autowired
+    private TargetArtifactAuthorizationIndex targetArtifactAuthorizationIndex;
+
     @Autowired
     private TargetManagement targetManagement;
 
@@ -87,9 +98,6 @@ public class ControllerManagement {
     @Autowired
     private SoftwareModuleRepository softwareModuleRepository;
 
-    @Autowired
-    private ActionStatusRepository actionStatusRepository;
-
     @Autowired
     private HawkbitSecurityProperties securityProperties;
 
@@ -145,6 +153,51 @@ public class ControllerManagement {
         return updateLastTargetQuery(target.getTargetInfo(), address).getTarget();
     }
 
+    /**
+     * Registers the given targets (plug-and-play) or refreshes the time of
+     * their last query and their address if they exist already. The existing
+     * targets are looked up and updated with one statement per chunk of
+     * targets and address respectively, the new targets are inserted as JDBC
+     * batch.
+     *
+     * @param addresses
+     *            the client addresses of the targets by controller ID
+     * @return the found and registered targets, the {@link TargetInfo}s of
+     *         found targets are refreshed after the update and notified with
+     *         a {@link org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent}
+     *         after the commit
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    public List<Target> findOrRegisterTargetsIfNotExist(@NotNull final Map<String, URI> addresses) {
+        final long now = System.currentTimeMillis();
+
+        final List<Target> targets = Lists
+                .partition(new ArrayList<>(addresses.keySet()), Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(ids -> targetRepository.findByControllerIdIn(ids.toArray(new String[ids.size()])).stream())
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // targets connected through the same gateway share the address
+        targets.stream()
+                .collect(Collectors.groupingBy(target -> addresses.get(target.getControllerId()).toString(),
+                        Collectors.mapping(Target::getId, Collectors.toList())))
+                .forEach((address, ids) -> Lists.partition(ids, Constants.MAX_ENTRIES_IN_STATEMENT)
+                        .forEach(chunk -> targetInfoRepository.updateLastTargetQuery(chunk, now, address)));
+
+        final Set<String> existing = targets.stream().map(Target::getControllerId).collect(Collectors.toSet());
+        final List<Target> newTargets = addresses.keySet().stream().filter(id -> !existing.contains(id))
+                .map(id -> {
+                    final Target target = new Target(id);
+                    target.setDescription("Plug and Play target: " + id);
+                    target.setName(id);
+                    return target;
+                }).collect(Collectors.toList());
+        targets.addAll(targetManagement.registerTargets(newTargets, now, addresses));
+
+        return targets;
+    }
+
     /**
      * Retrieves last {@link UpdateAction} for a download of an artifact of
      * given module and target.
@@ -178,6 +231,9 @@ public class ControllerManagement {
      * assigned or had ever been assigned to the target and so it's visible to a
      * specific target e.g. for downloading.
      * 
+     * Artifacts are identified by their SHA1 hash. The check is answered by the
+     * {@link TargetArtifactAuthorizationIndex} if possible.
+     * 
      * @param targetId
      *            the ID of the target to check
      * @param localArtifact
@@ -189,11 +245,24 @@ public class ControllerManagement {
      */
     public boolean hasTargetArtifactAssigned(@NotNull final String targetId,
             @NotNull final LocalArtifact localArtifact) {
+        final String sha1Hash = localArtifact.getSha1Hash();
+        if (sha1Hash == null) {
+            return false;
+        }
+        if (targetArtifactAuthorizationIndex.isAuthorized(targetId, sha1Hash)) {
+            return true;
+        }
+
         final Target target = targetRepository.findByControllerId(targetId);
         if (target == null) {
             return false;
         }
-        return actionRepository.count(ActionSpecifications.hasTargetAssignedArtifact(target, localArtifact)) > 0;
+        final boolean assigned = actionRepository
+                .count(ActionSpecifications.hasTargetAssignedArtifact(target, localArtifact)) > 0;
+        if (assigned) {
+            targetArtifactAuthorizationIndex.authorize(target, sha1Hash);
+        }
+        return assigned;
     }
 
     /**
@@ -227,6 +296,22 @@ public class ControllerManagement {
         return actionRepository.findByTargetAndActiveOrderByIdAsc(target, true);
     }
 
+    /**
+     * Retrieves all {@link Action}s which are active and assigned to one of
+     * the given {@link Target}s, ordered by their ID.
+     *
+     * @param targets
+     *            the targets to retrieve the actions from
+     * @return a list of active actions with their target and distribution set
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    public List<Action> findActionByTargetsAndActive(@NotNull final Collection<Target> targets) {
+        return Lists.partition(targets.stream().map(Target::getId).collect(Collectors.toList()),
+                Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(ids -> actionRepository.findByTargetIdInAndActiveOrderByIdAsc(ids, true).stream())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Retrieves all {@link SoftwareModule}s which are assigned to the given
      * {@link DistributionSet}.
@@ -356,7 +441,7 @@ public class ControllerManagement {
         default:
         }
         actionRepository.save(action);
-        actionStatusRepository.save(actionStatus);
+        deploymentManagement.storeActionStatus(actionStatus);
 
         return action;
     }
@@ -402,7 +487,7 @@ public class ControllerManagement {
         final Action mergedAction = entityManager.merge(action);
         Target mergedTarget = mergedAction.getTarget();
         // check for a potential DOS attack
-        checkForToManyStatusEntries(action);
+        checkForToManyStatusEntries(mergedAction);
 
         switch (actionStatus.getStatus()) {
         case ERROR:
@@ -421,7 +506,7 @@ public class ControllerManagement {
             break;
         }
 
-        actionStatusRepository.save(actionStatus);
+        deploymentManagement.storeActionStatus(actionStatus);
 
         LOG.debug("addUpdateActionStatus {} for target {} is finished.", action.getId(), mergedTarget.getId());
 
@@ -438,9 +523,7 @@ public class ControllerManagement {
     private void checkForToManyStatusEntries(final Action action) {
         if (securityProperties.getDos().getMaxStatusEntriesPerAction() > 0) {
 
-            final Long statusCount = actionStatusRepository.countByAction(action);
-
-            if (statusCount >= securityProperties.getDos().getMaxStatusEntriesPerAction()) {
+            if (action.getStatusCount() >= securityProperties.getDos().getMaxStatusEntriesPerAction()) {
                 LOG_DOS.error(
                         "Potential denial of service (DOS) attack identfied. More status entries in the system than permitted ({})!",
                         securityProperties.getDos().getMaxStatusEntriesPerAction());
@@ -469,7 +552,10 @@ public class ControllerManagement {
     }
 
     /**
-     * Updates attributes of the controller.
+     * Updates attributes of the controller. Only the attributes which have
+     * changed are written. A {@code null} value removes the attribute. If the
+     * controller reports the same attributes as the last time the attributes
+     * are not read at all.
      *
      * @param targetid
      *            to update
@@ -494,9 +580,43 @@ public class ControllerManagement {
             throw new EntityNotFoundException(targetid);
         }
 
-        target.getTargetInfo().getControllerAttributes().putAll(data);
+        final TargetInfo targetInfo = target.getTargetInfo();
+        final String hash = hashControllerAttributes(data);
+
+        if (!hash.equals(targetInfo.getControllerAttributesHash())) {
+            updateChangedControllerAttributes(target, data);
+            targetInfo.setControllerAttributesHash(hash);
+        }
+
+        targetInfo.setLastTargetQuery(System.currentTimeMillis());
+        targetInfo.setRequestControllerAttributes(false);
+        return targetRepository.save(target);
+    }
+
+    private void updateChangedControllerAttributes(final Target target, final Map<String, String> data) {
+        final TargetInfo targetInfo = target.getTargetInfo();
+        final Map<String, String> current = targetInfo.getControllerAttributes();
+
+        final Map<String, String> inserts = new HashMap<>();
+        final Map<String, String> updates = new HashMap<>();
+        final List<String> deletes = new ArrayList<>();
+        data.forEach((key, value) -> {
+            if (value == null) {
+                if (current.containsKey(key)) {
+                    deletes.add(key);
+                }
+            } else if (!current.containsKey(key)) {
+                inserts.put(key, value);
+            } else if (!value.equals(current.get(key))) {
+                updates.put(key, value);
+            }
+        });
+
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
 
-        if (target.getTargetInfo().getControllerAttributes().size() > securityProperties.getDos()
+        if (current.size() + inserts.size() - deletes.size() > securityProperties.getDos()
                 .getMaxAttributeEntriesPerTarget()) {
             LOG_DOS.info("Target tries to insert more than the allowed number of entries ({}). DOS attack anticipated!",
                     securityProperties.getDos().getMaxAttributeEntriesPerTarget());
@@ -504,9 +624,26 @@ public class ControllerManagement {
                     String.valueOf(securityProperties.getDos().getMaxAttributeEntriesPerTarget()));
         }
 
-        target.getTargetInfo().setLastTargetQuery(System.currentTimeMillis());
-        target.getTargetInfo().setRequestControllerAttributes(false);
-        return targetRepository.save(target);
+        targetInfoRepository.applyControllerAttributeChanges(target.getId(), inserts, updates, deletes);
+        // synchronize the managed entity with the database without writing
+        // the collection again
+        entityManager.refresh(targetInfo);
+    }
+
+    /**
+     * Calculates an order independent hash of the given attributes.
+     */
+    private static String hashControllerAttributes(final Map<String, String> data) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        new TreeMap<>(data).forEach((key, value) -> {
+            hasher.putString(key, StandardCharsets.UTF_8).putByte((byte) 0);
+            if (value == null) {
+                hasher.putByte((byte) 1);
+            } else {
+                hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+        });
+        return hasher.hash().toString();
     }
 
     /**
@@ -541,22 +678,6 @@ public class ControllerManagement {
      *         {@link Status#RETRIEVED}
      */
     public Action handleRegisterRetrieved(final Action action, final String message) {
-        // do a manual query with CriteriaBuilder to avoid unnecessary field
-        // queries and an extra
-        // count query made by spring-data when using pageable requests, we
-        // don't need an extra count
-        // query, we just want to check if the last action status is a retrieved
-        // or not.
-        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        final CriteriaQuery<Object[]> queryActionStatus = cb.createQuery(Object[].class);
-        final Root<ActionStatus> actionStatusRoot = queryActionStatus.from(ActionStatus.class);
-        final CriteriaQuery<Object[]> query = queryActionStatus
-                .multiselect(actionStatusRoot.get(ActionStatus_.id), actionStatusRoot.get(ActionStatus_.status))
-                .where(cb.equal(actionStatusRoot.get(ActionStatus_.action), action))
-                .orderBy(cb.desc(actionStatusRoot.get(ActionStatus_.id)));
-        final List<Object[]> resultList = entityManager.createQuery(query).setFirstResult(0).setMaxResults(1)
-                .getResultList();
-
         // if the latest status is not in retrieve state then we add a retrieved
         // state again, we want
         // to document a deployment retrieved status and a cancel retrieved
@@ -564,10 +685,10 @@ public class ControllerManagement {
         // retrieves after the other we don't want to store to protect to
         // overflood action status in
         // case controller retrieves a action multiple times.
-        if (resultList.isEmpty() || resultList.get(0)[1] != Status.RETRIEVED) {
+        if (action.getLastStatus() != Status.RETRIEVED) {
             // document that the status has been retrieved
-            actionStatusRepository
-                    .save(new ActionStatus(action, Status.RETRIEVED, System.currentTimeMillis(), message));
+            deploymentManagement.storeActionStatus(
+                    new ActionStatus(action, Status.RETRIEVED, System.currentTimeMillis(), message));
 
             // don't change the action status itself in case the action is in
             // canceling state otherwise
@@ -583,13 +704,49 @@ public class ControllerManagement {
     }
 
     /**
+     * Adds a status entry to the action without changing the status of the
+     * action, e.g. to document a download. System code is permitted as well
+     * to document abandoned downloads.
+     *
      * @param statusMessage
+     *            the status entry to add
      */
-    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public void addActionStatusMessage(final ActionStatus statusMessage) {
-        actionStatusRepository.save(statusMessage);
+        deploymentManagement.storeActionStatus(statusMessage);
+    }
+
+    /**
+     * Adds a {@link Status#DOWNLOAD} status entry to the action without
+     * changing the status of the action. The action is loaded within the
+     * transaction, so the entry is added to its current state even if the
+     * caller only knows the ID of the action. System code is permitted as well
+     * to document abandoned downloads.
+     *
+     * @param actionId
+     *            of the action the artifact is downloaded for
+     * @param message
+     *            of the status entry
+     *
+     * @throws EntityNotFoundException
+     *             if the action does not exist (anymore)
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public void addDownloadStatusMessage(@NotNull final Long actionId, @NotNull final String message) {
+        final Action action = actionRepository.findOne(actionId);
+        if (action == null) {
+            throw new EntityNotFoundException("Action: " + actionId);
+        }
+
+        final ActionStatus statusMessage = new ActionStatus(action, Status.DOWNLOAD, System.currentTimeMillis());
+        statusMessage.addMessage(SERVER_MESSAGE_PREFIX + message);
+        deploymentManagement.storeActionStatus(statusMessage);
     }
 
     /**
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+
+import com.google.common.base.Joiner;
+
+/**
+ * {@link ActionStatusArchive} which appends the status entries to a CSV file
+ * per tenant and day, i.e. {@code <directory>/<tenant>/actionstatus-<date>.csv}
+ * .
+ *
+ */
+public class CsvFileActionStatusArchive implements ActionStatusArchive {
+
+    private static final Joiner MESSAGE_JOINER = Joiner.on('\n');
+
+    private final Path directory;
+
+    /**
+     * @param directory
+     *            the base directory of the archive
+     */
+    public CsvFileActionStatusArchive(final String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    public void archive(final List<ActionStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        final Path file = directory.resolve(statuses.get(0).getTenant().toLowerCase())
+                .resolve("actionstatus-" + LocalDate.now() + ".csv");
+        try {
+            Files.createDirectories(file.getParent());
+            try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (final ActionStatus status : statuses) {
+                    writer.write(toCsvLine(status));
+                    writer.newLine();
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to archive action status entries to " + file, e);
+        }
+    }
+
+    private static String toCsvLine(final ActionStatus status) {
+        return status.getAction().getId() + "," + status.getId() + "," + status.getStatus() + ","
+                + status.getOccurredAt() + "," + status.getCreatedAt() + ","
+                + escape(MESSAGE_JOINER.join(status.getMessages()));
+    }
+
+    private static String escape(final String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
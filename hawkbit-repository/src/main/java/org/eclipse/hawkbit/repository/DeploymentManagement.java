@@ -27,9 +27,8 @@ import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.Constants;
+import org.eclipse.hawkbit.eventbus.EventOutbox;
 import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
-import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
-import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
@@ -48,13 +47,11 @@ import org.eclipse.hawkbit.repository.model.DistributionSet_;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.Rollout_;
-import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.specifications.TargetSpecifications;
-import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,9 +92,6 @@ public class DeploymentManagement {
     @Autowired
     private DistributionSetRepository distributoinSetRepository;
 
-    @Autowired
-    private SoftwareModuleRepository softwareModuleRepository;
-
     @Autowired
     private TargetRepository targetRepository;
 
@@ -120,7 +114,10 @@ public class DeploymentManagement {
     private AfterTransactionCommitExecutor afterCommit;
 
     @Autowired
-    private SystemSecurityContext systemSecurityContext;
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private TargetArtifactAuthorizationIndex targetArtifactAuthorizationIndex;
 
     /**
      * method assigns the {@link DistributionSet} to all {@link Target}s.
@@ -368,10 +365,15 @@ public class DeploymentManagement {
             actionStatus.setOccurredAt(action.getCreatedAt());
             actionStatus.setStatus(Status.RUNNING);
             actionStatusRepository.save(actionStatus);
+            // the actions are not inserted yet, so the summary is written
+            // with the insert
+            action.initStatusSummary(actionStatus);
         });
 
-        // flush to get action IDs
+        // flush to write the actions and their status in JDBC batches before
+        // the events are published
         entityManager.flush();
+        targetArtifactAuthorizationIndex.authorizeAfterCommit(targets, set);
         // collect updated target and actions IDs in order to return them
         final DistributionSetAssignmentResult result = new DistributionSetAssignmentResult(
                 targets.stream().map(target -> target.getControllerId()).collect(Collectors.toList()), targets.size(),
@@ -380,21 +382,18 @@ public class DeploymentManagement {
 
         LOG.debug("assignDistribution({}) finished {}", set, result);
 
-        final List<SoftwareModule> softwareModules = softwareModuleRepository.findByAssignedTo(set);
-
         // detaching as it is not necessary to persist the set itself
         entityManager.detach(set);
 
-        sendDistributionSetAssignmentEvent(targets, targetIdsCancellList, targetIdsToActions, softwareModules);
+        sendDistributionSetAssignmentEvent(targets, targetIdsCancellList, targetIdsToActions);
 
         return result;
     }
 
     private void sendDistributionSetAssignmentEvent(final List<Target> targets, final Set<Long> targetIdsCancellList,
-            final Map<String, Action> targetIdsToActions, final List<SoftwareModule> softwareModules) {
-        targets.stream().filter(t -> !!!targetIdsCancellList.contains(t.getId()))
-                .forEach(t -> assignDistributionSetEvent(t, targetIdsToActions.get(t.getControllerId()).getId(),
-                        softwareModules));
+            final Map<String, Action> targetIdsToActions) {
+        eventOutbox.addTargetAssignments(targets.stream().filter(t -> !!!targetIdsCancellList.contains(t.getId()))
+                .map(t -> targetIdsToActions.get(t.getControllerId())).collect(Collectors.toList()));
     }
 
     private static Action createTargetAction(final Map<String, TargetWithActionType> targetsWithActionMap,
@@ -412,31 +411,6 @@ public class DeploymentManagement {
         return actionForTarget;
     }
 
-    /**
-     * Sends the {@link TargetAssignDistributionSetEvent} for a specific target
-     * to the {@link EventBus}.
-     *
-     * @param target
-     *            the Target which has been assigned to a distribution set
-     * @param actionId
-     *            the action id of the assignment
-     * @param softwareModules
-     *            the software modules which have been assigned
-     */
-    private void assignDistributionSetEvent(final Target target, final Long actionId,
-            final List<SoftwareModule> softwareModules) {
-        target.getTargetInfo().setUpdateStatus(TargetUpdateStatus.PENDING);
-        final String targetSecurityToken = systemSecurityContext.runAsSystem(() -> {
-            return target.getSecurityToken();
-        });
-        afterCommit.afterCommit(() -> {
-            eventBus.post(new TargetInfoUpdateEvent(target.getTargetInfo()));
-            eventBus.post(new TargetAssignDistributionSetEvent(target.getOptLockRevision(), target.getTenant(),
-                    target.getControllerId(), actionId, softwareModules, target.getTargetInfo().getAddress(),
-                    targetSecurityToken));
-        });
-    }
-
     /**
      * Removes {@link UpdateAction}s that are no longer necessary and sends
      * cancellations to the controller.
@@ -454,12 +428,12 @@ public class DeploymentManagement {
         final List<Action> activeActions = actionRepository
                 .findByActiveAndTargetIdInAndActionStatusNotEqualToAndDistributionSetRequiredMigrationStep(targetsIds,
                         Action.Status.CANCELING);
+        final long canceledAt = System.currentTimeMillis();
         activeActions.forEach(action -> {
             action.setStatus(Status.CANCELING);
             // document that the status has been retrieved
 
-            actionStatusRepository.save(new ActionStatus(action, Status.CANCELING, System.currentTimeMillis(),
-                    "manual cancelation requested"));
+            storeActionStatus(new ActionStatus(action, Status.CANCELING, canceledAt, "manual cancelation requested"));
 
             cancelAssignDistributionSetEvent(action.getTarget(), action.getId());
 
@@ -538,7 +512,7 @@ public class DeploymentManagement {
             myAction.setStatus(Status.CANCELING);
 
             // document that the status has been retrieved
-            actionStatusRepository.save(new ActionStatus(myAction, Status.CANCELING, System.currentTimeMillis(),
+            storeActionStatus(new ActionStatus(myAction, Status.CANCELING, System.currentTimeMillis(),
                     "manual cancelation requested"));
             final Action saveAction = actionRepository.save(myAction);
             cancelAssignDistributionSetEvent(target, myAction.getId());
@@ -564,6 +538,30 @@ public class DeploymentManagement {
                 target.getTenant(), target.getControllerId(), actionId, target.getTargetInfo().getAddress())));
     }
 
+    /**
+     * Internal helper method used only inside service level. As a result is no
+     * additional security necessary.
+     *
+     * Stores a new status entry and records it in the status summary of the
+     * action by an atomic update, which does not touch the revision of the
+     * action. The managed action and the action of the entry are kept in sync
+     * with the summary.
+     *
+     * @param actionStatus
+     *            the new status entry
+     */
+    void storeActionStatus(@NotNull final ActionStatus actionStatus) {
+        actionStatusRepository.save(actionStatus);
+        final Action action = actionStatus.getAction();
+        final Action managedAction = entityManager.contains(action) ? action
+                : actionRepository.findOne(action.getId());
+        actionRepository.addToStatusSummary(action.getId(), actionStatus.getStatus(), actionStatus.getOccurredAt());
+        managedAction.addToStatusSummary(actionStatus);
+        if (managedAction != action) {
+            action.addToStatusSummary(actionStatus);
+        }
+    }
+
     /**
      * Force cancels given {@link Action} for given {@link Target}. Force
      * canceling means that the action is marked as canceled on the SP server
@@ -599,7 +597,7 @@ public class DeploymentManagement {
         LOG.warn("action ({}) was still activ and has been force quite.", action);
 
         // document that the status has been retrieved
-        actionStatusRepository.save(new ActionStatus(mergedAction, Status.CANCELED, System.currentTimeMillis(),
+        storeActionStatus(new ActionStatus(mergedAction, Status.CANCELED, System.currentTimeMillis(),
                 "A force quit has been performed."));
 
         successCancellation(mergedAction);
@@ -649,6 +647,7 @@ public class DeploymentManagement {
             action.setRolloutGroup(rolloutGroup);
             actionRepository.save(action);
         });
+        targetArtifactAuthorizationIndex.authorizeAfterCommit(targets, distributionSet);
     }
 
     /**
@@ -692,7 +691,7 @@ public class DeploymentManagement {
         actionStatus.setAction(action);
         actionStatus.setOccurredAt(action.getCreatedAt());
         actionStatus.setStatus(Status.RUNNING);
-        actionStatusRepository.save(actionStatus);
+        storeActionStatus(actionStatus);
 
         mergedTarget.setAssignedDistributionSet(action.getDistributionSet());
         final TargetInfo targetInfo = mergedTarget.getTargetInfo();
@@ -703,11 +702,8 @@ public class DeploymentManagement {
         // in case we canceled an action before for this target, then don't fire
         // assignment event
         if (!overrideObsoleteUpdateActions.contains(savedAction.getId())) {
-            final List<SoftwareModule> softwareModules = softwareModuleRepository
-                    .findByAssignedTo(action.getDistributionSet());
             // send distribution set assignment event
-
-            assignDistributionSetEvent(mergedAction.getTarget(), mergedAction.getId(), softwareModules);
+            eventOutbox.addTargetAssignments(Collections.singletonList(savedAction));
         }
         return savedAction;
     }
@@ -24,7 +24,9 @@ import javax.persistence.Entity;
 import javax.persistence.EntityManager;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagAssigmentResultEvent;
+import org.eclipse.hawkbit.eventbus.event.DistributionSetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.DistributionSetFilter.DistributionSetFilterBuilder;
@@ -50,6 +52,7 @@ import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.specifications.DistributionSetSpecification;
 import org.eclipse.hawkbit.repository.specifications.DistributionSetTypeSpecification;
 import org.eclipse.hawkbit.repository.specifications.SpecificationsBuilder;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -64,6 +67,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
 
 /**
@@ -75,6 +79,8 @@ import com.google.common.eventbus.EventBus;
 @Service
 public class DistributionSetManagement {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -102,6 +108,15 @@ public class DistributionSetManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private TagAssignmentBulkRepository tagAssignmentBulkRepository;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
     /**
      * Find {@link DistributionSet} based on given ID including (lazy loaded)
      * details, e.g. {@link DistributionSet#getAgentHub()}.
@@ -205,6 +220,77 @@ public class DistributionSetManagement {
         return result;
     }
 
+    /**
+     * Toggles the {@link DistributionSetTag} assignment of a large number of
+     * {@link DistributionSet}s the same way as
+     * {@link #toggleTagAssignment(Collection, String)}, but set based in
+     * chunks without loading the sets. The result therefore contains the
+     * numbers of changed sets only and a
+     * {@link DistributionSetTagBulkAssignmentEvent} with the ID range is
+     * published per chunk in addition to the
+     * {@link DistributionSetTagAssigmentResultEvent} with the result after
+     * commit.
+     *
+     * @param dsIds
+     *            to toggle for
+     * @param tagName
+     *            to toggle
+     * @return {@link DistributionSetTagAssignmentResult} with the numbers of
+     *         the assignment outcome.
+     *
+     * @throws EntityNotFoundException
+     *             if the tag does not exist
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY)
+    public DistributionSetTagAssignmentResult bulkToggleTagAssignment(@NotEmpty final Collection<Long> dsIds,
+            @NotNull final String tagName) {
+        final DistributionSetTag tag = tagManagement.findDistributionSetTag(tagName);
+        if (tag == null) {
+            throw new EntityNotFoundException("Distribution set tag: " + tagName);
+        }
+
+        final List<Long> sortedIds = new ArrayList<>(dsIds);
+        Collections.sort(sortedIds);
+
+        final List<List<Long>> chunks = new ArrayList<>();
+        int total = 0;
+        int alreadyAssigned = 0;
+        for (final List<Long> idChunk : Lists.partition(sortedIds, BULK_CHUNK_SIZE)) {
+            final List<Long> ids = distributionSetRepository.findIdByIdIn(idChunk);
+            if (!ids.isEmpty()) {
+                Collections.sort(ids);
+                chunks.add(ids);
+                total += ids.size();
+                alreadyAssigned += distributionSetRepository.countByTagAndIdIn(tag, ids);
+            }
+        }
+
+        // all are already assigned -> unassign
+        final boolean assign = alreadyAssigned < total;
+        final String tenant = tenantAware.getCurrentTenant();
+        int changed = 0;
+        for (final List<Long> ids : chunks) {
+            final int count = assign ? tagAssignmentBulkRepository.assignDistributionSetTag(tag.getId(), ids)
+                    : tagAssignmentBulkRepository.unassignDistributionSetTag(tag.getId(), ids);
+            changed += count;
+            final DistributionSetTagBulkAssignmentEvent event = new DistributionSetTagBulkAssignmentEvent(tenant,
+                    tag.getId(), ids.get(0), ids.get(ids.size() - 1), count, assign);
+            afterCommit.afterCommit(() -> eventBus.post(event));
+        }
+
+        final DistributionSetTagAssignmentResult result = assign
+                ? new DistributionSetTagAssignmentResult(alreadyAssigned, changed, 0, Collections.emptyList(),
+                        Collections.emptyList(), tag)
+                : new DistributionSetTagAssignmentResult(0, 0, changed, Collections.emptyList(),
+                        Collections.emptyList(), tag);
+
+        afterCommit.afterCommit(() -> eventBus.post(new DistributionSetTagAssigmentResultEvent(result)));
+        return result;
+    }
+
     /**
      * Retrieves {@link DistributionSet} List including details information,
      * i.e. @link BaseSoftwareModule}s and {@link DistributionSetTag}s.
@@ -418,6 +504,7 @@ public class DistributionSetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY)
     public DistributionSetType updateDistributionSetType(@NotNull final DistributionSetType dsType) {
         checkNotNull(dsType.getId());
+        entityCacheInvalidator.evict(EntityCacheInvalidator.DISTRIBUTION_SET_TYPE);
 
         final DistributionSetType persisted = distributionSetTypeRepository.findOne(dsType.getId());
 
@@ -705,7 +792,8 @@ public class DistributionSetManagement {
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
     public DistributionSetType findDistributionSetTypeByKey(@NotNull final String key) {
-        return distributionSetTypeRepository.findOne(DistributionSetTypeSpecification.byKey(key));
+        final Long id = distributionSetTypeRepository.findIdByKey(key);
+        return id == null ? null : distributionSetTypeRepository.findOne(DistributionSetTypeSpecification.byId(id));
     }
 
     /**
@@ -722,6 +810,7 @@ public class DistributionSetManagement {
         if (type.getId() != null) {
             throw new EntityAlreadyExistsException("Given type contains an Id!");
         }
+        entityCacheInvalidator.evict(EntityCacheInvalidator.DISTRIBUTION_SET_TYPE);
 
         return distributionSetTypeRepository.save(type);
     }
@@ -736,6 +825,7 @@ public class DistributionSetManagement {
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_DELETE_REPOSITORY)
     public void deleteDistributionSetType(@NotNull final DistributionSetType type) {
+        entityCacheInvalidator.evict(EntityCacheInvalidator.DISTRIBUTION_SET_TYPE);
 
         if (distributionSetRepository.countByType(type) > 0) {
             final DistributionSetType toDelete = entityManager.merge(type);
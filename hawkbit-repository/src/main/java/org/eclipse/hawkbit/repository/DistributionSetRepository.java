@@ -133,4 +133,23 @@ public interface DistributionSetRepository
      * @return number of found {@link DistributionSet}s
      */
     long countByNameAndVersion(String name, String version);
+
+    /**
+     * @param ids
+     *            to search for
+     * @return the IDs of the given {@link DistributionSet}s which exist
+     */
+    @Query("SELECT d.id FROM DistributionSet d WHERE d.id IN ?1")
+    List<Long> findIdByIdIn(final Collection<Long> ids);
+
+    /**
+     * @param tag
+     *            to check
+     * @param ids
+     *            of the {@link DistributionSet}s to check
+     * @return number of given {@link DistributionSet}s which have the tag
+     *         assigned
+     */
+    @Query("SELECT COUNT(d) FROM DistributionSet d JOIN d.tags dst WHERE dst = ?1 AND d.id IN ?2")
+    long countByTagAndIdIn(final DistributionSetTag tag, final Collection<Long> ids);
 }
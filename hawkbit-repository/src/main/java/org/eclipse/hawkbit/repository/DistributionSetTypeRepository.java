@@ -8,11 +8,14 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -55,4 +58,18 @@ public interface DistributionSetTypeRepository
      *         assigned to the given software module type
      */
     Long countByElementsSmType(SoftwareModuleType softwareModuleType);
+
+    /**
+     * Only the ID of the key is cached, as the types are mutable entities
+     * which must not be shared between callers.
+     *
+     * @param key
+     *            to search for
+     * @return ID of the {@link DistributionSetType} with the given
+     *         {@link DistributionSetType#getKey()} or <code>null</code> if
+     *         not found
+     */
+    @Cacheable(value = EntityCacheInvalidator.DISTRIBUTION_SET_TYPE, key = "'key:' + #p0", unless = "#result == null")
+    @Query("SELECT t.id FROM DistributionSetType t WHERE t.key = ?1")
+    Long findIdByKey(String key);
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.repository.model.Action;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+
+/**
+ * The download of an artifact for an {@link Action}, which can span several
+ * (range) requests of the target. The session records which bytes of the
+ * artifact have been served and reports the progress relative to the size of
+ * the artifact to the {@link DownloadSessionTracker}.
+ *
+ */
+public class DownloadSession {
+
+    private static final int DOWNLOAD_PROGRESS_MAX = 100;
+    private static final int DOWNLOAD_PROGRESS_STEP = 10;
+
+    private final DownloadSessionTracker tracker;
+    private final DownloadSessionTracker.SessionKey key;
+    private final String tenant;
+    private final Long actionId;
+    private final String resource;
+    private final long size;
+
+    private final RangeSet<Long> coverage = TreeRangeSet.create();
+    private long coveredBytes;
+    private long servedBytes;
+    private int requests;
+    private int progressPercent = 1;
+    private long lastAccessAt;
+    private boolean closed;
+
+    DownloadSession(final DownloadSessionTracker tracker, final DownloadSessionTracker.SessionKey key,
+            final String tenant, final Long actionId, final String resource, final long size) {
+        this.tracker = tracker;
+        this.key = key;
+        this.tenant = tenant;
+        this.actionId = actionId;
+        this.resource = resource;
+        this.size = size;
+        this.lastAccessAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Records that the given part of the artifact has been written to the
+     * target.
+     *
+     * @param position
+     *            offset of the part within the artifact
+     * @param length
+     *            number of bytes written
+     */
+    public void served(final long position, final long length) {
+        if (length <= 0) {
+            return;
+        }
+
+        final int percent;
+        final boolean report;
+        final boolean completed;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            lastAccessAt = System.currentTimeMillis();
+            servedBytes += length;
+            coverage.add(Range.closedOpen(position, position + length));
+            coveredBytes = 0;
+            for (final Range<Long> range : coverage.asRanges()) {
+                coveredBytes += range.upperEndpoint() - range.lowerEndpoint();
+            }
+
+            completed = coveredBytes >= size;
+            percent = completed ? DOWNLOAD_PROGRESS_MAX : (int) (coveredBytes * DOWNLOAD_PROGRESS_MAX / size);
+
+            // every 10 percent an event
+            report = percent > progressPercent + DOWNLOAD_PROGRESS_STEP
+                    || percent == DOWNLOAD_PROGRESS_MAX && progressPercent < DOWNLOAD_PROGRESS_MAX;
+            if (report) {
+                progressPercent = percent;
+            }
+            closed = completed;
+        }
+
+        if (report) {
+            tracker.progress(this, percent);
+        }
+        if (completed) {
+            tracker.completed(this);
+        }
+    }
+
+    synchronized void resumed() {
+        lastAccessAt = System.currentTimeMillis();
+        requests++;
+    }
+
+    synchronized boolean closeIfIdleSince(final long idleSince) {
+        if (closed || lastAccessAt > idleSince) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+    DownloadSessionTracker.SessionKey getKey() {
+        return key;
+    }
+
+    String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * @return the ID of the action the artifact is downloaded for
+     */
+    public Long getActionId() {
+        return actionId;
+    }
+
+    /**
+     * @return the requested resource of the first request
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * @return the size of the artifact in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of distinct bytes of the artifact which have been served
+     */
+    public synchronized long getCoveredBytes() {
+        return coveredBytes;
+    }
+
+    /**
+     * @return number of bytes served over all requests including repeated
+     *         parts
+     */
+    public synchronized long getServedBytes() {
+        return servedBytes;
+    }
+
+    /**
+     * @return number of requests of the session
+     */
+    public synchronized int getRequests() {
+        return requests;
+    }
+}
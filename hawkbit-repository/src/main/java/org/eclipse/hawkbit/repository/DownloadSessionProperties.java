@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the {@link DownloadSessionTracker}.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.download.session")
+public class DownloadSessionProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    /**
+     * Time in milliseconds without a request after which an incomplete
+     * download is considered as abandoned.
+     */
+    private long idleTimeout = 300000L;
+
+    /**
+     * Time in milliseconds the action ID of a download is cached per target
+     * and software module.
+     */
+    private long actionCacheExpiry = 60000L;
+
+    /**
+     * Maximum number of cached download action IDs.
+     */
+    private int actionCacheSize = 10_000;
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(final long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getActionCacheExpiry() {
+        return actionCacheExpiry;
+    }
+
+    public void setActionCacheExpiry(final long actionCacheExpiry) {
+        this.actionCacheExpiry = actionCacheExpiry;
+    }
+
+    public int getActionCacheSize() {
+        return actionCacheSize;
+    }
+
+    public void setActionCacheSize(final int actionCacheSize) {
+        this.actionCacheSize = actionCacheSize;
+    }
+
+    /**
+     * Abandoned session scheduler configuration.
+     */
+    public static class Scheduler {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.download.session.scheduler.fixedDelay:60000}";
+
+        /**
+         * Delay between two checks for abandoned downloads in milliseconds.
+         */
+        private long fixedDelay = 60000L;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+}
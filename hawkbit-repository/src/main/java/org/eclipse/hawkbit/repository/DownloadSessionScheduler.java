@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which closes the abandoned downloads of the
+ * {@link DownloadSessionTracker}. The delay between the runs can be configured
+ * using the property
+ * {@link DownloadSessionProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}
+ * .
+ */
+@Component
+// don't active the scheduler in test, the tests close the idle sessions
+// themselves.
+@Profile("!test")
+public class DownloadSessionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadSessionScheduler.class);
+
+    @Autowired
+    private DownloadSessionTracker downloadSessionTracker;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Closes the
+     * download sessions which have been idle for longer than the configured
+     * timeout.
+     */
+    @Scheduled(initialDelayString = DownloadSessionProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = DownloadSessionProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void closeIdleSessions() {
+        LOGGER.debug("download session check has been triggered.");
+        downloadSessionTracker.closeIdleSessions();
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.eclipse.hawkbit.cache.CacheWriteNotify;
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Tracks the artifact downloads of targets as {@link DownloadSession}s per
+ * tenant, {@link Action} and artifact. A session spans all (range) requests
+ * of the download, so only its start and its completion or abandonment are
+ * documented as {@link Status#DOWNLOAD} status entries of the action instead
+ * of one entry per request.
+ *
+ * The sessions are kept in memory of the node which serves the download. A
+ * session which has not been accessed within the configured
+ * {@link DownloadSessionProperties#getIdleTimeout()} is closed as abandoned
+ * by {@link #closeIdleSessions()}.
+ *
+ * The ID of the action of a download is cached per target and software
+ * module. Entries are invalidated on assignments and cancellations of the
+ * target and expire after
+ * {@link DownloadSessionProperties#getActionCacheExpiry()}. The action itself
+ * is loaded within the transaction which adds a status entry to it, so a
+ * session never works on a stale copy of the action.
+ */
+@Component
+@EventSubscriber
+public class DownloadSessionTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadSessionTracker.class);
+
+    @Autowired
+    private ControllerManagement controllerManagement;
+
+    @Autowired
+    private CacheWriteNotify cacheWriteNotify;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    @Autowired
+    private DownloadSessionProperties properties;
+
+    private final Map<SessionKey, DownloadSession> sessions = new ConcurrentHashMap<>();
+
+    private Cache<ActionKey, Long> actionIds;
+
+    @PostConstruct
+    void initActionCache() {
+        actionIds = CacheBuilder.newBuilder().maximumSize(properties.getActionCacheSize())
+                .expireAfterWrite(properties.getActionCacheExpiry(), TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Retrieves the ID of the action for a download of an artifact of the
+     * given module by the given target.
+     *
+     * @param controllerId
+     *            of the downloading target
+     * @param module
+     *            the artifact belongs to
+     * @return the ID of the action of the download
+     *
+     * @throws EntityNotFoundException
+     *             if action for given combination could not be found
+     *
+     * @see ControllerManagement#getActionForDownloadByTargetAndSoftwareModule(String,
+     *      SoftwareModule)
+     */
+    public Long findActionIdForDownload(final String controllerId, final SoftwareModule module) {
+        final ActionKey key = new ActionKey(tenantAware.getCurrentTenant(), controllerId, module.getId());
+        Long actionId = actionIds.getIfPresent(key);
+        if (actionId == null) {
+            actionId = controllerManagement.getActionForDownloadByTargetAndSoftwareModule(controllerId, module)
+                    .getId();
+            actionIds.put(key, actionId);
+        }
+        return actionId;
+    }
+
+    /**
+     * Starts a new download session or resumes the running session of the
+     * given action and artifact. A {@link Status#DOWNLOAD} status entry is
+     * added to the action if the session is new.
+     *
+     * @param actionId
+     *            of the action the artifact is downloaded for
+     * @param sha1Hash
+     *            of the downloaded artifact
+     * @param size
+     *            of the downloaded artifact in bytes
+     * @param resource
+     *            the requested resource
+     * @param range
+     *            the requested range or {@code null} if the whole artifact is
+     *            requested
+     * @return the session of the download
+     *
+     * @throws EntityNotFoundException
+     *             if the action of a new session does not exist anymore
+     */
+    public DownloadSession startOrResume(final Long actionId, final String sha1Hash, final long size,
+            final String resource, final String range) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final SessionKey key = new SessionKey(tenant, actionId, sha1Hash);
+
+        DownloadSession session = sessions.get(key);
+        if (session == null) {
+            final DownloadSession created = new DownloadSession(this, key, tenant, actionId, resource, size);
+            session = sessions.putIfAbsent(key, created);
+            if (session == null) {
+                session = created;
+                try {
+                    controllerManagement.addDownloadStatusMessage(actionId,
+                            range != null ? "Target downloads range " + range + " of: " + resource
+                                    : "Target downloads " + resource);
+                } catch (final EntityNotFoundException e) {
+                    sessions.remove(key, created);
+                    throw e;
+                }
+            }
+        }
+        session.resumed();
+        return session;
+    }
+
+    /**
+     * Closes the download sessions which have not been accessed within the
+     * idle timeout and documents them as abandoned at their action.
+     */
+    public void closeIdleSessions() {
+        final long idleSince = System.currentTimeMillis() - properties.getIdleTimeout();
+        final List<DownloadSession> abandoned = new ArrayList<>();
+        for (final DownloadSession session : sessions.values()) {
+            if (session.closeIfIdleSince(idleSince)) {
+                sessions.remove(session.getKey(), session);
+                abandoned.add(session);
+            }
+        }
+
+        if (abandoned.isEmpty()) {
+            return;
+        }
+
+        systemSecurityContext.runAsSystem(() -> {
+            for (final DownloadSession session : abandoned) {
+                tenantAware.runAsTenant(session.getTenant(), () -> {
+                    try {
+                        controllerManagement.addDownloadStatusMessage(session.getActionId(),
+                                "Target stopped downloading " + session.getResource() + " after "
+                                        + session.getCoveredBytes() + " of " + session.getSize() + " bytes in "
+                                        + session.getRequests() + " request(s)");
+                    } catch (final EntityNotFoundException e) {
+                        LOG.debug("Action {} of abandoned download does not exist anymore",
+                                session.getActionId(), e);
+                    }
+                    return null;
+                });
+            }
+            return null;
+        });
+        LOG.debug("Closed {} abandoned download sessions", abandoned.size());
+    }
+
+    /**
+     * @return number of running download sessions on this node
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Invalidates the cached download actions of the target.
+     *
+     * @param event
+     *            the assignment event
+     */
+    @Subscribe
+    public void onTargetAssignDistributionSet(final TargetAssignDistributionSetEvent event) {
+        invalidateActions(event.getTenant(), event.getControllerId());
+    }
+
+    /**
+     * Invalidates the cached download actions of the target.
+     *
+     * @param event
+     *            the cancellation event
+     */
+    @Subscribe
+    public void onCancelTargetAssignment(final CancelTargetAssignmentEvent event) {
+        invalidateActions(event.getTenant(), event.getControllerId());
+    }
+
+    void progress(final DownloadSession session, final int percent) {
+        cacheWriteNotify.downloadProgressPercent(session.getActionId(), percent);
+    }
+
+    void completed(final DownloadSession session) {
+        sessions.remove(session.getKey(), session);
+        controllerManagement.addDownloadStatusMessage(session.getActionId(),
+                "Target downloaded " + session.getResource() + " completely, " + session.getServedBytes()
+                        + " bytes served in " + session.getRequests() + " request(s)");
+    }
+
+    private void invalidateActions(final String tenant, final String controllerId) {
+        actionIds.asMap().keySet()
+                .removeIf(key -> key.tenant.equalsIgnoreCase(tenant) && key.controllerId.equals(controllerId));
+    }
+
+    static final class SessionKey {
+        private final String tenant;
+        private final Long actionId;
+        private final String sha1Hash;
+
+        private SessionKey(final String tenant, final Long actionId, final String sha1Hash) {
+            this.tenant = tenant.toUpperCase();
+            this.actionId = actionId;
+            this.sha1Hash = sha1Hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, actionId, sha1Hash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SessionKey)) {
+                return false;
+            }
+            final SessionKey other = (SessionKey) obj;
+            return tenant.equals(other.tenant) && actionId.equals(other.actionId)
+                    && sha1Hash.equals(other.sha1Hash);
+        }
+    }
+
+    private static final class ActionKey {
+        private final String tenant;
+        private final String controllerId;
+        private final Long moduleId;
+
+        private ActionKey(final String tenant, final String controllerId, final Long moduleId) {
+            this.tenant = tenant.toUpperCase();
+            this.controllerId = controllerId;
+            this.moduleId = moduleId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId, moduleId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ActionKey)) {
+                return false;
+            }
+            final ActionKey other = (ActionKey) obj;
+            return tenant.equals(other.tenant) && controllerId.equals(other.controllerId)
+                    && moduleId.equals(other.moduleId);
+        }
+    }
+}
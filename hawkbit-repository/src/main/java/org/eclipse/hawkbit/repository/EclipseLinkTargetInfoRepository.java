@@ -8,14 +8,22 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import static org.eclipse.hawkbit.repository.RepositoryUtility.appendPlaceholders;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.inList;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.setParameters;
+
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.Modifying;
@@ -46,6 +54,27 @@ public class EclipseLinkTargetInfoRepository implements TargetInfoRepository {
 
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @CacheEvict(value = { "targetStatus", "targetsLastPoll" }, allEntries = true)
+    public List<TargetInfo> updateLastTargetQuery(final Collection<Long> targets, final long lastTargetQuery,
+            final String address) {
+        final Query query = entityManager.createQuery(
+                "update TargetInfo ti set ti.lastTargetQuery = :lastTargetQuery, ti.address = :address where ti.targetId in :targets");
+        query.setParameter("targets", targets);
+        query.setParameter("lastTargetQuery", lastTargetQuery);
+        query.setParameter("address", address);
+        query.executeUpdate();
+
+        // the bulk update bypasses the persistence context
+        final TypedQuery<TargetInfo> refresh = entityManager
+                .createQuery("select ti from TargetInfo ti where ti.targetId in :targets", TargetInfo.class);
+        refresh.setParameter("targets", targets);
+        refresh.setHint(QueryHints.REFRESH, HintValues.TRUE);
+        return refresh.getResultList();
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -71,4 +100,58 @@ public class EclipseLinkTargetInfoRepository implements TargetInfoRepository {
 
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public void applyControllerAttributeChanges(final Long targetId, final Map<String, String> inserts,
+            final Map<String, String> updates, final Collection<String> deletes) {
+        if (!deletes.isEmpty()) {
+            final Query query = entityManager.createNativeQuery(
+                    "DELETE FROM sp_target_attributes WHERE target_id = ?1 AND attribute_key IN "
+                            + inList(2, deletes.size()));
+            query.setParameter(1, targetId);
+            setParameters(query, 2, deletes);
+            query.executeUpdate();
+        }
+
+        if (!updates.isEmpty()) {
+            final StringBuilder sql = new StringBuilder(
+                    "UPDATE sp_target_attributes SET attribute_value = CASE attribute_key");
+            int position = 2;
+            for (int i = 0; i < updates.size(); i++) {
+                sql.append(" WHEN ?").append(position++).append(" THEN ?").append(position++);
+            }
+            sql.append(" END WHERE target_id = ?1 AND attribute_key IN ").append(inList(position, updates.size()));
+
+            final Query query = entityManager.createNativeQuery(sql.toString());
+            query.setParameter(1, targetId);
+            position = 2;
+            for (final Map.Entry<String, String> entry : updates.entrySet()) {
+                query.setParameter(position++, entry.getKey());
+                query.setParameter(position++, entry.getValue());
+            }
+            setParameters(query, position, updates.keySet());
+            query.executeUpdate();
+        }
+
+        if (!inserts.isEmpty()) {
+            final StringBuilder sql = new StringBuilder(
+                    "INSERT INTO sp_target_attributes (target_id, attribute_key, attribute_value) VALUES ");
+            for (int i = 0; i < inserts.size(); i++) {
+                sql.append(i == 0 ? "(" : ", (");
+                appendPlaceholders(sql, i * 3 + 1, 3);
+                sql.append(')');
+            }
+
+            final Query query = entityManager.createNativeQuery(sql.toString());
+            int position = 1;
+            for (final Map.Entry<String, String> entry : inserts.entrySet()) {
+                query.setParameter(position++, targetId);
+                query.setParameter(position++, entry.getKey());
+                query.setParameter(position++, entry.getValue());
+            }
+            query.executeUpdate();
+        }
+    }
+
 }
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.repository.model.EntityIdSequenceCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the ID allocation and the JDBC batch writing of the
+ * repository.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.jpa")
+public class JpaWriteProperties {
+
+    /**
+     * Number of entity IDs a node allocates from the database at once. IDs of
+     * a block which are not used until shutdown are lost.
+     */
+    private int idAllocationSize = EntityIdSequenceCustomizer.DEFAULT_ALLOCATION_SIZE;
+
+    /**
+     * Send the inserts and updates of a transaction as JDBC batches. MySQL
+     * requires rewriteBatchedStatements=true in the JDBC URL to send multi
+     * row statements.
+     */
+    private boolean batchWriting = true;
+
+    /**
+     * Maximum number of statements per JDBC batch.
+     */
+    private int batchSize = 100;
+
+    public int getIdAllocationSize() {
+        return idAllocationSize;
+    }
+
+    public void setIdAllocationSize(final int idAllocationSize) {
+        this.idAllocationSize = idAllocationSize;
+    }
+
+    public boolean isBatchWriting() {
+        return batchWriting;
+    }
+
+    public void setBatchWriting(final boolean batchWriting) {
+        this.batchWriting = batchWriting;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
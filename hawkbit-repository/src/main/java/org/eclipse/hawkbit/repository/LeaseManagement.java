@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.ClusterNode;
+import org.eclipse.hawkbit.repository.exception.ConcurrentModificationException;
+import org.eclipse.hawkbit.repository.model.Lease;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Cluster wide leases on units of work, stored in the {@code sp_lease}
+ * table. A lease is acquired by one node only and kept alive by the
+ * {@link #heartbeat()} of the node as long as it is held. If the node fails
+ * the lease expires and can be acquired by another node, which increments the
+ * fencing token of the lease. Work done under a lease is fenced by
+ * {@link #fence(Lease)} within its transaction, so the work of a node which
+ * has lost its lease is rolled back.
+ *
+ * The heartbeat also registers the node itself, which allows to spread work
+ * evenly over the live nodes of the cluster.
+ *
+ */
+@Service
+public class LeaseManagement {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaseManagement.class);
+
+    // the node registrations do not belong to a tenant
+    private static final String CLUSTER_TENANT = "";
+    private static final String NODE_KEY_PREFIX = "node.";
+
+    // fencing token of a lease which is held by another node
+    private static final long HELD_BY_OTHER_NODE = 0L;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private RolloutProperties rolloutProperties;
+
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+
+    /**
+     * Acquires the lease on the given work of the current tenant if it is not
+     * held by any node or has expired. The lease is kept alive by the
+     * heartbeat of this node until it is released.
+     *
+     * @param key
+     *            of the work
+     * @param duration
+     *            in milliseconds the lease is valid without heartbeat
+     * @return the acquired lease or {@code null} if the lease is held by a
+     *         node
+     */
+    public Lease tryAcquire(final String key, final long duration) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final long expiresAt = System.currentTimeMillis() + duration;
+
+        Long fencingToken = runInNewTransaction(txManager, "acquireLease",
+                status -> takeOverExpired(tenant, key, expiresAt));
+        if (fencingToken == null) {
+            fencingToken = create(tenant, key, expiresAt);
+        }
+        if (fencingToken == HELD_BY_OTHER_NODE) {
+            return null;
+        }
+
+        final Lease lease = new Lease(tenant, key, fencingToken, duration, expiresAt);
+        heldLeases.put(heldKey(lease), lease);
+        LOG.debug("Acquired {}", lease);
+        return lease;
+    }
+
+    /**
+     * Checks within the current transaction that the given lease is still
+     * held by this node and extends it. The lease row stays locked until the
+     * end of the transaction, so the lease cannot be taken over before the
+     * work of the transaction is committed.
+     *
+     * @param lease
+     *            to check
+     *
+     * @throws ConcurrentModificationException
+     *             if the lease has been taken over by another node
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void fence(final Lease lease) {
+        final long expiresAt = System.currentTimeMillis() + lease.getDuration();
+        if (extend(lease, expiresAt) == 0) {
+            heldLeases.remove(heldKey(lease));
+            throw new ConcurrentModificationException(lease + " has been taken over by another node");
+        }
+        lease.setExpiresAt(expiresAt);
+    }
+
+    /**
+     * Releases the given lease and deletes it, i.e. the work is done.
+     *
+     * @param lease
+     *            to release
+     */
+    public void release(final Lease lease) {
+        heldLeases.remove(heldKey(lease));
+        runInNewTransaction(txManager, "releaseLease", status -> {
+            final Query query = entityManager.createNativeQuery(
+                    "DELETE FROM sp_lease WHERE tenant = ?1 AND lease_key = ?2 AND owner = ?3 AND fencing_token = ?4");
+            query.setParameter(1, lease.getTenant());
+            query.setParameter(2, lease.getKey());
+            query.setParameter(3, ClusterNode.getId());
+            query.setParameter(4, lease.getFencingToken());
+            return query.executeUpdate();
+        });
+    }
+
+    /**
+     * Releases the given lease but keeps it until the given time, i.e. the
+     * work must not be done again before.
+     *
+     * @param lease
+     *            to release
+     * @param retainUntil
+     *            time in milliseconds until the lease cannot be acquired
+     */
+    public void release(final Lease lease, final long retainUntil) {
+        heldLeases.remove(heldKey(lease));
+        runInNewTransaction(txManager, "releaseLease", status -> extend(lease, retainUntil));
+    }
+
+    /**
+     * Deletes the given leases of the current tenant within the current
+     * transaction, e.g. because the leased work does not exist anymore.
+     *
+     * @param keys
+     *            of the leases
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(final Collection<String> keys) {
+        final String tenant = tenantAware.getCurrentTenant();
+        keys.forEach(key -> {
+            heldLeases.remove(tenant + '/' + key);
+            final Query query = entityManager
+                    .createNativeQuery("DELETE FROM sp_lease WHERE tenant = ?1 AND lease_key = ?2");
+            query.setParameter(1, tenant);
+            query.setParameter(2, key);
+            query.executeUpdate();
+        });
+    }
+
+    /**
+     * @param key
+     *            of the work
+     * @return {@code true} if a node holds the lease on the given work of the
+     *         current tenant
+     */
+    public boolean isHeld(final String key) {
+        final Query query = entityManager.createNativeQuery(
+                "SELECT COUNT(id) FROM sp_lease WHERE tenant = ?1 AND lease_key = ?2 AND expires_at > ?3");
+        query.setParameter(1, tenantAware.getCurrentTenant());
+        query.setParameter(2, key);
+        query.setParameter(3, System.currentTimeMillis());
+        return ((Number) query.getSingleResult()).longValue() > 0;
+    }
+
+    /**
+     * @return number of nodes whose heartbeat has not expired, at least
+     *         {@code 1} for this node
+     */
+    public int countLiveNodes() {
+        final Query query = entityManager.createNativeQuery(
+                "SELECT COUNT(id) FROM sp_lease WHERE tenant = ?1 AND lease_key LIKE ?2 AND expires_at > ?3");
+        query.setParameter(1, CLUSTER_TENANT);
+        query.setParameter(2, NODE_KEY_PREFIX + '%');
+        query.setParameter(3, System.currentTimeMillis());
+        return Math.max(1, ((Number) query.getSingleResult()).intValue());
+    }
+
+    /**
+     * Registers this node as live and extends the leases held by this node.
+     * Leases which have been taken over by another node in the meantime are
+     * dropped.
+     */
+    public void heartbeat() {
+        final long now = System.currentTimeMillis();
+        final long nodeExpiresAt = now + rolloutProperties.getLease().getDuration();
+        final String nodeKey = NODE_KEY_PREFIX + ClusterNode.getId();
+        final int renewed = runInNewTransaction(txManager, "nodeHeartbeat", status -> {
+            final Query query = entityManager
+                    .createNativeQuery("UPDATE sp_lease SET expires_at = ?1 WHERE tenant = ?2 AND lease_key = ?3");
+            query.setParameter(1, nodeExpiresAt);
+            query.setParameter(2, CLUSTER_TENANT);
+            query.setParameter(3, nodeKey);
+            final int updated = query.executeUpdate();
+
+            // removes the registrations of failed and stopped nodes
+            final Query cleanup = entityManager.createNativeQuery(
+                    "DELETE FROM sp_lease WHERE tenant = ?1 AND lease_key LIKE ?2 AND expires_at < ?3");
+            cleanup.setParameter(1, CLUSTER_TENANT);
+            cleanup.setParameter(2, NODE_KEY_PREFIX + '%');
+            cleanup.setParameter(3, now);
+            cleanup.executeUpdate();
+            return updated;
+        });
+        if (renewed == 0) {
+            create(CLUSTER_TENANT, nodeKey, nodeExpiresAt);
+        }
+
+        heldLeases.values().forEach(lease -> {
+            final long expiresAt = now + lease.getDuration();
+            if (runInNewTransaction(txManager, "renewLease", status -> extend(lease, expiresAt)) == 0) {
+                LOG.warn("{} has been taken over by another node", lease);
+                heldLeases.remove(heldKey(lease));
+            } else {
+                lease.setExpiresAt(expiresAt);
+            }
+        });
+    }
+
+    /**
+     * Takes over the lease if it has expired.
+     *
+     * @return the new fencing token, {@link #HELD_BY_OTHER_NODE} if the lease
+     *         is held or {@code null} if the lease does not exist
+     */
+    private Long takeOverExpired(final String tenant, final String key, final long expiresAt) {
+        final Query update = entityManager.createNativeQuery(
+                "UPDATE sp_lease SET owner = ?1, expires_at = ?2, fencing_token = fencing_token + 1 WHERE tenant = ?3 AND lease_key = ?4 AND expires_at <= ?5");
+        update.setParameter(1, ClusterNode.getId());
+        update.setParameter(2, expiresAt);
+        update.setParameter(3, tenant);
+        update.setParameter(4, key);
+        update.setParameter(5, System.currentTimeMillis());
+        final boolean takenOver = update.executeUpdate() > 0;
+
+        final Query select = entityManager
+                .createNativeQuery("SELECT fencing_token FROM sp_lease WHERE tenant = ?1 AND lease_key = ?2");
+        select.setParameter(1, tenant);
+        select.setParameter(2, key);
+        final Number fencingToken = (Number) select.getResultList().stream().findFirst().orElse(null);
+        if (fencingToken == null) {
+            return null;
+        }
+        return takenOver ? fencingToken.longValue() : HELD_BY_OTHER_NODE;
+    }
+
+    private long create(final String tenant, final String key, final long expiresAt) {
+        try {
+            return runInNewTransaction(txManager, "createLease", status -> {
+                final Query insert = entityManager.createNativeQuery(
+                        "INSERT INTO sp_lease (tenant, lease_key, owner, expires_at, fencing_token) VALUES (?1, ?2, ?3, ?4, 1)");
+                insert.setParameter(1, tenant);
+                insert.setParameter(2, key);
+                insert.setParameter(3, ClusterNode.getId());
+                insert.setParameter(4, expiresAt);
+                insert.executeUpdate();
+                return 1L;
+            });
+        } catch (final PersistenceException | DataIntegrityViolationException e) {
+            // the unique key prevents that two nodes create the same lease
+            if (!isIntegrityViolation(e)) {
+                throw e;
+            }
+            LOG.debug("Lease {} has been created by another node", key, e);
+            return HELD_BY_OTHER_NODE;
+        }
+    }
+
+    private static boolean isIntegrityViolation(final RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return true;
+        }
+        // SQL state class 23 is the integrity constraint violation
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && ((SQLException) cause).getSQLState() != null
+                    && ((SQLException) cause).getSQLState().startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int extend(final Lease lease, final long expiresAt) {
+        final Query query = entityManager.createNativeQuery(
+                "UPDATE sp_lease SET expires_at = ?1 WHERE tenant = ?2 AND lease_key = ?3 AND owner = ?4 AND fencing_token = ?5");
+        query.setParameter(1, expiresAt);
+        query.setParameter(2, lease.getTenant());
+        query.setParameter(3, lease.getKey());
+        query.setParameter(4, ClusterNode.getId());
+        query.setParameter(5, lease.getFencingToken());
+        return query.executeUpdate();
+    }
+
+    private static String heldKey(final Lease lease) {
+        return lease.getTenant() + '/' + lease.getKey();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import javax.persistence.Query;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Helpers for the repository services which process their data in native
+ * statements and in transactions of their own, e.g. batch jobs which commit
+ * every chunk separately.
+ *
+ */
+public final class RepositoryUtility {
+
+    private RepositoryUtility() {
+        // utility class
+    }
+
+    /**
+     * Appends the positional placeholders of an IN list, e.g.
+     * {@code ?3, ?4, ?5}. Native queries do not expand collection parameters,
+     * so a placeholder is needed for every value.
+     *
+     * @param sql
+     *            to append the placeholders to
+     * @param firstPosition
+     *            of the first placeholder
+     * @param count
+     *            of placeholders
+     * @return the given sql
+     */
+    public static StringBuilder appendPlaceholders(final StringBuilder sql, final int firstPosition,
+            final int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('?').append(firstPosition + i);
+        }
+        return sql;
+    }
+
+    /**
+     * @param firstPosition
+     *            of the first placeholder
+     * @param count
+     *            of placeholders
+     * @return an IN list of positional placeholders, e.g. {@code (?1, ?2)}
+     * @see #appendPlaceholders(StringBuilder, int, int)
+     */
+    public static String inList(final int firstPosition, final int count) {
+        return appendPlaceholders(new StringBuilder("("), firstPosition, count).append(')').toString();
+    }
+
+    /**
+     * Binds the values to the positional parameters which have been generated
+     * by {@link #appendPlaceholders(StringBuilder, int, int)}.
+     *
+     * @param query
+     *            to bind the values to
+     * @param firstPosition
+     *            of the first value
+     * @param values
+     *            to bind
+     * @return the position after the last bound value
+     */
+    public static int setParameters(final Query query, final int firstPosition, final Iterable<?> values) {
+        int position = firstPosition;
+        for (final Object value : values) {
+            query.setParameter(position++, value);
+        }
+        return position;
+    }
+
+    /**
+     * Runs the action in a new transaction which is committed independent of
+     * the transaction of the caller.
+     *
+     * @param txManager
+     *            to start the transaction with
+     * @param name
+     *            of the transaction
+     * @param action
+     *            to run
+     * @return the result of the action
+     */
+    public static <T> T runInNewTransaction(final PlatformTransactionManager txManager, final String name,
+            final TransactionCallback<T> action) {
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName(name);
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TransactionTemplate(txManager, def).execute(action);
+    }
+}
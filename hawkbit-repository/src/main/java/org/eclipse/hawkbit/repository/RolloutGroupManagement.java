@@ -27,6 +27,7 @@ import org.eclipse.hawkbit.repository.model.Action_;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroup_;
 import org.eclipse.hawkbit.repository.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.model.RolloutTargetGroup_;
@@ -41,6 +42,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -186,6 +188,10 @@ public class RolloutGroupManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     public Page<Target> findRolloutGroupTargets(final RolloutGroup rolloutGroup,
             final Specification<Target> specification, final Pageable page) {
+        if (rolloutGroup.getRollout().isVirtualGroups()) {
+            return targetRepository.findAll(
+                    Specifications.where(specification).and(virtualRolloutGroupTargets(rolloutGroup)), page);
+        }
         return targetRepository.findAll((root, query, criteriaBuilder) -> {
             final ListJoin<Target, RolloutTargetGroup> rolloutTargetJoin = root.join(Target_.rolloutTargetGroup);
             return criteriaBuilder.and(specification.toPredicate(root, query, criteriaBuilder),
@@ -205,6 +211,9 @@ public class RolloutGroupManagement {
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     public Page<Target> findRolloutGroupTargets(@NotNull final RolloutGroup rolloutGroup, final Pageable page) {
+        if (rolloutGroup.getRollout().isVirtualGroups()) {
+            return targetRepository.findAll(virtualRolloutGroupTargets(rolloutGroup), page);
+        }
         if (isRolloutStatusReady(rolloutGroup)) {
             // in case of status ready the action has not been created yet and
             // the relation information between target and rollout-group is
@@ -218,6 +227,24 @@ public class RolloutGroupManagement {
         return rolloutGroup != null && RolloutStatus.READY.equals(rolloutGroup.getRollout().getStatus());
     }
 
+    private static boolean isVirtualGroupStarted(final RolloutGroup rolloutGroup) {
+        return rolloutGroup.getStatus() != RolloutGroupStatus.READY
+                && rolloutGroup.getStatus() != RolloutGroupStatus.SCHEDULED;
+    }
+
+    /**
+     * The targets of a virtual group are resolved by the target filter of the
+     * rollout until the group is started, afterwards the group consists of the
+     * targets of its actions.
+     */
+    private static Specification<Target> virtualRolloutGroupTargets(final RolloutGroup rolloutGroup) {
+        if (!isVirtualGroupStarted(rolloutGroup)) {
+            return RolloutManagement.virtualRolloutGroupTargets(rolloutGroup.getRollout(), rolloutGroup);
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder
+                .equal(root.join(Target_.actions).get(Action_.rolloutGroup), rolloutGroup);
+    }
+
     /**
      * 
      * Find all targets with action status by rollout group id. The action
@@ -235,6 +262,9 @@ public class RolloutGroupManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     public Page<TargetWithActionStatus> findAllTargetsWithActionStatus(final PageRequest pageRequest,
             @NotNull final RolloutGroup rolloutGroup) {
+        if (rolloutGroup.getRollout().isVirtualGroups()) {
+            return findAllVirtualGroupTargetsWithActionStatus(pageRequest, rolloutGroup);
+        }
 
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
@@ -260,4 +290,35 @@ public class RolloutGroupManagement {
                 .collect(Collectors.toList());
         return new PageImpl<>(targetWithActionStatus, pageRequest, totalCount);
     }
+
+    private Page<TargetWithActionStatus> findAllVirtualGroupTargetsWithActionStatus(final PageRequest pageRequest,
+            final RolloutGroup rolloutGroup) {
+        if (!isVirtualGroupStarted(rolloutGroup)) {
+            // no actions yet
+            final Page<Target> targets = targetRepository.findAll(virtualRolloutGroupTargets(rolloutGroup),
+                    pageRequest);
+            return new PageImpl<>(
+                    targets.getContent().stream().map(TargetWithActionStatus::new).collect(Collectors.toList()),
+                    pageRequest, targets.getTotalElements());
+        }
+
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        final Root<Action> countQueryFrom = countQuery.from(Action.class);
+        countQuery.select(cb.count(countQueryFrom))
+                .where(cb.equal(countQueryFrom.get(Action_.rolloutGroup), rolloutGroup));
+        final Long totalCount = entityManager.createQuery(countQuery).getSingleResult();
+
+        final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        final Root<Action> actionRoot = query.from(Action.class);
+        final CriteriaQuery<Object[]> multiselect = query
+                .multiselect(actionRoot.get(Action_.target), actionRoot.get(Action_.status))
+                .where(cb.equal(actionRoot.get(Action_.rolloutGroup), rolloutGroup))
+                .orderBy(cb.asc(actionRoot.get(Action_.id)));
+        final List<TargetWithActionStatus> targetWithActionStatus = entityManager.createQuery(multiselect)
+                .setFirstResult(pageRequest.getOffset()).setMaxResults(pageRequest.getPageSize()).getResultList()
+                .stream().map(o -> new TargetWithActionStatus((Target) o[0], (Action.Status) o[1]))
+                .collect(Collectors.toList());
+        return new PageImpl<>(targetWithActionStatus, pageRequest, totalCount);
+    }
 }
@@ -8,23 +8,28 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.Constants;
 import org.eclipse.hawkbit.cache.CacheWriteNotify;
 import org.eclipse.hawkbit.eventbus.event.RolloutGroupCreatedEvent;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.exception.ConcurrentModificationException;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Lease;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -36,7 +41,10 @@ import org.eclipse.hawkbit.repository.model.RolloutTargetGroup;
 import org.eclipse.hawkbit.repository.model.Rollout_;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.eclipse.hawkbit.repository.model.Target_;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
+import org.eclipse.hawkbit.repository.rsql.RSQLUtility;
+import org.eclipse.hawkbit.repository.specifications.TargetSpecifications;
 import org.eclipse.hawkbit.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.rollout.condition.RolloutGroupConditionEvaluator;
 import org.hibernate.validator.constraints.NotEmpty;
@@ -47,22 +55,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.DefaultTransactionDefinition;
-import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
@@ -96,9 +105,6 @@ public class RolloutManagement {
     @Autowired
     private DeploymentManagement deploymentManagement;
 
-    @Autowired
-    private RolloutTargetGroupRepository rolloutTargetGroupRepository;
-
     @Autowired
     private ActionRepository actionRepository;
 
@@ -115,24 +121,21 @@ public class RolloutManagement {
     private CacheWriteNotify cacheWriteNotify;
 
     @Autowired
-    @Qualifier("asyncExecutor")
+    @Qualifier("rolloutExecutor")
     private Executor executor;
 
     /*
-     * set which stores the rollouts which are asynchronously creating. This is
-     * necessary to verify rollouts which maybe stuck during creationg e.g.
-     * because of database interruption, failures or even application crash.
-     * !This is not cluster aware!
+     * the asynchronous creation and start and the checks of a rollout are
+     * done under a cluster wide lease, which expires if the node fails. This
+     * is necessary to verify rollouts which maybe stuck during creation or
+     * starting e.g. because of database interruption, failures or even
+     * application crash and to spread the checks over the nodes.
      */
-    private static final Set<String> creatingRollouts = ConcurrentHashMap.newKeySet();
+    @Autowired
+    private LeaseManagement leaseManagement;
 
-    /*
-     * set which stores the rollouts which are asynchronously starting. This is
-     * necessary to verify rollouts which maybe stuck during starting e.g.
-     * because of database interruption, failures or even application crash.
-     * !This is not cluster aware!
-     */
-    private static final Set<String> startingRollouts = ConcurrentHashMap.newKeySet();
+    @Autowired
+    private RolloutProperties rolloutProperties;
 
     /**
      * Retrieves all rollouts.
@@ -250,7 +253,6 @@ public class RolloutManagement {
     public Rollout createRolloutAsync(final Rollout rollout, final int amountGroup,
             final RolloutGroupConditions conditions) {
         final Rollout savedRollout = createRollout(rollout, amountGroup);
-        creatingRollouts.add(savedRollout.getName());
         // need to flush the entity manager here to get the ID of the rollout,
         // because entity manager is set to FlushMode#Auto, entitymanager will
         // flush the Target entity, due the indirect relationship to the Rollout
@@ -259,13 +261,9 @@ public class RolloutManagement {
         // synchronization aect was found through a relationship that was not
         // marked cascade PERSIST'
         entityManager.flush();
-        executor.execute(() -> {
-            try {
-                createRolloutGroupsInNewTransaction(amountGroup, conditions, savedRollout);
-            } finally {
-                creatingRollouts.remove(savedRollout.getName());
-            }
-        });
+        final Lease lease = acquireLease(creationLeaseKey(savedRollout.getId()));
+        executeAfterCommit(lease,
+                () -> createRolloutGroupsInNewTransaction(amountGroup, conditions, savedRollout, lease));
         return savedRollout;
     }
 
@@ -284,20 +282,30 @@ public class RolloutManagement {
         }
     }
 
-    private Rollout createRolloutGroupsInNewTransaction(final int amountOfGroups,
-            final RolloutGroupConditions conditions, final Rollout savedRollout) {
-        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
-        def.setName("creatingRollout");
-        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-        return new TransactionTemplate(txManager, def)
-                .execute(status -> createRolloutGroups(amountOfGroups, conditions, savedRollout));
+    private void createRolloutGroupsInNewTransaction(final int amountOfGroups,
+            final RolloutGroupConditions conditions, final Rollout savedRollout, final Lease lease) {
+        try {
+            runInNewTransaction(txManager, "creatingRollout", status -> {
+                final Rollout createdRollout = createRolloutGroups(amountOfGroups, conditions, savedRollout);
+                leaseManagement.fence(lease);
+                return createdRollout;
+            });
+        } catch (final RuntimeException e) {
+            LOGGER.error("Creation of rollout {} failed, setting status {}", savedRollout.getId(),
+                    RolloutStatus.ERROR_CREATING, e);
+            setErrorStatus(savedRollout.getId(), RolloutStatus.CREATING, RolloutStatus.ERROR_CREATING);
+        } finally {
+            leaseManagement.release(lease);
+        }
     }
 
     /**
      * Method for creating rollout groups and calculating group sizes. Group
      * sizes are calculated by dividing the total count of targets through the
      * amount of given groups. In same cases this will lead to less rollout
-     * groups than given by client.
+     * groups than given by client. Virtual groups are created by
+     * {@link #createVirtualRolloutGroups(int, RolloutGroupConditions, Rollout)}
+     * instead.
      *
      * @param amountOfGroups
      *            the amount of groups
@@ -309,6 +317,9 @@ public class RolloutManagement {
      */
     private Rollout createRolloutGroups(final int amountOfGroups, final RolloutGroupConditions conditions,
             final Rollout savedRollout) {
+        if (savedRollout.isVirtualGroups()) {
+            return createVirtualRolloutGroups(amountOfGroups, conditions, savedRollout);
+        }
         int pageIndex = 0;
         int groupIndex = 0;
         final Long totalCount = savedRollout.getTotalTargets();
@@ -323,20 +334,8 @@ public class RolloutManagement {
         RolloutGroup lastSavedGroup = null;
         while (pageIndex < totalCount) {
             groupIndex++;
-            final String nameAndDesc = "group-" + groupIndex;
-            final RolloutGroup group = new RolloutGroup();
-            group.setName(nameAndDesc);
-            group.setDescription(nameAndDesc);
-            group.setRollout(savedRollout);
-            group.setParent(lastSavedGroup);
-            group.setSuccessCondition(conditions.getSuccessCondition());
-            group.setSuccessConditionExp(conditions.getSuccessConditionExp());
-            group.setErrorCondition(conditions.getErrorCondition());
-            group.setErrorConditionExp(conditions.getErrorConditionExp());
-            group.setErrorAction(conditions.getErrorAction());
-            group.setErrorActionExp(conditions.getErrorActionExp());
-
-            final RolloutGroup savedGroup = rolloutGroupRepository.save(group);
+            final RolloutGroup savedGroup = rolloutGroupRepository
+                    .save(newRolloutGroup(groupIndex, conditions, savedRollout, lastSavedGroup));
 
             final Slice<Target> targetGroup = targetManagement.findTargetsAll(savedRollout.getTargetFilterQuery(),
                     new OffsetBasedPageRequest(pageIndex, groupSize, new Sort(Direction.ASC, "id")));
@@ -344,8 +343,10 @@ public class RolloutManagement {
 
             lastSavedGroup = savedGroup;
 
-            targetGroup
-                    .forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(savedGroup, target)));
+            // persist instead of save as the repository would merge the
+            // entities with composite ID, i.e. select them one by one, instead
+            // of inserting them in a batch
+            targetGroup.forEach(target -> entityManager.persist(new RolloutTargetGroup(savedGroup, target)));
             cacheWriteNotify.rolloutGroupCreated(groupIndex, savedRollout.getId(), savedGroup.getId(),
                     amountGroupValidated, groupIndex);
             pageIndex += groupSize;
@@ -355,6 +356,57 @@ public class RolloutManagement {
         return rolloutRepository.save(savedRollout);
     }
 
+    /**
+     * Creates the virtual groups of the given rollout. Every group covers an
+     * equal range of the {@link RolloutGroup#TARGET_BUCKETS}, no targets are
+     * assigned to the groups. The total targets of a group is an estimation
+     * until the group is started.
+     */
+    private Rollout createVirtualRolloutGroups(final int amountOfGroups, final RolloutGroupConditions conditions,
+            final Rollout savedRollout) {
+        RolloutGroup lastSavedGroup = null;
+        for (int groupIndex = 1; groupIndex <= amountOfGroups; groupIndex++) {
+            final RolloutGroup group = newRolloutGroup(groupIndex, conditions, savedRollout, lastSavedGroup);
+            group.setTargetBucketFrom((groupIndex - 1) * RolloutGroup.TARGET_BUCKETS / amountOfGroups);
+            group.setTargetBucketTo(groupIndex * RolloutGroup.TARGET_BUCKETS / amountOfGroups);
+            group.setTotalTargets(targetRepository.count(virtualRolloutGroupTargets(savedRollout, group)));
+
+            lastSavedGroup = rolloutGroupRepository.save(group);
+            cacheWriteNotify.rolloutGroupCreated(groupIndex, savedRollout.getId(), lastSavedGroup.getId(),
+                    amountOfGroups, groupIndex);
+        }
+
+        savedRollout.setStatus(RolloutStatus.READY);
+        return rolloutRepository.save(savedRollout);
+    }
+
+    private static RolloutGroup newRolloutGroup(final int groupIndex, final RolloutGroupConditions conditions,
+            final Rollout rollout, final RolloutGroup parent) {
+        final String nameAndDesc = "group-" + groupIndex;
+        final RolloutGroup group = new RolloutGroup();
+        group.setName(nameAndDesc);
+        group.setDescription(nameAndDesc);
+        group.setRollout(rollout);
+        group.setParent(parent);
+        group.setSuccessCondition(conditions.getSuccessCondition());
+        group.setSuccessConditionExp(conditions.getSuccessConditionExp());
+        group.setErrorCondition(conditions.getErrorCondition());
+        group.setErrorConditionExp(conditions.getErrorConditionExp());
+        group.setErrorAction(conditions.getErrorAction());
+        group.setErrorActionExp(conditions.getErrorActionExp());
+        return group;
+    }
+
+    /**
+     * @return the {@link Specification} of the targets of the given virtual
+     *         group which are in the target filter of the rollout
+     */
+    static Specification<Target> virtualRolloutGroupTargets(final Rollout rollout, final RolloutGroup rolloutGroup) {
+        return Specifications.where(RSQLUtility.parse(rollout.getTargetFilterQuery(), TargetFields.class)).and(
+                TargetSpecifications.isInTargetBuckets(rolloutGroup.getTargetBucketFrom(),
+                        rolloutGroup.getTargetBucketTo()));
+    }
+
     /**
      * Starts a rollout which has been created. The rollout must be in
      * {@link RolloutStatus#READY} state. The according actions will be created
@@ -411,22 +463,104 @@ public class RolloutManagement {
         checkIfRolloutCanStarted(rollout, mergedRollout);
         mergedRollout.setStatus(RolloutStatus.STARTING);
         final Rollout updatedRollout = rolloutRepository.save(mergedRollout);
-        startingRollouts.add(updatedRollout.getName());
-        executor.execute(() -> {
-            try {
-                final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
-                def.setName("startingRollout");
-                def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-                new TransactionTemplate(txManager, def).execute(status -> {
-                    doStartRollout(updatedRollout);
+        final Lease lease = acquireLease(startLeaseKey(updatedRollout.getId()));
+        executeAfterCommit(lease, () -> startRolloutInNewTransaction(updatedRollout.getId(), lease));
+        return updatedRollout;
+
+    }
+
+    /**
+     * Starts the rollout under the given lease. The start is done within one
+     * transaction, so the start of a failed node can be repeated by the node
+     * which takes over the lease.
+     */
+    private void startRolloutInNewTransaction(final Long rolloutId, final Lease lease) {
+        try {
+            runInNewTransaction(txManager, "startingRollout", status -> {
+                final Rollout rollout = rolloutRepository.findOne(rolloutId);
+                if (rollout == null || rollout.getStatus() != RolloutStatus.STARTING) {
+                    LOGGER.debug("Rollout {} has been started or deleted in the meantime", rolloutId);
                     return null;
-                });
-            } finally {
-                startingRollouts.remove(updatedRollout.getName());
+                }
+                doStartRollout(rollout);
+                leaseManagement.fence(lease);
+                return null;
+            });
+        } catch (final ConcurrentModificationException e) {
+            LOGGER.warn("Start of rollout {} failed due to a concurrent modification, it is repeated by the next check",
+                    rolloutId, e);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Start of rollout {} failed, setting status {}", rolloutId, RolloutStatus.ERROR_STARTING, e);
+            setErrorStatus(rolloutId, RolloutStatus.STARTING, RolloutStatus.ERROR_STARTING);
+        } finally {
+            leaseManagement.release(lease);
+        }
+    }
+
+    private void setErrorStatus(final Long rolloutId, final RolloutStatus expectedStatus,
+            final RolloutStatus errorStatus) {
+        runInNewTransaction(txManager, "rolloutError", status -> {
+            final Rollout rollout = rolloutRepository.findOne(rolloutId);
+            if (rollout != null && rollout.getStatus() == expectedStatus) {
+                rollout.setStatus(errorStatus);
+                rolloutRepository.save(rollout);
             }
+            return null;
         });
-        return updatedRollout;
+    }
+
+    private Lease acquireLease(final String key) {
+        final Lease lease = leaseManagement.tryAcquire(key, rolloutProperties.getLease().getDuration());
+        if (lease == null) {
+            throw new RolloutIllegalStateException("Rollout is already in progress on another node (" + key + ")");
+        }
+        return lease;
+    }
+
+    /**
+     * Executes the task in the background after the current transaction has
+     * been committed. The lease has been committed in a transaction of its
+     * own, so it is released if the current transaction is rolled back or the
+     * task is rejected. Otherwise the heartbeat would keep it alive forever.
+     * The rollout is then handled by {@link #verifyStuckedRollouts()}.
+     */
+    private void executeAfterCommit(final Lease lease, final Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            executeOrRelease(lease, task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_COMMITTED) {
+                    executeOrRelease(lease, task);
+                } else {
+                    LOGGER.debug("Transaction of {} has been rolled back, releasing it", lease);
+                    leaseManagement.release(lease);
+                }
+            }
+        });
+    }
+
+    private void executeOrRelease(final Lease lease, final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Rollout task of {} has been rejected, it is handled by the next check", lease, e);
+            leaseManagement.release(lease);
+        }
+    }
+
+    private static String creationLeaseKey(final Long rolloutId) {
+        return "rollout.create." + rolloutId;
+    }
 
+    private static String startLeaseKey(final Long rolloutId) {
+        return "rollout.start." + rolloutId;
+    }
+
+    private static String checkLeaseKey(final Long rolloutId) {
+        return "rollout.check." + rolloutId;
     }
 
     private Rollout doStartRollout(final Rollout rollout) {
@@ -436,6 +570,18 @@ public class RolloutManagement {
         final List<RolloutGroup> rolloutGroups = rolloutGroupRepository.findByRolloutOrderByIdAsc(rollout);
         for (int iGroup = 0; iGroup < rolloutGroups.size(); iGroup++) {
             final RolloutGroup rolloutGroup = rolloutGroups.get(iGroup);
+            if (rollout.isVirtualGroups()) {
+                // the targets of virtual groups are resolved and their actions
+                // are created when the group is started
+                if (iGroup == 0) {
+                    assignVirtualRolloutGroup(rollout, rolloutGroup);
+                    rolloutGroup.setStatus(RolloutGroupStatus.RUNNING);
+                } else {
+                    rolloutGroup.setStatus(RolloutGroupStatus.SCHEDULED);
+                }
+                rolloutGroupRepository.save(rolloutGroup);
+                continue;
+            }
             final List<Target> targetGroup = targetRepository.findByRolloutTargetGroupRolloutGroup(rolloutGroup);
             // firstgroup can already be started
             if (iGroup == 0) {
@@ -458,6 +604,66 @@ public class RolloutManagement {
         return rolloutRepository.save(rollout);
     }
 
+    /**
+     * Starts a scheduled virtual group of a rollout, see
+     * {@link Rollout#isVirtualGroups()}. The targets of the group are resolved
+     * by the target filter of the rollout, so targets which has been added to
+     * the filter after the creation of the rollout are part of the group if
+     * they fall into its target buckets. The actions of the targets are created
+     * in chunks and started immediately. The total targets of the group and
+     * the rollout are updated to the resolved targets.
+     *
+     * @param rollout
+     *            the rollout of the group
+     * @param rolloutGroup
+     *            the virtual group to start
+     * @return the number of targets of the group
+     */
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Modifying
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_WRITE + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public long startVirtualRolloutGroup(@NotNull final Rollout rollout, @NotNull final RolloutGroup rolloutGroup) {
+        final long resolvedTargets = assignVirtualRolloutGroup(rollout, rolloutGroup);
+        rolloutRepository.save(rollout);
+        rolloutGroupRepository.save(rolloutGroup);
+        return resolvedTargets;
+    }
+
+    private long assignVirtualRolloutGroup(final Rollout rollout, final RolloutGroup rolloutGroup) {
+        final Specification<Target> groupTargets = virtualRolloutGroupTargets(rollout, rolloutGroup);
+        final Long distributionSetId = rollout.getDistributionSet().getId();
+        long resolvedTargets = 0;
+        long lastTargetId = 0;
+        List<Target> chunk;
+        do {
+            // paging by ID instead of offset, as the assignment might change
+            // the result of the target filter, e.g. on the assigned set
+            final long afterTargetId = lastTargetId;
+            chunk = criteriaNoCountDao.findAll(
+                    Specifications.where(groupTargets)
+                            .and((root, query, cb) -> cb.greaterThan(root.get(Target_.id), afterTargetId)),
+                    new PageRequest(0, Constants.MAX_ENTRIES_IN_STATEMENT, new Sort(Direction.ASC, "id")),
+                    Target.class).getContent();
+            if (!chunk.isEmpty()) {
+                deploymentManagement.assignDistributionSet(distributionSetId,
+                        chunk.stream()
+                                .map(t -> new TargetWithActionType(t.getControllerId(), rollout.getActionType(),
+                                        rollout.getForcedTime()))
+                                .collect(Collectors.toList()),
+                        rollout, rolloutGroup);
+                lastTargetId = chunk.get(chunk.size() - 1).getId();
+                resolvedTargets += chunk.size();
+            }
+        } while (chunk.size() == Constants.MAX_ENTRIES_IN_STATEMENT);
+
+        LOGGER.debug("Resolved {} targets of virtual group {} of rollout {}", resolvedTargets, rolloutGroup.getId(),
+                rollout.getId());
+        rollout.setTotalTargets(rollout.getTotalTargets() - rolloutGroup.getTotalTargets() + resolvedTargets);
+        rolloutGroup.setTotalTargets(resolvedTargets);
+        return resolvedTargets;
+    }
+
     /**
      * Pauses a rollout which is currently running. The Rollout switches
      * {@link RolloutStatus#PAUSED}. {@link RolloutGroup}s which are currently
@@ -522,9 +728,13 @@ public class RolloutManagement {
     }
 
     /**
-     * Checking running rollouts. Rollouts which are checked updating the
-     * {@link Rollout#setLastCheck(long)} to indicate that the current instance
-     * is handling the specific rollout. This code should run as system-code.
+     * Checking running rollouts. Every rollout is checked under a cluster
+     * wide lease, which is retained for {@code delayBetweenChecks} after the
+     * check, so a rollout is checked by one node at a time and at most once
+     * within the delay. Every node checks at most its share of the running
+     * rollouts, i.e. the running rollouts divided by the live nodes, so the
+     * checks are spread over the cluster. This code should run as
+     * system-code.
      *
      * <pre>
      * {@code
@@ -542,12 +752,12 @@ public class RolloutManagement {
      *
      * Rollouts which are currently running are investigated, by means the
      * error- and finish condition of running groups in this rollout are
-     * evaluated.
+     * evaluated. Every rollout is checked in its own transaction.
      *
      * @param delayBetweenChecks
      *            the time in milliseconds of the delay between the further and
-     *            this check. This check is only applied if the last check is
-     *            less than (lastcheck-delay).
+     *            this check. A rollout is only checked if its last check is
+     *            at least the delay ago.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
@@ -555,73 +765,108 @@ public class RolloutManagement {
             + SpringEvalExpressions.IS_SYSTEM_CODE)
     public void checkRunningRollouts(final long delayBetweenChecks) {
         verifyStuckedRollouts();
-        final long lastCheck = System.currentTimeMillis();
-        final int updated = rolloutRepository.updateLastCheck(lastCheck, delayBetweenChecks, RolloutStatus.RUNNING);
-
-        if (updated == 0) {
-            // nothing to check, maybe another instance already checked in
-            // between
-            LOGGER.debug("No rolloutcheck necessary for current scheduled check {}, next check at {}", lastCheck,
-                    lastCheck + delayBetweenChecks);
+
+        final List<Long> rolloutIds = rolloutRepository.findByStatus(RolloutStatus.RUNNING).stream()
+                .map(Rollout::getId).collect(Collectors.toList());
+        if (rolloutIds.isEmpty()) {
+            LOGGER.debug("No running rollouts to check");
             return;
         }
 
-        final List<Rollout> rolloutsToCheck = rolloutRepository.findByLastCheckAndStatus(lastCheck,
-                RolloutStatus.RUNNING);
-        LOGGER.info("Found {} running rollouts to check", rolloutsToCheck.size());
-
-        for (final Rollout rollout : rolloutsToCheck) {
-            LOGGER.debug("Checking rollout {}", rollout);
-            final List<RolloutGroup> rolloutGroups = rolloutGroupRepository.findByRolloutAndStatus(rollout,
-                    RolloutGroupStatus.RUNNING);
-
-            if (rolloutGroups.isEmpty()) {
-                // no running rollouts, probably there was an error
-                // somewhere at the latest group. And the latest group has
-                // been switched from running into error state. So we need
-                // to find the latest group which
-                executeLatestRolloutGroup(rollout);
-            } else {
-                LOGGER.debug("Rollout {} has {} running groups", rollout.getId(), rolloutGroups.size());
-                executeRolloutGroups(rollout, rolloutGroups);
-            }
+        // random order, so the nodes do not compete for the same rollouts
+        Collections.shuffle(rolloutIds);
+        final int share = (int) Math.ceil((double) rolloutIds.size() / leaseManagement.countLiveNodes());
+        LOGGER.info("Found {} running rollouts, checking up to {} of them", rolloutIds.size(), share);
 
-            if (isRolloutComplete(rollout)) {
-                LOGGER.info("Rollout {} is finished, setting finished status", rollout);
-                rollout.setStatus(RolloutStatus.FINISHED);
-                rolloutRepository.save(rollout);
+        int checked = 0;
+        for (final Long rolloutId : rolloutIds) {
+            if (checked >= share) {
+                break;
+            }
+            final long checkStart = System.currentTimeMillis();
+            final Lease lease = leaseManagement.tryAcquire(checkLeaseKey(rolloutId),
+                    rolloutProperties.getLease().getDuration());
+            if (lease == null) {
+                // checked by another instance within the delay
+                continue;
+            }
+            checked++;
+            try {
+                runInNewTransaction(txManager, "checkRollout", status -> {
+                    checkRunningRollout(rolloutId, lease);
+                    return null;
+                });
+            } catch (final RuntimeException e) {
+                LOGGER.error("Check of rollout {} failed, it is checked again after the delay", rolloutId, e);
+            } finally {
+                leaseManagement.release(lease, checkStart + delayBetweenChecks);
             }
         }
     }
 
+    private void checkRunningRollout(final Long rolloutId, final Lease lease) {
+        final Rollout rollout = rolloutRepository.findOne(rolloutId);
+        if (rollout == null || rollout.getStatus() != RolloutStatus.RUNNING) {
+            // paused or finished in the meantime
+            return;
+        }
+
+        LOGGER.debug("Checking rollout {}", rollout);
+        rollout.setLastCheck(System.currentTimeMillis());
+        final List<RolloutGroup> rolloutGroups = rolloutGroupRepository.findByRolloutAndStatus(rollout,
+                RolloutGroupStatus.RUNNING);
+
+        if (rolloutGroups.isEmpty()) {
+            // no running rollouts, probably there was an error
+            // somewhere at the latest group. And the latest group has
+            // been switched from running into error state. So we need
+            // to find the latest group which
+            executeLatestRolloutGroup(rollout);
+        } else {
+            LOGGER.debug("Rollout {} has {} running groups", rollout.getId(), rolloutGroups.size());
+            executeRolloutGroups(rollout, rolloutGroups);
+        }
+
+        final boolean complete = isRolloutComplete(rollout);
+        if (complete) {
+            LOGGER.info("Rollout {} is finished, setting finished status", rollout);
+            rollout.setStatus(RolloutStatus.FINISHED);
+        }
+        rolloutRepository.save(rollout);
+
+        leaseManagement.fence(lease);
+        if (complete) {
+            leaseManagement.delete(Collections.singletonList(checkLeaseKey(rolloutId)));
+        }
+    }
+
     /**
      * Verifies and handles stucked rollouts in asynchronous creation or
      * starting state. If rollouts are created or started asynchronously it
      * might be that they keep in state {@link RolloutStatus#CREATING} or
      * {@link RolloutStatus#STARTING} due database or application interruption.
-     * In case this happens, set the rollout to error state.
+     * This is the case if the lease of the creation or start has expired. A
+     * stuck creation sets the rollout to error state, as the creation
+     * parameters are not persisted. A stuck start is repeated by this node.
      */
     private void verifyStuckedRollouts() {
-        final List<Rollout> rolloutsInCreatingState = rolloutRepository.findByStatus(RolloutStatus.CREATING);
-        rolloutsInCreatingState.stream().filter(rollout -> !creatingRollouts.contains(rollout.getName()))
-                .forEach(rollout -> {
+        rolloutRepository.findByStatus(RolloutStatus.CREATING).stream()
+                .filter(rollout -> !leaseManagement.isHeld(creationLeaseKey(rollout.getId()))).forEach(rollout -> {
                     LOGGER.warn(
-                            "Determined error during rollout creation of rollout {}, stucking in creating state, setting to status",
+                            "Determined error during rollout creation of rollout {}, stucking in creating state, setting to status {}",
                             rollout, RolloutStatus.ERROR_CREATING);
-                    rollout.setStatus(RolloutStatus.ERROR_CREATING);
-                    rolloutRepository.save(rollout);
-                });
-
-        final List<Rollout> rolloutsInStartingState = rolloutRepository.findByStatus(RolloutStatus.STARTING);
-        rolloutsInStartingState.stream().filter(rollout -> !startingRollouts.contains(rollout.getName()))
-                .forEach(rollout -> {
-                    LOGGER.warn(
-                            "Determined error during rollout starting of rollout {}, stucking in starting state, setting to status",
-                            rollout, RolloutStatus.ERROR_STARTING);
-                    rollout.setStatus(RolloutStatus.ERROR_STARTING);
-                    rolloutRepository.save(rollout);
+                    setErrorStatus(rollout.getId(), RolloutStatus.CREATING, RolloutStatus.ERROR_CREATING);
                 });
 
+        rolloutRepository.findByStatus(RolloutStatus.STARTING).forEach(rollout -> {
+            final Lease lease = leaseManagement.tryAcquire(startLeaseKey(rollout.getId()),
+                    rolloutProperties.getLease().getDuration());
+            if (lease != null) {
+                LOGGER.warn("Determined interrupted start of rollout {}, stucking in starting state, starting again",
+                        rollout);
+                startRolloutInNewTransaction(rollout.getId(), lease);
+            }
+        });
     }
 
     private void executeRolloutGroups(final Rollout rollout, final List<RolloutGroup> rolloutGroups) {
@@ -822,12 +1067,16 @@ public class RolloutManagement {
      *
      * @param rolloutId
      *            rollout id
-     * @return rollout details of targets count for different statuses
+     * @return rollout details of targets count for different statuses or
+     *         {@code null} if the rollout does not exist
      *
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     public Rollout findRolloutWithDetailedStatus(final Long rolloutId) {
         final Rollout rollout = findRolloutById(rolloutId);
+        if (rollout == null) {
+            return null;
+        }
         final List<TotalTargetCountActionStatus> rolloutStatusCountItems = actionRepository
                 .getStatusCountByRolloutId(rolloutId);
         final TotalTargetCountStatus totalTargetCountStatus = new TotalTargetCountStatus(rolloutStatusCountItems,
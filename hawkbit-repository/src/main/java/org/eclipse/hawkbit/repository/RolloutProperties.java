@@ -20,10 +20,16 @@ import org.springframework.stereotype.Component;
 public class RolloutProperties {
     private final Scheduler scheduler = new Scheduler();
 
+    private final Lease lease = new Lease();
+
     public Scheduler getScheduler() {
         return scheduler;
     }
 
+    public Lease getLease() {
+        return lease;
+    }
+
     /**
      * Rollout scheduler configuration.
      */
@@ -47,4 +53,40 @@ public class RolloutProperties {
 
     }
 
+    /**
+     * Configuration of the leases which distribute the rollout work over the
+     * nodes of the cluster.
+     */
+    public static class Lease {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_HEARTBEAT_DELAY_PLACEHOLDER = "${hawkbit.rollout.lease.heartbeatDelay:5000}";
+
+        /**
+         * Time in milliseconds after which the lease of a failed node expires
+         * and its rollout work is taken over by another node.
+         */
+        private long duration = 15000L;
+
+        /**
+         * Delay between two heartbeats of a node in milliseconds, which keep
+         * its leases alive. Must be shorter than the lease duration.
+         */
+        private long heartbeatDelay = 5000L;
+
+        public long getDuration() {
+            return duration;
+        }
+
+        public void setDuration(final long duration) {
+            this.duration = duration;
+        }
+
+        public long getHeartbeatDelay() {
+            return heartbeatDelay;
+        }
+
+        public void setHeartbeatDelay(final long heartbeatDelay) {
+            this.heartbeatDelay = heartbeatDelay;
+        }
+    }
 }
@@ -21,9 +21,9 @@ import org.springframework.stereotype.Component;
 
 /**
  * Scheduler to schedule the
- * {@link RolloutManagement#checkRunningRollouts(long)}. The delay between the
- * checks be be configured using the property
- * {@link #PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ * {@link RolloutManagement#checkRunningRollouts(long)} and the heartbeat of
+ * the rollout leases. The delay between the checks be be configured using the
+ * property {@link #PROP_SCHEDULER_DELAY_PLACEHOLDER}.
  */
 @Component
 // don't active the rollout scheduler in test, otherwise it is hard to test
@@ -48,6 +48,24 @@ public class RolloutScheduler {
     @Autowired
     private RolloutProperties rolloutProperties;
 
+    @Autowired
+    private LeaseManagement leaseManagement;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Keeps the
+     * rollout leases held by this node alive and registers the node as live,
+     * see {@link LeaseManagement#heartbeat()}.
+     */
+    @Scheduled(fixedDelayString = RolloutProperties.Lease.PROP_HEARTBEAT_DELAY_PLACEHOLDER)
+    public void leaseHeartbeat() {
+        logger.trace("rollout lease heartbeat has been triggered.");
+        try {
+            leaseManagement.heartbeat();
+        } catch (final RuntimeException e) {
+            logger.error("Rollout lease heartbeat failed", e);
+        }
+    }
+
     /**
      * Scheduler method called by the spring-async mechanism. Retrieves all
      * tenants from the {@link SystemManagement#findTenants()} and runs for each
@@ -26,6 +26,7 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
@@ -95,6 +96,12 @@ public class SoftwareManagement {
     @Autowired
     private ArtifactManagement artifactManagement;
 
+    @Autowired
+    private ArtifactDeltaManagement artifactDeltaManagement;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
     /**
      * Updates existing {@link SoftwareModule}. Update-able values are
      * {@link SoftwareModule#getDescription()}
@@ -143,6 +150,7 @@ public class SoftwareManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_REPOSITORY)
     public SoftwareModuleType updateSoftwareModuleType(@NotNull final SoftwareModuleType sm) {
         checkNotNull(sm.getId());
+        entityCacheInvalidator.evict(EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
 
         final SoftwareModuleType type = softwareModuleTypeRepository.findOne(sm.getId());
 
@@ -330,6 +338,8 @@ public class SoftwareManagement {
 
             if (isUnassigned(swModule)) {
 
+                // the delta binaries are not referenced by the artifacts
+                artifactDeltaManagement.deleteDeltas(swModule);
                 softwareModuleRepository.delete(swModule);
 
             } else {
@@ -666,7 +676,8 @@ public class SoftwareManagement {
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_REPOSITORY)
     public SoftwareModuleType findSoftwareModuleTypeByKey(@NotNull final String key) {
-        return softwareModuleTypeRepository.findByKey(key);
+        final Long id = softwareModuleTypeRepository.findIdByKey(key);
+        return id == null ? null : softwareModuleTypeRepository.findOne(id);
     }
 
     /**
@@ -707,6 +718,7 @@ public class SoftwareManagement {
         if (type.getId() != null) {
             throw new EntityAlreadyExistsException("Given type contains an Id!");
         }
+        entityCacheInvalidator.evict(EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
 
         return softwareModuleTypeRepository.save(type);
     }
@@ -735,6 +747,7 @@ public class SoftwareManagement {
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_DELETE_REPOSITORY)
     public void deleteSoftwareModuleType(@NotNull final SoftwareModuleType type) {
+        entityCacheInvalidator.evict(EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
 
         if (softwareModuleRepository.countByType(type) > 0
                 || distributionSetTypeRepository.countByElementsSmType(type) > 0) {
@@ -134,4 +134,23 @@ public interface SoftwareModuleRepository
     // Workaround for https://bugs.eclipse.org/bugs/show_bug.cgi?id=349477
     @Query("SELECT sm FROM SoftwareModule sm WHERE sm.id IN ?1")
     List<SoftwareModule> findByIdIn(Iterable<Long> ids);
+
+    /**
+     * Retrieves the older versions of a software module, i.e. the not deleted
+     * modules with same type and name which have been created before the given
+     * one.
+     *
+     * @param type
+     *            of the module
+     * @param name
+     *            of the module
+     * @param id
+     *            of the module, only modules with a lower ID are returned
+     * @param pageable
+     *            the page request, e.g. ordered by ID descending to get the
+     *            latest versions first
+     * @return {@link List} of found {@link SoftwareModule}s
+     */
+    List<SoftwareModule> findByTypeAndNameAndDeletedFalseAndIdLessThan(SoftwareModuleType type, String name, Long id,
+            Pageable pageable);
 }
@@ -8,10 +8,13 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -49,6 +52,20 @@ public interface SoftwareModuleTypeRepository
      */
     SoftwareModuleType findByKey(String key);
 
+    /**
+     * Only the ID of the key is cached, as the types are mutable entities
+     * which must not be shared between callers.
+     *
+     * @param key
+     *            to search for
+     * @return ID of the {@link SoftwareModuleType} with the given
+     *         {@link SoftwareModuleType#getKey()} or <code>null</code> if
+     *         not found
+     */
+    @Cacheable(value = EntityCacheInvalidator.SOFTWARE_MODULE_TYPE, key = "'key:' + #p0", unless = "#result == null")
+    @Query("SELECT t.id FROM SoftwareModuleType t WHERE t.key = ?1")
+    Long findIdByKey(String key);
+
     /**
      *
      * @param name
@@ -9,22 +9,27 @@
 package org.eclipse.hawkbit.repository;
 
 import java.lang.reflect.Method;
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
 import org.eclipse.hawkbit.cache.TenancyCacheManager;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.report.model.SystemUsageReport;
+import org.eclipse.hawkbit.report.model.TenantUsage;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.TenantNotExistException;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.tenancy.TenantAware;
-import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -51,18 +56,6 @@ public class SystemManagement {
     @Autowired
     private EntityManager entityManager;
 
-    @Autowired
-    private TargetRepository targetRepository;
-
-    @Autowired
-    private ActionRepository actionRepository;
-
-    @Autowired
-    private DistributionSetRepository distributionSetRepository;
-
-    @Autowired
-    private SoftwareModuleRepository softwareModuleRepository;
-
     @Autowired
     private TenantMetaDataRepository tenantMetaDataRepository;
 
@@ -73,28 +66,10 @@ public class SystemManagement {
     private SoftwareModuleTypeRepository softwareModuleTypeRepository;
 
     @Autowired
-    private TargetTagRepository targetTagRepository;
-
-    @Autowired
-    private DistributionSetTagRepository distributionSetTagRepository;
-
-    @Autowired
-    private ExternalArtifactRepository externalArtifactRepository;
-
-    @Autowired
-    private LocalArtifactRepository artifactRepository;
-
-    @Autowired
-    private ExternalArtifactProviderRepository externalArtifactProviderRepository;
-
-    @Autowired
-    private TenantConfigurationRepository tenantConfigurationRepository;
-
-    @Autowired
-    private RolloutRepository rolloutRepository;
+    private TenantPurgeManagement tenantPurgeManagement;
 
     @Autowired
-    private RolloutGroupRepository rolloutGroupRepository;
+    private AfterTransactionCommitExecutor afterCommit;
 
     @Autowired
     private TenantAware tenantAware;
@@ -105,8 +80,13 @@ public class SystemManagement {
     @Autowired
     private TenancyCacheManager cacheManager;
 
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
     private final ThreadLocal<String> createInitialTenant = new ThreadLocal<>();
 
+    private final AtomicReference<SystemUsageReport> usageSnapshot = new AtomicReference<>();
+
     /**
      * Calculated system usage statistics, both overall for the entire system
      * and per tenant;
@@ -116,44 +96,67 @@ public class SystemManagement {
     @NotNull
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
     public SystemUsageReport getSystemUsageStatistics() {
+        return calculateSystemUsageStatistics();
+    }
 
-        BigDecimal sumOfArtifacts = (BigDecimal) entityManager
-                .createNativeQuery(
-                        "select SUM(file_size) from sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
-
-        if (sumOfArtifacts == null) {
-            sumOfArtifacts = new BigDecimal(0);
+    /**
+     * Returns the last calculated system usage statistics without touching
+     * the database, unless no statistics have been calculated so far. The
+     * statistics are refreshed in the background by the
+     * {@link SystemUsageScheduler}, see
+     * {@link SystemUsageReport#getCreatedAt()} for the age of the returned
+     * report.
+     *
+     * @return last calculated SystemUsageReport of the current system
+     */
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    public SystemUsageReport getSystemUsageStatisticsSnapshot() {
+        final SystemUsageReport snapshot = usageSnapshot.get();
+        if (snapshot != null) {
+            return snapshot;
         }
+        return refreshSystemUsageStatisticsSnapshot();
+    }
 
-        // we use native queries to punch through the tenant boundaries. This
-        // has to be used with care!
-        final Long targets = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_target")
-                .getSingleResult();
-
-        final Long artifacts = (Long) entityManager
-                .createNativeQuery(
-                        "SELECT COUNT(a.id) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
-
-        final Long actions = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_action")
-                .getSingleResult();
-
-        final SystemUsageReport result = new SystemUsageReport(targets, artifacts, actions,
-                sumOfArtifacts.setScale(0, BigDecimal.ROUND_HALF_UP).longValue());
-
-        usageStatsPerTenant(result);
-
-        return result;
+    /**
+     * Calculates the system usage statistics and keeps them as snapshot for
+     * {@link #getSystemUsageStatisticsSnapshot()}.
+     *
+     * @return the calculated SystemUsageReport
+     */
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public SystemUsageReport refreshSystemUsageStatisticsSnapshot() {
+        final SystemUsageReport report = calculateSystemUsageStatistics();
+        usageSnapshot.set(report);
+        return report;
     }
 
-    private void usageStatsPerTenant(final SystemUsageReport report) {
-        final List<String> tenants = findTenants();
+    private SystemUsageReport calculateSystemUsageStatistics() {
+        final Map<String, TenantUsage> usageByTenant = systemStatsManagement.getStatsOfAllTenants();
+
+        // the overall figures contain data of all tenants in the tables as
+        // before, i.e. including tenants that are not listed any more
+        final SystemUsageReport result = new SystemUsageReport(
+                usageByTenant.values().stream().mapToLong(TenantUsage::getTargets).sum(),
+                usageByTenant.values().stream().mapToLong(TenantUsage::getArtifacts).sum(),
+                usageByTenant.values().stream().mapToLong(TenantUsage::getActions).sum(),
+                usageByTenant.values().stream().mapToLong(TenantUsage::getOverallArtifactVolumeInBytes).sum());
+
+        findTenants().forEach(tenant -> {
+            final TenantUsage usage = usageByTenant.get(tenant.toUpperCase());
+            if (usage == null) {
+                result.addTenantData(new TenantUsage(tenant));
+            } else {
+                result.addTenantData(new TenantUsage(tenant).setTargets(usage.getTargets())
+                        .setArtifacts(usage.getArtifacts()).setActions(usage.getActions())
+                        .setOverallArtifactVolumeInBytes(usage.getOverallArtifactVolumeInBytes()));
+            }
+        });
 
-        tenants.forEach(tenant -> tenantAware.runAsTenant(tenant, () -> {
-            report.addTenantData(systemStatsManagement.getStatsOfTenant(tenant));
-            return null;
-        }));
+        return result;
     }
 
     /**
@@ -180,18 +183,27 @@ public class SystemManagement {
      * @param tenant
      * @return
      */
-    @Cacheable(value = "tenantMetadata", key = "#tenant.toUpperCase()")
+    @Cacheable(value = EntityCacheInvalidator.TENANT_METADATA, key = "#tenant.toUpperCase()")
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     @NotNull
     public TenantMetaData getTenantMetadata(@NotNull final String tenant) {
         final TenantMetaData result = tenantMetaDataRepository.findByTenantIgnoreCase(tenant);
 
+        if (result != null && result.isDeletionInProgress()) {
+            throw new TenantNotExistException("Tenant " + tenant + " is being deleted");
+        }
+
         // Create if it does not exist
         if (result == null) {
             try {
                 createInitialTenant.set(tenant);
                 cacheManager.getCache("currentTenant").evict(currentTenantKeyGenerator().generate(null, null));
+                tenantAware.runAsTenant(tenant, () -> {
+                    entityCacheInvalidator.evict(EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
+                    entityCacheInvalidator.evict(EntityCacheInvalidator.DISTRIBUTION_SET_TYPE);
+                    return null;
+                });
                 return tenantMetaDataRepository.save(new TenantMetaData(createStandardSoftwareDataSetup(), tenant));
             } finally {
                 createInitialTenant.remove();
@@ -203,53 +215,63 @@ public class SystemManagement {
 
     /**
      *
-     * @return list of all tenant names in the system.
+     * @return list of all tenant names in the system, without the tenants
+     *         which are being deleted.
      */
     @NotNull
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
             + SpringEvalExpressions.IS_SYSTEM_CODE)
     public List<String> findTenants() {
-        return tenantMetaDataRepository.findAll().stream().map(md -> md.getTenant()).collect(Collectors.toList());
+        return tenantMetaDataRepository.findByDeletionStartedAtIsNull().stream().map(md -> md.getTenant())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the progress of the tenant deletions as seen by this node, see
+     *         {@link TenantPurgeManagement#findTenantDeletions()}
+     */
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    public List<TenantDeletionProgress> findTenantDeletions() {
+        return tenantPurgeManagement.findTenantDeletions();
     }
 
     /**
-     * Deletes all data related to a given tenant.
+     * Deletes all data related to a given tenant. The tenant is fenced
+     * immediately, i.e. it is not listed anymore and no entities can be
+     * created for it, the data is purged in the background by the
+     * {@link TenantPurgeManagement}.
      *
      * @param tenant
      *            to delete
      */
-    @CacheEvict(value = { "tenantMetadata" }, key = "#tenant.toUpperCase()")
+    @CacheEvict(value = { EntityCacheInvalidator.TENANT_METADATA }, key = "#tenant.toUpperCase()")
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
     public void deleteTenant(@NotNull final String tenant) {
-        cacheManager.evictCaches(tenant);
-        cacheManager.getCache("currentTenant").evict(currentTenantKeyGenerator().generate(null, null));
-        tenantAware.runAsTenant(tenant, () -> {
-            entityManager.setProperty(PersistenceUnitProperties.MULTITENANT_PROPERTY_DEFAULT, tenant.toUpperCase());
-            tenantMetaDataRepository.deleteByTenantIgnoreCase(tenant);
-            tenantConfigurationRepository.deleteByTenantIgnoreCase(tenant);
-            targetRepository.deleteByTenantIgnoreCase(tenant);
-            actionRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutGroupRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutRepository.deleteByTenantIgnoreCase(tenant);
-            artifactRepository.deleteByTenantIgnoreCase(tenant);
-            externalArtifactRepository.deleteByTenantIgnoreCase(tenant);
-            externalArtifactProviderRepository.deleteByTenantIgnoreCase(tenant);
-            targetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTypeRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleTypeRepository.deleteByTenantIgnoreCase(tenant);
-            return null;
-        });
+        final TenantMetaData metaData = tenantMetaDataRepository.findByTenantIgnoreCase(tenant);
+        if (metaData == null) {
+            return;
+        }
+
+        if (!metaData.isDeletionInProgress()) {
+            final long now = System.currentTimeMillis();
+            metaData.setDeletionStartedAt(now);
+            metaData.setDeletionHeartbeat(now);
+            tenantMetaDataRepository.save(metaData);
+        }
+
+        // fences the tenant on all nodes, i.e. evicts the cached existence
+        // check of the tenant as well
+        entityCacheInvalidator.evictTenant(tenant);
+        afterCommit.afterCommit(() -> tenantPurgeManagement.purgeTenantAsync(tenant));
     }
 
     /**
      * @return {@link TenantMetaData} of {@link TenantAware#getCurrentTenant()}
      */
-    @Cacheable(value = "tenantMetadata", keyGenerator = "tenantKeyGenerator")
+    @Cacheable(value = EntityCacheInvalidator.TENANT_METADATA, keyGenerator = "tenantKeyGenerator")
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     @NotNull
@@ -285,7 +307,8 @@ public class SystemManagement {
         if (initialTenantCreation == null) {
             final TenantMetaData findByTenant = tenantMetaDataRepository
                     .findByTenantIgnoreCase(tenantAware.getCurrentTenant());
-            return findByTenant != null ? findByTenant.getTenant() : null;
+            // tenants which are being deleted don't accept new entities
+            return findByTenant != null && !findByTenant.isDeletionInProgress() ? findByTenant.getTenant() : null;
         }
         return initialTenantCreation;
     }
@@ -297,7 +320,7 @@ public class SystemManagement {
      *            to update
      * @return updated {@link TenantMetaData} entity
      */
-    @CachePut(value = "tenantMetadata", key = "#metaData.tenant.toUpperCase()")
+    @CachePut(value = EntityCacheInvalidator.TENANT_METADATA, key = "#metaData.tenant.toUpperCase()")
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     @NotNull
@@ -305,6 +328,7 @@ public class SystemManagement {
         if (!tenantMetaDataRepository.exists(metaData.getId())) {
             throw new EntityNotFoundException("Metadata does not exist: " + metaData.getId());
         }
+        entityCacheInvalidator.evict(EntityCacheInvalidator.TENANT_METADATA);
 
         return tenantMetaDataRepository.save(metaData);
     }
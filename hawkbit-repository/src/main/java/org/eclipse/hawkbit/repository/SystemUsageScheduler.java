@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which refreshes the system usage statistics snapshot of the
+ * {@link SystemManagement} in the background so that the system admin views
+ * don't have to wait for the calculation. The delay between the refreshes can
+ * be configured using the property {@link #PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the tests calculate the statistics
+// themselves.
+@Profile("!test")
+public class SystemUsageScheduler {
+
+    /**
+     * Placeholder for the delay between two refreshes of the system usage
+     * statistics in milliseconds.
+     */
+    public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.usage.scheduler.fixedDelay:300000}";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemUsageScheduler.class);
+
+    @Autowired
+    private SystemManagement systemManagement;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Refreshes the
+     * system usage statistics in the {@link SystemSecurityContext}.
+     */
+    @Scheduled(initialDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void refreshSystemUsageStatistics() {
+        LOGGER.debug("system usage statistics refresh has been triggered.");
+        final long start = System.currentTimeMillis();
+        systemSecurityContext.runAsSystem(systemManagement::refreshSystemUsageStatisticsSnapshot);
+        LOGGER.debug("system usage statistics refreshed in {} ms", System.currentTimeMillis() - start);
+    }
+}
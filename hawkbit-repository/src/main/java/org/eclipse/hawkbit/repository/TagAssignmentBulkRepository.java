@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.appendPlaceholders;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.setParameters;
+
+import java.util.Collection;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Set based tag assignment which modifies the join tables directly instead of
+ * loading the tagged entities and their tag collections. The caller has to
+ * ensure that the given IDs belong to the current tenant, e.g. by resolving
+ * them through the (multi-tenant) JPA repositories.
+ *
+ * The changed entities are audited like an update through JPA, i.e. their
+ * version is incremented and their last modification is set, so concurrent
+ * modifications of the entities fail on their optimistic lock. The shared
+ * cache entries of the changed entities are evicted so subsequent reads see
+ * the new tag assignments.
+ *
+ */
+@Service
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+public class TagAssignmentBulkRepository {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
+    /**
+     * Assigns the tag to all given targets which don't have it yet.
+     *
+     * @param tagId
+     *            of the target tag
+     * @param targetIds
+     *            of the targets
+     * @return number of newly assigned targets
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public int assignTargetTag(final Long tagId, final Collection<Long> targetIds) {
+        return assign("sp_target_target_tag", "target", "tag", "sp_target", tagId, targetIds, Target.class);
+    }
+
+    /**
+     * Removes the tag from all given targets.
+     *
+     * @param tagId
+     *            of the target tag
+     * @param targetIds
+     *            of the targets
+     * @return number of targets the tag has been removed from
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public int unassignTargetTag(final Long tagId, final Collection<Long> targetIds) {
+        return unassign("sp_target_target_tag", "target", "tag", "sp_target", tagId, targetIds, Target.class);
+    }
+
+    /**
+     * Assigns the tag to all given distribution sets which don't have it yet.
+     *
+     * @param tagId
+     *            of the distribution set tag
+     * @param dsIds
+     *            of the distribution sets
+     * @return number of newly assigned distribution sets
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public int assignDistributionSetTag(final Long tagId, final Collection<Long> dsIds) {
+        return assign("sp_ds_dstag", "ds", "TAG", "sp_distribution_set", tagId, dsIds, DistributionSet.class);
+    }
+
+    /**
+     * Removes the tag from all given distribution sets.
+     *
+     * @param tagId
+     *            of the distribution set tag
+     * @param dsIds
+     *            of the distribution sets
+     * @return number of distribution sets the tag has been removed from
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public int unassignDistributionSetTag(final Long tagId, final Collection<Long> dsIds) {
+        return unassign("sp_ds_dstag", "ds", "TAG", "sp_distribution_set", tagId, dsIds, DistributionSet.class);
+    }
+
+    private int assign(final String joinTable, final String entityColumn, final String tagColumn,
+            final String entityTable, final Long tagId, final Collection<Long> ids, final Class<?> entityClass) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        audit(joinTable, entityColumn, tagColumn, entityTable, tagId, ids, false);
+
+        final StringBuilder sql = new StringBuilder("INSERT INTO ").append(joinTable).append(" (")
+                .append(entityColumn).append(", ").append(tagColumn).append(") SELECT e.id, ?1 FROM ")
+                .append(entityTable).append(" e WHERE NOT EXISTS (SELECT 1 FROM ").append(joinTable)
+                .append(" j WHERE j.").append(entityColumn).append(" = e.id AND j.").append(tagColumn)
+                .append(" = ?2) AND e.id IN (");
+        appendPlaceholders(sql, 3, ids.size());
+        sql.append(')');
+
+        final Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter(1, tagId);
+        query.setParameter(2, tagId);
+        setParameters(query, 3, ids);
+
+        final int assigned = query.executeUpdate();
+        evict(entityClass, ids);
+        return assigned;
+    }
+
+    private int unassign(final String joinTable, final String entityColumn, final String tagColumn,
+            final String entityTable, final Long tagId, final Collection<Long> ids, final Class<?> entityClass) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        audit(joinTable, entityColumn, tagColumn, entityTable, tagId, ids, true);
+
+        final StringBuilder sql = new StringBuilder("DELETE FROM ").append(joinTable).append(" WHERE ")
+                .append(tagColumn).append(" = ?1 AND ").append(entityColumn).append(" IN (");
+        appendPlaceholders(sql, 2, ids.size());
+        sql.append(')');
+
+        final Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter(1, tagId);
+        setParameters(query, 2, ids);
+
+        final int unassigned = query.executeUpdate();
+        evict(entityClass, ids);
+        return unassigned;
+    }
+
+    /**
+     * Increments the version and sets the last modification of the given
+     * entities which have ({@code tagged}) or have not yet the tag assigned,
+     * i.e. of the entities which are changed by the subsequent statement.
+     */
+    private void audit(final String joinTable, final String entityColumn, final String tagColumn,
+            final String entityTable, final Long tagId, final Collection<Long> ids, final boolean tagged) {
+        final StringBuilder sql = new StringBuilder("UPDATE ").append(entityTable)
+                .append(" SET optlock_revision = optlock_revision + 1, last_modified_at = ?1,")
+                .append(" last_modified_by = ?2 WHERE ").append(tagged ? "" : "NOT ").append("EXISTS (SELECT 1 FROM ").append(joinTable).append(" j WHERE j.")
+                .append(entityColumn).append(" = ").append(entityTable).append(".id AND j.").append(tagColumn)
+                .append(" = ?3) AND id IN (");
+        appendPlaceholders(sql, 4, ids.size());
+        sql.append(')');
+
+        final Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter(1, System.currentTimeMillis());
+        query.setParameter(2, auditorProvider.getCurrentAuditor());
+        query.setParameter(3, tagId);
+        setParameters(query, 4, ids);
+        query.executeUpdate();
+    }
+
+    private void evict(final Class<?> entityClass, final Collection<Long> ids) {
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(entityClass, id));
+    }
+}
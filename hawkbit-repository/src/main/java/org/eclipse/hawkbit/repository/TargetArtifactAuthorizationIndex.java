@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.TargetCreatedEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Index of the artifacts a target is allowed to download, i.e. the SHA1 hashes
+ * of the artifacts of all distribution sets which have ever been assigned to
+ * the target by an action. The index is populated when actions are created
+ * and on positive checks, so the download authorization of a target is a
+ * single key lookup.
+ *
+ * A target keeps the authorization for an artifact as long as the target
+ * exists, so entries are invalidated on the {@link TargetDeletedEvent}s of
+ * this and (if distributed) of the other nodes. As a deletion event can be
+ * missed, e.g. if it passes a concurrent positive check, the entries of a
+ * controller ID are invalidated on a {@link TargetCreatedEvent} of another
+ * target with the same controller ID as well, and expire after a few
+ * minutes. Targets or artifacts which are not in the index are checked by
+ * the database.
+ */
+@Component
+@EventSubscriber
+public class TargetArtifactAuthorizationIndex {
+
+    private static final int MAX_ENTRIES = 100_000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 5;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    private final Cache<AuthorizationKey, Long> authorizations = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES).build();
+
+    /**
+     * Checks if the target has been authorized to download the artifact with
+     * the given hash.
+     *
+     * @param controllerId
+     *            of the target
+     * @param sha1Hash
+     *            of the artifact
+     * @return {@code true} if the authorization is in the index, otherwise
+     *         the database has to be checked
+     */
+    public boolean isAuthorized(final String controllerId, final String sha1Hash) {
+        return authorizations
+                .getIfPresent(new AuthorizationKey(tenantAware.getCurrentTenant(), controllerId, sha1Hash)) != null;
+    }
+
+    /**
+     * Adds the authorization of the target for the artifact with the given
+     * hash to the index.
+     *
+     * @param target
+     *            the authorized target
+     * @param sha1Hash
+     *            of the artifact
+     */
+    public void authorize(final Target target, final String sha1Hash) {
+        authorizations.put(new AuthorizationKey(tenantAware.getCurrentTenant(), target.getControllerId(), sha1Hash),
+                target.getId());
+    }
+
+    /**
+     * Adds the authorizations for the artifacts of the distribution set to the
+     * given targets after the actions have been committed. Has to be called in
+     * the transaction which created the actions.
+     *
+     * @param targets
+     *            the distribution set has been assigned to
+     * @param set
+     *            the assigned distribution set
+     */
+    public void authorizeAfterCommit(final Collection<Target> targets, final DistributionSet set) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final Set<String> sha1Hashes = set.getModules().stream()
+                .flatMap(module -> module.getLocalArtifacts().stream()).map(LocalArtifact::getSha1Hash)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        if (sha1Hashes.isEmpty() || targets.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Long> targetIds = targets.stream()
+                .collect(Collectors.toMap(Target::getControllerId, Target::getId, (first, second) -> first));
+        afterCommit.afterCommit(() -> targetIds.forEach((controllerId, targetId) -> sha1Hashes.forEach(
+                sha1Hash -> authorizations.put(new AuthorizationKey(tenant, controllerId, sha1Hash), targetId))));
+    }
+
+    /**
+     * Removes the authorizations of the deleted target.
+     *
+     * @param event
+     *            the deletion event
+     */
+    @Subscribe
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        authorizations.asMap().entrySet()
+                .removeIf(entry -> entry.getKey().tenant.equalsIgnoreCase(event.getTenant())
+                        && entry.getValue() == event.getTargetId());
+    }
+
+    /**
+     * Removes the authorizations of a former target with the controller ID of
+     * the created target.
+     *
+     * @param event
+     *            the creation event
+     */
+    @Subscribe
+    public void onTargetCreated(final TargetCreatedEvent event) {
+        final Target target = event.getEntity();
+        authorizations.asMap().entrySet()
+                .removeIf(entry -> entry.getKey().tenant.equalsIgnoreCase(event.getTenant())
+                        && entry.getKey().controllerId.equals(target.getControllerId())
+                        && !entry.getValue().equals(target.getId()));
+    }
+
+    private static final class AuthorizationKey {
+        private final String tenant;
+        private final String controllerId;
+        private final String sha1Hash;
+
+        private AuthorizationKey(final String tenant, final String controllerId, final String sha1Hash) {
+            this.tenant = tenant.toUpperCase();
+            this.controllerId = controllerId;
+            this.sha1Hash = sha1Hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId, sha1Hash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof AuthorizationKey)) {
+                return false;
+            }
+            final AuthorizationKey other = (AuthorizationKey) obj;
+            return tenant.equals(other.tenant) && controllerId.equals(other.controllerId)
+                    && sha1Hash.equals(other.sha1Hash);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.Constants;
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.IncompleteDistributionSetException;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Imports large numbers of targets from CSV files with one
+ * {@code controllerId,name} pair per line. The file is read as stream and
+ * processed in chunks of {@link Constants#MAX_ENTRIES_IN_STATEMENT} lines.
+ * Every chunk is validated with one query and imported in its own
+ * transaction: the targets are inserted as batch, the tags are assigned set
+ * based and the distribution set is assigned to all targets of the chunk at
+ * once. Only one event is published per chunk.
+ *
+ * Lines which fail are reported in the {@link TargetImportProgress}, they do
+ * not abort the import. If a chunk fails as a whole, e.g. because some of its
+ * targets have been created concurrently, its lines are imported one by one.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+@Validated
+@Service
+public class TargetImportManagement {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TargetImportManagement.class);
+
+    private static final int CHUNK_SIZE = Constants.MAX_ENTRIES_IN_STATEMENT;
+    private static final int MAX_CONTROLLER_ID_LENGTH = 64;
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final int MAX_KEPT_IMPORTS = 100;
+    private static final long KEEP_IMPORTS_HOURS = 24;
+
+    @Autowired
+    private TargetManagement targetManagement;
+
+    @Autowired
+    private DeploymentManagement deploymentManagement;
+
+    @Autowired
+    private TargetRepository targetRepository;
+
+    @Autowired
+    private TargetTagRepository targetTagRepository;
+
+    @Autowired
+    private DistributionSetRepository distributionSetRepository;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("targetImportExecutor")
+    private Executor executor;
+
+    /*
+     * imports started on this node by ID. !This is not cluster aware!
+     */
+    private final Cache<String, TargetImportProgress> imports = CacheBuilder.newBuilder()
+            .maximumSize(MAX_KEPT_IMPORTS).expireAfterAccess(KEEP_IMPORTS_HOURS, TimeUnit.HOURS).build();
+
+    /**
+     * Imports the targets of the given CSV in the calling thread.
+     *
+     * @param csv
+     *            the CSV content
+     * @param description
+     *            of all imported targets, might be {@code null}
+     * @param distributionSetId
+     *            of the distribution set which is assigned to all imported
+     *            targets, might be {@code null}
+     * @param tagIds
+     *            of the target tags which are assigned to all imported
+     *            targets
+     * @param listener
+     *            which is notified after every chunk
+     * @return the final progress of the import
+     *
+     * @throws EntityNotFoundException
+     *             if the distribution set or one of the tags does not exist
+     * @throws IncompleteDistributionSetException
+     *             if the distribution set is incomplete
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
+    public TargetImportProgress importTargets(@NotNull final Reader csv, final String description,
+            final Long distributionSetId, @NotNull final Collection<Long> tagIds,
+            @NotNull final Consumer<TargetImportProgress> listener) {
+        final ImportContext context = createContext(description, distributionSetId, tagIds);
+        imports.put(context.progress.getId(), context.progress);
+        runImport(csv, context, listener);
+        return context.progress;
+    }
+
+    /**
+     * Imports the targets of the given UTF-8 encoded CSV file in the
+     * background. The file is deleted after the import.
+     *
+     * @param csvFile
+     *            the CSV file
+     * @param description
+     *            of all imported targets, might be {@code null}
+     * @param distributionSetId
+     *            of the distribution set which is assigned to all imported
+     *            targets, might be {@code null}
+     * @param tagIds
+     *            of the target tags which are assigned to all imported
+     *            targets
+     * @return the progress of the started import
+     *
+     * @throws EntityNotFoundException
+     *             if the distribution set or one of the tags does not exist
+     * @throws IncompleteDistributionSetException
+     *             if the distribution set is incomplete
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
+    public TargetImportProgress importTargetsAsync(@NotNull final File csvFile, final String description,
+            final Long distributionSetId, @NotNull final Collection<Long> tagIds) {
+        final ImportContext context;
+        try {
+            context = createContext(description, distributionSetId, tagIds);
+        } catch (final RuntimeException e) {
+            deleteFile(csvFile);
+            throw e;
+        }
+        imports.put(context.progress.getId(), context.progress);
+        try {
+            executor.execute(() -> {
+                try (Reader reader = Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8)) {
+                    runImport(reader, context, progress -> {
+                    });
+                } catch (final IOException e) {
+                    LOG.error("Target import {} could not read file {}", context.progress.getId(), csvFile, e);
+                    context.progress.failed(e);
+                } finally {
+                    deleteFile(csvFile);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOG.warn("Target import {} has been rejected, too many imports are running", context.progress.getId(), e);
+            context.progress.failed(e);
+            deleteFile(csvFile);
+        }
+        return context.progress;
+    }
+
+    /**
+     * Returns the progress of an import which has been started on this node.
+     *
+     * @param importId
+     *            of the import
+     * @return the progress or {@code null} if the import is not known
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    public TargetImportProgress findTargetImport(@NotNull final String importId) {
+        final TargetImportProgress progress = imports.getIfPresent(importId);
+        if (progress == null || !progress.getTenant().equalsIgnoreCase(tenantAware.getCurrentTenant())) {
+            return null;
+        }
+        return progress;
+    }
+
+    private ImportContext createContext(final String description, final Long distributionSetId,
+            final Collection<Long> tagIds) {
+        if (distributionSetId != null) {
+            final DistributionSet set = distributionSetRepository.findOne(distributionSetId);
+            if (set == null) {
+                throw new EntityNotFoundException("Distribution set: " + distributionSetId);
+            }
+            if (!set.isComplete()) {
+                throw new IncompleteDistributionSetException(
+                        "Distribution set of type " + set.getType().getKey() + " is incomplete: " + set.getId());
+            }
+        }
+        final List<String> tagNames = new ArrayList<>(tagIds.size());
+        for (final Long tagId : tagIds) {
+            final TargetTag tag = targetTagRepository.findOne(tagId);
+            if (tag == null) {
+                throw new EntityNotFoundException("Target tag: " + tagId);
+            }
+            tagNames.add(tag.getName());
+        }
+        return new ImportContext(
+                new TargetImportProgress(UUID.randomUUID().toString(), tenantAware.getCurrentTenant()),
+                Strings.emptyToNull(description), distributionSetId, tagNames);
+    }
+
+    private void runImport(final Reader csv, final ImportContext context,
+            final Consumer<TargetImportProgress> listener) {
+        final TargetImportProgress progress = context.progress;
+        LOG.info("Target import {} started", progress.getId());
+        try {
+            final BufferedReader reader = csv instanceof BufferedReader ? (BufferedReader) csv
+                    : new BufferedReader(csv);
+            final List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(new ImportLine(++lineNumber, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, context);
+                    chunk.clear();
+                    listener.accept(progress);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, context);
+            }
+            progress.finished();
+            LOG.info("Target import {} created {} targets, {} lines failed, in {} ms", progress.getId(),
+                    progress.getCreatedTargets(), progress.getFailedLines(),
+                    progress.getFinishedAt() - progress.getStartedAt());
+        } catch (final IOException | RuntimeException e) {
+            LOG.error("Target import {} failed after {} lines", progress.getId(), progress.getProcessedLines(), e);
+            progress.failed(e);
+        }
+        listener.accept(progress);
+    }
+
+    private void importChunk(final List<ImportLine> chunk, final ImportContext context) {
+        final TargetImportProgress progress = context.progress;
+        final Map<String, ImportLine> valid = new LinkedHashMap<>();
+        for (final ImportLine line : chunk) {
+            if (line.error != null) {
+                progress.addFailedLine(line.lineNumber, line.error);
+            } else if (!context.controllerIds.add(line.controllerId)) {
+                progress.addFailedLine(line.lineNumber, "duplicate controller ID " + line.controllerId);
+            } else {
+                valid.put(line.controllerId, line);
+            }
+        }
+        if (!valid.isEmpty()) {
+            targetRepository.findControllerIdByControllerIdIn(valid.keySet())
+                    .forEach(existing -> progress.addFailedLine(valid.remove(existing).lineNumber,
+                            "target " + existing + " already exists"));
+        }
+
+        long created = 0;
+        if (!valid.isEmpty()) {
+            try {
+                created = runInNewTransaction(txManager, "importTargets",
+                        status -> importTargets(valid.values(), context));
+            } catch (final RuntimeException e) {
+                LOG.warn("Import of {} targets failed, importing them one by one", valid.size(), e);
+                created = importOneByOne(valid.values(), context);
+            }
+        }
+        progress.addChunk(created, chunk.size());
+    }
+
+    private long importOneByOne(final Collection<ImportLine> lines, final ImportContext context) {
+        long created = 0;
+        for (final ImportLine line : lines) {
+            try {
+                created += runInNewTransaction(txManager, "importTarget",
+                        status -> importTargets(Collections.singletonList(line), context));
+            } catch (final RuntimeException e) {
+                context.progress.addFailedLine(line.lineNumber, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private int importTargets(final Collection<ImportLine> lines, final ImportContext context) {
+        final List<Target> targets = lines.stream().map(line -> {
+            final Target target = new Target(line.controllerId);
+            target.setName(line.name == null ? line.controllerId : line.name);
+            target.setDescription(context.description);
+            return target;
+        }).collect(Collectors.toList());
+        targetManagement.bulkCreateTargets(targets);
+
+        final List<String> controllerIds = lines.stream().map(line -> line.controllerId)
+                .collect(Collectors.toList());
+        context.tagNames.forEach(tagName -> targetManagement.bulkToggleTagAssignment(controllerIds, tagName));
+        if (context.distributionSetId != null) {
+            deploymentManagement.assignDistributionSet(context.distributionSetId, ActionType.FORCED,
+                    System.currentTimeMillis(), controllerIds.toArray(new String[controllerIds.size()]));
+        }
+        return targets.size();
+    }
+
+    private static void deleteFile(final File file) {
+        if (file.exists() && !file.delete()) {
+            LOG.warn("File {} could not be deleted", file);
+        }
+    }
+
+    private static final class ImportContext {
+        private final TargetImportProgress progress;
+        private final String description;
+        private final Long distributionSetId;
+        private final List<String> tagNames;
+        // all controller IDs of the import to detect duplicates
+        private final Set<String> controllerIds = new HashSet<>();
+
+        private ImportContext(final TargetImportProgress progress, final String description,
+                final Long distributionSetId, final List<String> tagNames) {
+            this.progress = progress;
+            this.description = description;
+            this.distributionSetId = distributionSetId;
+            this.tagNames = tagNames;
+        }
+    }
+
+    private static final class ImportLine {
+        private final long lineNumber;
+        private String controllerId;
+        private String name;
+        private String error;
+
+        private ImportLine(final long lineNumber, final String line) {
+            this.lineNumber = lineNumber;
+            final String[] values = line.split(",");
+            if (values.length != 2) {
+                error = "expected controller ID and name";
+                return;
+            }
+            controllerId = Strings.emptyToNull(values[0].trim());
+            name = Strings.emptyToNull(values[1].trim());
+            if (controllerId == null) {
+                error = "missing controller ID";
+            } else if (controllerId.length() > MAX_CONTROLLER_ID_LENGTH) {
+                error = "controller ID exceeds " + MAX_CONTROLLER_ID_LENGTH + " characters";
+            } else if (name != null && name.length() > MAX_NAME_LENGTH) {
+                error = "name exceeds " + MAX_NAME_LENGTH + " characters";
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.Entity;
 
@@ -45,6 +46,24 @@ public interface TargetInfoRepository {
     @Query("update TargetInfo ti set ti.updateStatus = :status where ti.targetId in :targets and ti.updateStatus != :status")
     void setTargetUpdateStatus(@Param("status") TargetUpdateStatus status, @Param("targets") List<Long> targets);
 
+    /**
+     * Refreshes the time of the last query and the address of the given
+     * targets with one statement. The updated {@link TargetInfo}s are re-read
+     * with one query, so managed entities are refreshed as well.
+     *
+     * @param targets
+     *            IDs of the targets to update
+     * @param lastTargetQuery
+     *            time of the last query
+     * @param address
+     *            of the targets
+     * @return the updated target infos
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @CacheEvict(value = { "targetStatus", "targetsLastPoll" }, allEntries = true)
+    List<TargetInfo> updateLastTargetQuery(Collection<Long> targets, long lastTargetQuery, String address);
+
     /**
      * Save entity and evict cache with it.
      *
@@ -66,4 +85,23 @@ public interface TargetInfoRepository {
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @CacheEvict(value = { "targetStatus", "distributionUsageInstalled", "targetsLastPoll" }, allEntries = true)
     void deleteByTargetIdIn(final Collection<Long> targetIDs);
+
+    /**
+     * Applies the given changes to the controller attributes of a target with
+     * at most one statement per change type. The managed {@link TargetInfo}
+     * has to be refreshed afterwards.
+     *
+     * @param targetId
+     *            of the target
+     * @param inserts
+     *            attributes which do not exist yet
+     * @param updates
+     *            existing attributes with a new value
+     * @param deletes
+     *            keys of the attributes to remove
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    void applyControllerAttributeChanges(Long targetId, Map<String, String> inserts, Map<String, String> updates,
+            Collection<String> deletes);
 }
@@ -13,7 +13,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
@@ -30,10 +32,14 @@ import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.Constants;
+import org.eclipse.hawkbit.eventbus.event.TargetCreatedBulkEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetTagAssigmentResultEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSet_;
 import org.eclipse.hawkbit.repository.model.Tag;
@@ -49,6 +55,7 @@ import org.eclipse.hawkbit.repository.model.Target_;
 import org.eclipse.hawkbit.repository.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.specifications.SpecificationsBuilder;
 import org.eclipse.hawkbit.repository.specifications.TargetSpecifications;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -68,6 +75,7 @@ import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
 
@@ -80,6 +88,8 @@ import com.google.common.eventbus.EventBus;
 @Service
 public class TargetManagement {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -101,6 +111,12 @@ public class TargetManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private TagAssignmentBulkRepository tagAssignmentBulkRepository;
+
+    @Autowired
+    private TenantAware tenantAware;
+
     /**
      * Find {@link Target} based on given ID returns found Target without
      * details, i.e. NO {@link Target#getTags()} and
@@ -587,6 +603,71 @@ public class TargetManagement {
         return result;
     }
 
+    /**
+     * Toggles the {@link TargetTag} assignment of a large number of
+     * {@link Target}s the same way as
+     * {@link #toggleTagAssignment(Collection, String)}, but set based in
+     * chunks without loading the targets. The result therefore contains the
+     * numbers of changed targets only and a
+     * {@link TargetTagBulkAssignmentEvent} with the ID range is published per
+     * chunk in addition to the {@link TargetTagAssigmentResultEvent} with the
+     * result after commit.
+     *
+     * @param controllerIds
+     *            to toggle for
+     * @param tagName
+     *            to toggle
+     * @return TagAssigmentResult with the numbers of the assignment outcome
+     *
+     * @throws EntityNotFoundException
+     *             if the tag does not exist
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_TARGET)
+    public TargetTagAssignmentResult bulkToggleTagAssignment(@NotEmpty final Collection<String> controllerIds,
+            @NotNull final String tagName) {
+        final TargetTag tag = targetTagRepository.findByNameEquals(tagName);
+        if (tag == null) {
+            throw new EntityNotFoundException("Target tag: " + tagName);
+        }
+
+        final List<List<Long>> chunks = new ArrayList<>();
+        int total = 0;
+        int alreadyAssigned = 0;
+        for (final List<String> controllerIdChunk : Iterables.partition(controllerIds, BULK_CHUNK_SIZE)) {
+            final List<Long> ids = targetRepository.findIdByControllerIdIn(controllerIdChunk);
+            if (!ids.isEmpty()) {
+                Collections.sort(ids);
+                chunks.add(ids);
+                total += ids.size();
+                alreadyAssigned += targetRepository.countByTagAndIdIn(tag, ids);
+            }
+        }
+
+        // all are already assigned -> unassign
+        final boolean assign = alreadyAssigned < total;
+        final String tenant = tenantAware.getCurrentTenant();
+        int changed = 0;
+        for (final List<Long> ids : chunks) {
+            final int count = assign ? tagAssignmentBulkRepository.assignTargetTag(tag.getId(), ids)
+                    : tagAssignmentBulkRepository.unassignTargetTag(tag.getId(), ids);
+            changed += count;
+            final TargetTagBulkAssignmentEvent event = new TargetTagBulkAssignmentEvent(tenant, tag.getId(),
+                    ids.get(0), ids.get(ids.size() - 1), count, assign);
+            afterCommit.afterCommit(() -> eventBus.post(event));
+        }
+
+        final TargetTagAssignmentResult result = assign
+                ? new TargetTagAssignmentResult(alreadyAssigned, changed, 0, Collections.emptyList(),
+                        Collections.emptyList(), tag)
+                : new TargetTagAssignmentResult(0, 0, changed, Collections.emptyList(), Collections.emptyList(), tag);
+
+        afterCommit.afterCommit(() -> eventBus.post(new TargetTagAssigmentResultEvent(result)));
+        return result;
+    }
+
     /**
      * Assign a {@link TargetTag} assignment to given {@link Target}s.
      *
@@ -947,6 +1028,16 @@ public class TargetManagement {
             throw new EntityAlreadyExistsException(target.getControllerId());
         }
 
+        return persistTarget(target, status, lastTargetQuery, address);
+    }
+
+    /**
+     * Persists a new target without looking it up first, so the inserts of
+     * several targets are not flushed one by one by a query in between and
+     * can be sent as JDBC batch on commit.
+     */
+    private Target persistTarget(final Target target, final TargetUpdateStatus status, final Long lastTargetQuery,
+            final URI address) {
         target.setNew(true);
         final Target savedTarget = targetRepository.save(target);
         final TargetInfo targetInfo = savedTarget.getTargetInfo();
@@ -961,7 +1052,15 @@ public class TargetManagement {
         final Target targetToReturn = targetInfoRepository.save(targetInfo).getTarget();
         targetInfo.setNew(false);
         return targetToReturn;
+    }
 
+    private void checkTargetsDoNotExist(final Collection<Target> targets) {
+        final List<String> controllerIds = targets.stream().map(Target::getControllerId)
+                .collect(Collectors.toList());
+        if (controllerIds.size() != new HashSet<>(controllerIds).size()
+                || targetRepository.countByControllerIdIn(controllerIds) > 0) {
+            throw new EntityAlreadyExistsException();
+        }
     }
 
     /**
@@ -1001,13 +1100,12 @@ public class TargetManagement {
     @NotNull
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
     public List<Target> createTargets(@NotNull final List<Target> targets) {
-        if (!targets.isEmpty() && targetRepository.countByControllerIdIn(
-                targets.stream().map(target -> target.getControllerId()).collect(Collectors.toList())) > 0) {
-            throw new EntityAlreadyExistsException();
+        if (!targets.isEmpty()) {
+            checkTargetsDoNotExist(targets);
         }
         final List<Target> savedTargets = new ArrayList<>();
         for (final Target t : targets) {
-            final Target myTarget = createTarget(t);
+            final Target myTarget = persistTarget(t, TargetUpdateStatus.UNKNOWN, null, null);
             savedTargets.add(myTarget);
         }
         return savedTargets;
@@ -1034,18 +1132,91 @@ public class TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
     public List<Target> createTargets(@NotNull final Collection<Target> targets,
             @NotNull final TargetUpdateStatus status, final long lastTargetQuery, final URI address) {
-        if (targetRepository.countByControllerIdIn(
-                targets.stream().map(target -> target.getControllerId()).collect(Collectors.toList())) > 0) {
-            throw new EntityAlreadyExistsException();
-        }
+        checkTargetsDoNotExist(targets);
         final List<Target> savedTargets = new ArrayList<>();
         for (final Target t : targets) {
-            final Target myTarget = createTarget(t, status, lastTargetQuery, address);
+            final Target myTarget = persistTarget(t, status, lastTargetQuery, address);
             savedTargets.add(myTarget);
         }
         return savedTargets;
     }
 
+    /**
+     * Registers new {@link Target}s of controllers which connected for the
+     * first time (plug and play). In contrast to
+     * {@link #createTarget(Target, TargetUpdateStatus, Long, URI)} the
+     * existence of the targets is checked by one statement, so the inserts are
+     * sent as JDBC batch on commit.
+     *
+     * @param targets
+     *            to be registered
+     * @param lastTargetQuery
+     *            the time the controllers connected
+     * @param addresses
+     *            the client addresses of the controllers by controller ID
+     *
+     * @return the registered targets
+     *
+     * @throws EntityAlreadyExistsException
+     *             if one of the given targets exists already
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_CONTROLLER)
+    @CacheEvict(value = { "targetsCreatedOverPeriod" }, allEntries = true)
+    public List<Target> registerTargets(@NotNull final Collection<Target> targets, final long lastTargetQuery,
+            @NotNull final Map<String, URI> addresses) {
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        checkTargetsDoNotExist(targets);
+        final List<Target> savedTargets = new ArrayList<>();
+        for (final Target t : targets) {
+            savedTargets.add(persistTarget(t, TargetUpdateStatus.REGISTERED, lastTargetQuery,
+                    addresses.get(t.getControllerId())));
+        }
+        return savedTargets;
+    }
+
+    /**
+     * Creates a large number of new {@link Target}s, e.g. by a bulk import.
+     * In contrast to {@link #createTargets(List)} the existence of the targets
+     * is not checked, the caller has to filter existing controller IDs
+     * upfront. Instead of one {@link TargetCreatedEvent} per target a single
+     * {@link TargetCreatedBulkEvent} is published after commit.
+     *
+     * @param targets
+     *            to be created
+     * @return the created targets
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @NotNull
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_CREATE_TARGET)
+    @CacheEvict(value = { "targetsCreatedOverPeriod", "targetStatus", "targetsLastPoll" }, allEntries = true)
+    public List<Target> bulkCreateTargets(@NotNull final Collection<Target> targets) {
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Target> savedTargets = new ArrayList<>(targets.size());
+        for (final Target target : targets) {
+            target.setNew(true);
+            final Target savedTarget = targetRepository.save(target);
+            final TargetInfo targetInfo = savedTarget.getTargetInfo();
+            targetInfo.setUpdateStatus(TargetUpdateStatus.UNKNOWN);
+            // persisted directly to bypass the per target created event
+            entityManager.persist(targetInfo);
+            savedTargets.add(savedTarget);
+        }
+
+        final TargetCreatedBulkEvent event = new TargetCreatedBulkEvent(tenantAware.getCurrentTenant(),
+                savedTargets);
+        afterCommit.afterCommit(() -> eventBus.post(event));
+        return savedTargets;
+    }
+
     /**
      * Find targets by tag name.
      *
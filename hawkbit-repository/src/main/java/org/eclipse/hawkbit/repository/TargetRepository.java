@@ -202,6 +202,35 @@ public interface TargetRepository extends BaseEntityRepository<Target, Long>, Jp
     @Query("SELECT COUNT(t) FROM Target t WHERE t.controllerId IN ?1")
     Long countByControllerIdIn(final Collection<String> ids);
 
+    /**
+     * @param controllerIds
+     *            to search for
+     * @return the technical IDs of the {@link Target}s with given
+     *         {@link Target#getControllerId()}s
+     */
+    @Query("SELECT t.id FROM Target t WHERE t.controllerId IN ?1")
+    List<Long> findIdByControllerIdIn(final Collection<String> controllerIds);
+
+    /**
+     * Finds the controller IDs of the given ones which exist already.
+     *
+     * @param controllerIds
+     *            to check
+     * @return the existing {@link Target#getControllerId()}s
+     */
+    @Query("SELECT t.controllerId FROM Target t WHERE t.controllerId IN ?1")
+    List<String> findControllerIdByControllerIdIn(final Collection<String> controllerIds);
+
+    /**
+     * @param tag
+     *            to check
+     * @param ids
+     *            of the {@link Target}s to check
+     * @return number of given {@link Target}s which have the tag assigned
+     */
+    @Query("SELECT COUNT(t) FROM Target t JOIN t.tags tt WHERE tt = ?1 AND t.id IN ?2")
+    long countByTagAndIdIn(final TargetTag tag, final Collection<Long> ids);
+
     /**
      * Counts number of targets with given
      * {@link TargetStatus#getInstalledDistributionSet()}.
@@ -44,6 +44,16 @@ public interface TenantMetaDataRepository extends PagingAndSortingRepository<Ten
     @Override
     List<TenantMetaData> findAll();
 
+    /**
+     * @return all tenants which are not being deleted
+     */
+    List<TenantMetaData> findByDeletionStartedAtIsNull();
+
+    /**
+     * @return all tenants which are being deleted
+     */
+    List<TenantMetaData> findByDeletionStartedAtIsNotNull();
+
     /**
      * @param tenant
      */
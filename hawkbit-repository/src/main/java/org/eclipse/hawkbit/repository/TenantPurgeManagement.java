@@ -0,0 +1,458 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.eclipse.hawkbit.repository.RepositoryUtility.inList;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.runInNewTransaction;
+import static org.eclipse.hawkbit.repository.RepositoryUtility.setParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.validation.constraints.NotNull;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactStoreException;
+import org.eclipse.hawkbit.cache.EntityCacheInvalidator;
+import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.DistributionSetTag;
+import org.eclipse.hawkbit.repository.model.DistributionSetType;
+import org.eclipse.hawkbit.repository.model.ExternalArtifact;
+import org.eclipse.hawkbit.repository.model.ExternalArtifactProvider;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TenantConfiguration;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress.State;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Purges the data of deleted tenants in the background. The tables are purged
+ * in dependency order in small batches which are paged by ID, every batch is
+ * deleted in its own transaction. As the deleted rows are gone after every
+ * commit an aborted purge is simply started again, see
+ * {@link #resumeAbortedPurges()}. The purges run on a bounded executor of
+ * their own, a purge which is rejected is resumed the same way. Rows which
+ * are created while the tables are purged, e.g. by a node which has not been
+ * fenced yet, are found by a final check and purged by another pass.
+ *
+ * Artifact binaries which are not referenced by any tenant anymore are
+ * deleted from the artifact repository after the artifact rows have been
+ * committed.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+@Validated
+@Service
+public class TenantPurgeManagement {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantPurgeManagement.class);
+
+    /*
+     * passes over all tables before a purge is given up, rows can still be
+     * created by nodes which have not been fenced yet while a pass runs
+     */
+    private static final int MAX_PURGE_PASSES = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TenantMetaDataRepository tenantMetaDataRepository;
+
+    @Autowired
+    private ArtifactRepository artifactRepository;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("tenantPurgeExecutor")
+    private Executor executor;
+
+    @Autowired
+    private TenantPurgeProperties purgeProperties;
+
+    /*
+     * purges started on this node by upper case tenant, finished purges are
+     * kept to report their result. The progress is deliberately node local,
+     * only the fencing and the heartbeat of a purge are stored in sp_tenant,
+     * see findTenantDeletions().
+     */
+    private final ConcurrentMap<String, TenantDeletionProgress> purges = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the purge of a tenant which is marked for deletion in the
+     * background. Nothing happens if the purge is already running on this
+     * node.
+     *
+     * @param tenant
+     *            to purge
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public void purgeTenantAsync(@NotNull final String tenant) {
+        final TenantMetaData metaData = tenantMetaDataRepository.findByTenantIgnoreCase(tenant);
+        if (metaData == null || !metaData.isDeletionInProgress()) {
+            return;
+        }
+
+        final String key = metaData.getTenant().toUpperCase();
+        final TenantDeletionProgress progress = new TenantDeletionProgress(metaData.getTenant(),
+                metaData.getDeletionStartedAt(), State.PENDING);
+        final TenantDeletionProgress previous = purges.get(key);
+        if (previous != null && previous.isActive()) {
+            return;
+        }
+        final boolean registered = previous == null ? purges.putIfAbsent(key, progress) == null
+                : purges.replace(key, previous, progress);
+        if (!registered) {
+            return;
+        }
+
+        final Long metaDataId = metaData.getId();
+        try {
+            executor.execute(() -> purge(metaData.getTenant(), metaDataId, progress));
+        } catch (final RejectedExecutionException e) {
+            LOG.warn("Purge of tenant {} has been rejected, it will be resumed later", metaData.getTenant(), e);
+            progress.failed(e);
+        }
+    }
+
+    /**
+     * Resumes the purges of all tenants which are marked for deletion but
+     * made no progress within
+     * {@link TenantPurgeProperties#getStaleAfter()}, e.g. because the node
+     * which purged the tenant has been stopped.
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    public void resumeAbortedPurges() {
+        final long staleBefore = System.currentTimeMillis() - purgeProperties.getStaleAfter();
+        tenantMetaDataRepository.findByDeletionStartedAtIsNotNull().stream()
+                .filter(metaData -> metaData.getDeletionHeartbeat() == null
+                        || metaData.getDeletionHeartbeat() < staleBefore)
+                .forEach(metaData -> {
+                    LOG.info("Resuming purge of deleted tenant {}", metaData.getTenant());
+                    purgeTenantAsync(metaData.getTenant());
+                });
+    }
+
+    /**
+     * Reports the progress of the tenant deletions. The progress is tracked
+     * per node: purges which are processed by this node are reported with
+     * their current state and counts, purges which are queued or processed by
+     * another node are reported as {@link State#PENDING} until the tenant is
+     * purged completely.
+     *
+     * @return the progress of all tenant deletions which are pending or have
+     *         been processed by this node since startup
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    public List<TenantDeletionProgress> findTenantDeletions() {
+        final Map<String, TenantDeletionProgress> result = new TreeMap<>(purges);
+        tenantMetaDataRepository.findByDeletionStartedAtIsNotNull()
+                .forEach(metaData -> result.putIfAbsent(metaData.getTenant().toUpperCase(),
+                        new TenantDeletionProgress(metaData.getTenant(), metaData.getDeletionStartedAt(),
+                                State.PENDING)));
+        return new ArrayList<>(result.values());
+    }
+
+    private void purge(final String tenant, final Long metaDataId, final TenantDeletionProgress progress) {
+        progress.running();
+        final String tenantColumn = tenant.toUpperCase();
+        try {
+            for (int pass = 1;; pass++) {
+                for (final PurgeStep step : PurgeStep.values()) {
+                    progress.setStep(step.table);
+                    purgeStep(step, tenantColumn, metaDataId, progress);
+                }
+
+                final PurgeStep remaining = runInNewTransaction(txManager, "findRemainingRows",
+                        status -> findStepWithRemainingRows(tenantColumn));
+                if (remaining == null) {
+                    break;
+                }
+                if (pass >= MAX_PURGE_PASSES) {
+                    throw new IllegalStateException(
+                            "Rows of tenant " + tenant + " are still created in " + remaining.table);
+                }
+                LOG.info("Rows of tenant {} have been created in {} while it was purged, purging again", tenant,
+                        remaining.table);
+            }
+
+            progress.setStep("sp_tenant");
+            progress.addDeletedEntities(runInNewTransaction(txManager, "purgeTenantMetaData",
+                    status -> deleteTenantMetaData(tenantColumn, metaDataId)));
+            evict(TenantConfiguration.class, DistributionSetType.class, SoftwareModuleType.class,
+                    TenantMetaData.class);
+            entityCacheInvalidator.evictTenant(tenant);
+
+            progress.finished();
+            LOG.info("Purged tenant {}, deleted {} entities and {} artifact binaries in {} ms", tenant,
+                    progress.getDeletedEntities(), progress.getDeletedBinaries(),
+                    progress.getFinishedAt() - progress.getStartedAt());
+        } catch (final RuntimeException e) {
+            LOG.error("Purge of tenant {} failed in step {}, it will be resumed later", tenant, progress.getStep(),
+                    e);
+            progress.failed(e);
+        }
+    }
+
+    private void purgeStep(final PurgeStep step, final String tenantColumn, final Long metaDataId,
+            final TenantDeletionProgress progress) {
+        long lastId = 0;
+        PurgedBatch batch;
+        do {
+            final long afterId = lastId;
+            batch = runInNewTransaction(txManager, step.name(),
+                    status -> purgeBatch(step, tenantColumn, afterId, metaDataId));
+            progress.addDeletedEntities(batch.deleted);
+            progress.addDeletedBinaries(deleteBinaries(batch.unreferencedGridFsFileNames));
+            lastId = batch.lastId;
+        } while (batch.selected > 0);
+
+        evict(step.entityClasses);
+    }
+
+    private PurgedBatch purgeBatch(final PurgeStep step, final String tenantColumn, final long afterId,
+            final Long metaDataId) {
+        final Query select = entityManager
+                .createNativeQuery("SELECT id FROM " + step.table + " WHERE tenant = ?1 AND id > ?2 ORDER BY id");
+        select.setParameter(1, tenantColumn);
+        select.setParameter(2, afterId);
+        select.setMaxResults(purgeProperties.getBatchSize());
+        final List<Long> ids = toLongs(select.getResultList());
+        if (ids.isEmpty()) {
+            return new PurgedBatch(afterId, 0, 0, Collections.emptySet());
+        }
+
+        final Set<String> gridFsFileNames = step.hasBinaries
+                ? new HashSet<>(
+                        findStrings("SELECT DISTINCT gridfs_file_name FROM " + step.table + " WHERE id IN", ids))
+                : Collections.emptySet();
+
+        if (step.joinTable != null) {
+            executeUpdate("DELETE FROM " + step.joinTable + " WHERE " + step.joinColumn + " IN", ids);
+        }
+        final int deleted = executeUpdate("DELETE FROM " + step.table + " WHERE id IN", ids);
+
+        if (!gridFsFileNames.isEmpty()) {
+            // the artifacts or deltas of this batch are already deleted within
+            // this transaction, so only references of other modules and
+            // tenants are found
+            gridFsFileNames.removeAll(findStrings(
+                    "SELECT DISTINCT a.gridfs_file_name FROM sp_artifact a INNER JOIN sp_base_software_module sm"
+                            + " ON a.software_module = sm.id WHERE sm.deleted = 0 AND a.gridfs_file_name IN",
+                    gridFsFileNames));
+            gridFsFileNames.removeAll(findStrings(
+                    "SELECT DISTINCT gridfs_file_name FROM sp_artifact_delta WHERE gridfs_file_name IN",
+                    gridFsFileNames));
+        }
+
+        final Query heartbeat = entityManager
+                .createNativeQuery("UPDATE sp_tenant SET deletion_heartbeat = ?1 WHERE id = ?2");
+        heartbeat.setParameter(1, System.currentTimeMillis());
+        heartbeat.setParameter(2, metaDataId);
+        heartbeat.executeUpdate();
+
+        return new PurgedBatch(ids.get(ids.size() - 1), ids.size(), deleted, gridFsFileNames);
+    }
+
+    private PurgeStep findStepWithRemainingRows(final String tenantColumn) {
+        for (final PurgeStep step : PurgeStep.values()) {
+            final Query query = entityManager
+                    .createNativeQuery("SELECT id FROM " + step.table + " WHERE tenant = ?1");
+            query.setParameter(1, tenantColumn);
+            query.setMaxResults(1);
+            if (!query.getResultList().isEmpty()) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    private int deleteTenantMetaData(final String tenantColumn, final Long metaDataId) {
+        int deleted = executeUpdate("DELETE FROM sp_tenant_configuration WHERE tenant = ?1", tenantColumn);
+        deleted += executeUpdate("DELETE FROM sp_event_outbox WHERE tenant = ?1", tenantColumn);
+        deleted += executeUpdate("DELETE FROM sp_action_feedback WHERE tenant = ?1", tenantColumn);
+        deleted += executeUpdate("DELETE FROM sp_lease WHERE tenant = ?1", tenantColumn);
+        deleted += executeUpdate(
+                "DELETE FROM sp_ds_type_element WHERE distribution_set_type IN (SELECT id FROM sp_distribution_set_type WHERE tenant = ?1)",
+                tenantColumn);
+        // the tenant references its default distribution set type
+        final Query tenantQuery = entityManager.createNativeQuery("DELETE FROM sp_tenant WHERE id = ?1");
+        tenantQuery.setParameter(1, metaDataId);
+        deleted += tenantQuery.executeUpdate();
+        deleted += executeUpdate("DELETE FROM sp_distribution_set_type WHERE tenant = ?1", tenantColumn);
+        deleted += executeUpdate("DELETE FROM sp_software_module_type WHERE tenant = ?1", tenantColumn);
+        return deleted;
+    }
+
+    private int deleteBinaries(final Collection<String> gridFsFileNames) {
+        int deleted = 0;
+        for (final String gridFsFileName : gridFsFileNames) {
+            try {
+                artifactRepository.deleteBySha1(gridFsFileName);
+                deleted++;
+            } catch (final ArtifactStoreException e) {
+                LOG.warn("Failed to delete artifact binary {} of purged tenant, it remains orphaned", gridFsFileName,
+                        e);
+            }
+        }
+        return deleted;
+    }
+
+    private int executeUpdate(final String sql, final String tenantColumn) {
+        final Query query = entityManager.createNativeQuery(sql);
+        query.setParameter(1, tenantColumn);
+        return query.executeUpdate();
+    }
+
+    private int executeUpdate(final String sqlPrefix, final Collection<Long> ids) {
+        final Query query = entityManager.createNativeQuery(sqlPrefix + " " + inList(1, ids.size()));
+        setParameters(query, 1, ids);
+        return query.executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> findStrings(final String sqlPrefix, final Collection<?> parameters) {
+        final Query query = entityManager.createNativeQuery(sqlPrefix + " " + inList(1, parameters.size()));
+        setParameters(query, 1, parameters);
+        return ((List<Object>) query.getResultList()).stream().filter(value -> value != null).map(Object::toString)
+                .collect(Collectors.toList());
+    }
+
+    private void evict(final Class<?>... entityClasses) {
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Arrays.stream(entityClasses).forEach(cache::evict);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> toLongs(final List<?> result) {
+        return ((List<Number>) result).stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    /**
+     * Tenant aware tables in the order they are purged. Tables without a
+     * tenant column are either purged by cascading foreign keys or, if there
+     * is none, through the join table of the step.
+     */
+    private enum PurgeStep {
+        ACTION_STATUS("sp_action_status", ActionStatus.class),
+
+        ACTION("sp_action", Action.class),
+
+        ROLLOUT_GROUP("sp_rolloutgroup", RolloutGroup.class),
+
+        ROLLOUT("sp_rollout", Rollout.class),
+
+        TARGET_FILTER_QUERY("sp_target_filter_query", TargetFilterQuery.class),
+
+        TARGET("sp_target", Target.class, TargetInfo.class),
+
+        TARGET_TAG("sp_target_tag", TargetTag.class),
+
+        DISTRIBUTION_SET_TAG("sp_distributionset_tag", DistributionSetTag.class),
+
+        ARTIFACT_DELTA("sp_artifact_delta", true, ArtifactDelta.class),
+
+        LOCAL_ARTIFACT("sp_artifact", true, LocalArtifact.class),
+
+        EXTERNAL_ARTIFACT("sp_external_artifact", ExternalArtifact.class),
+
+        EXTERNAL_ARTIFACT_PROVIDER("sp_external_provider", ExternalArtifactProvider.class),
+
+        DISTRIBUTION_SET("sp_distribution_set", "sp_ds_module", "ds_id", DistributionSet.class),
+
+        SOFTWARE_MODULE("sp_base_software_module", SoftwareModule.class);
+
+        private final String table;
+        private final String joinTable;
+        private final String joinColumn;
+        private final boolean hasBinaries;
+        private final Class<?>[] entityClasses;
+
+        PurgeStep(final String table, final Class<?>... entityClasses) {
+            this(table, null, null, false, entityClasses);
+        }
+
+        PurgeStep(final String table, final boolean hasBinaries, final Class<?>... entityClasses) {
+            this(table, null, null, hasBinaries, entityClasses);
+        }
+
+        PurgeStep(final String table, final String joinTable, final String joinColumn,
+                final Class<?>... entityClasses) {
+            this(table, joinTable, joinColumn, false, entityClasses);
+        }
+
+        PurgeStep(final String table, final String joinTable, final String joinColumn, final boolean hasBinaries,
+                final Class<?>... entityClasses) {
+            this.table = table;
+            this.joinTable = joinTable;
+            this.joinColumn = joinColumn;
+            this.hasBinaries = hasBinaries;
+            this.entityClasses = entityClasses;
+        }
+    }
+
+    private static final class PurgedBatch {
+        private final long lastId;
+        private final int selected;
+        private final int deleted;
+        private final Set<String> unreferencedGridFsFileNames;
+
+        private PurgedBatch(final long lastId, final int selected, final int deleted,
+                final Set<String> unreferencedGridFsFileNames) {
+            this.lastId = lastId;
+            this.selected = selected;
+            this.deleted = deleted;
+            this.unreferencedGridFsFileNames = unreferencedGridFsFileNames;
+        }
+    }
+}
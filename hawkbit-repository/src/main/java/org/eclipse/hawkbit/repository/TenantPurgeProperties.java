@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties of the background purge of deleted tenants.
+ *
+ */
+@Component
+@ConfigurationProperties("hawkbit.server.repository.tenant.purge")
+public class TenantPurgeProperties {
+
+    private final Scheduler scheduler = new Scheduler();
+
+    /**
+     * Number of rows which are deleted within one transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Time in milliseconds after which a purge without progress is considered
+     * as aborted, e.g. because the node crashed, and is resumed by another
+     * node.
+     */
+    private long staleAfter = 300000L;
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(final long staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Scheduler which resumes aborted purges.
+     */
+    public static class Scheduler {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.tenant.purge.scheduler.fixedDelay:60000}";
+
+        /**
+         * Delay between two checks for aborted purges in milliseconds.
+         */
+        private long fixedDelay = 60000L;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+    }
+}
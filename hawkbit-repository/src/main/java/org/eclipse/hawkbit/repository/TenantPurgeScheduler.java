@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which resumes the purge of deleted tenants which has been aborted,
+ * e.g. by a restart of the node, by means of the
+ * {@link TenantPurgeManagement}. The delay between the checks can be
+ * configured using the property
+ * {@link TenantPurgeProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the tests wait for the purges they
+// trigger themselves.
+@Profile("!test")
+public class TenantPurgeScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantPurgeScheduler.class);
+
+    @Autowired
+    private TenantPurgeManagement tenantPurgeManagement;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Resumes the
+     * aborted tenant purges in the {@link SystemSecurityContext}.
+     */
+    @Scheduled(initialDelayString = TenantPurgeProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = TenantPurgeProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void resumeAbortedPurges() {
+        LOGGER.debug("tenant purge check has been triggered.");
+        systemSecurityContext.runAsSystem(() -> {
+            tenantPurgeManagement.resumeAbortedPurges();
+            return null;
+        });
+    }
+}
@@ -8,7 +8,13 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import javax.persistence.EntityManager;
 
 import org.eclipse.hawkbit.report.model.TenantUsage;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +31,9 @@ import org.springframework.validation.annotation.Validated;
 @Service
 public class TenantStatsManagement {
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private TargetRepository targetRepository;
 
@@ -63,4 +72,39 @@ public class TenantStatsManagement {
 
     }
 
+    /**
+     * Collects the stats of all tenants in the system with one grouped query
+     * per figure instead of one transaction per tenant. We use native queries
+     * to punch through the tenant boundaries. This has to be used with care!
+     *
+     * @return collected statistics by tenant in upper case, tenants without
+     *         any data are not contained
+     */
+    @Transactional(readOnly = true)
+    public Map<String, TenantUsage> getStatsOfAllTenants() {
+        final Map<String, TenantUsage> result = new HashMap<>();
+
+        collectPerTenant(result, "SELECT tenant, COUNT(id) FROM sp_target GROUP BY tenant", TenantUsage::setTargets);
+        collectPerTenant(result,
+                "SELECT a.tenant, COUNT(a.id) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0 GROUP BY a.tenant",
+                TenantUsage::setArtifacts);
+        collectPerTenant(result,
+                "SELECT a.tenant, SUM(a.file_size) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0 GROUP BY a.tenant",
+                TenantUsage::setOverallArtifactVolumeInBytes);
+        collectPerTenant(result, "SELECT tenant, COUNT(id) FROM sp_action GROUP BY tenant", TenantUsage::setActions);
+
+        return result;
+    }
+
+    private void collectPerTenant(final Map<String, TenantUsage> result, final String groupedQuery,
+            final BiConsumer<TenantUsage, Long> setter) {
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = entityManager.createNativeQuery(groupedQuery).getResultList();
+
+        // the result types of the aggregates differ between the databases
+        rows.stream().filter(row -> row[0] != null && row[1] != null).forEach(row -> {
+            final String tenant = row[0].toString().toUpperCase();
+            setter.accept(result.computeIfAbsent(tenant, TenantUsage::new), ((Number) row[1]).longValue());
+        });
+    }
 }
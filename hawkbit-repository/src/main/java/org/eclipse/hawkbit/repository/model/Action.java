@@ -84,6 +84,21 @@ public class Action extends TenantAwareBaseEntity {
     @Column(name = "status")
     private Status status;
 
+    /**
+     * Summary of the {@link ActionStatus} entries which is maintained on every
+     * insert by an atomic update of the summary columns. The columns are not
+     * written with the entity, so a new status entry does not conflict with
+     * concurrent updates of the action by its optimistic lock.
+     */
+    @Column(name = "last_status", updatable = false)
+    private Status lastStatus;
+
+    @Column(name = "last_status_at", updatable = false)
+    private Long lastStatusAt;
+
+    @Column(name = "status_count", nullable = false, updatable = false)
+    private long statusCount;
+
     @CascadeOnDelete
     @OneToMany(mappedBy = "action", targetEntity = ActionStatus.class, fetch = FetchType.LAZY, cascade = {
             CascadeType.REMOVE })
@@ -135,6 +150,54 @@ public class Action extends TenantAwareBaseEntity {
         return status;
     }
 
+    /**
+     * @return the status of the latest {@link ActionStatus} entry
+     */
+    public Status getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * @return the time the latest {@link ActionStatus} entry occurred at
+     */
+    public Long getLastStatusAt() {
+        return lastStatusAt;
+    }
+
+    /**
+     * @return the number of {@link ActionStatus} entries
+     */
+    public long getStatusCount() {
+        return statusCount;
+    }
+
+    /**
+     * Initializes the status summary of a new action with the status entry
+     * which is created together with the action.
+     *
+     * @param initialStatus
+     *            the first status entry of the action
+     */
+    public void initStatusSummary(final ActionStatus initialStatus) {
+        lastStatus = initialStatus.getStatus();
+        lastStatusAt = initialStatus.getOccurredAt();
+        statusCount = 1;
+    }
+
+    /**
+     * Records a new status entry in the status summary of the action instance,
+     * i.e. keeps it in sync with the summary columns which are updated
+     * separately.
+     *
+     * @param actionStatus
+     *            the new status entry of the action
+     */
+    public void addToStatusSummary(final ActionStatus actionStatus) {
+        lastStatus = actionStatus.getStatus();
+        lastStatusAt = actionStatus.getOccurredAt();
+        statusCount++;
+    }
+
     public void setStatus(final Status status) {
         this.status = status;
     }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import javax.persistence.Column;
+import javax.persistence.ConstraintMode;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Binary delta which turns the binary of a {@link LocalArtifact} of an older
+ * {@link SoftwareModule} version (the base artifact) into the binary of a
+ * {@link LocalArtifact} of a newer version. The hashes and the size are the
+ * ones of the delta binary, see
+ * {@link org.eclipse.hawkbit.artifact.delta.BinaryDelta} for the format.
+ *
+ */
+@Table(name = "sp_artifact_delta", indexes = {
+        @Index(name = "sp_idx_artifact_delta_01", columnList = "tenant,artifact") }, uniqueConstraints = @UniqueConstraint(columnNames = {
+                "base_artifact", "artifact" }, name = "uk_artifact_delta"))
+@NamedEntityGraph(name = "ArtifactDelta.artifacts", attributeNodes = { @NamedAttributeNode("baseArtifact"),
+        @NamedAttributeNode("artifact") })
+@Entity
+public class ArtifactDelta extends Artifact {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * File name extension of the delta binaries.
+     */
+    public static final String FILENAME_EXTENSION = ".delta";
+
+    @NotNull
+    @Column(name = "gridfs_file_name", length = 40)
+    private String gridFsFileName;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "base_artifact", nullable = false, updatable = false, foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_delta_base_artifact"))
+    private LocalArtifact baseArtifact;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "artifact", nullable = false, updatable = false, foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_delta_artifact"))
+    private LocalArtifact artifact;
+
+    /**
+     * Default constructor.
+     */
+    public ArtifactDelta() {
+        super();
+    }
+
+    /**
+     * Constructs the delta.
+     *
+     * @param gridFsFileName
+     *            the link to the delta binary in the artifact repository
+     * @param baseArtifact
+     *            the artifact the delta is applied to
+     * @param artifact
+     *            the artifact which results from the delta
+     */
+    public ArtifactDelta(@NotNull final String gridFsFileName, @NotNull final LocalArtifact baseArtifact,
+            @NotNull final LocalArtifact artifact) {
+        this.gridFsFileName = gridFsFileName;
+        this.baseArtifact = baseArtifact;
+        this.artifact = artifact;
+    }
+
+    @Override
+    public SoftwareModule getSoftwareModule() {
+        return artifact.getSoftwareModule();
+    }
+
+    public String getGridFsFileName() {
+        return gridFsFileName;
+    }
+
+    public LocalArtifact getBaseArtifact() {
+        return baseArtifact;
+    }
+
+    public LocalArtifact getArtifact() {
+        return artifact;
+    }
+
+    /**
+     * @return the file name of the delta binary
+     */
+    public String getFilename() {
+        return artifact.getFilename() + FILENAME_EXTENSION;
+    }
+
+    @Override
+    public int hashCode() { // NOSONAR - as this is generated
+        final int prime = 31;
+        int result = super.hashCode();
+        result = prime * result + this.getClass().getName().hashCode();
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) { // NOSONAR - as this is generated
+        if (!super.equals(obj)) {
+            return false;
+        }
+        if (!(obj instanceof ArtifactDelta)) {
+            return false;
+        }
+
+        return true;
+    }
+}
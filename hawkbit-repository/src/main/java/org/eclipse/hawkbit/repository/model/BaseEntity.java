@@ -18,6 +18,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.TableGenerator;
 import javax.persistence.Version;
 
 import org.eclipse.hawkbit.eventbus.CacheFieldEntityListener;
@@ -32,15 +33,26 @@ import org.springframework.hateoas.Identifiable;
 /**
  * Holder of the base attributes common to all entities.
  *
+ * The IDs are allocated in blocks from the shared {@link #ID_GENERATOR} table
+ * sequence instead of being generated by the database on insert, so new
+ * entities can be written with JDBC batches. The block size is configured by
+ * the {@link EntityIdSequenceCustomizer}.
+ *
  */
 @MappedSuperclass
+@TableGenerator(name = BaseEntity.ID_GENERATOR, table = "sp_sequence", pkColumnName = "seq_name", valueColumnName = "seq_count", pkColumnValue = "sp_entity", allocationSize = EntityIdSequenceCustomizer.DEFAULT_ALLOCATION_SIZE)
 @Access(AccessType.FIELD)
 @EntityListeners({ AuditingEntityListener.class, CacheFieldEntityListener.class, EntityPropertyChangeListener.class })
 public abstract class BaseEntity implements Serializable, Identifiable<Long> {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Name of the ID generator of all entities.
+     */
+    public static final String ID_GENERATOR = "sp_entity_id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
     @Column(name = "id")
     private Long id;
 
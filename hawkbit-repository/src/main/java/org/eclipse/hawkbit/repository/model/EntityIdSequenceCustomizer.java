@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * EclipseLink session customizer which sets the number of IDs the
+ * {@link BaseEntity#ID_GENERATOR} allocates at once to the value of the
+ * persistence unit property {@link #ALLOCATION_SIZE_PROPERTY}, as the size of
+ * the {@link javax.persistence.TableGenerator} annotation is a constant.
+ *
+ */
+public class EntityIdSequenceCustomizer implements SessionCustomizer {
+
+    /**
+     * Persistence unit property with the number of IDs allocated at once.
+     */
+    public static final String ALLOCATION_SIZE_PROPERTY = "hawkbit.jpa.id-allocation-size";
+
+    /**
+     * Number of IDs allocated at once if the property is not set.
+     */
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void customize(final Session session) {
+        final Object allocationSize = session.getProperty(ALLOCATION_SIZE_PROPERTY);
+        final Sequence sequence = session.getLogin().getSequence(BaseEntity.ID_GENERATOR);
+        if (allocationSize != null && sequence != null) {
+            sequence.setPreallocationSize(Integer.parseInt(allocationSize.toString()));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+/**
+ * A lease on a unit of work, e.g. the start of a rollout, which is held by
+ * exactly one node of the cluster until it is released or expires. Every
+ * acquisition of a lease increments its fencing token, so work of a node
+ * which lost its lease can be rejected by the token.
+ *
+ */
+public class Lease {
+
+    private final String tenant;
+    private final String key;
+    private final long fencingToken;
+    private final long duration;
+
+    private volatile long expiresAt;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the lease belongs to
+     * @param key
+     *            of the leased work
+     * @param fencingToken
+     *            of this acquisition
+     * @param duration
+     *            in milliseconds the lease is valid after an acquisition or
+     *            renewal
+     * @param expiresAt
+     *            time in milliseconds the lease expires
+     */
+    public Lease(final String tenant, final String key, final long fencingToken, final long duration,
+            final long expiresAt) {
+        this.tenant = tenant;
+        this.key = key;
+        this.fencingToken = fencingToken;
+        this.duration = duration;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(final long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Lease [tenant=" + tenant + ", key=" + key + ", fencingToken=" + fencingToken + ", expiresAt="
+                + expiresAt + "]";
+    }
+}
@@ -68,6 +68,9 @@ public class Rollout extends NamedEntity {
     @Column(name = "total_targets")
     private long totalTargets;
 
+    @Column(name = "virtual_groups", nullable = false)
+    private boolean virtualGroups;
+
     @Transient
     @CacheField(key = CacheKeys.ROLLOUT_GROUP_TOTAL)
     private int rolloutGroupsTotal = 0;
@@ -143,6 +146,21 @@ public class Rollout extends NamedEntity {
         this.totalTargets = totalTargets;
     }
 
+    /**
+     * @return {@code true} if the groups of the rollout are defined by ranges
+     *         of target buckets, see {@link RolloutGroup#TARGET_BUCKETS}, and
+     *         the targets of a group are resolved when the group is started.
+     *         {@code false} if the targets are assigned to the groups on
+     *         creation of the rollout.
+     */
+    public boolean isVirtualGroups() {
+        return virtualGroups;
+    }
+
+    public void setVirtualGroups(final boolean virtualGroups) {
+        this.virtualGroups = virtualGroups;
+    }
+
     public int getRolloutGroupsTotal() {
         return rolloutGroupsTotal;
     }
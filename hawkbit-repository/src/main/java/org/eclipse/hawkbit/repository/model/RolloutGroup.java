@@ -39,6 +39,19 @@ public class RolloutGroup extends NamedEntity {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Number of buckets the targets are spread over by their ID for rollouts
+     * with virtual groups, see {@link #getTargetBucket(long)}.
+     */
+    public static final int TARGET_BUCKETS = 10000;
+
+    /**
+     * Multiplier of the target ID which spreads consecutive IDs over all
+     * buckets. It is close to the golden ratio of {@link #TARGET_BUCKETS} and
+     * coprime to it, so every bucket is still hit equally often.
+     */
+    public static final long TARGET_BUCKET_MULTIPLIER = 6181L;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rollout", foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_rolloutgroup_rollout"))
     private Rollout rollout;
@@ -80,6 +93,12 @@ public class RolloutGroup extends NamedEntity {
     @Column(name = "total_targets")
     private long totalTargets;
 
+    @Column(name = "target_bucket_from")
+    private Integer targetBucketFrom;
+
+    @Column(name = "target_bucket_to")
+    private Integer targetBucketTo;
+
     @Transient
     private transient TotalTargetCountStatus totalTargetCountStatus;
 
@@ -175,6 +194,42 @@ public class RolloutGroup extends NamedEntity {
         this.totalTargets = totalTargets;
     }
 
+    /**
+     * @param targetId
+     *            the ID of the target
+     * @return the bucket of the target, i.e.
+     *         {@code MOD(target.id * TARGET_BUCKET_MULTIPLIER, TARGET_BUCKETS)}
+     */
+    public static int getTargetBucket(final long targetId) {
+        return (int) (targetId * TARGET_BUCKET_MULTIPLIER % TARGET_BUCKETS);
+    }
+
+    /**
+     * @return the first target bucket of a virtual group (inclusive) or
+     *         {@code null} if the targets of the group are assigned on
+     *         creation
+     */
+    public Integer getTargetBucketFrom() {
+        return targetBucketFrom;
+    }
+
+    public void setTargetBucketFrom(final Integer targetBucketFrom) {
+        this.targetBucketFrom = targetBucketFrom;
+    }
+
+    /**
+     * @return the last target bucket of a virtual group (exclusive) or
+     *         {@code null} if the targets of the group are assigned on
+     *         creation
+     */
+    public Integer getTargetBucketTo() {
+        return targetBucketTo;
+    }
+
+    public void setTargetBucketTo(final Integer targetBucketTo) {
+        this.targetBucketTo = targetBucketTo;
+    }
+
     public void setSuccessAction(final RolloutGroupSuccessAction successAction) {
         this.successAction = successAction;
     }
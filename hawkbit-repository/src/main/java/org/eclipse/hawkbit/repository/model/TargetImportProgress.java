@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a bulk import of targets. The progress is updated after every
+ * chunk of the import, so it can be read while the import is running. Only
+ * the first {@link #MAX_ERRORS} errors are kept.
+ *
+ */
+public class TargetImportProgress {
+
+    /**
+     * Maximum number of kept errors.
+     */
+    public static final int MAX_ERRORS = 100;
+
+    /**
+     * State of a target import.
+     */
+    public enum State {
+        /**
+         * The targets are imported.
+         */
+        RUNNING,
+
+        /**
+         * All lines have been processed, single lines might have failed.
+         */
+        FINISHED,
+
+        /**
+         * The import has been aborted.
+         */
+        FAILED;
+    }
+
+    private final String id;
+    private final String tenant;
+    private final long startedAt;
+    private final LongAdder processedLines = new LongAdder();
+    private final LongAdder createdTargets = new LongAdder();
+    private final LongAdder failedLines = new LongAdder();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile State state = State.RUNNING;
+    private volatile Long finishedAt;
+    private volatile String error;
+
+    /**
+     * Constructor.
+     *
+     * @param id
+     *            of the import
+     * @param tenant
+     *            the targets are imported for
+     */
+    public TargetImportProgress(final String id, final String tenant) {
+        this.id = id;
+        this.tenant = tenant;
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Marks the import as finished.
+     */
+    public void finished() {
+        finishedAt = System.currentTimeMillis();
+        state = State.FINISHED;
+    }
+
+    /**
+     * Marks the import as failed.
+     *
+     * @param cause
+     *            of the failure
+     */
+    public void failed(final Exception cause) {
+        error = cause.getMessage();
+        finishedAt = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    /**
+     * @param created
+     *            number of targets created by a chunk
+     * @param processed
+     *            number of lines processed by the chunk
+     */
+    public void addChunk(final long created, final long processed) {
+        createdTargets.add(created);
+        processedLines.add(processed);
+    }
+
+    /**
+     * Records a line which could not be imported.
+     *
+     * @param lineNumber
+     *            of the line, starting with 1
+     * @param message
+     *            the reason
+     */
+    public void addFailedLine(final long lineNumber, final String message) {
+        failedLines.increment();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + lineNumber + ": " + message);
+            }
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return {@code true} if the import is running
+     */
+    public boolean isActive() {
+        return state == State.RUNNING;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getProcessedLines() {
+        return processedLines.sum();
+    }
+
+    public long getCreatedTargets() {
+        return createdTargets.sum();
+    }
+
+    public long getFailedLines() {
+        return failedLines.sum();
+    }
+
+    /**
+     * @return the first errors of the import
+     */
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /**
+     * @return created targets per second since the import has been started
+     */
+    public double getTargetsPerSecond() {
+        final long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+        final long millis = Math.max(1, end - startedAt);
+        return getCreatedTargets() * 1000.0 / millis;
+    }
+}
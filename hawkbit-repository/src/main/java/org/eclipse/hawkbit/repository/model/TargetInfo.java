@@ -110,6 +110,13 @@ public class TargetInfo implements Persistable<Long>, Serializable {
     @Column(name = "request_controller_attributes", nullable = false)
     private boolean requestControllerAttributes = true;
 
+    /**
+     * Hash of the attributes last reported by the controller, allows to skip
+     * the update of {@link #controllerAttributes} if nothing has changed.
+     */
+    @Column(name = "attributes_hash", length = 32)
+    private String controllerAttributesHash;
+
     /**
      * Constructor for {@link TargetStatus}.
      *
@@ -212,6 +219,14 @@ public class TargetInfo implements Persistable<Long>, Serializable {
         return requestControllerAttributes;
     }
 
+    public String getControllerAttributesHash() {
+        return controllerAttributesHash;
+    }
+
+    public void setControllerAttributesHash(final String controllerAttributesHash) {
+        this.controllerAttributesHash = controllerAttributesHash;
+    }
+
     public Long getInstallationDate() {
         return installationDate;
     }
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of the background deletion of a tenant. The deleted entity counts
+ * are only known on the node which purges the tenant, other nodes report the
+ * deletion as {@link State#PENDING}.
+ *
+ */
+public class TenantDeletionProgress {
+
+    /**
+     * State of a tenant deletion.
+     */
+    public enum State {
+        /**
+         * The tenant is fenced but not purged by this node, e.g. because the
+         * purge is queued or running on another node.
+         */
+        PENDING,
+
+        /**
+         * The tenant data is purged by this node.
+         */
+        RUNNING,
+
+        /**
+         * All data of the tenant has been deleted.
+         */
+        FINISHED,
+
+        /**
+         * The purge failed and will be resumed later.
+         */
+        FAILED;
+    }
+
+    private final String tenant;
+    private final long startedAt;
+    private final LongAdder deletedEntities = new LongAdder();
+    private final LongAdder deletedBinaries = new LongAdder();
+
+    private volatile State state;
+    private volatile String step;
+    private volatile long purgeStartedAt;
+    private volatile Long finishedAt;
+    private volatile String error;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            which is deleted
+     * @param startedAt
+     *            time the deletion has been requested
+     * @param state
+     *            initial state
+     */
+    public TenantDeletionProgress(final String tenant, final long startedAt, final State state) {
+        this.tenant = tenant;
+        this.startedAt = startedAt;
+        this.purgeStartedAt = System.currentTimeMillis();
+        this.state = state;
+    }
+
+    /**
+     * Marks the purge as running.
+     */
+    public void running() {
+        purgeStartedAt = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+
+    /**
+     * Marks the purge as finished.
+     */
+    public void finished() {
+        step = null;
+        finishedAt = System.currentTimeMillis();
+        state = State.FINISHED;
+    }
+
+    /**
+     * Marks the purge as failed.
+     *
+     * @param cause
+     *            of the failure
+     */
+    public void failed(final Exception cause) {
+        error = cause.getMessage();
+        finishedAt = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    /**
+     * @param deleted
+     *            number of entities deleted in the current step
+     */
+    public void addDeletedEntities(final long deleted) {
+        deletedEntities.add(deleted);
+    }
+
+    /**
+     * @param deleted
+     *            number of artifact binaries deleted
+     */
+    public void addDeletedBinaries(final long deleted) {
+        deletedBinaries.add(deleted);
+    }
+
+    public void setStep(final String step) {
+        this.step = step;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the table which is currently purged or {@code null} if the
+     *         purge is not running
+     */
+    public String getStep() {
+        return step;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return {@code true} if the purge is queued or running
+     */
+    public boolean isActive() {
+        return state == State.PENDING || state == State.RUNNING;
+    }
+
+    public long getDeletedEntities() {
+        return deletedEntities.sum();
+    }
+
+    public long getDeletedBinaries() {
+        return deletedBinaries.sum();
+    }
+
+    /**
+     * @return deleted entities per second since the purge has been started on
+     *         this node
+     */
+    public double getEntitiesPerSecond() {
+        final long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+        final long millis = Math.max(1, end - purgeStartedAt);
+        return getDeletedEntities() * 1000.0 / millis;
+    }
+}
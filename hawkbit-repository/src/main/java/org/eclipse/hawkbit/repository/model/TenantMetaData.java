@@ -42,6 +42,12 @@ public class TenantMetaData extends BaseEntity {
     @JoinColumn(name = "default_ds_type", nullable = false, foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_tenant_md_default_ds_type"))
     private DistributionSetType defaultDsType;
 
+    @Column(name = "deletion_started_at")
+    private Long deletionStartedAt;
+
+    @Column(name = "deletion_heartbeat")
+    private Long deletionHeartbeat;
+
     /**
      * Default constructor needed for JPA entities.
      */
@@ -78,6 +84,31 @@ public class TenantMetaData extends BaseEntity {
         this.tenant = tenant;
     }
 
+    public Long getDeletionStartedAt() {
+        return deletionStartedAt;
+    }
+
+    public void setDeletionStartedAt(final Long deletionStartedAt) {
+        this.deletionStartedAt = deletionStartedAt;
+    }
+
+    public Long getDeletionHeartbeat() {
+        return deletionHeartbeat;
+    }
+
+    public void setDeletionHeartbeat(final Long deletionHeartbeat) {
+        this.deletionHeartbeat = deletionHeartbeat;
+    }
+
+    /**
+     * @return {@code true} if the tenant is being deleted, i.e. it does not
+     *         accept any requests anymore and its data is purged in the
+     *         background
+     */
+    public boolean isDeletionInProgress() {
+        return deletionStartedAt != null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
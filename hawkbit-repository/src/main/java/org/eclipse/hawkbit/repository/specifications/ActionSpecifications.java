@@ -37,7 +37,8 @@ public class ActionSpecifications {
     /**
      * Specification which joins all necessary tables to retrieve the dependency
      * between a target and a local file assignment through the assigen action
-     * of the target. All actions are included, not only active actions.
+     * of the target. All actions are included, not only active actions. The
+     * artifact is matched by its SHA1 hash.
      * 
      * @param target
      *            the target to verfiy if the given artifact is currently
@@ -54,7 +55,7 @@ public class ActionSpecifications {
             final SetJoin<DistributionSet, SoftwareModule> modulesJoin = dsJoin.join(DistributionSet_.modules);
             final ListJoin<SoftwareModule, LocalArtifact> artifactsJoin = modulesJoin.join(SoftwareModule_.artifacts);
             return criteriaBuilder.and(
-                    criteriaBuilder.equal(artifactsJoin.get(LocalArtifact_.filename), localArtifact.getFilename()),
+                    criteriaBuilder.equal(artifactsJoin.get(LocalArtifact_.sha1Hash), localArtifact.getSha1Hash()),
                     criteriaBuilder.equal(actionRoot.get(Action_.target), target));
         };
     }
@@ -22,6 +22,7 @@ import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSet_;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.repository.model.TargetInfo_;
@@ -221,4 +222,24 @@ public final class TargetSpecifications {
                     distributionSetId);
         };
     }
+
+    /**
+     * {@link Specification} for retrieving {@link Target}s of the given range
+     * of target buckets, i.e. of a virtual {@link RolloutGroup}. The bucket of
+     * a target is derived from its immutable ID, so a target stays in its
+     * bucket, see {@link RolloutGroup#getTargetBucket(long)}.
+     *
+     * @param bucketFrom
+     *            the first bucket (inclusive)
+     * @param bucketTo
+     *            the last bucket (exclusive)
+     * @return the {@link Target} {@link Specification}
+     */
+    public static Specification<Target> isInTargetBuckets(final int bucketFrom, final int bucketTo) {
+        return (targetRoot, query, cb) -> cb.between(
+                cb.function("MOD", Long.class,
+                        cb.prod(targetRoot.get(Target_.id), RolloutGroup.TARGET_BUCKET_MULTIPLIER),
+                        cb.literal((long) RolloutGroup.TARGET_BUCKETS)),
+                (long) bucketFrom, (long) bucketTo - 1);
+    }
 }
@@ -12,6 +12,7 @@ import java.util.List;
 
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.RolloutGroupRepository;
+import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -36,6 +37,9 @@ public class StartNextGroupRolloutGroupSuccessAction implements RolloutGroupActi
     @Autowired
     private DeploymentManagement deploymentManagement;
 
+    @Autowired
+    private RolloutManagement rolloutManagement;
+
     @Autowired
     private SystemSecurityContext systemSecurityContext;
 
@@ -47,7 +51,11 @@ public class StartNextGroupRolloutGroupSuccessAction implements RolloutGroupActi
     @Override
     public void eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
         systemSecurityContext.runAsSystem(() -> {
-            startNextGroup(rollout, rolloutGroup);
+            if (rollout.isVirtualGroups()) {
+                startNextVirtualGroup(rollout, rolloutGroup);
+            } else {
+                startNextGroup(rollout, rolloutGroup);
+            }
             return null;
         });
     }
@@ -87,4 +95,24 @@ public class StartNextGroupRolloutGroupSuccessAction implements RolloutGroupActi
             });
         }
     }
+
+    private void startNextVirtualGroup(final Rollout rollout, final RolloutGroup rolloutGroup) {
+        // the actions of virtual groups are not scheduled in advance, so the
+        // targets of the next group are resolved and their actions created
+        // now
+        final List<RolloutGroup> nextGroups = rolloutGroupRepository.findByParentAndStatus(rolloutGroup,
+                RolloutGroupStatus.SCHEDULED);
+        nextGroups.forEach(nextGroup -> {
+            if (rolloutManagement.startVirtualRolloutGroup(rollout, nextGroup) > 0) {
+                logger.debug("Rolloutgroup {} is now running", nextGroup);
+                nextGroup.setStatus(RolloutGroupStatus.RUNNING);
+                rolloutGroupRepository.save(nextGroup);
+            } else {
+                logger.info("No targets in next rolloutgroup {}, starting next group", nextGroup);
+                nextGroup.setStatus(RolloutGroupStatus.FINISHED);
+                rolloutGroupRepository.save(nextGroup);
+                startNextVirtualGroup(rollout, nextGroup);
+            }
+        });
+    }
 }
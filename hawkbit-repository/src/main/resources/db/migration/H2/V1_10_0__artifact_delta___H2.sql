@@ -0,0 +1,33 @@
+    create table sp_artifact_delta (
+        id bigint generated by default as identity,
+        created_at bigint,
+        created_by varchar(40),
+        last_modified_at bigint,
+        last_modified_by varchar(40),
+        optlock_revision bigint,
+        tenant varchar(40) not null,
+        md5_hash varchar(32),
+        sha1_hash varchar(40),
+        file_size bigint,
+        gridfs_file_name varchar(40) not null,
+        base_artifact bigint not null,
+        artifact bigint not null,
+        primary key (id)
+    );
+
+    alter table sp_artifact_delta
+        add constraint uk_artifact_delta unique (base_artifact, artifact);
+
+    create index sp_idx_artifact_delta_01 on sp_artifact_delta (tenant, artifact);
+
+    alter table sp_artifact_delta
+        add constraint fk_delta_base_artifact
+        foreign key (base_artifact)
+        references sp_artifact
+        on delete cascade;
+
+    alter table sp_artifact_delta
+        add constraint fk_delta_artifact
+        foreign key (artifact)
+        references sp_artifact
+        on delete cascade;
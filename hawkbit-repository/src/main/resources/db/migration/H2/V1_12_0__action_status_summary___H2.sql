@@ -0,0 +1,10 @@
+    alter table sp_action add column last_status integer;
+    alter table sp_action add column last_status_at bigint;
+    alter table sp_action add column status_count bigint not null default 0;
+
+    update sp_action a set
+        status_count = (select count(s.id) from sp_action_status s where s.action = a.id),
+        last_status = (select s.status from sp_action_status s where s.id =
+            (select max(m.id) from sp_action_status m where m.action = a.id)),
+        last_status_at = (select s.target_occurred_at from sp_action_status s where s.id =
+            (select max(m.id) from sp_action_status m where m.action = a.id));
@@ -0,0 +1,16 @@
+    create table sp_action_feedback (
+        id bigint generated by default as identity,
+        tenant varchar(40) not null,
+        node_id varchar(40) not null,
+        created_at bigint not null,
+        target_id bigint not null,
+        action_id bigint not null,
+        status integer not null,
+        occurred_at bigint not null,
+        address varchar(512),
+        messages varchar,
+        primary key (id)
+    );
+
+    create index sp_idx_action_feedback_01 on sp_action_feedback (node_id, id);
+    create index sp_idx_action_feedback_02 on sp_action_feedback (tenant);
@@ -0,0 +1,11 @@
+    create table sp_lease (
+        id bigint generated by default as identity,
+        tenant varchar(40) not null,
+        lease_key varchar(128) not null,
+        owner varchar(40) not null,
+        expires_at bigint not null,
+        fencing_token bigint not null,
+        primary key (id)
+    );
+
+    alter table sp_lease add constraint uk_lease unique (tenant, lease_key);
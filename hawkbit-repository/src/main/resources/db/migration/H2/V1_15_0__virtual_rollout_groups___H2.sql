@@ -0,0 +1,4 @@
+    alter table sp_rollout add column virtual_groups boolean not null default false;
+
+    alter table sp_rolloutgroup add column target_bucket_from integer;
+    alter table sp_rolloutgroup add column target_bucket_to integer;
@@ -0,0 +1,2 @@
+    alter table sp_action_feedback add column failed_runs integer not null default 0;
+    alter table sp_action_feedback add column dead_lettered_at bigint;
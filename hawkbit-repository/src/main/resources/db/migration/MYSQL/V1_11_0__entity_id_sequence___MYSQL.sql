@@ -0,0 +1,27 @@
+    create table sp_sequence (
+        seq_name varchar(50) not null,
+        seq_count bigint not null,
+        primary key (seq_name)
+    );
+
+    insert into sp_sequence (seq_name, seq_count)
+        select 'sp_entity', coalesce(max(max_id), 0) from (
+            select max(id) as max_id from sp_action
+            union all select max(id) from sp_action_status
+            union all select max(id) from sp_artifact
+            union all select max(id) from sp_artifact_delta
+            union all select max(id) from sp_base_software_module
+            union all select max(id) from sp_distribution_set
+            union all select max(id) from sp_distribution_set_type
+            union all select max(id) from sp_distributionset_tag
+            union all select max(id) from sp_external_artifact
+            union all select max(id) from sp_external_provider
+            union all select max(id) from sp_rollout
+            union all select max(id) from sp_rolloutgroup
+            union all select max(id) from sp_software_module_type
+            union all select max(id) from sp_target
+            union all select max(id) from sp_target_filter_query
+            union all select max(id) from sp_target_tag
+            union all select max(id) from sp_tenant
+            union all select max(id) from sp_tenant_configuration
+        ) entity_ids;
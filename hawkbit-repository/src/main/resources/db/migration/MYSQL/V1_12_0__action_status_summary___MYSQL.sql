@@ -0,0 +1,29 @@
+    alter table sp_action
+        add column last_status integer,
+        add column last_status_at bigint,
+        add column status_count bigint not null default 0;
+
+-- backfill in ranges of action IDs to keep the single statements small
+DELIMITER $$
+    create procedure sp_backfill_action_status_summary()
+    begin
+        declare batch_start bigint default 0;
+        declare max_action bigint;
+        select coalesce(max(id), 0) into max_action from sp_action;
+        while batch_start < max_action do
+            update sp_action a
+                join (select a2.id as action_id, count(s.id) as status_count, max(s.id) as last_id
+                    from sp_action a2
+                    join sp_action_status s on s.tenant = a2.tenant and s.action = a2.id
+                    where a2.id > batch_start and a2.id <= batch_start + 10000
+                    group by a2.id) c on c.action_id = a.id
+                join sp_action_status ls on ls.id = c.last_id
+                set a.status_count = c.status_count, a.last_status = ls.status,
+                    a.last_status_at = ls.target_occurred_at;
+            set batch_start = batch_start + 10000;
+        end while;
+    end $$
+DELIMITER ;
+
+    call sp_backfill_action_status_summary();
+    drop procedure sp_backfill_action_status_summary;
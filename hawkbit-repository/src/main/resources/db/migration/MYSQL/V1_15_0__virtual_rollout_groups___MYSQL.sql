@@ -0,0 +1,5 @@
+    alter table sp_rollout add column virtual_groups bit not null default 0;
+
+    alter table sp_rolloutgroup
+        add column target_bucket_from integer,
+        add column target_bucket_to integer;
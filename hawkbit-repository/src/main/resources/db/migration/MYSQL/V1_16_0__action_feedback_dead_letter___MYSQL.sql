@@ -0,0 +1,3 @@
+    alter table sp_action_feedback
+        add column failed_runs integer not null default 0,
+        add column dead_lettered_at bigint;
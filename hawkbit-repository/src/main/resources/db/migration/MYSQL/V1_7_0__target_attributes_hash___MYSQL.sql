@@ -0,0 +1 @@
+ALTER TABLE sp_target_info ADD COLUMN attributes_hash VARCHAR(32);
@@ -0,0 +1,2 @@
+ALTER TABLE sp_tenant ADD COLUMN deletion_started_at BIGINT;
+ALTER TABLE sp_tenant ADD COLUMN deletion_heartbeat BIGINT;
@@ -0,0 +1,13 @@
+    create table sp_event_outbox (
+        id bigint not null auto_increment,
+        tenant varchar(40) not null,
+        node_id varchar(40) not null,
+        created_at bigint not null,
+        event_type integer not null,
+        target_id bigint not null,
+        action_id bigint not null,
+        primary key (id)
+    );
+
+    create index sp_idx_event_outbox_01 on sp_event_outbox (node_id, id);
+    create index sp_idx_event_outbox_02 on sp_event_outbox (tenant);
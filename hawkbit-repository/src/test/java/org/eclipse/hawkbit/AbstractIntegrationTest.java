@@ -11,6 +11,10 @@ package org.eclipse.hawkbit;
 import static org.fest.assertions.api.Assertions.assertThat;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -61,6 +65,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.model.FrameworkMethod;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.core.env.Environment;
@@ -202,6 +207,10 @@ public abstract class AbstractIntegrationTest implements EnvironmentAware {
     @Autowired
     protected SystemSecurityContext systemSecurityContext;
 
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor asyncExecutor;
+
     protected MockMvc mvc;
 
     @Autowired
@@ -303,6 +312,52 @@ public abstract class AbstractIntegrationTest implements EnvironmentAware {
                 e.printStackTrace();
             }
         });
+        // the tenant data is purged in the background
+        waitForAsyncTasks();
+    }
+
+    /**
+     * Waits until all tasks which have been submitted to the async executor
+     * before, e.g. event dispatching or tenant purges, are done. The test
+     * executor has a single thread, so they are done when this task runs.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    protected void waitForAsyncTasks() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        asyncExecutor.execute(latch::countDown);
+        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * Waits for the tasks of the async executor until the condition is met,
+     * e.g. if a background task submits further tasks like the dispatching of
+     * the events it posted.
+     *
+     * @param condition
+     *            to wait for
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    protected void waitForAsyncTasks(final BooleanSupplier condition) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        waitForAsyncTasks();
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < timeout) {
+            waitForAsyncTasks();
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Blocks the single threaded async executor until the returned blocker is
+     * closed.
+     *
+     * @return the blocker
+     */
+    protected ExecutorBlocker blockAsyncTasks() {
+        return ExecutorBlocker.block(asyncExecutor);
     }
 
     @Rule
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocks a single threaded executor until it is closed, e.g. to verify the
+ * state of the repository before a background task runs.
+ *
+ * <pre>
+ * try (ExecutorBlocker blocker = ExecutorBlocker.block(executor)) {
+ *     // background tasks are queued but not executed
+ * }
+ * </pre>
+ */
+public final class ExecutorBlocker implements AutoCloseable {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    private ExecutorBlocker() {
+    }
+
+    /**
+     * Blocks the executor with a task which waits for at most 30 seconds
+     * until the blocker is closed.
+     *
+     * @param executor
+     *            to block
+     * @return the blocker which releases the executor on close
+     */
+    public static ExecutorBlocker block(final Executor executor) {
+        final ExecutorBlocker blocker = new ExecutorBlocker();
+        executor.execute(() -> {
+            try {
+                blocker.latch.await(30, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return blocker;
+    }
+
+    @Override
+    public void close() {
+        latch.countDown();
+    }
+}
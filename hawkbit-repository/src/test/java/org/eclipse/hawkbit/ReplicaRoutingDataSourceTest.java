@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Read Replica Routing")
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long READ_YOUR_WRITES_WINDOW = 200;
+
+    private final CurrentTenant tenantAware = new CurrentTenant();
+
+    private JdbcTemplate jdbcTemplate;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setupDatabases() {
+        routingDataSource = new ReplicaRoutingDataSource(createDatabase("primary"),
+                Arrays.asList(createDatabase("replica")), tenantAware, READ_YOUR_WRITES_WINDOW);
+        routingDataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+
+        tenantAware.tenant = "tenant";
+        runAs("user");
+    }
+
+    @After
+    public void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Description("Verifies that only read-only transactions are served by the replica.")
+    public void readOnlyTransactionsAreServedByReplica() {
+        assertThat(currentDatabase()).isEqualTo("primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(currentDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    @Description("Verifies that a user reads its own writes from the primary within the configured window while other users read from the replica.")
+    public void userReadsOwnWritesFromPrimaryWithinWindow() throws InterruptedException {
+        routingDataSource.writeCommitted();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(currentDatabase()).isEqualTo("primary");
+
+        runAs("anotherUser");
+        assertThat(currentDatabase()).isEqualTo("replica");
+
+        runAs("user");
+        tenantAware.tenant = "anotherTenant";
+        assertThat(currentDatabase()).isEqualTo("replica");
+
+        tenantAware.tenant = "tenant";
+        Thread.sleep(READ_YOUR_WRITES_WINDOW * 2);
+        assertThat(currentDatabase()).isEqualTo("replica");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    private static DataSource createDatabase(final String name) {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-replica-test;DB_CLOSE_DELAY=-1", "sa", "sa");
+        final JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(16))");
+        template.update("DELETE FROM origin");
+        template.update("INSERT INTO origin (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void runAs(final String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null));
+    }
+
+    private static final class CurrentTenant implements TenantAware {
+        private String tenant;
+
+        @Override
+        public String getCurrentTenant() {
+            return tenant;
+        }
+
+        @Override
+        public <T> T runAsTenant(final String tenant, final TenantRunner<T> tenantRunner) {
+            final String before = this.tenant;
+            this.tenant = tenant;
+            try {
+                return tenantRunner.run();
+            } finally {
+                this.tenant = before;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.flywaydb.core.Flyway;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Runs the repository on a primary and an empty, i.e. never replicated, read
+ * replica database, so the database which served a query can be told by its
+ * result.
+ */
+@Features("Component Tests - Repository")
+@Stories("Read Replica Routing")
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@SpringApplicationConfiguration(classes = { RepositoryApplicationConfiguration.class, TestConfiguration.class })
+@ActiveProfiles({ "test" })
+@TestPropertySource(properties = { "spring.jpa.database=H2", "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "hawkbit.server.repository.replica.enabled=true",
+        "hawkbit.server.repository.replica.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "hawkbit.server.repository.replica.readYourWritesWindow=0" })
+@WithUser(principal = "bumlux", allSpPermissions = true)
+@DirtiesContext(classMode = ClassMode.AFTER_CLASS)
+public class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:sp-replica-test-primary;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:sp-replica-test-replica;DB_CLOSE_DELAY=-1";
+
+    @Rule
+    public final WithSpringAuthorityRule securityRule = new WithSpringAuthorityRule();
+
+    @Autowired
+    private TargetManagement targetManagement;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeClass
+    public static void migrateReplica() {
+        final Flyway flyway = new Flyway();
+        flyway.setDataSource(REPLICA_URL, "sa", "sa");
+        flyway.setSqlMigrationSuffix("H2.sql");
+        flyway.migrate();
+    }
+
+    @Test
+    @Description("Verifies that a read-only transaction of the repository is served by the replica while a write transaction and the reads within it are served by the primary.")
+    public void readOnlyTransactionIsServedByReplica() {
+        targetManagement.createTarget(new Target("primaryOnly"));
+
+        // read-only transaction
+        assertThat(targetManagement.findTargetByControllerID("primaryOnly")).isNull();
+
+        // same read joining a write transaction
+        assertThat(new TransactionTemplate(transactionManager)
+                .execute(status -> targetManagement.findTargetByControllerID("primaryOnly"))).isNotNull();
+    }
+}
@@ -103,6 +103,38 @@ public class TestConfiguration implements AsyncConfigurer {
         return new DelegatingSecurityContextExecutor(Executors.newSingleThreadExecutor());
     }
 
+    /**
+     * The background tasks share the single threaded async executor in the
+     * tests, so {@link AbstractIntegrationTest#waitForAsyncTasks()} waits for
+     * them as well.
+     * 
+     * @return the async executor
+     */
+    @Bean
+    public Executor tenantPurgeExecutor() {
+        return asyncExecutor();
+    }
+
+    @Bean
+    public Executor rolloutExecutor() {
+        return asyncExecutor();
+    }
+
+    @Bean
+    public Executor actionFeedbackExecutor() {
+        return asyncExecutor();
+    }
+
+    @Bean
+    public Executor targetImportExecutor() {
+        return asyncExecutor();
+    }
+
+    @Bean
+    public Executor eventOutboxExecutor() {
+        return asyncExecutor();
+    }
+
     @Bean
     public AuditorAware<String> auditorAware() {
         return new SpringSecurityAuditorAware();
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.cache.Cache;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Entity Cache")
+public class BoundedGuavaCacheManagerTest {
+
+    private final EntityCacheProperties properties = new EntityCacheProperties();
+
+    private final BoundedGuavaCacheManager underTest = new BoundedGuavaCacheManager(properties);
+
+    @Test
+    @Description("Verifies that the entity caches are bounded per tenant and record their statistics.")
+    public void entityCachesAreBoundedPerTenant() {
+        properties.getSpecs().put(EntityCacheInvalidator.SOFTWARE_MODULE_TYPE, "maximumSize=2");
+
+        final Cache tenantCache = underTest.getCache("TENANT|" + EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
+        final Cache anotherTenantCache = underTest
+                .getCache("ANOTHERTENANT|" + EntityCacheInvalidator.SOFTWARE_MODULE_TYPE);
+        for (int i = 0; i < 10; i++) {
+            tenantCache.put(i, "value" + i);
+            anotherTenantCache.put(i, "value" + i);
+        }
+        tenantCache.get(9);
+        tenantCache.get(0);
+
+        assertThat(nativeCache(tenantCache).size()).isLessThanOrEqualTo(2);
+        assertThat(nativeCache(anotherTenantCache).size()).isLessThanOrEqualTo(2);
+        assertThat(nativeCache(tenantCache).stats().hitCount()).isEqualTo(1);
+        assertThat(nativeCache(tenantCache).stats().missCount()).isEqualTo(1);
+        assertThat(underTest.getCache("TENANT|" + EntityCacheInvalidator.SOFTWARE_MODULE_TYPE))
+                .isSameAs(tenantCache);
+    }
+
+    @Test
+    @Description("Verifies that other caches than the entity caches stay unbounded.")
+    public void otherCachesAreUnbounded() {
+        properties.setDefaultSpec("maximumSize=2");
+
+        final Cache cache = underTest.getCache("TENANT|targetStatus");
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "value" + i);
+        }
+
+        assertThat(nativeCache(cache).size()).isEqualTo(10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.google.common.cache.Cache<Object, Object> nativeCache(final Cache cache) {
+        return (com.google.common.cache.Cache<Object, Object>) cache.getNativeCache();
+    }
+}
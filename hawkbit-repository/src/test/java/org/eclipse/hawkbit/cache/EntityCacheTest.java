@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.repository.model.DistributionSetType;
+import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Entity Cache")
+public class EntityCacheTest extends AbstractIntegrationTest {
+
+    @Test
+    @Description("Verifies that a type which is modified by a caller without being saved is not returned to the next caller.")
+    public void cachedTypeIsNotShared() {
+        final DistributionSetType type = distributionSetManagement.findDistributionSetTypeByKey("ecl_os");
+        assertThat(type.containsModuleType(appType)).isFalse();
+
+        type.addOptionalModuleType(appType);
+        type.setDescription("not saved");
+
+        final DistributionSetType reloaded = distributionSetManagement.findDistributionSetTypeByKey("ecl_os");
+        assertThat(reloaded.containsModuleType(appType)).isFalse();
+        assertThat(reloaded.getDescription()).isNotEqualTo("not saved");
+        assertThat(distributionSetManagement.findDistributionSetTypeById(type.getId()).containsModuleType(appType))
+                .isFalse();
+
+        final SoftwareModuleType smType = softwareManagement.findSoftwareModuleTypeByKey(osType.getKey());
+        smType.setDescription("not saved");
+        assertThat(softwareManagement.findSoftwareModuleTypeByKey(osType.getKey()).getDescription())
+                .isNotEqualTo("not saved");
+    }
+
+    @Test
+    @Description("Verifies that an unknown key is not cached, so a type which is created afterwards is found.")
+    public void unknownKeyIsNotCached() {
+        assertThat(softwareManagement.findSoftwareModuleTypeByKey("cached")).isNull();
+        assertThat(distributionSetManagement.findDistributionSetTypeByKey("cached")).isNull();
+
+        // saved without the management services, i.e. without an eviction
+        softwareModuleTypeRepository.save(new SoftwareModuleType("cached", "cached", "cached", 1));
+        distributionSetTypeRepository.save(new DistributionSetType("cached", "cached", "cached"));
+
+        assertThat(softwareManagement.findSoftwareModuleTypeByKey("cached")).isNotNull();
+        assertThat(distributionSetManagement.findDistributionSetTypeByKey("cached")).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that the cache is evicted if a type is updated or deleted.")
+    public void cacheIsEvictedOnUpdateAndDelete() {
+        final DistributionSetType created = distributionSetManagement
+                .createDistributionSetType(new DistributionSetType("evicted", "evicted", "evicted"));
+        assertThat(distributionSetManagement.findDistributionSetTypeByKey("evicted").getId())
+                .isEqualTo(created.getId());
+
+        final DistributionSetType toUpdate = distributionSetManagement.findDistributionSetTypeByKey("evicted");
+        toUpdate.addMandatoryModuleType(osType);
+        distributionSetManagement.updateDistributionSetType(toUpdate);
+        assertThat(distributionSetManagement.findDistributionSetTypeByKey("evicted")
+                .containsMandatoryModuleType(osType)).isTrue();
+
+        distributionSetManagement
+                .deleteDistributionSetType(distributionSetManagement.findDistributionSetTypeByKey("evicted"));
+        assertThat(distributionSetManagement.findDistributionSetTypeByKey("evicted")).isNull();
+
+        final SoftwareModuleType smType = softwareManagement
+                .createSoftwareModuleType(new SoftwareModuleType("evicted", "evicted", "evicted", 1));
+        assertThat(softwareManagement.findSoftwareModuleTypeByKey("evicted")).isNotNull();
+        softwareManagement.deleteSoftwareModuleType(smType);
+        assertThat(softwareManagement.findSoftwareModuleTypeByKey("evicted")).isNull();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Event Outbox")
+@RunWith(MockitoJUnitRunner.class)
+public class EventOutboxRelayTest {
+
+    @Mock
+    private Executor executor;
+
+    @InjectMocks
+    private EventOutboxRelay underTest;
+
+    @Test
+    @Description("Verifies that relay triggers are coalesced as long as a relay is queued.")
+    public void queuedRelayCoalescesTriggers() {
+        underTest.relayAsync();
+        underTest.relayAsync();
+
+        verify(executor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @Description("Verifies that a relay which has been rejected by the executor does not block later triggers.")
+    public void rejectedRelayDoesNotBlockLaterTriggers() {
+        doThrow(new RejectedExecutionException("queue full")).doNothing().when(executor)
+                .execute(any(Runnable.class));
+
+        underTest.relayAsync();
+        underTest.relayAsync();
+        underTest.relayAsync();
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.ExecutorBlocker;
+import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Event Outbox")
+public class EventOutboxTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private EventOutboxRelay relay;
+
+    private final List<TargetAssignDistributionSetEvent> events = Collections.synchronizedList(new LinkedList<>());
+
+    @Before
+    public void registerEventHandler() {
+        eventBus.register(this);
+    }
+
+    @After
+    public void unregisterEventHandler() {
+        eventBus.unregister(this);
+    }
+
+    @Subscribe
+    public void handleEvent(final TargetAssignDistributionSetEvent event) {
+        events.add(event);
+    }
+
+    @Test
+    @Description("Verifies that the assignment events are stored in the outbox and relayed to the event bus after the commit.")
+    public void assignmentEventsAreRelayedFromOutbox() throws InterruptedException {
+        final long relayedBefore = relay.getRelayedEvents();
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("outbox", softwareManagement,
+                distributionSetManagement);
+        final List<Target> targets = targetManagement.createTargets(TestDataUtil.generateTargets(20));
+
+        final List<Long> actionIds = deploymentManagement.assignDistributionSet(ds, targets).getActions();
+
+        // relay and event dispatching are done on the async executor
+        waitForAsyncTasks(() -> events.size() == 20);
+
+        assertThat(relay.countPendingEntries()).isEqualTo(0);
+        assertThat(relay.getRelayedEvents() - relayedBefore).isEqualTo(20);
+        assertThat(events.stream().map(TargetAssignDistributionSetEvent::getActionId).collect(Collectors.toList()))
+                .containsOnly(actionIds.toArray());
+        assertThat(events.stream().map(TargetAssignDistributionSetEvent::getControllerId).collect(Collectors.toList()))
+                .containsOnly(targets.stream().map(Target::getControllerId).toArray());
+    }
+
+    @Test
+    @Description("Verifies that the assignment event of an action which has been canceled before the relay is dropped.")
+    public void assignmentEventOfCanceledActionIsNotRelayed() throws InterruptedException {
+        final long skippedBefore = relay.getSkippedEvents();
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("outbox", softwareManagement,
+                distributionSetManagement);
+        final Target target = targetManagement.createTarget(new Target("outbox-target"));
+
+        // block the single threaded test executor to cancel the action before
+        // the relay runs
+        try (ExecutorBlocker blocker = blockAsyncTasks()) {
+            final Long actionId = deploymentManagement.assignDistributionSet(ds, Collections.singletonList(target))
+                    .getActions().get(0);
+            deploymentManagement.cancelAction(deploymentManagement.findAction(actionId),
+                    targetManagement.findTargetByControllerID(target.getControllerId()));
+            assertThat(relay.countPendingEntries()).isEqualTo(1);
+        }
+        waitForAsyncTasks(() -> relay.getSkippedEvents() - skippedBefore == 1);
+
+        assertThat(relay.countPendingEntries()).isEqualTo(0);
+        assertThat(relay.getSkippedEvents() - skippedBefore).isEqualTo(1);
+        assertThat(events).isEmpty();
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.metrics;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.metrics.ServiceMetrics.MethodMetrics;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Service Metrics")
+public class ServiceMetricsTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ServiceMetrics serviceMetrics;
+
+    @Test
+    @Description("Verifies that calls of the management services are recorded including the executed statements.")
+    public void managementCallsAreRecorded() {
+        final long before = countOf("TargetManagement.createTarget");
+
+        targetManagement.createTarget(new Target("metrics"));
+
+        final MethodMetrics createTarget = serviceMetrics.getMethodMetrics().get("TargetManagement.createTarget");
+        assertThat(createTarget.getLatencyHistogram().getTotalCount()).isGreaterThan(before);
+        assertThat(createTarget.getStatementCount()).isGreaterThan(0L);
+        assertThat(serviceMetrics.getTenantMetrics().get(tenantAware.getCurrentTenant()).getCount())
+                .isGreaterThan(0L);
+    }
+
+    @Test
+    @Description("Verifies that the calls are not counted per tenant unless enabled.")
+    public void tenantMetricsAreOptional() {
+        final ServiceMetrics metrics = new ServiceMetrics(false);
+        metrics.record("TargetManagement.createTarget", "tenant", metrics.start(), false);
+
+        assertThat(metrics.getMethodMetrics().get("TargetManagement.createTarget").getLatencyHistogram()
+                .getTotalCount()).isEqualTo(1L);
+        assertThat(metrics.getTenantMetrics()).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that failed calls of the management services are counted as errors.")
+    public void failedCallsAreCountedAsErrors() {
+        targetManagement.createTarget(new Target("duplicate"));
+        final long errorsBefore = serviceMetrics.getMethodMetrics().get("TargetManagement.createTarget")
+                .getErrorCount();
+
+        try {
+            targetManagement.createTarget(new Target("duplicate"));
+            fail("Expected creation of a duplicate target to fail");
+        } catch (final RuntimeException e) {
+            // expected
+        }
+
+        assertThat(serviceMetrics.getMethodMetrics().get("TargetManagement.createTarget").getErrorCount())
+                .isEqualTo(errorsBefore + 1);
+    }
+
+    private long countOf(final String name) {
+        final MethodMetrics metrics = serviceMetrics.getMethodMetrics().get(name);
+        return metrics == null ? 0 : metrics.getLatencyHistogram().getTotalCount();
+    }
+}
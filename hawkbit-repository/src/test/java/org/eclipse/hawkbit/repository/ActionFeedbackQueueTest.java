@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.ExecutorBlocker;
+import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Action Feedback Queue")
+public class ActionFeedbackQueueTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ActionFeedbackQueue actionFeedbackQueue;
+
+    @Autowired
+    private ActionFeedbackProcessor processor;
+
+    @Autowired
+    private ActionFeedbackProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Verifies that queued feedback is applied in the order it has been received and that the last query of the target is refreshed.")
+    public void queuedFeedbackIsAppliedInOrder() {
+        final long appliedBefore = processor.getAppliedFeedback();
+        final Action action = assignDistributionSet("feedback-target");
+        final URI address = URI.create("http://192.168.0.1");
+
+        final ActionStatus running = new ActionStatus(action, Status.RUNNING, System.currentTimeMillis());
+        running.addMessage("downloading");
+        actionFeedbackQueue.enqueue(running, address);
+        actionFeedbackQueue.enqueue(new ActionStatus(action, Status.FINISHED, System.currentTimeMillis()), address);
+
+        waitForAsyncTasks(() -> processor.countPendingEntries() == 0);
+        assertThat(processor.getAppliedFeedback() - appliedBefore).isEqualTo(2);
+
+        final Action applied = deploymentManagement.findActionWithDetails(action.getId());
+        assertThat(applied.isActive()).isFalse();
+        assertThat(applied.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(deploymentManagement.findActionStatusByAction(pageReq, applied, true).getContent())
+                .hasSize(3);
+
+        final Target target = targetManagement.findTargetByControllerID("feedback-target");
+        assertThat(target.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.IN_SYNC);
+        assertThat(target.getTargetInfo().getAddress()).isEqualTo(address);
+        assertThat(target.getTargetInfo().getLastTargetQuery()).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that queued feedback of an action which has been closed before the feedback is applied is skipped.")
+    public void feedbackOfClosedActionIsSkipped() {
+        final long skippedBefore = processor.getSkippedFeedback();
+        final Action action = assignDistributionSet("feedback-closed");
+
+        // close the action before the feedback is applied
+        try (ExecutorBlocker blocker = blockAsyncTasks()) {
+            actionFeedbackQueue.enqueue(new ActionStatus(action, Status.RUNNING, System.currentTimeMillis()), null);
+            action.setStatus(Status.FINISHED);
+            controllerManagement.addUpdateActionStatus(
+                    new ActionStatus(action, Status.FINISHED, System.currentTimeMillis()), action);
+            assertThat(processor.countPendingEntries()).isEqualTo(1);
+        }
+
+        waitForAsyncTasks(() -> processor.countPendingEntries() == 0);
+        assertThat(processor.getSkippedFeedback() - skippedBefore).isEqualTo(1);
+        assertThat(deploymentManagement.findActionStatusByAction(pageReq, action, false).getContent()).hasSize(2);
+    }
+
+    @Test
+    @Description("Verifies that feedback which cannot be read blocks the following feedback of its target until it is dead lettered after the maximum number of failed runs.")
+    public void unreadableFeedbackIsDeadLettered() {
+        final long deadLetteredBefore = processor.countDeadLetteredEntries();
+        final Action action = assignDistributionSet("feedback-poison");
+
+        try (ExecutorBlocker blocker = blockAsyncTasks()) {
+            actionFeedbackQueue.enqueue(new ActionStatus(action, Status.RUNNING, System.currentTimeMillis()), null);
+            actionFeedbackQueue.enqueue(new ActionStatus(action, Status.FINISHED, System.currentTimeMillis()), null);
+            new TransactionTemplate(txManager).execute(status -> entityManager.createNativeQuery(
+                    "UPDATE sp_action_feedback SET messages = 'no json' WHERE id = (SELECT MIN(id) FROM sp_action_feedback WHERE action_id = ?1)")
+                    .setParameter(1, action.getId()).executeUpdate());
+        }
+        waitForAsyncTasks();
+
+        // the following feedback of the target is not applied before the
+        // unreadable feedback
+        assertThat(processor.countPendingEntries()).isEqualTo(2);
+        assertThat(deploymentManagement.findActionWithDetails(action.getId()).isActive()).isTrue();
+
+        for (int run = 1; run < properties.getMaxFailedRuns(); run++) {
+            processor.process();
+        }
+
+        assertThat(processor.countDeadLetteredEntries() - deadLetteredBefore).isEqualTo(1);
+        assertThat(processor.countPendingEntries()).isEqualTo(0);
+        final Action applied = deploymentManagement.findActionWithDetails(action.getId());
+        assertThat(applied.isActive()).isFalse();
+        assertThat(applied.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    private Action assignDistributionSet(final String controllerId) {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet(controllerId, softwareManagement,
+                distributionSetManagement);
+        final Target target = targetManagement.createTarget(new Target(controllerId));
+        final Long actionId = deploymentManagement.assignDistributionSet(ds, Collections.singletonList(target))
+                .getActions().get(0);
+        return deploymentManagement.findActionWithDetails(actionId);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Action Status Retention Management")
+public class ActionStatusRetentionManagementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ActionStatusRetentionManagement actionStatusRetentionManagement;
+
+    @Test
+    @Description("Verifies that the first, the final and the latest intermediate status entries are kept and the others are purged and archived.")
+    public void compactKeepsFirstFinalAndLatestStatusEntries() {
+        final Action action = createActionWithStatusEntries("compact");
+        final List<ActionStatus> archived = new ArrayList<>();
+
+        final int purged = actionStatusRetentionManagement.compactActionStatus(Arrays.asList(action.getId()), 3,
+                archived::addAll);
+
+        assertThat(purged).isEqualTo(15);
+        assertThat(archived).hasSize(15);
+        assertThat(actionStatusRepository.countByAction(action)).isEqualTo(6L);
+        assertThat(actionStatusRepository.countByActionAndStatus(action, Status.ERROR)).isEqualTo(1L);
+
+        assertThat(actionStatusRetentionManagement.compactActionStatus(Arrays.asList(action.getId()), 3, null))
+                .as("A compacted history should not be compacted again").isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the status entries of several actions are compacted per action in one run.")
+    public void compactSeveralActionsPerAction() {
+        final Action first = createActionWithStatusEntries("compact-first");
+        final Action second = createActionWithStatusEntries("compact-second");
+
+        final int purged = actionStatusRetentionManagement
+                .compactActionStatus(Arrays.asList(first.getId(), second.getId()), 3, null);
+
+        assertThat(purged).isEqualTo(30);
+        assertThat(actionStatusRepository.countByAction(first)).isEqualTo(6L);
+        assertThat(actionStatusRepository.countByAction(second)).isEqualTo(6L);
+    }
+
+    @Test
+    @Description("Verifies that the action IDs are paged by ID.")
+    public void findActionIdsAfterPagesById() {
+        final Long first = createActionWithStatusEntries("first").getId();
+        final Long second = createActionWithStatusEntries("second").getId();
+
+        assertThat(actionStatusRetentionManagement.findActionIdsAfter(0, 1)).containsOnly(first);
+        assertThat(actionStatusRetentionManagement.findActionIdsAfter(first, 10)).containsOnly(second);
+        assertThat(actionStatusRetentionManagement.findActionIdsAfter(second, 10)).isEmpty();
+    }
+
+    private Action createActionWithStatusEntries(final String controllerId) {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet(controllerId, softwareManagement,
+                distributionSetManagement);
+        final Target target = targetManagement.createTarget(new Target(controllerId));
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(target));
+        final Action action = deploymentManagement.findActiveActionsByTarget(target).get(0);
+
+        // one status has been created by the assignment
+        for (int i = 0; i < 20; i++) {
+            actionStatusRepository.save(new ActionStatus(action, i == 10 ? Status.ERROR : Status.RUNNING,
+                    System.currentTimeMillis(), "message " + i));
+        }
+        return action;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Random;
+
+import org.eclipse.hawkbit.AbstractIntegrationTestWithMongoDB;
+import org.eclipse.hawkbit.artifact.delta.BinaryDelta;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Artifact Delta Management")
+public class ArtifactDeltaManagementTest extends AbstractIntegrationTestWithMongoDB {
+
+    @Autowired
+    private ArtifactDeltaManagement artifactDeltaManagement;
+
+    @Autowired
+    private ArtifactDeltaRepository artifactDeltaRepository;
+
+    @Autowired
+    private ArtifactDeltaProperties deltaProperties;
+
+    private final Random random = new Random(42);
+
+    private long minArtifactSize;
+
+    @Before
+    public void enableDeltasForSmallArtifacts() {
+        minArtifactSize = deltaProperties.getMinArtifactSize();
+        deltaProperties.setMinArtifactSize(0);
+    }
+
+    @After
+    public void restoreMinArtifactSize() {
+        deltaProperties.setMinArtifactSize(minArtifactSize);
+    }
+
+    @Test
+    @Description("Verifies that a delta to the previous version of the module is generated in the background and restores the new artifact.")
+    public void deltaToPreviousVersionIsGenerated() throws IOException, InterruptedException {
+        final byte[] base = randomBytes(256 * 1024);
+        final byte[] update = base.clone();
+        System.arraycopy(randomBytes(2048), 0, update, 100_000, 2048);
+
+        final LocalArtifact baseArtifact = createArtifact("1.0", base);
+        final LocalArtifact updateArtifact = createArtifact("2.0", update);
+        waitForAsyncTasks();
+
+        assertThat(artifactDeltaRepository.findAll()).hasSize(1);
+        final ArtifactDelta delta = artifactDeltaManagement.findDelta(updateArtifact.getSoftwareModule().getId(),
+                "firmware.bin", baseArtifact.getSha1Hash());
+        assertThat(delta).isNotNull();
+        assertThat(delta.getSize()).isLessThan(update.length / 10L);
+        assertThat(artifactDeltaManagement.findDeltas(
+                Collections.singletonList(updateArtifact.getSoftwareModule().getId()),
+                Collections.singletonList(baseArtifact.getSoftwareModule().getId()))).hasSize(1);
+
+        final ByteArrayOutputStream restored = new ByteArrayOutputStream();
+        try (InputStream in = artifactDeltaManagement.loadDeltaBinary(delta).getFileInputStream()) {
+            BinaryDelta.apply(BinaryDelta.of(base), in, restored);
+        }
+        assertThat(restored.toByteArray()).isEqualTo(update);
+    }
+
+    @Test
+    @Description("Verifies that no delta is kept if the new artifact has nothing in common with the previous version.")
+    public void deltaOfUnrelatedArtifactIsDiscarded() throws InterruptedException {
+        createArtifact("1.0", randomBytes(64 * 1024));
+        createArtifact("2.0", randomBytes(64 * 1024));
+        waitForAsyncTasks();
+
+        assertThat(artifactDeltaRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the deltas and their binaries are deleted together with the base artifact.")
+    public void deltasAreDeletedWithArtifact() throws InterruptedException {
+        final byte[] base = randomBytes(128 * 1024);
+        final byte[] update = base.clone();
+        update[1000]++;
+
+        final LocalArtifact baseArtifact = createArtifact("1.0", base);
+        createArtifact("2.0", update);
+        waitForAsyncTasks();
+        final ArtifactDelta delta = artifactDeltaRepository.findAll().iterator().next();
+
+        artifactManagement.deleteLocalArtifact(baseArtifact.getId());
+
+        assertThat(artifactDeltaRepository.findAll()).isEmpty();
+        assertThat(operations.findOne(
+                new Query().addCriteria(Criteria.where("filename").is(delta.getGridFsFileName())))).isNull();
+    }
+
+    @Test
+    @Description("Verifies that the deltas and their binaries are deleted if the module of the resulting artifact is deleted.")
+    public void deltasAreDeletedWithSoftwareModule() throws InterruptedException {
+        final byte[] base = randomBytes(128 * 1024);
+        final byte[] update = base.clone();
+        update[1000]++;
+
+        createArtifact("1.0", base);
+        final LocalArtifact updateArtifact = createArtifact("2.0", update);
+        waitForAsyncTasks();
+        final ArtifactDelta delta = artifactDeltaRepository.findAll().iterator().next();
+
+        softwareManagement.deleteSoftwareModule(updateArtifact.getSoftwareModule());
+
+        assertThat(softwareModuleRepository.findOne(updateArtifact.getSoftwareModule().getId())).isNull();
+        assertThat(artifactDeltaRepository.findAll()).isEmpty();
+        assertThat(operations.findOne(
+                new Query().addCriteria(Criteria.where("filename").is(delta.getGridFsFileName())))).isNull();
+    }
+
+    private LocalArtifact createArtifact(final String version, final byte[] content) {
+        final SoftwareModule module = softwareModuleRepository.save(new SoftwareModule(
+                softwareManagement.findSoftwareModuleTypeByKey("os"), "delta-os", version, null, null));
+        return artifactManagement.createLocalArtifact(new ByteArrayInputStream(content), module.getId(),
+                "firmware.bin", false);
+    }
+
+    private byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -17,23 +17,29 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.UnknownHostException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.hawkbit.AbstractIntegrationTestWithMongoDB;
 import org.eclipse.hawkbit.HashGeneratorUtils;
 import org.eclipse.hawkbit.RandomGeneratedInputStream;
+import org.eclipse.hawkbit.TestDataUtil;
 import org.eclipse.hawkbit.WithUser;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
 import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.repository.exception.ArtifactDeleteFailedException;
 import org.eclipse.hawkbit.repository.exception.InsufficientPermissionException;
 import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.ExternalArtifact;
 import org.eclipse.hawkbit.repository.model.ExternalArtifactProvider;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -51,6 +57,10 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Features("Component Tests - Repository")
 @Stories("Artifact Management")
 public class ArtifactManagementTest extends AbstractIntegrationTestWithMongoDB {
+
+    @Autowired
+    private TargetArtifactAuthorizationIndex targetArtifactAuthorizationIndex;
+
     public ArtifactManagementTest() {
         LOG = LoggerFactory.getLogger(ArtifactManagementTest.class);
     }
@@ -395,4 +405,61 @@ public class ArtifactManagementTest extends AbstractIntegrationTestWithMongoDB {
         assertThat(artifactManagement.findByFilenameAndSoftwareModule("file1", sm.getId())).hasSize(1);
 
     }
+
+    @Test
+    @Description("Verifies that the artifacts of an assigned distribution set are authorized for the target by the "
+            + "authorization index and that artifacts added later are authorized by the database.")
+    public void targetIsAuthorizedForArtifactsOfAssignedDistributionSet() {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        final SoftwareModule module = ds.findFirstModuleByType(osType);
+        final LocalArtifact assigned = artifactManagement
+                .createLocalArtifact(new RandomGeneratedInputStream(5 * 1024), module.getId(), "file1", false);
+
+        final Target target = targetManagement.createTarget(new Target("authorized"));
+        targetManagement.createTarget(new Target("unauthorized"));
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(target));
+
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("authorized", assigned.getSha1Hash())).isTrue();
+        assertThat(controllerManagament.hasTargetArtifactAssigned("authorized", assigned)).isTrue();
+        assertThat(controllerManagament.hasTargetArtifactAssigned("unauthorized", assigned)).isFalse();
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("unauthorized", assigned.getSha1Hash())).isFalse();
+
+        final LocalArtifact added = artifactManagement
+                .createLocalArtifact(new RandomGeneratedInputStream(5 * 1024), module.getId(), "file2", false);
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("authorized", added.getSha1Hash())).isFalse();
+        assertThat(controllerManagament.hasTargetArtifactAssigned("authorized", added)).isTrue();
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("authorized", added.getSha1Hash())).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the authorizations of a target are removed from the authorization index if the "
+            + "target is deleted on this or another node and if a target with the same controller ID is created.")
+    public void authorizationsOfDeletedTargetAreRemoved() throws InterruptedException {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        final LocalArtifact artifact = artifactManagement.createLocalArtifact(
+                new RandomGeneratedInputStream(5 * 1024), ds.findFirstModuleByType(osType).getId(), "file1", false);
+        final Target target = targetManagement.createTarget(new Target("deleted"));
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(target));
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("deleted", artifact.getSha1Hash())).isTrue();
+
+        // deletion on another node
+        targetArtifactAuthorizationIndex
+                .onTargetDeleted(new TargetDeletedEvent(tenantAware.getCurrentTenant(), target.getId()));
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("deleted", artifact.getSha1Hash())).isFalse();
+
+        // deletion on this node
+        targetArtifactAuthorizationIndex.authorize(target, artifact.getSha1Hash());
+        targetManagement.deleteTargets(target.getId());
+        waitForAsyncTasks();
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("deleted", artifact.getSha1Hash())).isFalse();
+
+        // missed deletion, e.g. passed by a concurrent check
+        targetArtifactAuthorizationIndex.authorize(target, artifact.getSha1Hash());
+        targetManagement.createTarget(new Target("deleted"));
+        waitForAsyncTasks();
+        assertThat(targetArtifactAuthorizationIndex.isAuthorized("deleted", artifact.getSha1Hash())).isFalse();
+        assertThat(controllerManagament.hasTargetArtifactAssigned("deleted", artifact)).isFalse();
+    }
 }
@@ -11,14 +11,20 @@ package org.eclipse.hawkbit.repository;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.validation.ConstraintViolationException;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.hawkbit.AbstractIntegrationTest;
 import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
@@ -26,6 +32,10 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -35,6 +45,9 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Stories("Controller Management")
 public class ControllerManagementTest extends AbstractIntegrationTest {
 
+    @Autowired
+    private EventBus eventBus;
+
     @Test
     @Description("Controller adds a new action status.")
     public void controllerAddsActionStatus() {
@@ -74,6 +87,64 @@ public class ControllerManagementTest extends AbstractIntegrationTest {
                 .isEqualTo(3);
     }
 
+    @Test
+    @Description("Verifies that the latest status and the number of status entries are recorded at the action "
+            + "and that repeated retrieves are documented only once.")
+    public void actionStatusSummaryIsMaintained() {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        final Target savedTarget = targetManagement.createTarget(new Target("4712"));
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(savedTarget));
+
+        Action action = deploymentManagement.findActiveActionsByTarget(savedTarget).get(0);
+        assertThat(action.getLastStatus()).isEqualTo(Status.RUNNING);
+        assertThat(action.getStatusCount()).isEqualTo(1L);
+
+        controllerManagament.registerRetrieved(action, "retrieved");
+        action = deploymentManagement.findActionWithDetails(action.getId());
+        controllerManagament.registerRetrieved(action, "retrieved again");
+        action = deploymentManagement.findActionWithDetails(action.getId());
+        assertThat(action.getLastStatus()).isEqualTo(Status.RETRIEVED);
+        assertThat(action.getStatusCount()).isEqualTo(2L);
+
+        final long occurredAt = System.currentTimeMillis();
+        final Action updated = controllerManagament
+                .addUpdateActionStatus(new ActionStatus(action, Status.DOWNLOAD, occurredAt), action);
+        assertThat(updated.getStatusCount()).as("summary of the returned action is up to date").isEqualTo(3L);
+        assertThat(updated.getLastStatus()).isEqualTo(Status.DOWNLOAD);
+        action = deploymentManagement.findActionWithDetails(action.getId());
+        assertThat(action.getLastStatus()).isEqualTo(Status.DOWNLOAD);
+        assertThat(action.getLastStatusAt()).isEqualTo(occurredAt);
+        assertThat(action.getStatusCount()).isEqualTo(3L);
+        assertThat(actionStatusRepository.countByAction(action)).isEqualTo(3L);
+    }
+
+    @Test
+    @Description("Verifies that a download status which is recorded while the feedback of the controller is "
+            + "processed does not conflict with the update of the action.")
+    public void downloadStatusDoesNotConflictWithFeedback() {
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        final Target savedTarget = targetManagement.createTarget(new Target("4713"));
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(savedTarget));
+
+        // the feedback has loaded the action before the download status is
+        // recorded
+        final Action action = deploymentManagement.findActionWithDetails(
+                deploymentManagement.findActiveActionsByTarget(savedTarget).get(0).getId());
+        controllerManagament.addDownloadStatusMessage(action.getId(), "download started");
+
+        final Action updated = controllerManagament
+                .addUpdateActionStatus(new ActionStatus(action, Status.FINISHED, System.currentTimeMillis()), action);
+        assertThat(updated.isActive()).isFalse();
+
+        final Action stored = deploymentManagement.findActionWithDetails(action.getId());
+        assertThat(stored.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(stored.getLastStatus()).isEqualTo(Status.FINISHED);
+        assertThat(stored.getStatusCount()).isEqualTo(3L);
+        assertThat(actionStatusRepository.countByAction(stored)).isEqualTo(3L);
+    }
+
     @Test
     @Description("Register a controller which does not exist")
     public void testfindOrRegisterTargetIfItDoesNotexist() {
@@ -93,6 +164,54 @@ public class ControllerManagementTest extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Registers several controllers at once, existing targets are updated and notified and new targets are created.")
+    public void findOrRegisterTargetsIfNotExist() throws InterruptedException {
+        final Target existing = targetManagement.createTarget(new Target("existing"));
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("", softwareManagement,
+                distributionSetManagement);
+        deploymentManagement.assignDistributionSet(ds, Arrays.asList(existing));
+        waitForAsyncTasks();
+
+        final List<TargetInfoUpdateEvent> events = Collections.synchronizedList(new ArrayList<>());
+        final Object listener = new Object() {
+            @Subscribe
+            public void handleEvent(final TargetInfoUpdateEvent event) {
+                events.add(event);
+            }
+        };
+        eventBus.register(listener);
+        final List<Target> targets;
+        try {
+            final Map<String, URI> addresses = new HashMap<>();
+            addresses.put("existing", URI.create("amqp://vHost/gateway"));
+            addresses.put("new", URI.create("amqp://vHost/gateway"));
+            targets = controllerManagament.findOrRegisterTargetsIfNotExist(addresses);
+            waitForAsyncTasks(() -> !events.isEmpty());
+        } finally {
+            eventBus.unregister(listener);
+        }
+
+        final TargetInfoUpdateEvent event = events.stream()
+                .filter(e -> "existing".equals(e.getEntity().getTarget().getControllerId())).findAny().orElse(null);
+        assertThat(event).as("update of the existing target is notified").isNotNull();
+        assertThat(event.getEntity().getAddress()).isEqualTo(URI.create("amqp://vHost/gateway"));
+        assertThat(event.getEntity().getLastTargetQuery()).isNotNull();
+        assertThat(targets).hasSize(2);
+        assertThat(targetRepository.count()).isEqualTo(2L);
+        final Target updated = targetManagement.findTargetByControllerID("existing");
+        assertThat(updated.getTargetInfo().getAddress()).isEqualTo(URI.create("amqp://vHost/gateway"));
+        assertThat(updated.getTargetInfo().getLastTargetQuery()).isNotNull();
+        final Target registered = targetManagement.findTargetByControllerID("new");
+        assertThat(registered.getTargetInfo().getUpdateStatus()).isEqualTo(TargetUpdateStatus.REGISTERED);
+        assertThat(registered.getTargetInfo().getAddress()).isEqualTo(URI.create("amqp://vHost/gateway"));
+
+        final List<Action> actions = controllerManagament.findActionByTargetsAndActive(targets);
+        assertThat(actions).hasSize(1);
+        assertThat(actions.get(0).getTarget().getControllerId()).isEqualTo("existing");
+        assertThat(actions.get(0).getDistributionSet()).isEqualTo(ds);
+    }
+
     @Test
     @Description("Controller trys to finish an update process after it has been finished by an error action status.")
     public void tryToFinishUpdateProcessMoreThenOnce() {
@@ -134,4 +253,38 @@ public class ControllerManagementTest extends AbstractIntegrationTest {
                 .isEqualTo(TargetUpdateStatus.ERROR);
 
     }
+
+    @Test
+    @Description("Controller updates its attributes, only the changes are applied and null values remove attributes.")
+    public void controllerUpdatesOnlyChangedAttributes() {
+        targetManagement.createTarget(new Target("attributes"));
+
+        final Map<String, String> data = new HashMap<>();
+        data.put("unchanged", "value");
+        data.put("changed", "old");
+        data.put("removed", "value");
+        controllerManagament.updateControllerAttributes("attributes", data);
+        final String firstHash = targetManagement.findTargetByControllerID("attributes").getTargetInfo()
+                .getControllerAttributesHash();
+
+        // same attributes again
+        controllerManagament.updateControllerAttributes("attributes", new HashMap<>(data));
+        assertThat(targetManagement.findTargetByControllerID("attributes").getTargetInfo()
+                .getControllerAttributesHash()).isEqualTo(firstHash);
+
+        final Map<String, String> changes = new HashMap<>();
+        changes.put("changed", "new");
+        changes.put("removed", null);
+        changes.put("added", "value");
+        controllerManagament.updateControllerAttributes("attributes", changes);
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("unchanged", "value");
+        expected.put("changed", "new");
+        expected.put("added", "value");
+        final Target target = targetManagement.findTargetByControllerIDWithDetails("attributes");
+        assertThat(target.getTargetInfo().getControllerAttributes()).isEqualTo(expected);
+        assertThat(target.getTargetInfo().getControllerAttributesHash()).isNotEqualTo(firstHash);
+        assertThat(target.getTargetInfo().isRequestControllerAttributes()).isFalse();
+    }
 }
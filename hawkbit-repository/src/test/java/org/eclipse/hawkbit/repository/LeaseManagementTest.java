@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.repository.exception.ConcurrentModificationException;
+import org.eclipse.hawkbit.repository.model.Lease;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Lease Management")
+public class LeaseManagementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private LeaseManagement leaseManagement;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    @Description("Verifies that a lease can only be acquired once until it is released.")
+    public void leaseIsAcquiredOnlyOnce() {
+        final Lease lease = leaseManagement.tryAcquire("test.once", 60_000);
+        assertThat(lease).isNotNull();
+        assertThat(leaseManagement.isHeld("test.once")).isTrue();
+        assertThat(leaseManagement.tryAcquire("test.once", 60_000)).isNull();
+
+        leaseManagement.release(lease);
+        assertThat(leaseManagement.isHeld("test.once")).isFalse();
+        assertThat(leaseManagement.tryAcquire("test.once", 60_000)).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that an expired lease is taken over with a new fencing token and that the work of the former holder is fenced.")
+    public void expiredLeaseIsTakenOverAndFenced() {
+        final Lease expired = leaseManagement.tryAcquire("test.takeover", 0);
+        assertThat(expired).isNotNull();
+
+        final Lease takenOver = leaseManagement.tryAcquire("test.takeover", 60_000);
+        assertThat(takenOver).isNotNull();
+        assertThat(takenOver.getFencingToken()).isGreaterThan(expired.getFencingToken());
+
+        final TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.execute(status -> {
+            leaseManagement.fence(takenOver);
+            return null;
+        });
+        try {
+            tx.execute(status -> {
+                leaseManagement.fence(expired);
+                return null;
+            });
+            fail("the former holder of the lease must be fenced");
+        } catch (final ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    @Description("Verifies that a lease which is released with a retention cannot be acquired before the retention has passed.")
+    public void releasedLeaseIsRetained() {
+        final Lease lease = leaseManagement.tryAcquire("test.retain", 60_000);
+        leaseManagement.release(lease, System.currentTimeMillis() + 60_000);
+        assertThat(leaseManagement.tryAcquire("test.retain", 60_000)).isNull();
+
+        final Lease retainedInPast = leaseManagement.tryAcquire("test.retainpast", 60_000);
+        leaseManagement.release(retainedInPast, System.currentTimeMillis() - 1);
+        assertThat(leaseManagement.tryAcquire("test.retainpast", 60_000)).isNotNull();
+    }
+}
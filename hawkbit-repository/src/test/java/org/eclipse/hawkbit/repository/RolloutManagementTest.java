@@ -45,6 +45,8 @@ import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
@@ -65,6 +67,12 @@ public class RolloutManagementTest extends AbstractIntegrationTest {
     @Autowired
     private RolloutGroupManagement rolloutGroupManagement;
 
+    @Autowired
+    private LeaseManagement leaseManagement;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
     @Test
     @Description("Verfiying that the rollout is created correctly, executing the filter and split up the targets in the correct group size.")
     public void creatingRolloutIsCorrectPersisted() {
@@ -907,6 +915,110 @@ public class RolloutManagementTest extends AbstractIntegrationTest {
         validateRolloutActionStatus(myRollout.getId(), expectedTargetCountStatus);
     }
 
+    @Test
+    @Description("Verify that the lease of an asynchronous rollout creation is released if the transaction of the caller is rolled back.")
+    public void leaseOfRolledBackRolloutCreationIsReleased() {
+        final DistributionSet distributionSet = TestDataUtil.generateDistributionSet("dsForRollback",
+                softwareManagement, distributionSetManagement);
+        targetManagement.createTargets(TestDataUtil.buildTargetFixtures(10, "rollback-", "rollback"));
+        final RolloutGroupConditions conditions = new RolloutGroup.RolloutGroupConditionBuilder()
+                .successCondition(RolloutGroupSuccessCondition.THRESHOLD, "100").build();
+        final Rollout rollout = new Rollout();
+        rollout.setName("rollbackRollout");
+        rollout.setTargetFilterQuery("controllerId==rollback-*");
+        rollout.setDistributionSet(distributionSet);
+
+        final Long rolloutId = new TransactionTemplate(txManager).execute(status -> {
+            final Long id = rolloutManagement.createRolloutAsync(rollout, 2, conditions).getId();
+            assertThat(leaseManagement.isHeld("rollout.create." + id)).isTrue();
+            status.setRollbackOnly();
+            return id;
+        });
+
+        assertThat(rolloutManagement.findRolloutById(rolloutId)).isNull();
+        assertThat(leaseManagement.isHeld("rollout.create." + rolloutId)).isFalse();
+    }
+
+    @Test
+    @Description("Verfiying that the consecutive targets are spread over the virtual groups and that the targets of a virtual group are resolved when the group is started, including the targets which have been added to the filter after the start of the rollout.")
+    public void virtualGroupsResolveTargetsWhenGroupIsStarted() {
+        final int amountTargetsOnCreation = 10;
+        final int amountTargetsAfterStart = 5;
+        final int amountGroups = 2;
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("virtualDS", softwareManagement,
+                distributionSetManagement);
+        final List<Target> targets = new ArrayList<>(targetManagement
+                .createTargets(TestDataUtil.buildTargetFixtures(amountTargetsOnCreation, "virtual-", "virtual")));
+
+        final Rollout rolloutToCreate = new Rollout();
+        rolloutToCreate.setName("virtual-rollout");
+        rolloutToCreate.setTargetFilterQuery("controllerId==virtual-*");
+        rolloutToCreate.setDistributionSet(ds);
+        rolloutToCreate.setVirtualGroups(true);
+        final Rollout createdRollout = rolloutManagement.createRollout(rolloutToCreate, amountGroups,
+                new RolloutGroup.RolloutGroupConditionBuilder()
+                        .successCondition(RolloutGroupSuccessCondition.THRESHOLD, "100").build());
+
+        // the groups cover all targets of the filter without assigning them
+        final List<RolloutGroup> groups = rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(0, 100, new Sort(Direction.ASC, "id"))).getContent();
+        assertThat(groups).hasSize(amountGroups);
+        assertThat(groups.stream().mapToLong(RolloutGroup::getTotalTargets).sum())
+                .isEqualTo(amountTargetsOnCreation);
+        assertThat(groups.stream()
+                .mapToLong(group -> rolloutGroupManagement.findRolloutGroupTargets(group, pageReq).getTotalElements())
+                .sum()).isEqualTo(amountTargetsOnCreation);
+
+        // the consecutive IDs of the targets are spread over the groups
+        for (final RolloutGroup group : groups) {
+            assertThat(group.getTotalTargets()).isEqualTo(countTargetsInBuckets(targets, group));
+            assertThat(group.getTotalTargets()).isGreaterThanOrEqualTo(amountTargetsOnCreation / amountGroups - 1)
+                    .isLessThanOrEqualTo(amountTargetsOnCreation / amountGroups + 1);
+        }
+
+        // only the actions of the first group are created on start
+        rolloutManagement.startRollout(createdRollout);
+        assertThat(deploymentManagement.findActionsByRolloutAndStatus(createdRollout, Status.SCHEDULED)).isEmpty();
+        final RolloutGroup firstGroup = rolloutGroupManagement.findRolloutGroupById(groups.get(0).getId());
+        assertThat(firstGroup.getStatus()).isEqualTo(RolloutGroupStatus.RUNNING);
+        assertThat(deploymentManagement.findActionsByRolloutAndStatus(createdRollout, Status.RUNNING))
+                .hasSize((int) firstGroup.getTotalTargets());
+
+        // targets which are created after the start are resolved by the start
+        // of the second group, if they are in its buckets
+        final List<Target> lateTargets = targetManagement
+                .createTargets(TestDataUtil.buildTargetFixtures(amountTargetsAfterStart, "virtual-late-", "virtual"));
+        assertThat(countTargetsInBuckets(lateTargets, groups.get(1))).isGreaterThan(0);
+        targets.addAll(lateTargets);
+
+        changeStatusForAllRunningActions(createdRollout, Status.FINISHED);
+        rolloutManagement.checkRunningRollouts(0);
+
+        final RolloutGroup secondGroup = rolloutGroupManagement.findRolloutGroupById(groups.get(1).getId());
+        assertThat(secondGroup.getStatus()).isEqualTo(RolloutGroupStatus.RUNNING);
+        assertThat(secondGroup.getTotalTargets()).isEqualTo(countTargetsInBuckets(targets, secondGroup));
+        assertThat(deploymentManagement.findActionsByRolloutAndStatus(createdRollout, Status.RUNNING))
+                .hasSize((int) secondGroup.getTotalTargets());
+
+        for (int i = 0; i < amountGroups; i++) {
+            changeStatusForAllRunningActions(createdRollout, Status.FINISHED);
+            rolloutManagement.checkRunningRollouts(0);
+        }
+
+        final long expectedTargets = firstGroup.getTotalTargets() + secondGroup.getTotalTargets();
+        final Rollout finishedRollout = rolloutManagement.findRolloutById(createdRollout.getId());
+        assertThat(finishedRollout.getStatus()).isEqualTo(RolloutStatus.FINISHED);
+        assertThat(finishedRollout.getTotalTargets()).isEqualTo(expectedTargets);
+        assertThat(deploymentManagement.findActionsByRolloutAndStatus(createdRollout, Status.FINISHED))
+                .hasSize((int) expectedTargets);
+    }
+
+    private static long countTargetsInBuckets(final List<Target> targets, final RolloutGroup group) {
+        return targets.stream().mapToInt(target -> RolloutGroup.getTargetBucket(target.getId()))
+                .filter(bucket -> bucket >= group.getTargetBucketFrom() && bucket < group.getTargetBucketTo())
+                .count();
+    }
+
     private void validateRolloutGroupActionStatus(final RolloutGroup rolloutGroup,
             final Map<TotalTargetCountStatus.Status, Long> expectedTargetCountStatus) {
         final RolloutGroup rolloutGroupWithDetail = rolloutGroupManagement
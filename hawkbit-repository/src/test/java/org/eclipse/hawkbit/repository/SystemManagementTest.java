@@ -17,6 +17,7 @@ import java.util.Random;
 import org.eclipse.hawkbit.AbstractIntegrationTestWithMongoDB;
 import org.eclipse.hawkbit.TestDataUtil;
 import org.eclipse.hawkbit.WithSpringAuthorityRule;
+import org.eclipse.hawkbit.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.report.model.TenantUsage;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
@@ -93,6 +94,28 @@ public class SystemManagementTest extends AbstractIntegrationTestWithMongoDB {
                 new TenantUsage("tenant1").setTargets(100).setActions(200));
     }
 
+    @Test
+    @Description("Checks that the system report snapshot is kept until it is refreshed")
+    public void systemUsageReportSnapshotIsKeptUntilRefresh() throws Exception {
+        createTestTenantsForSystemStatistics(1, 0, 10, 0);
+        final SystemUsageReport snapshot = systemManagement.refreshSystemUsageStatisticsSnapshot();
+        assertThat(snapshot.getOverallTargets()).isEqualTo(10);
+        assertThat(systemManagement.getSystemUsageStatisticsSnapshot()).isSameAs(snapshot);
+
+        securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("bumlux", "tenant1"),
+                () -> createTestTargets(20));
+
+        // the snapshot is kept
+        assertThat(systemManagement.getSystemUsageStatisticsSnapshot()).isSameAs(snapshot);
+        assertThat(systemManagement.getSystemUsageStatistics().getOverallTargets()).isEqualTo(30);
+
+        // until it is refreshed
+        systemManagement.refreshSystemUsageStatisticsSnapshot();
+        final SystemUsageReport refreshed = systemManagement.getSystemUsageStatisticsSnapshot();
+        assertThat(refreshed.getOverallTargets()).isEqualTo(30);
+        assertThat(refreshed.getTenants()).hasSize(3);
+    }
+
     private byte[] createTestTenantsForSystemStatistics(final int tenants, final int artifactSize, final int targets,
             final int updates) throws Exception {
         final Random randomgen = new Random();
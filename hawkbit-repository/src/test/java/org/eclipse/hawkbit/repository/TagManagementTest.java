@@ -28,6 +28,7 @@ import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetTagAssignmentResult;
+import org.fest.assertions.core.Condition;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
@@ -248,6 +249,87 @@ public class TagManagementTest extends AbstractIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that the set based bulk toggle assigns the tag if at least one target does not have it yet "
+            + "and unassigns it if all of them have it already.")
+    public void bulkAssignAndUnassignTargetTags() {
+        final List<Target> groupA = targetManagement.createTargets(TestDataUtil.generateTargets(20, ""));
+        final List<Target> groupB = targetManagement.createTargets(TestDataUtil.generateTargets(20, "groupb"));
+        final List<String> groupAIds = groupA.stream().map(Target::getControllerId).collect(Collectors.toList());
+        final List<String> allIds = concat(groupA, groupB).stream().map(Target::getControllerId)
+                .collect(Collectors.toList());
+
+        final TargetTag tag = tagManagement.createTargetTag(new TargetTag("tag1", "tagdesc1", ""));
+
+        // toggle A only -> A is now assigned
+        TargetTagAssignmentResult result = targetManagement.bulkToggleTagAssignment(groupAIds, tag.getName());
+        assertThat(result.getAlreadyAssigned()).isEqualTo(0);
+        assertThat(result.getAssigned()).isEqualTo(20);
+        assertThat(result.getAssignedEntity()).isEmpty();
+        assertThat(targetManagement.findTargetsByControllerIDsWithTags(groupAIds))
+                .are(new Condition<Target>("tagged") {
+                    @Override
+                    public boolean matches(final Target target) {
+                        return target.getTags().contains(tag);
+                    }
+                });
+
+        // toggle A+B -> A is still assigned and B is assigned as well
+        final long revisionA = targetManagement.findTargetByControllerID(groupAIds.get(0)).getOptLockRevision();
+        final Target targetB = targetManagement.findTargetByControllerID(groupB.get(0).getControllerId());
+        result = targetManagement.bulkToggleTagAssignment(allIds, tag.getName());
+        assertThat(result.getAlreadyAssigned()).isEqualTo(20);
+        assertThat(result.getAssigned()).isEqualTo(20);
+        assertThat(targetRepository.findByTag(tag)).hasSize(40);
+
+        // only the changed targets are audited
+        assertThat(targetManagement.findTargetByControllerID(groupAIds.get(0)).getOptLockRevision())
+                .isEqualTo(revisionA);
+        final Target changedB = targetManagement.findTargetByControllerID(targetB.getControllerId());
+        assertThat(changedB.getOptLockRevision()).isEqualTo(targetB.getOptLockRevision() + 1);
+        assertThat(changedB.getLastModifiedAt()).isNotNull();
+        assertThat(changedB.getLastModifiedBy()).isNotNull();
+
+        // toggle A+B -> both unassigned
+        result = targetManagement.bulkToggleTagAssignment(allIds, tag.getName());
+        assertThat(result.getAssigned()).isEqualTo(0);
+        assertThat(result.getUnassigned()).isEqualTo(40);
+        assertThat(targetRepository.findByTag(tag)).isEmpty();
+        assertThat(targetManagement.findTargetByControllerIDWithDetails(groupAIds.get(0)).getTags()).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the set based bulk toggle assigns the tag if at least one DS does not have it yet "
+            + "and unassigns it if all of them have it already.")
+    public void bulkAssignAndUnassignDistributionSetTags() {
+        final List<DistributionSet> groupA = TestDataUtil.generateDistributionSets(20, softwareManagement,
+                distributionSetManagement);
+        final List<DistributionSet> groupB = TestDataUtil.generateDistributionSets("unassigned", 20, softwareManagement,
+                distributionSetManagement);
+        final List<Long> groupAIds = groupA.stream().map(DistributionSet::getId).collect(Collectors.toList());
+        final List<Long> allIds = concat(groupA, groupB).stream().map(DistributionSet::getId)
+                .collect(Collectors.toList());
+
+        final DistributionSetTag tag = tagManagement
+                .createDistributionSetTag(new DistributionSetTag("tag1", "tagdesc1", ""));
+
+        DistributionSetTagAssignmentResult result = distributionSetManagement.bulkToggleTagAssignment(groupAIds,
+                tag.getName());
+        assertThat(result.getAlreadyAssigned()).isEqualTo(0);
+        assertThat(result.getAssigned()).isEqualTo(20);
+        assertThat(distributionSetManagement.findDistributionSetByIdWithDetails(groupAIds.get(0)).getTags())
+                .contains(tag);
+
+        result = distributionSetManagement.bulkToggleTagAssignment(allIds, tag.getName());
+        assertThat(result.getAlreadyAssigned()).isEqualTo(20);
+        assertThat(result.getAssigned()).isEqualTo(20);
+        assertThat(distributionSetRepository.findByTag(tag)).hasSize(40);
+
+        result = distributionSetManagement.bulkToggleTagAssignment(allIds, tag.getName());
+        assertThat(result.getUnassigned()).isEqualTo(40);
+        assertThat(distributionSetRepository.findByTag(tag)).isEmpty();
+    }
+
     @SafeVarargs
     private final <T> List<T> concat(final List<T>... targets) {
         final List<T> result = new ArrayList<>();
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress.State;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Target Import Management")
+public class TargetImportManagementTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private TargetImportManagement targetImportManagement;
+
+    @Test
+    @Description("Verifies that the targets of a CSV spanning several chunks are created, tagged and assigned and that invalid, duplicate and existing targets are reported per line.")
+    public void importTargetsInChunks() {
+        targetManagement.createTarget(new Target("existing"));
+        final DistributionSet ds = TestDataUtil.generateDistributionSet("import", softwareManagement,
+                distributionSetManagement);
+        final TargetTag tag = tagManagement.createTargetTag(new TargetTag("imported"));
+
+        final StringBuilder csv = new StringBuilder();
+        final int validTargets = 1500;
+        for (int i = 0; i < validTargets; i++) {
+            csv.append("import").append(i).append(",name").append(i).append('\n');
+        }
+        csv.append("import0,duplicate\n");
+        csv.append("existing,existing\n");
+        csv.append(" ,missing\n");
+        csv.append("invalid\n");
+
+        final List<Long> notifiedLines = new ArrayList<>();
+        final TargetImportProgress progress = targetImportManagement.importTargets(new StringReader(csv.toString()),
+                "imported by test", ds.getId(), Arrays.asList(tag.getId()),
+                p -> notifiedLines.add(p.getProcessedLines()));
+
+        assertThat(progress.getState()).isEqualTo(State.FINISHED);
+        assertThat(progress.getCreatedTargets()).isEqualTo(validTargets);
+        assertThat(progress.getProcessedLines()).isEqualTo(validTargets + 4);
+        assertThat(progress.getFailedLines()).isEqualTo(4);
+        assertThat(progress.getErrors()).hasSize(4);
+        assertThat(progress.getErrors().get(0)).startsWith("line 1501:");
+        assertThat(notifiedLines).as("listener is notified per chunk and at the end").hasSize(2);
+        assertThat(targetImportManagement.findTargetImport(progress.getId())).isSameAs(progress);
+
+        assertThat(targetRepository.count()).isEqualTo(validTargets + 1);
+        final Target imported = targetManagement.findTargetByControllerIDWithDetails("import1499");
+        assertThat(imported.getName()).isEqualTo("name1499");
+        assertThat(imported.getDescription()).isEqualTo("imported by test");
+        assertThat(imported.getAssignedDistributionSet().getId()).isEqualTo(ds.getId());
+        assertThat(imported.getTags()).containsOnly(tag);
+        assertThat(targetManagement.findTargetsByTag(tag.getName())).hasSize(validTargets);
+    }
+
+    @Test(expected = EntityNotFoundException.class)
+    @Description("Verifies that an import with an unknown tag is rejected before any target is created.")
+    public void importWithUnknownTagIsRejected() {
+        targetImportManagement.importTargets(new StringReader("target1,name1"), null, null,
+                Collections.singletonList(Long.MAX_VALUE), progress -> {
+                });
+    }
+
+    @Test
+    @Description("Verifies that a background import creates the targets and deletes the CSV file afterwards, also if the import is rejected.")
+    public void importTargetsAsyncDeletesFile() throws IOException, InterruptedException {
+        final File csvFile = File.createTempFile("target-import", ".csv");
+        Files.write(csvFile.toPath(), "async1,name1\nasync2,name2\n".getBytes(StandardCharsets.UTF_8));
+
+        final TargetImportProgress progress = targetImportManagement.importTargetsAsync(csvFile, null, null,
+                Collections.emptyList());
+        waitForAsyncTasks(() -> !progress.isActive());
+
+        assertThat(progress.getState()).isEqualTo(State.FINISHED);
+        assertThat(progress.getCreatedTargets()).isEqualTo(2);
+        assertThat(csvFile.exists()).isFalse();
+
+        final File rejectedFile = File.createTempFile("target-import", ".csv");
+        try {
+            targetImportManagement.importTargetsAsync(rejectedFile, null, null,
+                    Collections.singletonList(Long.MAX_VALUE));
+            fail("import with an unknown tag must be rejected");
+        } catch (final EntityNotFoundException e) {
+            assertThat(rejectedFile.exists()).isFalse();
+        }
+    }
+}
@@ -259,6 +259,19 @@ public class TargetManagementTest extends AbstractIntegrationTest {
 
     }
 
+    @Test
+    @Description("Checks if the EntityAlreadyExistsException is thrown if the list of targets to create contains a controller ID twice.")
+    public void createMultipleTargetsWithDuplicateInList() {
+        final List<Target> targets = TestDataUtil.buildTargetFixtures(5, "mySimpleTargs", "my simple targets");
+        targets.add(new Target(targets.get(0).getControllerId()));
+        try {
+            targetManagement.createTargets(targets);
+            fail("Target is contained twice");
+        } catch (final EntityAlreadyExistsException e) {
+        }
+        assertThat(targetRepository.findAll()).isEmpty();
+    }
+
     @Test
     @Description("Checks if the EntityAlreadyExistsException is thrown if a single target with the same controller ID are created twice.")
     public void createTargetDuplicate() {
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.eclipse.hawkbit.AbstractIntegrationTest;
+import org.eclipse.hawkbit.ExecutorBlocker;
+import org.eclipse.hawkbit.TestDataUtil;
+import org.eclipse.hawkbit.WithSpringAuthorityRule;
+import org.eclipse.hawkbit.eventbus.event.EntityCacheEvictedEvent;
+import org.eclipse.hawkbit.repository.exception.TenantNotExistException;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress;
+import org.eclipse.hawkbit.repository.model.TenantDeletionProgress.State;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Tenant Purge Management")
+public class TenantPurgeManagementTest extends AbstractIntegrationTest {
+
+    private static final String PURGED_TENANT = "purgedTenant";
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Test
+    @Description("Verifies that a deleted tenant is fenced immediately and that its data and its unreferenced artifact binaries are purged in the background.")
+    public void deletedTenantIsFencedAndPurgedInBackground() throws Exception {
+        final byte[] sharedContent = RandomUtils.nextBytes(1024);
+        final byte[] exclusiveContent = RandomUtils.nextBytes(1024);
+
+        // the shared binary is referenced by the current tenant as well
+        final SoftwareModule module = softwareManagement.createSoftwareModule(
+                new SoftwareModule(softwareManagement.findSoftwareModuleTypeByKey("os"), "name", "version", null, null));
+        artifactManagement.createLocalArtifact(new ByteArrayInputStream(sharedContent), module.getId(), "shared",
+                false);
+
+        final String[] gridFsFileNames = securityRule
+                .runAs(WithSpringAuthorityRule.withUserAndTenant("user", PURGED_TENANT), () -> {
+                    final DistributionSet ds = TestDataUtil.generateDistributionSet("purge", softwareManagement,
+                            distributionSetManagement);
+                    final List<Target> targets = targetManagement.createTargets(TestDataUtil.generateTargets(20));
+                    deploymentManagement.assignDistributionSet(ds, targets);
+
+                    final Long moduleId = ds.getModules().iterator().next().getId();
+                    final LocalArtifact shared = artifactManagement.createLocalArtifact(
+                            new ByteArrayInputStream(sharedContent), moduleId, "shared", false);
+                    final LocalArtifact exclusive = artifactManagement.createLocalArtifact(
+                            new ByteArrayInputStream(exclusiveContent), moduleId, "exclusive", false);
+                    return new String[] { shared.getGridFsFileName(), exclusive.getGridFsFileName() };
+                });
+
+        // block the single threaded test executor to verify the fencing
+        // before the purge starts
+        try (ExecutorBlocker blocker = blockAsyncTasks()) {
+            systemManagement.deleteTenant(PURGED_TENANT);
+
+            assertThat(systemManagement.findTenants()).doesNotContain(PURGED_TENANT, PURGED_TENANT.toUpperCase());
+            assertThat(findDeletion().getState()).isEqualTo(State.PENDING);
+            try {
+                systemManagement.getTenantMetadata(PURGED_TENANT);
+                fail("Expected TenantNotExistException for a tenant which is being deleted");
+            } catch (final TenantNotExistException e) {
+                // expected
+            }
+        }
+        waitForAsyncTasks();
+
+        final TenantDeletionProgress deletion = findDeletion();
+        assertThat(deletion.getState()).isEqualTo(State.FINISHED);
+        assertThat(deletion.getDeletedEntities()).isGreaterThan(40);
+        assertThat(deletion.getDeletedBinaries()).isEqualTo(1);
+        assertThat(tenantMetaDataRepository.findByTenantIgnoreCase(PURGED_TENANT)).isNull();
+
+        assertThat(securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", PURGED_TENANT, false, true),
+                () -> targetRepository.findAll())).isEmpty();
+        assertThat(securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", PURGED_TENANT, false, true),
+                () -> softwareModuleRepository.findAll())).isEmpty();
+
+        assertThat(operations.findOne(new Query().addCriteria(Criteria.where("filename").is(gridFsFileNames[0]))))
+                .isNotNull();
+        assertThat(operations.findOne(new Query().addCriteria(Criteria.where("filename").is(gridFsFileNames[1]))))
+                .isNull();
+    }
+
+    @Test
+    @Description("Verifies that all caches of a deleted tenant are evicted on all nodes by means of a distributed event.")
+    public void deletedTenantIsEvictedOnAllNodes() throws Exception {
+        securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", PURGED_TENANT),
+                () -> targetManagement.createTarget(new Target("evicted")));
+
+        final List<EntityCacheEvictedEvent> events = Collections.synchronizedList(new ArrayList<>());
+        final Object subscriber = new Object() {
+            @Subscribe
+            public void onEvent(final EntityCacheEvictedEvent event) {
+                events.add(event);
+            }
+        };
+        eventBus.register(subscriber);
+        try {
+            systemManagement.deleteTenant(PURGED_TENANT);
+            waitForAsyncTasks();
+        } finally {
+            eventBus.unregister(subscriber);
+        }
+
+        assertThat(events.stream().filter(
+                event -> event.getCacheName() == null && PURGED_TENANT.equalsIgnoreCase(event.getTenant())).count())
+                        .isGreaterThan(0);
+        assertThat(findDeletion().getState()).isEqualTo(State.FINISHED);
+    }
+
+    private TenantDeletionProgress findDeletion() {
+        return systemManagement.findTenantDeletions().stream()
+                .filter(progress -> progress.getTenant().equalsIgnoreCase(PURGED_TENANT)).findFirst().get();
+    }
+}
@@ -13,7 +13,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -22,7 +21,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
-import org.eclipse.hawkbit.cache.CacheWriteNotify;
+import org.eclipse.hawkbit.repository.DownloadSession;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.ArtifactDelta;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +31,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-import com.google.common.math.DoubleMath;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -63,13 +63,13 @@ public final class RestResourceConversionHelper {
      */
     public static ResponseEntity<InputStream> writeFileResponse(final LocalArtifact artifact,
             final HttpServletResponse servletResponse, final HttpServletRequest request, final DbArtifact file) {
-        return writeFileResponse(artifact, servletResponse, request, file, null, null);
+        return writeFileResponse(artifact, servletResponse, request, file, null);
     }
 
     /**
      * <p>
-     * Write response with target relation and publishes events concerning the
-     * download progress based on given update action status.
+     * Write response with target relation and records the served bytes in the
+     * download session of the target.
      * </p>
      *
      * <p>
@@ -84,10 +84,8 @@ public final class RestResourceConversionHelper {
      *            from the client
      * @param file
      *            to be write to the client response
-     * @param cacheWriteNotify
-     *            to write progress updates to
-     * @param statusId
-     *            of the UpdateActionStatus
+     * @param session
+     *            the download session of the target
      *
      * @return http code
      *
@@ -95,7 +93,37 @@ public final class RestResourceConversionHelper {
      */
     public static ResponseEntity<InputStream> writeFileResponse(final LocalArtifact artifact,
             final HttpServletResponse response, final HttpServletRequest request, final DbArtifact file,
-            final CacheWriteNotify cacheWriteNotify, final Long statusId) {
+            final DownloadSession session) {
+        return writeFileResponse(artifact, artifact.getFilename(), response, request, file, session);
+    }
+
+    /**
+     * Write response of a binary delta with target relation and records the
+     * served bytes in the download session of the target. The request supports
+     * RFC7233 range requests.
+     *
+     * @param delta
+     *            the artifact delta
+     * @param response
+     *            to be sent back to the requesting client
+     * @param request
+     *            from the client
+     * @param file
+     *            to be write to the client response
+     * @param session
+     *            the download session of the target
+     *
+     * @return http code
+     */
+    public static ResponseEntity<InputStream> writeFileResponse(final ArtifactDelta delta,
+            final HttpServletResponse response, final HttpServletRequest request, final DbArtifact file,
+            final DownloadSession session) {
+        return writeFileResponse(delta, delta.getFilename(), response, request, file, session);
+    }
+
+    private static ResponseEntity<InputStream> writeFileResponse(final Artifact artifact, final String filename,
+            final HttpServletResponse response, final HttpServletRequest request, final DbArtifact file,
+            final DownloadSession session) {
 
         ResponseEntity<InputStream> result = null;
 
@@ -106,7 +134,7 @@ public final class RestResourceConversionHelper {
 
         response.reset();
         response.setBufferSize(BUFFER_SIZE);
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + artifact.getFilename());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + filename);
         response.setHeader(HttpHeaders.ETAG, etag);
         response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
         response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
@@ -118,12 +146,12 @@ public final class RestResourceConversionHelper {
         // Validate and process Range and If-Range headers.
         final String range = request.getHeader("Range");
         if (range != null) {
-            LOG.debug("range header for filename ({}) is: {}", artifact.getFilename(), range);
+            LOG.debug("range header for filename ({}) is: {}", filename, range);
 
             // Range header matches"bytes=n-n,n-n,n-n..."
             if (!range.matches("^bytes=\\d*-\\d*(,\\d*-\\d*)*$")) {
                 response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
-                LOG.debug("range header for filename ({}) is not satisfiable: ", artifact.getFilename());
+                LOG.debug("range header for filename ({}) is not satisfiable: ", filename);
                 return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
             }
 
@@ -142,20 +170,20 @@ public final class RestResourceConversionHelper {
 
         // full request - no range
         if (ranges.isEmpty() || ranges.get(0).equals(full)) {
-            LOG.debug("filename ({}) results into a full request: ", artifact.getFilename());
-            fullfileRequest(artifact, response, file, cacheWriteNotify, statusId, full);
+            LOG.debug("filename ({}) results into a full request: ", filename);
+            fullfileRequest(filename, response, file, session, full);
             result = new ResponseEntity<>(HttpStatus.OK);
         }
         // standard range request
         else if (ranges.size() == 1) {
-            LOG.debug("filename ({}) results into a standard range request: ", artifact.getFilename());
-            standardRangeRequest(artifact, response, file, cacheWriteNotify, statusId, ranges);
+            LOG.debug("filename ({}) results into a standard range request: ", filename);
+            standardRangeRequest(filename, response, file, session, ranges);
             result = new ResponseEntity<>(HttpStatus.PARTIAL_CONTENT);
         }
         // multipart range request
         else {
-            LOG.debug("filename ({}) results into a multipart range request: ", artifact.getFilename());
-            multipartRangeRequest(artifact, response, file, cacheWriteNotify, statusId, ranges);
+            LOG.debug("filename ({}) results into a multipart range request: ", filename);
+            multipartRangeRequest(filename, response, file, session, ranges);
             result = new ResponseEntity<>(HttpStatus.PARTIAL_CONTENT);
         }
 
@@ -163,18 +191,17 @@ public final class RestResourceConversionHelper {
 
     }
 
-    private static void fullfileRequest(final LocalArtifact artifact, final HttpServletResponse response,
-            final DbArtifact file, final CacheWriteNotify cacheWriteNotify, final Long statusId, final ByteRange full) {
+    private static void fullfileRequest(final String filename, final HttpServletResponse response,
+            final DbArtifact file, final DownloadSession session, final ByteRange full) {
         final ByteRange r = full;
         response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(r.getLength()));
 
         try {
-            copyStreams(file.getFileInputStream(), response.getOutputStream(), cacheWriteNotify, statusId, r.getStart(),
-                    r.getLength());
+            copyStreams(file.getFileInputStream(), response.getOutputStream(), session, r.getStart(), r.getLength());
         } catch (final IOException e) {
-            LOG.error("fullfileRequest of file ({}) failed!", artifact.getFilename(), e);
-            throw new FileSteamingFailedException(artifact.getFilename());
+            LOG.error("fullfileRequest of file ({}) failed!", filename, e);
+            throw new FileSteamingFailedException(filename);
         }
     }
 
@@ -230,9 +257,8 @@ public final class RestResourceConversionHelper {
         }
     }
 
-    private static void multipartRangeRequest(final LocalArtifact artifact, final HttpServletResponse response,
-            final DbArtifact file, final CacheWriteNotify cacheWriteNotify, final Long statusId,
-            final List<ByteRange> ranges) {
+    private static void multipartRangeRequest(final String filename, final HttpServletResponse response,
+            final DbArtifact file, final DownloadSession session, final List<ByteRange> ranges) {
         response.setContentType("multipart/byteranges; boundary=" + ByteRange.MULTIPART_BOUNDARY);
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
@@ -245,44 +271,40 @@ public final class RestResourceConversionHelper {
                         .println("Content-Range: bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
 
                 // Copy single part range of multi part range.
-                copyStreams(file.getFileInputStream(), response.getOutputStream(), cacheWriteNotify, statusId,
-                        r.getStart(), r.getLength());
+                copyStreams(file.getFileInputStream(), response.getOutputStream(), session, r.getStart(),
+                        r.getLength());
             }
 
             // End with final multipart boundary.
             response.getOutputStream().println();
             response.getOutputStream().print("--" + ByteRange.MULTIPART_BOUNDARY + "--");
         } catch (final IOException e) {
-            LOG.error("multipartRangeRequest of file ({}) failed!", artifact.getFilename(), e);
-            throw new FileSteamingFailedException(artifact.getFilename());
+            LOG.error("multipartRangeRequest of file ({}) failed!", filename, e);
+            throw new FileSteamingFailedException(filename);
         }
     }
 
-    private static void standardRangeRequest(final LocalArtifact artifact, final HttpServletResponse response,
-            final DbArtifact file, final CacheWriteNotify cacheWriteNotify, final Long statusId,
-            final List<ByteRange> ranges) {
+    private static void standardRangeRequest(final String filename, final HttpServletResponse response,
+            final DbArtifact file, final DownloadSession session, final List<ByteRange> ranges) {
         final ByteRange r = ranges.get(0);
         response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(r.getLength()));
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
         try {
-            copyStreams(file.getFileInputStream(), response.getOutputStream(), cacheWriteNotify, statusId, r.getStart(),
-                    r.getLength());
+            copyStreams(file.getFileInputStream(), response.getOutputStream(), session, r.getStart(), r.getLength());
         } catch (final IOException e) {
-            LOG.error("standardRangeRequest of file ({}) failed!", artifact.getFilename(), e);
-            throw new FileSteamingFailedException(artifact.getFilename());
+            LOG.error("standardRangeRequest of file ({}) failed!", filename, e);
+            throw new FileSteamingFailedException(filename);
         }
     }
 
-    private static long copyStreams(final InputStream from, final OutputStream to,
-            final CacheWriteNotify cacheWriteNotify, final Long statusId, final long start, final long length)
-            throws IOException {
+    private static long copyStreams(final InputStream from, final OutputStream to, final DownloadSession session,
+            final long start, final long length) throws IOException {
         checkNotNull(from);
         checkNotNull(to);
         final byte[] buf = new byte[BUFFER_SIZE];
         long total = 0;
-        int progressPercent = 1;
 
         // skipp until start is reached
         long skipped = 0;
@@ -300,24 +322,19 @@ public final class RestResourceConversionHelper {
             }
 
             toRead -= r;
+            final long written;
             if (toRead > 0) {
-                to.write(buf, 0, r);
-                total += r;
+                written = r;
             } else {
-                to.write(buf, 0, (int) toRead + r);
-                total += toRead + r;
+                written = toRead + r;
                 toContinue = false;
             }
+            to.write(buf, 0, (int) written);
 
-            if (cacheWriteNotify != null) {
-                final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
-
-                // every 10 percent an event
-                if (newPercent == 100 || newPercent > progressPercent + 10) {
-                    progressPercent = newPercent;
-                    cacheWriteNotify.downloadProgressPercent(statusId, progressPercent);
-                }
+            if (session != null) {
+                session.served(start + total, written);
             }
+            total += written;
         }
         return total;
     }
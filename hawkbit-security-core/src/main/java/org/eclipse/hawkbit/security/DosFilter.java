@@ -9,15 +9,17 @@
 package org.eclipse.hawkbit.security;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.hawkbit.security.ratelimit.IpAddressMatcher;
+import org.eclipse.hawkbit.security.ratelimit.RateLimiter;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,16 +27,17 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 /**
  * Filter for protection against denial of service attacks. It reduces the
  * maximum number of request per seconds which can be separately configured for
- * read (GET) and write (PUT/POST/DELETE) requests. requests
- *
- *
+ * read (GET) and write (PUT/POST/DELETE) requests per client IP address.
+ * Optionally the requests per tenant and per controller (DDI API) can be
+ * limited as well, e.g. for many devices behind one NAT gateway.
  *
+ * The limits are enforced by lock free token buckets (see
+ * {@link RateLimiter}), i.e. a client which keeps on sending requests is
+ * throttled to the configured rate instead of being blocked as long as it
+ * keeps on sending.
  *
  */
 public class DosFilter extends OncePerRequestFilter {
@@ -43,18 +46,25 @@ public class DosFilter extends OncePerRequestFilter {
     private static final Logger LOG_DOS = LoggerFactory.getLogger("server-security.dos");
     private static final Logger LOG_BLACKLIST = LoggerFactory.getLogger("server-security.blacklist");
 
-    private final Pattern ipAdressBlacklist;
+    private static final String CONTROLLER_PATH_SEGMENT = "controller";
 
-    private final Cache<String, AtomicInteger> readCountCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.SECONDS).build();
+    /**
+     * Default maximum number of read requests per second per client.
+     */
+    public static final int DEFAULT_MAX_READ = 200;
 
-    private final Cache<String, AtomicInteger> writeCountCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.SECONDS).build();
+    /**
+     * Default maximum number of write requests per second per client.
+     */
+    public static final int DEFAULT_MAX_WRITE = 50;
 
-    private final Integer maxRead;
-    private final Integer maxWrite;
+    private final IpAddressMatcher blacklist;
+    private final IpAddressMatcher whitelist;
 
-    private final Pattern whitelist;
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final RateLimiter tenantLimiter;
+    private final RateLimiter controllerLimiter;
 
     private final String forwardHeader;
 
@@ -63,37 +73,88 @@ public class DosFilter extends OncePerRequestFilter {
      *
      * @param maxRead
      *            Maximum number of allowed REST read/GET requests per second
-     *            per client
+     *            per client, {@code null} for {@link #DEFAULT_MAX_READ}
      * @param maxWrite
      *            Maximum number of allowed REST write/(PUT/POST/etc.) requests
-     *            per second per client
+     *            per second per client, {@code null} for
+     *            {@link #DEFAULT_MAX_WRITE}
      * @param ipDosWhiteListPattern
-     *            {@link Pattern} with with white list of peer IP addresses for
-     *            DOS filter
+     *            white list of peer IP addresses for DOS filter, either as
+     *            comma separated CIDR list or as regular expression
      * @param ipBlackListPattern
-     *            {@link Pattern} with black listed IP addresses
+     *            black listed IP addresses, either as comma separated CIDR
+     *            list or as regular expression
      * @param forwardHeader
      *            the header containing the forwarded IP address e.g.
      *            {@code x-forwarded-for}
      */
     public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteListPattern,
             final String ipBlackListPattern, final String forwardHeader) {
+        this(maxRead == null ? DEFAULT_MAX_READ : maxRead, maxWrite == null ? DEFAULT_MAX_WRITE : maxWrite, 0, 0,
+                ipDosWhiteListPattern, ipBlackListPattern, forwardHeader);
+    }
+
+    /**
+     * Filter constructor including configuration.
+     *
+     * @param maxRead
+     *            Maximum number of allowed REST read/GET requests per second
+     *            per client
+     * @param maxWrite
+     *            Maximum number of allowed REST write/(PUT/POST/etc.) requests
+     *            per second per client
+     * @param maxPerTenant
+     *            Maximum number of allowed DDI requests per second per tenant
+     *            ({@code 0} to disable)
+     * @param maxPerController
+     *            Maximum number of allowed DDI requests per second per
+     *            controller ({@code 0} to disable)
+     * @param ipDosWhiteListPattern
+     *            white list of peer IP addresses for DOS filter, either as
+     *            comma separated CIDR list or as regular expression
+     * @param ipBlackListPattern
+     *            black listed IP addresses, either as comma separated CIDR
+     *            list or as regular expression
+     * @param forwardHeader
+     *            the header containing the forwarded IP address e.g.
+     *            {@code x-forwarded-for}
+     */
+    public DosFilter(final int maxRead, final int maxWrite, final int maxPerTenant, final int maxPerController,
+            final String ipDosWhiteListPattern, final String ipBlackListPattern, final String forwardHeader) {
         super();
-        this.maxRead = maxRead;
-        this.maxWrite = maxWrite;
         this.forwardHeader = forwardHeader;
+        this.blacklist = IpAddressMatcher.compile(ipBlackListPattern);
+        this.whitelist = IpAddressMatcher.compile(ipDosWhiteListPattern);
 
-        if (ipBlackListPattern != null && !ipBlackListPattern.isEmpty()) {
-            ipAdressBlacklist = Pattern.compile(ipBlackListPattern);
-        } else {
-            ipAdressBlacklist = null;
-        }
+        this.readLimiter = new RateLimiter("read", maxRead);
+        this.writeLimiter = new RateLimiter("write", maxWrite);
+        this.tenantLimiter = maxPerTenant > 0 ? new RateLimiter("tenant", maxPerTenant) : null;
+        this.controllerLimiter = maxPerController > 0 ? new RateLimiter("controller", maxPerController) : null;
+    }
 
-        if (ipDosWhiteListPattern != null && !ipDosWhiteListPattern.isEmpty()) {
-            whitelist = Pattern.compile(ipDosWhiteListPattern);
-        } else {
-            whitelist = null;
+    /**
+     * @return all active rate limiters of the filter, e.g. for metrics or
+     *         cluster wide synchronization
+     */
+    public List<RateLimiter> getRateLimiters() {
+        final List<RateLimiter> limiters = new ArrayList<>(4);
+        limiters.add(readLimiter);
+        limiters.add(writeLimiter);
+        if (tenantLimiter != null) {
+            limiters.add(tenantLimiter);
+        }
+        if (controllerLimiter != null) {
+            limiters.add(controllerLimiter);
         }
+        return Collections.unmodifiableList(limiters);
+    }
+
+    /**
+     * Discards the full buckets of all rate limiters, has to be called
+     * periodically.
+     */
+    public void sweep() {
+        getRateLimiters().forEach(RateLimiter::sweep);
     }
 
     /*
@@ -116,7 +177,7 @@ public class DosFilter extends OncePerRequestFilter {
         } else {
             processChain = checkAgainstBlacklist(response, ip);
 
-            if (processChain && (whitelist == null || !whitelist.matcher(ip).find())) {
+            if (processChain && !whitelist.matches(ip)) {
                 // read request
                 if (HttpMethod.valueOf(request.getMethod()) == HttpMethod.GET) {
                     processChain = handleReadRequest(response, ip);
@@ -125,6 +186,10 @@ public class DosFilter extends OncePerRequestFilter {
                 else {
                     processChain = handleWriteRequest(response, ip);
                 }
+
+                if (processChain && (tenantLimiter != null || controllerLimiter != null)) {
+                    processChain = handleControllerRequest(request, response);
+                }
             }
         }
 
@@ -139,7 +204,7 @@ public class DosFilter extends OncePerRequestFilter {
      *         processing of the request if forbidden
      */
     private boolean checkAgainstBlacklist(final HttpServletResponse response, final String ip) {
-        if (ipAdressBlacklist != null && ipAdressBlacklist.matcher(ip).find()) {
+        if (blacklist.matches(ip)) {
             LOG_BLACKLIST.info("Blacklisted client ({}) tries to access the server!", ip);
             response.setStatus(HttpStatus.FORBIDDEN.value());
             return false;
@@ -160,34 +225,49 @@ public class DosFilter extends OncePerRequestFilter {
     }
 
     private boolean handleWriteRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = writeCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            writeCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxWrite) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!", ip,
-                    maxWrite);
+        if (!writeLimiter.tryAcquire(ip)) {
+            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold!", ip);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+            return false;
         }
-
-        return processChain;
+        return true;
     }
 
     private boolean handleReadRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = readCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            readCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxRead) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!", ip,
-                    maxRead);
+        if (!readLimiter.tryAcquire(ip)) {
+            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold!", ip);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+            return false;
         }
+        return true;
+    }
 
-        return processChain;
+    /**
+     * Applies the tenant and controller quotas on DDI requests, i.e.
+     * {@code /{tenant}/controller/v1/{controllerId}/**}.
+     */
+    private boolean handleControllerRequest(final HttpServletRequest request, final HttpServletResponse response) {
+        final String[] segments = request.getRequestURI().substring(request.getContextPath().length()).split("/");
+        // segments[0] is empty as the path starts with a slash
+        if (segments.length < 3 || !CONTROLLER_PATH_SEGMENT.equals(segments[2])) {
+            return true;
+        }
+
+        final String tenant = segments[1].toUpperCase();
+        if (tenantLimiter != null && !tenantLimiter.tryAcquire(tenant)) {
+            LOG_DOS.info("Tenant {} is above configured request threshold!", tenant);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return false;
+        }
+
+        if (controllerLimiter != null && segments.length >= 5) {
+            final String controller = tenant + '/' + segments[4];
+            if (!controllerLimiter.tryAcquire(controller)) {
+                LOG_DOS.info("Controller {} is above configured request threshold!", controller);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                return false;
+            }
+        }
+        return true;
     }
 }
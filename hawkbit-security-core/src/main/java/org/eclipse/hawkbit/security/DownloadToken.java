@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The content of a validated download token issued by the
+ * {@link DownloadTokenSigner}, which permits the download of an artifact by
+ * its SHA1 hash.
+ *
+ */
+public final class DownloadToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String tenant;
+    private final String sha1Hash;
+    private final String controllerId;
+    private final long expiresAt;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the token is issued for
+     * @param sha1Hash
+     *            of the artifact which can be downloaded
+     * @param controllerId
+     *            of the target the token is issued for or {@code null} for
+     *            anonymous downloads
+     * @param expiresAt
+     *            time in milliseconds until the token is valid
+     */
+    public DownloadToken(final String tenant, final String sha1Hash, final String controllerId,
+            final long expiresAt) {
+        this.tenant = tenant;
+        this.sha1Hash = sha1Hash;
+        this.controllerId = controllerId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getSha1Hash() {
+        return sha1Hash;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tenant, sha1Hash, controllerId, expiresAt);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DownloadToken)) {
+            return false;
+        }
+        final DownloadToken other = (DownloadToken) obj;
+        return Objects.equals(tenant, other.tenant) && Objects.equals(sha1Hash, other.sha1Hash)
+                && Objects.equals(controllerId, other.controllerId) && expiresAt == other.expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadToken [tenant=" + tenant + ", sha1Hash=" + sha1Hash + ", controllerId=" + controllerId
+                + ", expiresAt=" + expiresAt + "]";
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties.DownloadTokenSigning;
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties.DownloadTokenSigning.DownloadTokenMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Issues and validates HMAC signed download tokens which encode the tenant,
+ * the SHA1 hash of the artifact, the controller ID and the expiry, so any node
+ * can validate a download URL without a lookup in the download ID cache.
+ *
+ * A token has the form {@code keyId~payload~signature}, the payload and the
+ * HMAC-SHA256 signature are Base64 URL encoded. The key ID selects the key of
+ * {@link DownloadTokenSigning#getKeys()} the signature is validated with.
+ *
+ * In contrast to the cached download IDs a signed token can be used until it
+ * expires.
+ */
+@Service
+public class DownloadTokenSigner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadTokenSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '~';
+    private static final String FIELD_SEPARATOR = "\n";
+    private static final int FIELDS = 4;
+
+    private final HawkbitSecurityProperties securityProperties;
+
+    /**
+     * Autowired constructor.
+     *
+     * @param securityProperties
+     *            containing the keys
+     */
+    @Autowired
+    public DownloadTokenSigner(final HawkbitSecurityProperties securityProperties) {
+        this.securityProperties = securityProperties;
+    }
+
+    /**
+     * @return {@code true} if signed tokens are configured and a key to sign
+     *         them is available, otherwise the download ID cache has to be
+     *         used
+     */
+    public boolean isEnabled() {
+        final DownloadTokenSigning config = securityProperties.getDownloadToken();
+        return config.getMode() == DownloadTokenMode.SIGNED && isKey(config.getKeys().get(config.getSigningKey()));
+    }
+
+    /**
+     * Issues a token for the download of an artifact.
+     *
+     * @param tenant
+     *            the artifact belongs to
+     * @param sha1Hash
+     *            of the artifact
+     * @param controllerId
+     *            of the target which downloads the artifact or {@code null}
+     *            for anonymous downloads
+     * @return the signed token
+     *
+     * @throws IllegalStateException
+     *             if no signing key is configured
+     */
+    public String sign(final String tenant, final String sha1Hash, final String controllerId) {
+        final DownloadTokenSigning config = securityProperties.getDownloadToken();
+        final String keyId = config.getSigningKey();
+        final String secret = config.getKeys().get(keyId);
+        if (!isKey(secret)) {
+            throw new IllegalStateException("Download token signing key " + keyId + " is not configured");
+        }
+
+        final long expiresAt = System.currentTimeMillis() + config.getValidity();
+        final String payload = encode(String.join(FIELD_SEPARATOR, tenant, sha1Hash,
+                controllerId == null ? "" : controllerId, String.valueOf(expiresAt))
+                .getBytes(StandardCharsets.UTF_8));
+        final String signed = keyId + SEPARATOR + payload;
+        return signed + SEPARATOR + encode(hmac(secret, signed));
+    }
+
+    /**
+     * Validates the given token.
+     *
+     * @param token
+     *            to validate
+     * @return the content of the token or {@code null} if the token is not a
+     *         signed token, its signature is invalid or it is expired
+     */
+    public DownloadToken verify(final String token) {
+        final int signatureStart = token.lastIndexOf(SEPARATOR);
+        final int payloadStart = signatureStart > 0 ? token.lastIndexOf(SEPARATOR, signatureStart - 1) : -1;
+        if (payloadStart <= 0) {
+            return null;
+        }
+
+        final String keyId = token.substring(0, payloadStart);
+        final String secret = securityProperties.getDownloadToken().getKeys().get(keyId);
+        if (!isKey(secret)) {
+            LOG.debug("Download token signed with unknown key {}", keyId);
+            return null;
+        }
+
+        final DownloadToken downloadToken;
+        try {
+            final byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, hmac(secret, token.substring(0, signatureStart)))) {
+                LOG.debug("Download token with invalid signature");
+                return null;
+            }
+
+            final String[] fields = new String(
+                    Base64.getUrlDecoder().decode(token.substring(payloadStart + 1, signatureStart)),
+                    StandardCharsets.UTF_8).split(FIELD_SEPARATOR, -1);
+            if (fields.length != FIELDS) {
+                return null;
+            }
+            downloadToken = new DownloadToken(fields[0], fields[1], fields[2].isEmpty() ? null : fields[2],
+                    Long.parseLong(fields[3]));
+        } catch (final IllegalArgumentException e) {
+            LOG.debug("Malformed download token", e);
+            return null;
+        }
+
+        if (downloadToken.getExpiresAt() < System.currentTimeMillis()) {
+            LOG.debug("Download token {} expired", downloadToken);
+            return null;
+        }
+        return downloadToken;
+    }
+
+    private static boolean isKey(final String secret) {
+        return secret != null && !secret.isEmpty();
+    }
+
+    private static String encode(final byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] hmac(final String secret, final String data) {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Download tokens cannot be signed", e);
+        }
+    }
+}
@@ -8,6 +8,9 @@
  */
 package org.eclipse.hawkbit.security;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +25,7 @@ public class HawkbitSecurityProperties {
     private final Clients clients = new Clients();
     private final Dos dos = new Dos();
     private final Xframe xframe = new Xframe();
+    private final DownloadTokenSigning downloadToken = new DownloadTokenSigning();
 
     public Dos getDos() {
         return dos;
@@ -35,6 +39,93 @@ public class HawkbitSecurityProperties {
         return xframe;
     }
 
+    public DownloadTokenSigning getDownloadToken() {
+        return downloadToken;
+    }
+
+    /**
+     * Download tokens which are handed out to DMF clients to download an
+     * artifact from the download server.
+     *
+     */
+    public static class DownloadTokenSigning {
+
+        /**
+         * Mode of the download tokens, SIGNED to hand out HMAC signed tokens
+         * which are validated by any node without a cache lookup, CACHE to
+         * hand out random IDs which are stored in the download ID cache and
+         * can be used only once.
+         */
+        private DownloadTokenMode mode = DownloadTokenMode.SIGNED;
+
+        /**
+         * ID of the key in {@link #keys} tokens are signed with. Signed tokens
+         * are only handed out if the key is configured, otherwise the cache is
+         * used.
+         */
+        private String signingKey = "";
+
+        /**
+         * Secrets of the HMAC keys by key ID. All keys are accepted when a
+         * token is validated, so a key can be rotated by adding a new key on
+         * all nodes, switching the signing key and removing the old key after
+         * the validity of its tokens.
+         */
+        private Map<String, String> keys = new HashMap<>();
+
+        /**
+         * Validity of a signed token in milliseconds.
+         */
+        private long validity = 600000L;
+
+        public DownloadTokenMode getMode() {
+            return mode;
+        }
+
+        public void setMode(final DownloadTokenMode mode) {
+            this.mode = mode;
+        }
+
+        public String getSigningKey() {
+            return signingKey;
+        }
+
+        public void setSigningKey(final String signingKey) {
+            this.signingKey = signingKey;
+        }
+
+        public Map<String, String> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(final Map<String, String> keys) {
+            this.keys = keys;
+        }
+
+        public long getValidity() {
+            return validity;
+        }
+
+        public void setValidity(final long validity) {
+            this.validity = validity;
+        }
+
+        /**
+         * The kind of download tokens handed out.
+         */
+        public enum DownloadTokenMode {
+            /**
+             * HMAC signed, expiring tokens.
+             */
+            SIGNED,
+
+            /**
+             * Random one time IDs stored in the download ID cache.
+             */
+            CACHE;
+        }
+    }
+
     /**
      * Defines the XFrameOption policy.
      *
@@ -150,22 +241,37 @@ public class HawkbitSecurityProperties {
         public static class Filter {
 
             /**
-             * White list of peer IP addresses for DOS filter (regular
-             * expression).
+             * White list of peer IP addresses for DOS filter (comma separated
+             * CIDR ranges, regular expressions are still supported but
+             * deprecated).
              */
-            private String whitelist = "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|192\\.168\\.\\d{1,3}\\.\\d{1,3}|169\\.254\\.\\d{1,3}\\.\\d{1,3}|127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|172\\.1[6-9]{1}\\.\\d{1,3}\\.\\d{1,3}|172\\.2[0-9]{1}\\.\\d{1,3}\\.\\d{1,3}|172\\.3[0-1]{1}\\.\\d{1,3}\\.\\d{1,3}";
+            private String whitelist = "10.0.0.0/8,192.168.0.0/16,169.254.0.0/16,127.0.0.0/8,172.16.0.0/12,::1";
 
             /**
              * # Maximum number of allowed REST read/GET requests per second per
              * client.
              */
-            int maxRead = 200;
+            int maxRead = DosFilter.DEFAULT_MAX_READ;
 
             /**
              * Maximum number of allowed REST write/(PUT/POST/etc.) requests per
              * second per client.
              */
-            int maxWrite = 50;
+            int maxWrite = DosFilter.DEFAULT_MAX_WRITE;
+
+            /**
+             * Maximum number of allowed DDI requests per second per tenant (0
+             * to disable).
+             */
+            private int maxPerTenant;
+
+            /**
+             * Maximum number of allowed DDI requests per second per controller
+             * (0 to disable).
+             */
+            private int maxPerController;
+
+            private final Cluster cluster = new Cluster();
 
             public String getWhitelist() {
                 return whitelist;
@@ -191,6 +297,60 @@ public class HawkbitSecurityProperties {
                 this.maxWrite = maxWrite;
             }
 
+            public int getMaxPerTenant() {
+                return maxPerTenant;
+            }
+
+            public void setMaxPerTenant(final int maxPerTenant) {
+                this.maxPerTenant = maxPerTenant;
+            }
+
+            public int getMaxPerController() {
+                return maxPerController;
+            }
+
+            public void setMaxPerController(final int maxPerController) {
+                this.maxPerController = maxPerController;
+            }
+
+            public Cluster getCluster() {
+                return cluster;
+            }
+
+            /**
+             * Cluster wide rate limiting, i.e. the consumption of all nodes is
+             * synchronized through Redis.
+             *
+             */
+            public static class Cluster {
+
+                /**
+                 * Synchronize the rate limits across the cluster nodes.
+                 */
+                private boolean enabled;
+
+                /**
+                 * Synchronization interval in milliseconds.
+                 */
+                private long syncInterval = 1000;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(final boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public long getSyncInterval() {
+                    return syncInterval;
+                }
+
+                public void setSyncInterval(final long syncInterval) {
+                    this.syncInterval = syncInterval;
+                }
+            }
+
         }
     }
 }
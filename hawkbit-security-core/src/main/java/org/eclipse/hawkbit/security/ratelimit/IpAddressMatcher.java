@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.InetAddresses;
+
+/**
+ * Matches IP addresses against a comma separated list of CIDR ranges or single
+ * addresses, e.g. {@code 10.0.0.0/8,192.168.0.0/16,::1}. The ranges are
+ * precompiled into byte masks so a match does not allocate besides parsing the
+ * address literal.
+ *
+ * For backwards compatibility a configuration which is not a CIDR list is
+ * interpreted as regular expression like before. In that case the results are
+ * memorized per address to avoid evaluating the expression on every request.
+ *
+ */
+public final class IpAddressMatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IpAddressMatcher.class);
+
+    private static final IpAddressMatcher NONE = new IpAddressMatcher(Collections.emptyList(), null);
+
+    private static final int MAX_CACHED_REGEX_RESULTS = 10_000;
+
+    private final List<Range> ranges;
+    private final Pattern legacyPattern;
+    private final Cache<String, Boolean> legacyResults;
+
+    private IpAddressMatcher(final List<Range> ranges, final Pattern legacyPattern) {
+        this.ranges = ranges;
+        this.legacyPattern = legacyPattern;
+        this.legacyResults = legacyPattern == null ? null
+                : CacheBuilder.newBuilder().maximumSize(MAX_CACHED_REGEX_RESULTS)
+                        .expireAfterWrite(1, TimeUnit.HOURS).build();
+    }
+
+    /**
+     * @param configuration
+     *            comma separated list of CIDR ranges or addresses, or a
+     *            regular expression (deprecated)
+     * @return the matcher, never {@code null}
+     */
+    public static IpAddressMatcher compile(final String configuration) {
+        if (configuration == null || configuration.trim().isEmpty()) {
+            return NONE;
+        }
+
+        final List<Range> ranges = new ArrayList<>();
+        for (final String entry : configuration.split(",")) {
+            final Range range = Range.parse(entry.trim());
+            if (range == null) {
+                LOG.warn("Entry '{}' of IP address configuration {} is not a CIDR range or address, "
+                        + "falling back to regular expression matching for the whole configuration", entry.trim(),
+                        configuration);
+                return new IpAddressMatcher(Collections.emptyList(), Pattern.compile(configuration));
+            }
+            ranges.add(range);
+        }
+        return new IpAddressMatcher(ranges, null);
+    }
+
+    /**
+     * @param ip
+     *            the address literal, IPv6 addresses may be enclosed in
+     *            brackets
+     * @return {@code true} if the address is within one of the configured
+     *         ranges
+     */
+    public boolean matches(final String ip) {
+        if (legacyPattern != null) {
+            final Boolean cached = legacyResults.getIfPresent(ip);
+            if (cached != null) {
+                return cached;
+            }
+            final boolean result = legacyPattern.matcher(ip).find();
+            legacyResults.put(ip, result);
+            return result;
+        }
+
+        if (ranges.isEmpty()) {
+            return false;
+        }
+
+        final byte[] address = toBytes(ip);
+        if (address == null) {
+            return false;
+        }
+        for (final Range range : ranges) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if no address matches
+     */
+    public boolean isEmpty() {
+        return legacyPattern == null && ranges.isEmpty();
+    }
+
+    private static byte[] toBytes(final String ip) {
+        String literal = ip;
+        if (literal.startsWith("[") && literal.endsWith("]")) {
+            literal = literal.substring(1, literal.length() - 1);
+        }
+        // only parses literals, never resolves host names
+        if (!InetAddresses.isInetAddress(literal)) {
+            return null;
+        }
+        return InetAddresses.forString(literal).getAddress();
+    }
+
+    private static final class Range {
+        private final byte[] network;
+        private final byte[] mask;
+
+        private Range(final byte[] network, final int prefixLength) {
+            this.mask = new byte[network.length];
+            for (int i = 0; i < mask.length; i++) {
+                final int bits = Math.max(0, Math.min(8, prefixLength - i * 8));
+                mask[i] = (byte) (0xFF << (8 - bits));
+            }
+            this.network = new byte[network.length];
+            for (int i = 0; i < network.length; i++) {
+                this.network[i] = (byte) (network[i] & mask[i]);
+            }
+        }
+
+        private static Range parse(final String entry) {
+            final int slash = entry.indexOf('/');
+            final String address = slash < 0 ? entry : entry.substring(0, slash);
+            final byte[] bytes = toBytes(address);
+            if (bytes == null) {
+                return null;
+            }
+
+            final int maxPrefix = bytes.length * 8;
+            int prefixLength = maxPrefix;
+            if (slash >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(entry.substring(slash + 1));
+                } catch (final NumberFormatException e) {
+                    LOG.trace("Invalid prefix length in {}", entry, e);
+                    return null;
+                }
+                if (prefixLength < 0 || prefixLength > maxPrefix) {
+                    return null;
+                }
+            }
+            return new Range(bytes, prefixLength);
+        }
+
+        private boolean contains(final byte[] address) {
+            // IPv4 mapped IPv6 addresses are already parsed as IPv4
+            if (address.length != network.length) {
+                return false;
+            }
+            for (int i = 0; i < network.length; i++) {
+                if ((address[i] & mask[i]) != network[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically synchronizes the bucket state of {@link RateLimiter}s across
+ * cluster nodes by means of a {@link RateLimitStateExchange}. Between two
+ * synchronizations every node admits requests based on its local state only,
+ * so the effective cluster wide limit may be exceeded by the amount consumed
+ * within one synchronization interval.
+ *
+ */
+public class RateLimitClusterSynchronizer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimitClusterSynchronizer.class);
+
+    private final Collection<RateLimiter> rateLimiters;
+    private final RateLimitStateExchange stateExchange;
+
+    /**
+     * @param rateLimiters
+     *            to synchronize
+     * @param stateExchange
+     *            to exchange the consumption with
+     */
+    public RateLimitClusterSynchronizer(final Collection<RateLimiter> rateLimiters,
+            final RateLimitStateExchange stateExchange) {
+        this.rateLimiters = rateLimiters;
+        this.stateExchange = stateExchange;
+        rateLimiters.forEach(RateLimiter::enableClusterSynchronization);
+    }
+
+    /**
+     * Publishes the local consumption of all rate limiters and applies the
+     * consumption of the other nodes.
+     */
+    public void synchronize() {
+        for (final RateLimiter rateLimiter : rateLimiters) {
+            try {
+                final Map<String, Long> remote = stateExchange.exchange(rateLimiter.getName(),
+                        rateLimiter.drainLocalConsumption());
+                rateLimiter.applyRemoteConsumption(remote);
+            } catch (final RuntimeException e) {
+                // rate limiting continues node local
+                LOG.warn("Synchronization of rate limiter {} failed", rateLimiter.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Exchanges the consumption of {@link RateLimiter} buckets between cluster
+ * nodes, e.g. through a shared Redis server.
+ *
+ */
+@FunctionalInterface
+public interface RateLimitStateExchange {
+
+    /**
+     * Publishes the tokens consumed on this node and returns the tokens
+     * consumed on the other nodes since the previous exchange.
+     *
+     * @param quota
+     *            name of the {@link RateLimiter}
+     * @param localConsumption
+     *            tokens consumed per key on this node since the previous
+     *            exchange
+     * @return tokens consumed per key on other nodes
+     */
+    Map<String, Long> exchange(String quota, Map<String, Long> localConsumption);
+}
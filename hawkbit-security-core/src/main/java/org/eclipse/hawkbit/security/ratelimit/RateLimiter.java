@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter for one quota, e.g. read requests per IP address. Holds one
+ * {@link TokenBucket} per key. Buckets which are full again are discarded by
+ * {@link #sweep()}, which has to be called periodically, so the memory
+ * consumption is bound by the number of clients which have been active within
+ * the last burst period.
+ *
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder admitted = new LongAdder();
+
+    private volatile boolean clusterSynchronized;
+
+    /**
+     * Creates a rate limiter with a capacity that equals the rate, i.e. a
+     * client may consume a whole second worth of tokens at once.
+     *
+     * @param name
+     *            of the quota, e.g. used for metrics
+     * @param permitsPerSecond
+     *            sustained number of requests per second and key
+     */
+    public RateLimiter(final String name, final int permitsPerSecond) {
+        this(name, permitsPerSecond, permitsPerSecond, System::nanoTime);
+    }
+
+    /**
+     * @param name
+     *            of the quota, e.g. used for metrics
+     * @param permitsPerSecond
+     *            sustained number of requests per second and key
+     * @param burst
+     *            maximum number of requests a key can issue at once
+     * @param clock
+     *            the nano time source
+     */
+    public RateLimiter(final String name, final int permitsPerSecond, final int burst, final LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be greater than 0");
+        }
+        this.name = name;
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Tries to acquire a permit for the given key.
+     *
+     * @param key
+     *            e.g. the IP address of the client
+     * @return {@code true} if the request is admitted
+     */
+    public boolean tryAcquire(final String key) {
+        final long now = clock.getAsLong();
+        while (true) {
+            final TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            if (bucket.tryConsume(now, emissionIntervalNanos, burstToleranceNanos)) {
+                admitted.increment();
+                return true;
+            }
+            // a concurrently swept bucket has been full, retry with a new one
+            if (!bucket.isSwept()) {
+                rejected.increment();
+                return false;
+            }
+            buckets.remove(key, bucket);
+        }
+    }
+
+    /**
+     * Keeps buckets with consumption which has not been drained by
+     * {@link #drainLocalConsumption()} yet on {@link #sweep()}, as the
+     * consumption of a discarded bucket would not be published to the other
+     * cluster nodes. Called by the {@link RateLimitClusterSynchronizer}.
+     */
+    public void enableClusterSynchronization() {
+        clusterSynchronized = true;
+    }
+
+    /**
+     * @return the tokens consumed per key since the last call, used to
+     *         synchronize the buckets across cluster nodes
+     */
+    public Map<String, Long> drainLocalConsumption() {
+        final Map<String, Long> consumption = new HashMap<>();
+        buckets.forEach((key, bucket) -> {
+            final long consumed = bucket.drainUnsynchronizedConsumption();
+            if (consumed > 0) {
+                consumption.put(key, consumed);
+            }
+        });
+        return consumption;
+    }
+
+    /**
+     * Applies the tokens which have been consumed on other cluster nodes.
+     *
+     * @param remoteConsumption
+     *            tokens consumed per key on other nodes
+     */
+    public void applyRemoteConsumption(final Map<String, Long> remoteConsumption) {
+        final long now = clock.getAsLong();
+        remoteConsumption.forEach((key, tokens) -> {
+            if (tokens <= 0) {
+                return;
+            }
+            TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            while (!bucket.consumeRemote(tokens, now, emissionIntervalNanos, burstToleranceNanos)) {
+                buckets.remove(key, bucket);
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            }
+        });
+    }
+
+    /**
+     * Discards the buckets which are full again. Concurrent requests of a
+     * discarded key get a new bucket, so no consumption is lost. If the
+     * cluster synchronization is enabled, buckets are discarded only after
+     * their consumption has been drained.
+     */
+    public void sweep() {
+        final long now = clock.getAsLong();
+        final boolean keepUnsynchronized = clusterSynchronized;
+        buckets.forEach((key, bucket) -> {
+            if (bucket.sweepIfFull(now, keepUnsynchronized)) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of rejected requests since startup
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return number of admitted requests since startup
+     */
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return number of keys which currently have a non full bucket
+     */
+    public int getActiveKeys() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock free token bucket based on the generic cell rate algorithm. Instead of
+ * a token count and a refill timestamp only the theoretical arrival time of
+ * the next request is stored, so a request is admitted with a single
+ * compare-and-set. Tokens are refilled continuously, i.e. there are no fixed
+ * windows which could be reset or extended by the client.
+ *
+ */
+public class TokenBucket {
+
+    // a swept bucket takes no tokens anymore, it has been replaced
+    private static final long SWEPT = Long.MAX_VALUE;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    private final AtomicLong unsynchronizedConsumption = new AtomicLong();
+
+    /**
+     * @param nowNanos
+     *            the current time in nanoseconds, the bucket is full
+     */
+    TokenBucket(final long nowNanos) {
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tries to take a token from the bucket.
+     *
+     * @param nowNanos
+     *            the current time in nanoseconds
+     * @param emissionIntervalNanos
+     *            time in nanoseconds in which one token is refilled
+     * @param burstToleranceNanos
+     *            time in nanoseconds the bucket may be ahead of the current
+     *            time, i.e. {@code (capacity - 1) * emissionInterval}
+     * @return {@code true} if the token has been taken, {@code false} if the
+     *         bucket is empty
+     */
+    boolean tryConsume(final long nowNanos, final long emissionIntervalNanos, final long burstToleranceNanos) {
+        while (true) {
+            final long current = theoreticalArrivalTime.get();
+            final long tat = Math.max(current, nowNanos);
+            if (current == SWEPT || tat - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, tat + emissionIntervalNanos)) {
+                unsynchronizedConsumption.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes tokens which have been consumed on other cluster nodes.
+     *
+     * @param tokens
+     *            number of tokens to remove
+     * @param nowNanos
+     *            the current time in nanoseconds
+     * @param emissionIntervalNanos
+     *            time in nanoseconds in which one token is refilled
+     * @param burstToleranceNanos
+     *            time in nanoseconds the bucket may be ahead of the current
+     *            time
+     * @return {@code false} if the bucket has been swept, i.e. the tokens
+     *         have to be removed from the bucket which replaced it
+     */
+    boolean consumeRemote(final long tokens, final long nowNanos, final long emissionIntervalNanos,
+            final long burstToleranceNanos) {
+        // the bucket cannot get more than one emission interval beyond the
+        // burst tolerance, otherwise a remote burst would block the client
+        // much longer than the configured rate
+        final long limit = nowNanos + burstToleranceNanos + emissionIntervalNanos;
+        return theoreticalArrivalTime.updateAndGet(current -> current == SWEPT ? SWEPT
+                : Math.min(Math.max(current, nowNanos) + tokens * emissionIntervalNanos, limit)) != SWEPT;
+    }
+
+    /**
+     * @return the number of tokens consumed since the last call and resets
+     *         the counter
+     */
+    long drainUnsynchronizedConsumption() {
+        return unsynchronizedConsumption.getAndSet(0);
+    }
+
+    /**
+     * Marks the bucket as swept if it is full again, i.e. it can be discarded
+     * without losing state. A swept bucket takes no tokens anymore, so a
+     * concurrent consumer has to use a new bucket instead.
+     *
+     * @param nowNanos
+     *            the current time in nanoseconds
+     * @param keepUnsynchronized
+     *            {@code true} if a bucket with consumption which has not been
+     *            drained yet must not be swept, i.e. if the consumption is
+     *            synchronized across cluster nodes
+     * @return {@code true} if the bucket has been swept
+     */
+    boolean sweepIfFull(final long nowNanos, final boolean keepUnsynchronized) {
+        final long current = theoreticalArrivalTime.get();
+        return current <= nowNanos && !(keepUnsynchronized && unsynchronizedConsumption.get() > 0)
+                && theoreticalArrivalTime.compareAndSet(current, SWEPT);
+    }
+
+    /**
+     * @return {@code true} if the bucket has been swept
+     */
+    boolean isSwept() {
+        return theoreticalArrivalTime.get() == SWEPT;
+    }
+}
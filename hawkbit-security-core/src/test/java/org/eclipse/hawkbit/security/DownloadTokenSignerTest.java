@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties.DownloadTokenSigning.DownloadTokenMode;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Download Token Signer Test")
+public class DownloadTokenSignerTest {
+
+    private HawkbitSecurityProperties securityProperties;
+
+    private DownloadTokenSigner underTest;
+
+    @Before
+    public void before() {
+        securityProperties = new HawkbitSecurityProperties();
+        securityProperties.getDownloadToken().getKeys().put("k1", "secret1");
+        securityProperties.getDownloadToken().setSigningKey("k1");
+        underTest = new DownloadTokenSigner(securityProperties);
+    }
+
+    @Test
+    @Description("Verifies that a signed token is validated and contains the signed values.")
+    public void signedTokenIsValid() {
+        assertThat(underTest.isEnabled()).isTrue();
+
+        final DownloadToken token = underTest.verify(underTest.sign("tenant", "sha1", "controller~1"));
+        assertThat(token).isNotNull();
+        assertThat(token.getTenant()).isEqualTo("tenant");
+        assertThat(token.getSha1Hash()).isEqualTo("sha1");
+        assertThat(token.getControllerId()).isEqualTo("controller~1");
+        assertThat(token.getExpiresAt()).isGreaterThan(System.currentTimeMillis());
+
+        assertThat(underTest.verify(underTest.sign("tenant", "sha1", null)).getControllerId()).isNull();
+    }
+
+    @Test
+    @Description("Verifies that tokens with a modified payload, a foreign signature or no signature are rejected.")
+    public void modifiedTokenIsRejected() {
+        final String token = underTest.sign("tenant", "sha1", "controller");
+        final String[] parts = token.split("~");
+        final String otherPayload = underTest.sign("other", "sha1", "controller").split("~")[1];
+
+        assertThat(underTest.verify(parts[0] + "~" + otherPayload + "~" + parts[2])).isNull();
+        assertThat(underTest.verify(parts[0] + "~" + parts[1])).isNull();
+        assertThat(underTest.verify(parts[0] + "~" + parts[1] + "~%%")).isNull();
+        assertThat(underTest.verify("5fc2a7b8-0d1c-4bd8-a1d6-5a5d0a3e2f1b")).isNull();
+
+        securityProperties.getDownloadToken().getKeys().put("k1", "secret2");
+        assertThat(underTest.verify(token)).isNull();
+    }
+
+    @Test
+    @Description("Verifies that an expired token is rejected.")
+    public void expiredTokenIsRejected() {
+        securityProperties.getDownloadToken().setValidity(-1);
+        assertThat(underTest.verify(underTest.sign("tenant", "sha1", "controller"))).isNull();
+    }
+
+    @Test
+    @Description("Verifies that tokens of the previous key are accepted after the signing key has been rotated until the key is removed.")
+    public void keyRotation() {
+        final String oldToken = underTest.sign("tenant", "sha1", "controller");
+
+        securityProperties.getDownloadToken().getKeys().put("k2", "secret2");
+        securityProperties.getDownloadToken().setSigningKey("k2");
+        final String newToken = underTest.sign("tenant", "sha1", "controller");
+        assertThat(newToken).startsWith("k2~");
+        assertThat(underTest.verify(oldToken)).isNotNull();
+        assertThat(underTest.verify(newToken)).isNotNull();
+
+        securityProperties.getDownloadToken().getKeys().remove("k1");
+        assertThat(underTest.verify(oldToken)).isNull();
+        assertThat(underTest.verify(newToken)).isNotNull();
+    }
+
+    @Test
+    @Description("Verifies that signed tokens are not handed out in cache mode or without a signing key.")
+    public void disabledWithoutKeyOrInCacheMode() {
+        securityProperties.getDownloadToken().setMode(DownloadTokenMode.CACHE);
+        assertThat(underTest.isEnabled()).isFalse();
+
+        securityProperties.getDownloadToken().setMode(DownloadTokenMode.SIGNED);
+        securityProperties.getDownloadToken().setSigningKey("unknown");
+        assertThat(underTest.isEnabled()).isFalse();
+    }
+}
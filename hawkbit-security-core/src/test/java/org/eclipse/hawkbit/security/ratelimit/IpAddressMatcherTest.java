@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("IP Address Matcher Test")
+public class IpAddressMatcherTest {
+
+    @Test
+    @Description("Verifies matching of IPv4 and IPv6 addresses against CIDR ranges.")
+    public void matchesCidrRanges() {
+        final IpAddressMatcher matcher = IpAddressMatcher.compile("10.0.0.0/8, 172.16.0.0/12,::1,2001:db8::/32");
+
+        assertThat(matcher.matches("10.1.2.3")).isTrue();
+        assertThat(matcher.matches("172.31.255.255")).isTrue();
+        assertThat(matcher.matches("172.32.0.1")).isFalse();
+        assertThat(matcher.matches("11.0.0.1")).isFalse();
+        assertThat(matcher.matches("[0:0:0:0:0:0:0:1]")).as("Bracketed IPv6 address should match").isTrue();
+        assertThat(matcher.matches("[2001:db8:0:0:0:0:0:1]")).isTrue();
+        assertThat(matcher.matches("[2001:db9:0:0:0:0:0:1]")).isFalse();
+        assertThat(matcher.matches("unknown")).as("Host names are never resolved").isFalse();
+    }
+
+    @Test
+    @Description("Verifies that regular expressions are still supported for backwards compatibility.")
+    public void fallsBackToRegularExpression() {
+        final IpAddressMatcher matcher = IpAddressMatcher.compile("127\\.0\\.0\\.1|\\[0:0:0:0:0:0:0:1\\]");
+
+        assertThat(matcher.matches("127.0.0.1")).isTrue();
+        assertThat(matcher.matches("[0:0:0:0:0:0:0:1]")).isTrue();
+        assertThat(matcher.matches("127.0.0.2")).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that an empty configuration matches nothing.")
+    public void emptyConfigurationMatchesNothing() {
+        assertThat(IpAddressMatcher.compile("").isEmpty()).isTrue();
+        assertThat(IpAddressMatcher.compile(null).matches("127.0.0.1")).isFalse();
+    }
+}
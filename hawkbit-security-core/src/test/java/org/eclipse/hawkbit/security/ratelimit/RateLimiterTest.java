@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security.ratelimit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Rate Limiter Test")
+public class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @Test
+    @Description("Verifies that a burst up to the capacity is admitted and further requests are rejected.")
+    public void burstIsLimitedToCapacity() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 10, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("client")).as("Request within burst should be admitted").isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire("client")).as("Request above burst should be rejected").isFalse();
+        assertThat(rateLimiter.tryAcquire("other")).as("Other keys have their own bucket").isTrue();
+
+        assertThat(rateLimiter.getAdmittedCount()).isEqualTo(11);
+        assertThat(rateLimiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that tokens are refilled continuously even if the client keeps on sending requests.")
+    public void tokensAreRefilledWhileClientKeepsSending() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("client");
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(rateLimiter.tryAcquire("client")).as("Bucket should be empty").isFalse();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            assertThat(rateLimiter.tryAcquire("client")).as("One token should be refilled after 100ms").isTrue();
+        }
+    }
+
+    @Test
+    @Description("Verifies that full buckets are discarded and the local consumption is drained once.")
+    public void fullBucketsAreDiscarded() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 10, clock::get);
+        rateLimiter.enableClusterSynchronization();
+        rateLimiter.tryAcquire("client");
+
+        final Map<String, Long> consumption = rateLimiter.drainLocalConsumption();
+        assertThat(consumption).isEqualTo(Collections.singletonMap("client", 1L));
+        assertThat(rateLimiter.drainLocalConsumption()).isEmpty();
+        assertThat(rateLimiter.getActiveKeys()).isEqualTo(1);
+
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).as("Non full bucket should be kept").isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        rateLimiter.tryAcquire("other");
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).as("Refilled bucket should be discarded").isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that a bucket which has been swept while a request holds it is replaced by a new one.")
+    public void sweptBucketIsReplaced() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 2, clock::get);
+        rateLimiter.enableClusterSynchronization();
+        final TokenBucket swept = new TokenBucket(clock.get());
+        assertThat(swept.sweepIfFull(clock.get(), true)).isTrue();
+        assertThat(swept.tryConsume(clock.get(), 1, 1)).as("Swept bucket should not take tokens").isFalse();
+        assertThat(swept.consumeRemote(1, clock.get(), 1, 1)).isFalse();
+
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).as("Bucket with consumption should not be swept").isEqualTo(1);
+        rateLimiter.drainLocalConsumption();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).isEqualTo(0);
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        assertThat(rateLimiter.tryAcquire("client")).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that used buckets are discarded once they are full again if the consumption is not "
+            + "synchronized across cluster nodes, but only after their consumption has been drained otherwise.")
+    public void usedBucketsAreDiscardedWithoutClusterSynchronization() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 10, clock::get);
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire("client" + i);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).as("Refilled buckets should be discarded").isEqualTo(0);
+
+        rateLimiter.enableClusterSynchronization();
+        rateLimiter.tryAcquire("client");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).as("Undrained bucket should be kept").isEqualTo(1);
+        rateLimiter.drainLocalConsumption();
+        rateLimiter.sweep();
+        assertThat(rateLimiter.getActiveKeys()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the consumption of other cluster nodes is subtracted from the local bucket.")
+    public void remoteConsumptionIsApplied() {
+        final RateLimiter rateLimiter = new RateLimiter("test", 10, 10, clock::get);
+        rateLimiter.applyRemoteConsumption(Collections.singletonMap("client", 8L));
+
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        assertThat(rateLimiter.tryAcquire("client")).as("Remote consumption should reduce the tokens").isFalse();
+        assertThat(rateLimiter.drainLocalConsumption()).as("Remote consumption should not be published again")
+                .isEqualTo(Collections.singletonMap("client", 2L));
+    }
+}
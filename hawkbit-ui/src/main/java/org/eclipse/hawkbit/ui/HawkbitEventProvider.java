@@ -11,15 +11,18 @@ package org.eclipse.hawkbit.ui;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.eclipse.hawkbit.eventbus.event.DistributionSetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagCreatedBulkEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagUpdateEvent;
 import org.eclipse.hawkbit.eventbus.event.Event;
 import org.eclipse.hawkbit.eventbus.event.RolloutChangeEvent;
 import org.eclipse.hawkbit.eventbus.event.RolloutGroupChangeEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetCreatedBulkEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetTagCreatedBulkEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetTagDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetTagUpdateEvent;
@@ -29,7 +32,7 @@ import org.eclipse.hawkbit.eventbus.event.TargetTagUpdateEvent;
  */
 public class HawkbitEventProvider implements UIEventProvider {
 
-    private static final Set<Class<? extends Event>> SINGLE_EVENTS = new HashSet<>(6);
+    private static final Set<Class<? extends Event>> SINGLE_EVENTS = new HashSet<>(10);
     private static final Set<Class<? extends Event>> BULK_EVENTS = new HashSet<>(3);
 
     static {
@@ -41,8 +44,11 @@ public class HawkbitEventProvider implements UIEventProvider {
         SINGLE_EVENTS.add(RolloutGroupChangeEvent.class);
         SINGLE_EVENTS.add(RolloutChangeEvent.class);
         SINGLE_EVENTS.add(TargetTagUpdateEvent.class);
+        SINGLE_EVENTS.add(TargetTagBulkAssignmentEvent.class);
+        SINGLE_EVENTS.add(DistributionSetTagBulkAssignmentEvent.class);
 
         BULK_EVENTS.add(TargetCreatedEvent.class);
+        BULK_EVENTS.add(TargetCreatedBulkEvent.class);
         BULK_EVENTS.add(TargetInfoUpdateEvent.class);
         BULK_EVENTS.add(TargetDeletedEvent.class);
     }
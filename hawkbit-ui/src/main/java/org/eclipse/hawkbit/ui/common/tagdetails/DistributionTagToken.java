@@ -15,6 +15,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagAssigmentResultEvent;
+import org.eclipse.hawkbit.eventbus.event.DistributionSetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagCreatedBulkEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.DistributionSetTagUpdateEvent;
@@ -166,6 +167,14 @@ public class DistributionTagToken extends AbstractTagToken<DistributionSet> {
 
     }
 
+    @EventBusListenerMethod(scope = EventScope.SESSION)
+    void onDistributionSetTagBulkAssignmentEvent(final DistributionSetTagBulkAssignmentEvent event) {
+        if (selectedEntity != null && event.isInRange(selectedEntity.getId())) {
+            selectedEntity = distributionSetManagement.findDistributionSetByIdWithDetails(selectedEntity.getId());
+            displayAlreadyAssignedTags();
+        }
+    }
+
     protected boolean isAssign(final DistributionSetTagAssignmentResult assignmentResult) {
         if (assignmentResult.getAssigned() > 0) {
             final List<Long> assignedDsNames = assignmentResult.getAssignedEntity().stream().map(t -> t.getId())
@@ -15,6 +15,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.eventbus.event.TargetTagAssigmentResultEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetTagBulkAssignmentEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetTagUpdateEvent;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -146,6 +147,14 @@ public class TargetTagToken extends AbstractTargetTagToken<Target> {
 
     }
 
+    @EventBusListenerMethod(scope = EventScope.SESSION)
+    void onTargetTagBulkAssignmentEvent(final TargetTagBulkAssignmentEvent event) {
+        if (selectedEntity != null && event.isInRange(selectedEntity.getId())) {
+            selectedEntity = targetManagement.findTargetByControllerIDWithDetails(selectedEntity.getControllerId());
+            displayAlreadyAssignedTags();
+        }
+    }
+
     protected boolean isAssign(final TargetTagAssignmentResult assignmentResult) {
         if (assignmentResult.getAssigned() > 0) {
             final List<String> assignedTargetNames = assignmentResult.getAssignedEntity().stream()
@@ -19,18 +19,15 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.DistributionSetManagement;
 import org.eclipse.hawkbit.repository.TagManagement;
-import org.eclipse.hawkbit.repository.TargetManagement;
-import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
 import org.eclipse.hawkbit.repository.model.DistributionSetIdName;
-import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetImportProgress;
 import org.eclipse.hawkbit.ui.common.tagdetails.AbstractTagToken.TagData;
 import org.eclipse.hawkbit.ui.management.event.BulkUploadValidationMessageEvent;
 import org.eclipse.hawkbit.ui.management.event.TargetTableEvent;
@@ -70,13 +67,12 @@ public class BulkUploadHandler extends CustomComponent
     private static final long serialVersionUID = -1273494705754674501L;
     private static final Logger LOG = LoggerFactory.getLogger(BulkUploadHandler.class);
 
-    private final transient TargetManagement targetManagement;
+    private final transient TargetImportManagement targetImportManagement;
     private final transient TagManagement tagManagement;
 
     private final ComboBox comboBox;
     private final TextArea descTextArea;
     private final I18N i18n;
-    private final transient DeploymentManagement deploymentManagement;
     private final transient DistributionSetManagement distributionSetManagement;
 
     private final UINotification uINotification;
@@ -89,8 +85,6 @@ public class BulkUploadHandler extends CustomComponent
     private final TargetBulkTokenTags targetBulkTokenTags;
 
     private final Label targetsCountLabel;
-    private long failedTargetCount = 0;
-    private long successfullTargetCount = 0;
 
     private final transient Executor executor;
     private transient EventBus.SessionEventBus eventBus;
@@ -100,22 +94,20 @@ public class BulkUploadHandler extends CustomComponent
     /**
      *
      * @param targetBulkUpdateWindowLayout
-     * @param targetManagement
+     * @param targetImportManagement
      * @param managementUIState
-     * @param deploymentManagement
      * @param uINotification
      * @param i18n
      */
     public BulkUploadHandler(final TargetBulkUpdateWindowLayout targetBulkUpdateWindowLayout,
-            final TargetManagement targetManagement, final ManagementUIState managementUIState,
-            final DeploymentManagement deploymentManagement, final UINotification uINotification, final I18N i18n) {
+            final TargetImportManagement targetImportManagement, final ManagementUIState managementUIState,
+            final UINotification uINotification, final I18N i18n) {
         this.targetBulkUpdateWindowLayout = targetBulkUpdateWindowLayout;
         this.comboBox = targetBulkUpdateWindowLayout.getDsNamecomboBox();
         this.descTextArea = targetBulkUpdateWindowLayout.getDescTextArea();
-        this.targetManagement = targetManagement;
+        this.targetImportManagement = targetImportManagement;
         this.progressBar = targetBulkUpdateWindowLayout.getProgressBar();
         this.managementUIState = managementUIState;
-        this.deploymentManagement = deploymentManagement;
         this.uINotification = uINotification;
         this.targetsCountLabel = targetBulkUpdateWindowLayout.getTargetsCountLabel();
         this.targetBulkTokenTags = targetBulkUpdateWindowLayout.getTargetBulkTokenTags();
@@ -198,11 +190,9 @@ public class BulkUploadHandler extends CustomComponent
         }
 
         private void readFileStream(final InputStream tempStream) {
-            String line;
             try (BufferedReader reader = new BufferedReader(
                     new InputStreamReader(tempStream, Charset.defaultCharset()))) {
                 LOG.info("Bulk file upload started");
-                long innerCounter = 0;
                 final double totalFileSize = getTotalNumberOfLines();
 
                 /**
@@ -211,11 +201,18 @@ public class BulkUploadHandler extends CustomComponent
                  * below event.
                  */
                 eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_PROCESS_STARTED));
-                while ((line = reader.readLine()) != null) {
-                    innerCounter++;
-                    readEachLine(line, innerCounter, totalFileSize);
-                }
-                doAssignments();
+
+                final String dsAssignmentFailedMsg = ifDsSelected() && !isDsAvailable()
+                        ? i18n.get("message.bulk.upload.assignment.failed") : null;
+                final List<Long> tagIds = new ArrayList<>();
+                final String tagAssignmentFailedMsg = ifTagsSelected() ? collectAvailableTags(tagIds) : null;
+                final Long dsId = ifDsSelected() && dsAssignmentFailedMsg == null
+                        ? ((DistributionSetIdName) comboBox.getValue()).getId() : null;
+
+                targetImportManagement.importTargets(reader,
+                        HawkbitCommonUtil.trimAndNullIfEmpty(descTextArea.getValue()), dsId, tagIds,
+                        progress -> updateProgress(progress, totalFileSize));
+                displayValidationMessage(new StringBuilder(), dsAssignmentFailedMsg, tagAssignmentFailedMsg);
                 eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_UPLOAD_COMPLETED));
 
                 // Clearing after assignments are done
@@ -223,7 +220,6 @@ public class BulkUploadHandler extends CustomComponent
             } catch (final IOException e) {
                 LOG.error("Error reading file {}", tempFile.getName(), e);
             } finally {
-                resetCounts();
                 deleteFile();
             }
         }
@@ -245,11 +241,6 @@ public class BulkUploadHandler extends CustomComponent
             return totalFileSize;
         }
 
-        private void resetCounts() {
-            successfullTargetCount = 0;
-            failedTargetCount = 0;
-        }
-
         private void deleteFile() {
             if (tempFile.exists()) {
                 final boolean isDeleted = tempFile.delete();
@@ -260,68 +251,33 @@ public class BulkUploadHandler extends CustomComponent
             tempFile = null;
         }
 
-        private void readEachLine(final String line, final double innerCounter, final double totalFileSize) {
-            final String csvDelimiter = ",";
-            final String[] targets = line.split(csvDelimiter);
-            if (targets.length == 2) {
-                final String controllerId = targets[0];
-                final String targetName = targets[1];
-                addNewTarget(controllerId, targetName);
-            } else {
-                failedTargetCount++;
-            }
-            final float current = managementUIState.getTargetTableFilters().getBulkUpload()
-                    .getProgressBarCurrentValue();
-            final float next = (float) (innerCounter / totalFileSize);
-            if (Math.abs(next - 0.1) < 0.00001 || current - next >= 0 || next - current >= 0.05
-                    || Math.abs(next - 1) < 0.00001) {
-                managementUIState.getTargetTableFilters().getBulkUpload().setProgressBarCurrentValue(next);
-                managementUIState.getTargetTableFilters().getBulkUpload()
-                        .setSucessfulUploadCount(successfullTargetCount);
-                managementUIState.getTargetTableFilters().getBulkUpload().setFailedUploadCount(failedTargetCount);
-                eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_TARGET_CREATED));
-            }
-        }
-
-        private void doAssignments() {
-            final StringBuilder errorMessage = new StringBuilder();
-            String dsAssignmentFailedMsg = null;
-            String tagAssignmentFailedMsg = null;
-            if (ifTargetsCreatedSuccessfully()) {
-                if (ifTagsSelected()) {
-                    tagAssignmentFailedMsg = tagAssignment();
-                }
-                if (ifDsSelected()) {
-                    dsAssignmentFailedMsg = saveAllAssignments();
-                }
-            }
-            displayValidationMessage(errorMessage, dsAssignmentFailedMsg, tagAssignmentFailedMsg);
+        private void updateProgress(final TargetImportProgress progress, final double totalFileSize) {
+            final TargetBulkUpload targetBulkUpload = managementUIState.getTargetTableFilters().getBulkUpload();
+            targetBulkUpload.setProgressBarCurrentValue(
+                    totalFileSize > 0 ? (float) Math.min(1, progress.getProcessedLines() / totalFileSize) : 1);
+            targetBulkUpload.setSucessfulUploadCount(progress.getCreatedTargets());
+            targetBulkUpload.setFailedUploadCount(progress.getFailedLines());
+            eventBus.publish(this, new TargetTableEvent(TargetComponentEvent.BULK_TARGET_CREATED));
         }
 
-        private String saveAllAssignments() {
-            final ActionType actionType = ActionType.FORCED;
-            final long forcedTimeStamp = new Date().getTime();
-            final TargetBulkUpload targetBulkUpload = managementUIState.getTargetTableFilters().getBulkUpload();
-            final List<String> targetsList = targetBulkUpload.getTargetsCreated();
+        private boolean isDsAvailable() {
             final DistributionSetIdName dsSelected = (DistributionSetIdName) comboBox.getValue();
-            if (distributionSetManagement.findDistributionSetById(dsSelected.getId()) == null) {
-                return i18n.get("message.bulk.upload.assignment.failed");
-            }
-            deploymentManagement.assignDistributionSet(targetBulkUpload.getDsNameAndVersion().getId(), actionType,
-                    forcedTimeStamp, targetsList.toArray(new String[targetsList.size()]));
-            return null;
+            return distributionSetManagement.findDistributionSetById(dsSelected.getId()) != null;
         }
 
-        private String tagAssignment() {
+        /**
+         * Collects the IDs of the selected tags which still exist.
+         *
+         * @return the message about deleted tags or {@code null}
+         */
+        private String collectAvailableTags(final List<Long> tagIds) {
             final Map<Long, TagData> tokensSelected = targetBulkTokenTags.getTokensAdded();
             final List<String> deletedTags = new ArrayList<>();
             for (final TagData tagData : tokensSelected.values()) {
                 if (tagManagement.findTargetTagById(tagData.getId()) == null) {
                     deletedTags.add(tagData.getName());
                 } else {
-                    targetManagement.toggleTagAssignment(
-                            managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated(),
-                            tagData.getName());
+                    tagIds.add(tagData.getId());
                 }
             }
             if (deletedTags.isEmpty()) {
@@ -344,13 +300,6 @@ public class BulkUploadHandler extends CustomComponent
             return comboBox.getValue() != null;
         }
 
-        /**
-         * @return
-         */
-        private boolean ifTargetsCreatedSuccessfully() {
-            return !managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated().isEmpty();
-        }
-
         /**
          * @param errorMessage
          * @param dsAssignmentFailedMsg
@@ -373,51 +322,6 @@ public class BulkUploadHandler extends CustomComponent
         }
     }
 
-    private void addNewTarget(final String controllerId, final String name) {
-        final String newControllerId = HawkbitCommonUtil.trimAndNullIfEmpty(controllerId);
-        if (mandatoryCheck(newControllerId) && duplicateCheck(newControllerId)) {
-            final String newName = HawkbitCommonUtil.trimAndNullIfEmpty(name);
-            final String newDesc = HawkbitCommonUtil.trimAndNullIfEmpty(descTextArea.getValue());
-
-            /* create new target entity */
-            final Target newTarget = new Target(newControllerId);
-            setTargetValues(newTarget, newName, newDesc);
-            targetManagement.createTarget(newTarget);
-            managementUIState.getTargetTableFilters().getBulkUpload().getTargetsCreated().add(newControllerId);
-            successfullTargetCount++;
-        }
-
-    }
-
-    private void setTargetValues(final Target target, final String name, final String description) {
-        if (null == name) {
-            target.setName(target.getControllerId());
-        } else {
-            target.setName(name);
-        }
-        target.setName(name == null ? target.getControllerId() : name);
-        target.setDescription(description);
-    }
-
-    private boolean mandatoryCheck(final String newControlllerId) {
-        if (newControlllerId == null) {
-            failedTargetCount++;
-            return false;
-        } else {
-            return true;
-        }
-    }
-
-    private boolean duplicateCheck(final String newControlllerId) {
-        final Target existingTarget = targetManagement.findTargetByControllerID(newControlllerId.trim());
-        if (existingTarget != null) {
-            failedTargetCount++;
-            return false;
-        } else {
-            return true;
-        }
-    }
-
     private static class NullOutputStream extends OutputStream {
         /**
          * null output stream.
@@ -15,8 +15,7 @@ import java.util.Map;
 
 import javax.annotation.PreDestroy;
 
-import org.eclipse.hawkbit.repository.DeploymentManagement;
-import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.TargetImportManagement;
 import org.eclipse.hawkbit.repository.model.DistributionSetIdName;
 import org.eclipse.hawkbit.ui.UiProperties;
 import org.eclipse.hawkbit.ui.components.SPUIComponentProvider;
@@ -71,7 +70,7 @@ public class TargetBulkUpdateWindowLayout extends CustomComponent {
     private I18N i18n;
 
     @Autowired
-    private transient TargetManagement targetManagement;
+    private transient TargetImportManagement targetImportManagement;
 
     @Autowired
     private transient UINotification uINotification;
@@ -85,9 +84,6 @@ public class TargetBulkUpdateWindowLayout extends CustomComponent {
     @Autowired
     private ManagementUIState managementUIState;
 
-    @Autowired
-    private transient DeploymentManagement deploymentManagement;
-
     @Autowired
     private transient UiProperties uiproperties;
 
@@ -177,8 +173,8 @@ public class TargetBulkUpdateWindowLayout extends CustomComponent {
     }
 
     private BulkUploadHandler getBulkUploadHandler() {
-        final BulkUploadHandler bulkUploadHandler = new BulkUploadHandler(this, targetManagement, managementUIState,
-                deploymentManagement, uINotification, i18n);
+        final BulkUploadHandler bulkUploadHandler = new BulkUploadHandler(this, targetImportManagement,
+                managementUIState, uINotification, i18n);
         bulkUploadHandler.buildLayout();
         bulkUploadHandler.addStyleName(SPUIStyleDefinitions.BULK_UPLOAD_BUTTON);
         return bulkUploadHandler;
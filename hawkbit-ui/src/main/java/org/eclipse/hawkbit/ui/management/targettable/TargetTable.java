@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.eventbus.event.TargetCreatedBulkEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
 import org.eclipse.hawkbit.eventbus.event.TargetInfoUpdateEvent;
@@ -151,7 +152,7 @@ public class TargetTable extends AbstractTable<Target, TargetIdName> implements
     @EventBusListenerMethod(scope = EventScope.SESSION)
     public void onEvents(final List<?> events) {
         final Object firstEvent = events.get(0);
-        if (TargetCreatedEvent.class.isInstance(firstEvent)) {
+        if (TargetCreatedEvent.class.isInstance(firstEvent) || TargetCreatedBulkEvent.class.isInstance(firstEvent)) {
             onTargetCreatedEvents();
         } else if (TargetInfoUpdateEvent.class.isInstance(firstEvent)) {
             onTargetInfoUpdateEvents((List<TargetInfoUpdateEvent>) events);
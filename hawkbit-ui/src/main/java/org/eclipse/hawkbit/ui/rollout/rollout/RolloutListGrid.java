@@ -16,6 +16,7 @@ import static org.eclipse.hawkbit.ui.utils.HawkbitCommonUtil.HTML_UL_OPEN_TAG;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -24,7 +25,6 @@ import java.util.Set;
 import org.eclipse.hawkbit.eventbus.event.RolloutChangeEvent;
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.SpPermissionChecker;
-import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
@@ -108,8 +108,13 @@ public class RolloutListGrid extends AbstractGrid {
     @Autowired
     private transient SpPermissionChecker permissionChecker;
 
+    @Autowired
+    private transient RolloutStatusSnapshots rolloutStatusSnapshots;
+
     private transient Map<RolloutStatus, StatusFontIcon> statusIconMap = new EnumMap<>(RolloutStatus.class);
 
+    private final Map<Long, RolloutStatusSnapshot> appliedSnapshots = new HashMap<>();
+
     /**
      * Handles the RolloutEvent to refresh Grid.
      *
@@ -129,7 +134,10 @@ public class RolloutListGrid extends AbstractGrid {
     }
 
     /**
-     * Handles the RolloutChangeEvent to refresh the item in the grid.
+     * Handles the RolloutChangeEvent to refresh the item in the grid. The
+     * detailed status is taken from the node wide {@link RolloutStatusSnapshots}
+     * and only applied if the rollout is visible and the status has changed
+     * since the last event.
      * 
      * @param rolloutChangeEvent
      *            the event which contains the rollout which has been changed
@@ -140,25 +148,24 @@ public class RolloutListGrid extends AbstractGrid {
         if (!rolloutUIState.isShowRollOuts()) {
             return;
         }
-        final Rollout rollout = rolloutManagement.findRolloutWithDetailedStatus(rolloutChangeEvent.getRolloutId());
-        final TotalTargetCountStatus totalTargetCountStatus = rollout.getTotalTargetCountStatus();
         final LazyQueryContainer rolloutContainer = (LazyQueryContainer) getContainerDataSource();
         final Item item = rolloutContainer.getItem(rolloutChangeEvent.getRolloutId());
         if (item == null) {
             return;
         }
-        item.getItemProperty(SPUILabelDefinitions.VAR_STATUS).setValue(rollout.getStatus());
-        item.getItemProperty(SPUILabelDefinitions.VAR_TOTAL_TARGETS_COUNT_STATUS).setValue(totalTargetCountStatus);
+        final RolloutStatusSnapshot snapshot = rolloutStatusSnapshots.getSnapshot(rolloutChangeEvent);
+        if (snapshot == null || snapshot.equals(appliedSnapshots.put(rolloutChangeEvent.getRolloutId(), snapshot))) {
+            return;
+        }
+        item.getItemProperty(SPUILabelDefinitions.VAR_STATUS).setValue(snapshot.getStatus());
+        item.getItemProperty(SPUILabelDefinitions.VAR_TOTAL_TARGETS_COUNT_STATUS)
+                .setValue(snapshot.getTotalTargetCountStatus());
         final Long groupCount = (Long) item.getItemProperty(SPUILabelDefinitions.VAR_NUMBER_OF_GROUPS).getValue();
-        final int groupsCreated = rollout.getRolloutGroupsCreated();
-        if (groupsCreated != 0) {
-            item.getItemProperty(SPUILabelDefinitions.VAR_NUMBER_OF_GROUPS).setValue(Long.valueOf(groupsCreated));
-        } else if (rollout.getRolloutGroups() != null && groupCount != rollout.getRolloutGroups().size()) {
-            item.getItemProperty(SPUILabelDefinitions.VAR_NUMBER_OF_GROUPS)
-                    .setValue(Long.valueOf(rollout.getRolloutGroups().size()));
+        if (snapshot.getGroupCount() != null && !snapshot.getGroupCount().equals(groupCount)) {
+            item.getItemProperty(SPUILabelDefinitions.VAR_NUMBER_OF_GROUPS).setValue(snapshot.getGroupCount());
         }
         item.getItemProperty(ROLLOUT_RENDERER_DATA)
-                .setValue(new RolloutRendererData(rollout.getName(), rollout.getStatus().toString()));
+                .setValue(new RolloutRendererData(snapshot.getName(), snapshot.getStatus().toString()));
 
     }
 
@@ -445,6 +452,7 @@ public class RolloutListGrid extends AbstractGrid {
     }
 
     private void refreshGrid() {
+        appliedSnapshots.clear();
         ((LazyQueryContainer) getContainerDataSource()).refresh();
     }
 
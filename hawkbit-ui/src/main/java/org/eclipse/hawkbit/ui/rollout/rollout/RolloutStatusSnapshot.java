@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.rollout.rollout;
+
+import java.util.Objects;
+
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
+
+/**
+ * The detailed status of a {@link Rollout} at a point in time as shown in the
+ * {@link RolloutListGrid}. Snapshots are shared by all sessions of a node, so
+ * they must not be modified.
+ *
+ */
+public final class RolloutStatusSnapshot {
+
+    private final String name;
+    private final RolloutStatus status;
+    private final TotalTargetCountStatus totalTargetCountStatus;
+    private final Long groupCount;
+
+    RolloutStatusSnapshot(final Rollout rollout) {
+        this.name = rollout.getName();
+        this.status = rollout.getStatus();
+        this.totalTargetCountStatus = rollout.getTotalTargetCountStatus();
+        final int groupsCreated = rollout.getRolloutGroupsCreated();
+        if (groupsCreated != 0) {
+            this.groupCount = Long.valueOf(groupsCreated);
+        } else if (rollout.getRolloutGroups() != null) {
+            this.groupCount = Long.valueOf(rollout.getRolloutGroups().size());
+        } else {
+            this.groupCount = null;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RolloutStatus getStatus() {
+        return status;
+    }
+
+    public TotalTargetCountStatus getTotalTargetCountStatus() {
+        return totalTargetCountStatus;
+    }
+
+    /**
+     * @return number of groups or {@code null} if the groups are not known
+     */
+    public Long getGroupCount() {
+        return groupCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, status, totalTargetCountStatus.getStatusTotalCountMap(), groupCount);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RolloutStatusSnapshot)) {
+            return false;
+        }
+        final RolloutStatusSnapshot other = (RolloutStatusSnapshot) obj;
+        return Objects.equals(name, other.name) && status == other.status
+                && Objects.equals(groupCount, other.groupCount)
+                && totalTargetCountStatus.getStatusTotalCountMap()
+                        .equals(other.totalTargetCountStatus.getStatusTotalCountMap());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.rollout.rollout;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.eventbus.event.RolloutChangeEvent;
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Node wide snapshots of the detailed status of the {@link Rollout}s shown in
+ * the {@link RolloutListGrid}s of all sessions. The detailed status is
+ * aggregated over all actions of a rollout, so it is computed at most once per
+ * rollout and {@link RolloutChangeEvent}, no matter how many sessions receive
+ * the event. Sessions which request a snapshot while it is computed wait for
+ * the result.
+ *
+ * Every snapshot remembers the revision of the event it has been computed
+ * for. An event with a newer revision computes a new snapshot, so a change
+ * which is published shortly after the last snapshot is not hidden by it.
+ */
+@Component
+public class RolloutStatusSnapshots {
+
+    private static final int MAX_ENTRIES = 1_000;
+    private static final long SNAPSHOT_EXPIRY_MINUTES = 10;
+
+    @Autowired
+    private RolloutManagement rolloutManagement;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    private final Cache<SnapshotKey, RevisionedSnapshot> snapshots = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES).expireAfterWrite(SNAPSHOT_EXPIRY_MINUTES, TimeUnit.MINUTES).build();
+
+    /**
+     * Returns the snapshot of the rollout of the event, which is computed if
+     * the last snapshot has been computed for an older event.
+     *
+     * @param event
+     *            the change event of the rollout
+     * @return the snapshot or {@code null} if the rollout does not exist
+     */
+    public RolloutStatusSnapshot getSnapshot(final RolloutChangeEvent event) {
+        final SnapshotKey key = new SnapshotKey(tenantAware.getCurrentTenant(), event.getRolloutId());
+        try {
+            RevisionedSnapshot snapshot = snapshots.getIfPresent(key);
+            while (snapshot == null || snapshot.revision < event.getRevision()) {
+                if (snapshot != null) {
+                    // only the first session removes the outdated snapshot,
+                    // the others wait for the snapshot it computes
+                    snapshots.asMap().remove(key, snapshot);
+                }
+                snapshot = snapshots.get(key, () -> new RevisionedSnapshot(event.getRevision(), Optional
+                        .ofNullable(rolloutManagement.findRolloutWithDetailedStatus(event.getRolloutId()))
+                        .map(RolloutStatusSnapshot::new).orElse(null)));
+            }
+            return snapshot.snapshot;
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private static final class RevisionedSnapshot {
+        private final long revision;
+        private final RolloutStatusSnapshot snapshot;
+
+        private RevisionedSnapshot(final long revision, final RolloutStatusSnapshot snapshot) {
+            this.revision = revision;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class SnapshotKey {
+        private final String tenant;
+        private final Long rolloutId;
+
+        private SnapshotKey(final String tenant, final Long rolloutId) {
+            this.tenant = tenant.toUpperCase();
+            this.rolloutId = rolloutId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, rolloutId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SnapshotKey)) {
+                return false;
+            }
+            final SnapshotKey other = (SnapshotKey) obj;
+            return tenant.equals(other.tenant) && rolloutId.equals(other.rolloutId);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.rollout.rollout;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.hawkbit.eventbus.event.RolloutChangeEvent;
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.annotation.Description;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Management UI")
+@Stories("Rollout Status Snapshots")
+@RunWith(MockitoJUnitRunner.class)
+public class RolloutStatusSnapshotsTest {
+
+    private static final Long ROLLOUT_ID = 1L;
+
+    @Mock
+    private RolloutManagement rolloutManagement;
+
+    @Mock
+    private TenantAware tenantAware;
+
+    @InjectMocks
+    private RolloutStatusSnapshots snapshots;
+
+    @Before
+    public void setUp() {
+        when(tenantAware.getCurrentTenant()).thenReturn("tenant");
+    }
+
+    @Test
+    @Description("The snapshot is computed once per event, no matter how many sessions request it.")
+    public void snapshotIsComputedOncePerEvent() {
+        when(rolloutManagement.findRolloutWithDetailedStatus(ROLLOUT_ID)).thenReturn(rollout(RolloutStatus.RUNNING));
+
+        final RolloutChangeEvent event = new RolloutChangeEvent(1, "tenant", ROLLOUT_ID);
+        final RolloutStatusSnapshot first = snapshots.getSnapshot(event);
+        final RolloutStatusSnapshot second = snapshots.getSnapshot(event);
+
+        assertThat(first.getStatus()).isEqualTo(RolloutStatus.RUNNING);
+        assertThat(second).isSameAs(first);
+        verify(rolloutManagement, times(1)).findRolloutWithDetailedStatus(ROLLOUT_ID);
+    }
+
+    @Test
+    @Description("A newer event computes a new snapshot, even if the last snapshot has just been computed.")
+    public void newerEventIsNotHiddenByLastSnapshot() {
+        when(rolloutManagement.findRolloutWithDetailedStatus(ROLLOUT_ID)).thenReturn(rollout(RolloutStatus.RUNNING),
+                rollout(RolloutStatus.FINISHED));
+
+        assertThat(snapshots.getSnapshot(new RolloutChangeEvent(1, "tenant", ROLLOUT_ID)).getStatus())
+                .isEqualTo(RolloutStatus.RUNNING);
+        assertThat(snapshots.getSnapshot(new RolloutChangeEvent(2, "tenant", ROLLOUT_ID)).getStatus())
+                .isEqualTo(RolloutStatus.FINISHED);
+
+        // a late session of the older event gets the newer snapshot
+        assertThat(snapshots.getSnapshot(new RolloutChangeEvent(1, "tenant", ROLLOUT_ID)).getStatus())
+                .isEqualTo(RolloutStatus.FINISHED);
+        verify(rolloutManagement, times(2)).findRolloutWithDetailedStatus(ROLLOUT_ID);
+    }
+
+    @Test
+    @Description("A deleted rollout has no snapshot.")
+    public void deletedRolloutHasNoSnapshot() {
+        assertThat(snapshots.getSnapshot(new RolloutChangeEvent(1, "tenant", ROLLOUT_ID))).isNull();
+    }
+
+    private static Rollout rollout(final RolloutStatus status) {
+        final Rollout rollout = new Rollout();
+        rollout.setName("rollout");
+        rollout.setStatus(status);
+        return rollout;
+    }
+}